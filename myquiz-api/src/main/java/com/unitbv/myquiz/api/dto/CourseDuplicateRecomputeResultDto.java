@@ -48,6 +48,22 @@ public class CourseDuplicateRecomputeResultDto {
     @Schema(description = "Number of duplicate-related validation errors created")
     private int duplicateErrorsCreated;
 
+    @JsonProperty("similarityChecks")
+    @Schema(description = "Number of text pairs checked by the similarity filters of the strategy")
+    private long similarityChecks;
+
+    @JsonProperty("prunedByLength")
+    @Schema(description = "Number of checked pairs rejected by the length filter")
+    private long prunedByLength;
+
+    @JsonProperty("prunedByBag")
+    @Schema(description = "Number of checked pairs rejected by the character bag filter")
+    private long prunedByBag;
+
+    @JsonProperty("prunedByQGram")
+    @Schema(description = "Number of checked pairs rejected by the q-gram count filter")
+    private long prunedByQGram;
+
     @JsonProperty("startedAt")
     @Schema(description = "Timestamp when recomputation started")
     private OffsetDateTime startedAt;
@@ -0,0 +1,90 @@
+package com.unitbv.myquiz.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unitbv.myquiz.api.types.DuplicateRecomputeJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "State of a duplicate recompute of all courses, one job per course")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = {"batchId", "status", "strategy", "completedCourses", "totalCourses", "processedQuestions", "totalQuestions"})
+public class DuplicateRecomputeBatchDto {
+
+    @JsonProperty("batchId")
+    @Schema(description = "Identifier used to poll or cancel the recompute")
+    private String batchId;
+
+    @JsonProperty("status")
+    @Schema(description = "QUEUED until a course starts, RUNNING while courses are left, then COMPLETED, CANCELLED or FAILED "
+            + "when a course failed", example = "RUNNING")
+    private DuplicateRecomputeJobStatus status;
+
+    @JsonProperty("strategy")
+    @Schema(description = "Similarity strategy used by every course")
+    private String strategy;
+
+    @JsonProperty("concurrency")
+    @Schema(description = "Number of courses recomputed at the same time")
+    private int concurrency;
+
+    @JsonProperty("pairParallelism")
+    @Schema(description = "Most fork/join workers comparing question pairs for one course")
+    private int pairParallelism;
+
+    @JsonProperty("totalCourses")
+    @Schema(description = "Number of courses with questions")
+    private int totalCourses;
+
+    @JsonProperty("runningCourses")
+    @Schema(description = "Number of courses being recomputed")
+    private int runningCourses;
+
+    @JsonProperty("completedCourses")
+    @Schema(description = "Number of courses recomputed successfully")
+    private int completedCourses;
+
+    @JsonProperty("failedCourses")
+    @Schema(description = "Number of courses whose recompute failed")
+    private int failedCourses;
+
+    @JsonProperty("cancelledCourses")
+    @Schema(description = "Number of courses cancelled before or while running")
+    private int cancelledCourses;
+
+    @JsonProperty("processedQuestions")
+    @Schema(description = "Number of questions checked so far over all courses")
+    private int processedQuestions;
+
+    @JsonProperty("totalQuestions")
+    @Schema(description = "Number of questions to check over all courses")
+    private int totalQuestions;
+
+    @JsonProperty("cancelRequested")
+    @Schema(description = "Whether cancellation was requested; queued courses never start, running ones stop before their next batch")
+    private boolean cancelRequested;
+
+    @JsonProperty("submittedAt")
+    @Schema(description = "Timestamp when the recompute was submitted")
+    private OffsetDateTime submittedAt;
+
+    @JsonProperty("startedAt")
+    @Schema(description = "Timestamp when the first course started")
+    private OffsetDateTime startedAt;
+
+    @JsonProperty("endedAt")
+    @Schema(description = "Timestamp when the last course finished")
+    private OffsetDateTime endedAt;
+
+    @JsonProperty("jobs")
+    @Schema(description = "Jobs of the courses, largest course first")
+    private List<DuplicateRecomputeJobDto> jobs = new ArrayList<>();
+}
@@ -41,7 +41,7 @@ public class DuplicateRecomputeHistoryDto {
     private Long authorId;
 
     @JsonProperty("strategy")
-    @Schema(description = "Algorithm used for duplicate detection (e.g. string-equality, levenshtein, jaro-winkler)")
+    @Schema(description = "Algorithm used for duplicate detection (e.g. string-equality, levenshtein, jaro-winkler, myers)")
     private String strategy;
 
     @JsonProperty("totalQuestions")
@@ -80,6 +80,14 @@ public class DuplicateRecomputeHistoryDto {
     @Schema(description = "Duration of the recomputation run in milliseconds")
     private long durationMs;
 
+    @JsonProperty("batchId")
+    @Schema(description = "ID of the all-courses recompute this run belonged to (null = single recompute)")
+    private String batchId;
+
+    @JsonProperty("queueWaitMs")
+    @Schema(description = "Time the course waited for a free slot of its all-courses recompute, in milliseconds")
+    private Long queueWaitMs;
+
     @JsonProperty("savedAt")
     @Schema(description = "Timestamp when this history entry was saved")
     private OffsetDateTime savedAt;
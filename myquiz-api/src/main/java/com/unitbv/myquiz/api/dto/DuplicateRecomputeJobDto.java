@@ -0,0 +1,99 @@
+package com.unitbv.myquiz.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.unitbv.myquiz.api.types.DuplicateRecomputeJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+
+@Schema(description = "State of an asynchronous duplicate recompute job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(of = {"jobId", "status", "courseName", "strategy", "processedQuestions", "totalQuestions"})
+public class DuplicateRecomputeJobDto {
+
+    @JsonProperty("jobId")
+    @Schema(description = "Identifier used to poll or cancel the job")
+    private String jobId;
+
+    @JsonProperty("status")
+    @Schema(description = "Current job status", example = "RUNNING")
+    private DuplicateRecomputeJobStatus status;
+
+    @JsonProperty("batchId")
+    @Schema(description = "ID of the all-courses recompute the job belongs to, if any")
+    private String batchId;
+
+    @JsonProperty("courseId")
+    @Schema(description = "ID of the course being recomputed")
+    private Long courseId;
+
+    @JsonProperty("courseName")
+    @Schema(description = "Name of the course being recomputed")
+    private String courseName;
+
+    @JsonProperty("questionBankId")
+    @Schema(description = "Question bank scope, if the job is limited to one question bank")
+    private Long questionBankId;
+
+    @JsonProperty("authorId")
+    @Schema(description = "Author scope, if the job is limited to one author of a question bank")
+    private Long authorId;
+
+    @JsonProperty("strategy")
+    @Schema(description = "Similarity strategy used by the job")
+    private String strategy;
+
+    @JsonProperty("threshold")
+    @Schema(description = "Similarity threshold replacing the strategy's own, if the job re-thresholds a course")
+    private Double threshold;
+
+    @JsonProperty("stage")
+    @Schema(description = "Question type currently being processed", example = "MULTICHOICE")
+    private String stage;
+
+    @JsonProperty("processedQuestions")
+    @Schema(description = "Number of questions checked so far")
+    private int processedQuestions;
+
+    @JsonProperty("totalQuestions")
+    @Schema(description = "Number of questions the job has to check")
+    private int totalQuestions;
+
+    @JsonProperty("committedBatches")
+    @Schema(description = "Number of batches whose results are already committed")
+    private int committedBatches;
+
+    @JsonProperty("cancelRequested")
+    @Schema(description = "Whether cancellation was requested; the job stops before its next batch")
+    private boolean cancelRequested;
+
+    @JsonProperty("submittedAt")
+    @Schema(description = "Timestamp when the job was submitted")
+    private OffsetDateTime submittedAt;
+
+    @JsonProperty("startedAt")
+    @Schema(description = "Timestamp when the job started running")
+    private OffsetDateTime startedAt;
+
+    @JsonProperty("endedAt")
+    @Schema(description = "Timestamp when the job finished, was cancelled or failed")
+    private OffsetDateTime endedAt;
+
+    @JsonProperty("errorMessage")
+    @Schema(description = "Failure reason for failed jobs")
+    private String errorMessage;
+
+    @JsonProperty("historyId")
+    @Schema(description = "ID of the recompute history entry recorded for a completed job")
+    private Long historyId;
+
+    @JsonProperty("result")
+    @Schema(description = "Recompute result, available once the job is completed")
+    private CourseDuplicateRecomputeResultDto result;
+}
@@ -0,0 +1,39 @@
+package com.unitbv.myquiz.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "DTO representing a group of questions that are transitively linked as duplicates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionDuplicateClusterDto {
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("course")
+    private String course;
+
+    @JsonProperty("canonicalQuestionId")
+    private Long canonicalQuestionId;
+
+    @JsonProperty("canonicalQuestionTitle")
+    private String canonicalQuestionTitle;
+
+    @JsonProperty("memberIds")
+    private List<Long> memberIds;
+
+    @JsonProperty("size")
+    private int size;
+
+    @JsonProperty("status")
+    private String status;
+}
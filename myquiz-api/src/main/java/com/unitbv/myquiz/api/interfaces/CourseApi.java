@@ -1,7 +1,7 @@
 package com.unitbv.myquiz.api.interfaces;
 
 import com.unitbv.myquiz.api.dto.CourseDto;
-import com.unitbv.myquiz.api.dto.CourseDuplicateRecomputeResultDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -55,8 +55,18 @@ public interface CourseApi {
     @GetMapping("/{id}/export-xml")
     ResponseEntity<byte[]> exportCourseXml(@Parameter(description = "Course ID", required = true) @PathVariable Long id);
 
-    @Operation(summary = "Recompute duplicates for course", description = "Clear and recompute duplicate links and duplicate-related errors for all questions in the selected course")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Duplicate recomputation completed"), @ApiResponse(responseCode = "404", description = "Course not found"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @Operation(summary = "Recompute duplicates for course", description = "Submit a background job that clears and recomputes duplicate links and duplicate-related errors for all questions in the selected course; poll the returned job for progress")
+    @ApiResponses(value = {@ApiResponse(responseCode = "202", description = "Duplicate recompute job submitted"), @ApiResponse(responseCode = "404", description = "Course not found"), @ApiResponse(responseCode = "500", description = "Internal server error")})
     @PostMapping("/{id}/recompute-duplicates")
-    ResponseEntity<CourseDuplicateRecomputeResultDto> recomputeCourseDuplicates(@Parameter(description = "Course ID", required = true) @PathVariable Long id);
+    ResponseEntity<DuplicateRecomputeJobDto> recomputeCourseDuplicates(@Parameter(description = "Course ID", required = true) @PathVariable Long id);
+
+    @Operation(summary = "Get duplicate recompute job", description = "Return status, progress and, once completed, the result of a duplicate recompute job")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Job found"), @ApiResponse(responseCode = "404", description = "Job not found")})
+    @GetMapping("/recompute-jobs/{jobId}")
+    ResponseEntity<DuplicateRecomputeJobDto> getRecomputeJob(@Parameter(description = "Job ID", required = true) @PathVariable String jobId);
+
+    @Operation(summary = "Cancel duplicate recompute job", description = "Request cancellation of a running job; it stops before its next batch and keeps the batches already committed")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Cancellation requested"), @ApiResponse(responseCode = "404", description = "Job not found")})
+    @PostMapping("/recompute-jobs/{jobId}/cancel")
+    ResponseEntity<DuplicateRecomputeJobDto> cancelRecomputeJob(@Parameter(description = "Job ID", required = true) @PathVariable String jobId);
 }
@@ -2,6 +2,7 @@ package com.unitbv.myquiz.api.interfaces;
 
 import com.unitbv.myquiz.api.dto.DuplicateUnlinkRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionDto;
+import com.unitbv.myquiz.api.dto.QuestionDuplicateDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterResponseDto;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
@@ -82,4 +83,10 @@ public interface QuestionApi {
     @GetMapping("/sample")
     ResponseEntity<QuestionDto> getSampleQuestion(@Parameter(description = "Question type", required = false) @RequestParam(value = "type", defaultValue = "MULTICHOICE") String type);
 
+    @Operation(summary = "Find similar questions", description = "Returns the existing questions of the draft's course most similar to a draft title, text and answers, best first")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Similar questions retrieved"), @ApiResponse(responseCode = "400", description = "Draft without course or content"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    @PostMapping(ControllerSettings.API_QUESTION_SIMILAR)
+    ResponseEntity<List<QuestionDuplicateDto>> findSimilarQuestions(@Parameter(description = "Draft question with course, type, title, text and answers; its id is excluded", required = true) @RequestBody QuestionDto draft,
+                                                                    @Parameter(description = "Maximum number of questions to return (at most 50)") @RequestParam(value = "limit", defaultValue = "10") int limit);
+
 }
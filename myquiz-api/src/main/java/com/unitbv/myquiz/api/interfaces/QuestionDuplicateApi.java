@@ -1,11 +1,17 @@
 package com.unitbv.myquiz.api.interfaces;
 
+import com.unitbv.myquiz.api.dto.QuestionDuplicateClusterDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 public interface QuestionDuplicateApi {
 
@@ -19,4 +25,28 @@ public interface QuestionDuplicateApi {
     )
     @PutMapping("/{id}/resolve")
     ResponseEntity<Void> resolveDuplicate(@PathVariable Long id);
+
+    @Operation(summary = "List duplicate clusters", description = "List the groups of transitively duplicated questions of a course, largest first")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "200", description = "Duplicate clusters retrieved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Course not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/clusters")
+    ResponseEntity<List<QuestionDuplicateClusterDto>> getDuplicateClusters(
+            @Parameter(description = "Course name", required = true) @RequestParam("course") String course,
+            @Parameter(description = "Cluster status (OPEN or RESOLVED)") @RequestParam(value = "status", required = false) String status);
+
+    @Operation(summary = "Resolve a duplicate cluster", description = "Mark a duplicate cluster and every duplicate link between its members as resolved")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(responseCode = "204", description = "Duplicate cluster marked as resolved successfully"),
+                    @ApiResponse(responseCode = "404", description = "Duplicate cluster not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PutMapping("/clusters/{id}/resolve")
+    ResponseEntity<Void> resolveDuplicateCluster(@PathVariable Long id);
 }
@@ -46,6 +46,10 @@ public class ControllerSettings {
     public static final String API_COURSES_CREATE_DEFAULTS_SUFFIX = "create-defaults";
     public static final String API_COURSES_RECOMPUTE_HISTORY_SUFFIX = "/recompute-history";
     public static final String API_COURSES_RECOMPUTE_WITH_STRATEGY_SUFFIX = "/recompute-with-strategy";
+    public static final String API_COURSES_RECOMPUTE_JOBS_SUFFIX = "/recompute-jobs";
+    public static final String API_COURSES_RECOMPUTE_JOB_CANCEL_SUFFIX = "/cancel";
+    public static final String API_COURSES_RECOMPUTE_ALL_SUFFIX = "/recompute-all";
+    public static final String API_COURSES_RECOMPUTE_BATCHES_SUFFIX = "/recompute-batches";
     public static final String API_COURSES_DUPLICATE_STATISTICS_SUFFIX = "/duplicate-statistics";
     public static final String API_COURSES_CLEAR_DUPLICATES_SUFFIX = "/clear-duplicates";
     public static final String API_DATA_EXPORT_SQL = "/data/export-sql";
@@ -82,6 +86,14 @@ public class ControllerSettings {
     public static final String MSG_COURSE_DELETED_SUCCESS = "Course deleted successfully";
     public static final String MSG_RECOMPUTE_COMPLETED = "Recompute completed.";
     public static final String MSG_RECOMPUTE_STARTED_PREFIX = "Recompute started: ";
+    public static final String MSG_RECOMPUTE_JOB_SUBMITTED_PREFIX = "Recompute job submitted: ";
+    public static final String MSG_RECOMPUTE_JOB_CANCEL_REQUESTED = "Cancellation requested. The job stops after its current batch.";
+    public static final String MSG_RECOMPUTE_JOB_NOT_FOUND = "Recompute job not found.";
+    public static final String MSG_RECOMPUTE_JOB_ALREADY_RUNNING = "A duplicate recompute is already running for this course.";
+    public static final String MSG_RECOMPUTE_BATCH_SUBMITTED_PREFIX = "Recompute of all courses submitted: ";
+    public static final String MSG_RECOMPUTE_BATCH_CANCEL_REQUESTED = "Cancellation requested. Queued courses will not start; running courses stop after their current batch.";
+    public static final String MSG_RECOMPUTE_BATCH_NOT_FOUND = "Recompute of all courses not found.";
+    public static final String MSG_RECOMPUTE_BATCH_ALREADY_RUNNING = "A duplicate recompute is already running for one of the courses.";
     public static final String MSG_COURSE_NOT_FOUND_RECOMPUTE = "Course not found for duplicate recompute.";
     public static final String MSG_COULD_NOT_RECOMPUTE_DUPLICATES = "Could not recompute duplicates. Please try again later.";
     public static final String MSG_COURSE_NOT_FOUND_EXPORT = "Course not found";
@@ -194,6 +206,7 @@ public class ControllerSettings {
     public static final String API_QUESTION_BANKS_DUPLICATES_REMOVE_BY_ID = "/{id:\\d+}/duplicates/remove";
     public static final String API_QUESTION_BANKS_DUPLICATES_REMOVE_ALL_BY_ID = "/{id:\\d+}/duplicates/remove-all";
     public static final String API_QUESTION_SAMPLE = "/sample";
+    public static final String API_QUESTION_SIMILAR = "/similar";
     public static final String API_QUESTION_DUPLICATES = "/duplicates";
     public static final String API_QUESTION_DUPLICATES_REMOVE = "/duplicates/remove";
     public static final String API_QUESTION_DUPLICATES_REMOVE_ALL = "/duplicates/remove-all";
@@ -341,6 +354,8 @@ public class ControllerSettings {
     public static final String API_ERRORS_FILTER = "/errors/filter";
     public static final String API_DUPLICATES = "/duplicates";
     public static final String API_DUPLICATES_RESOLVE_BY_ID = "/{id}/resolve";
+    public static final String API_DUPLICATES_CLUSTERS = "/clusters";
+    public static final String API_DUPLICATES_CLUSTERS_RESOLVE_BY_ID = "/clusters/{id}/resolve";
     public static final String ATTR_QUESTION_ERRORS = "questionErrors";
     public static final String ATTR_QUESTION_ERRORS_BY_AUTHOR = "questionErrorsByAuthor";
     public static final String ATTR_SELECTED_QUESTION_BANK_ID_ERRORS = "selectedQuestionBankIdErrors";
@@ -367,6 +382,8 @@ public class ControllerSettings {
     public static final String ATTR_QUESTION_BANK_AUTHORS = "questionBankAuthors";
     public static final String ATTR_RECOMPUTE_HISTORY = "recomputeHistory";
     public static final String ATTR_RECOMPUTE_RESULT = "recomputeResult";
+    public static final String ATTR_RECOMPUTE_JOB = "recomputeJob";
+    public static final String ATTR_RECOMPUTE_BATCH = "recomputeBatch";
     public static final String ATTR_CLEAR_RESULT = "clearResult";
     public static final String ATTR_PENDING_STRATEGY = "pendingStrategy";
     public static final String ATTR_PENDING_COURSE_ID = "pendingCourseId";
@@ -6,6 +6,9 @@ package com.unitbv.myquiz.api.types;
 public enum DuplicateComparisonStrategy {
     LEVENSHTEIN("levenshtein", "Levenshtein Distance", "Compares text similarity allowing for small variations"),
     JARO_WINKLER("jaro-winkler", "Jaro-Winkler", "Advanced string similarity with prefix weighting"),
+    MYERS("myers", "Myers Bit-Parallel Levenshtein", "Levenshtein similarity with a bit-parallel kernel, suited for long texts"),
+    TOKEN_JACCARD("token-jaccard", "Token Set Jaccard", "Word set overlap, also matches reordered wording"),
+    EMBEDDING("embedding", "Semantic Embeddings", "Cosine similarity of Ollama embeddings, also matches paraphrased questions"),
     STRING_EQUALITY("string-equality", "Exact Match", "Requires exact text match (case-insensitive)");
 
     private final String algorithmName;
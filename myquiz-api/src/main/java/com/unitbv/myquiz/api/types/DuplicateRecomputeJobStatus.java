@@ -0,0 +1,16 @@
+package com.unitbv.myquiz.api.types;
+
+/**
+ * Lifecycle of an asynchronous duplicate recompute job.
+ */
+public enum DuplicateRecomputeJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+}
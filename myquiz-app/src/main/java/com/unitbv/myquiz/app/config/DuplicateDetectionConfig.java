@@ -0,0 +1,12 @@
+package com.unitbv.myquiz.app.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@code myquiz.duplicates.*} configuration used by the duplicate detection engine.
+ */
+@Configuration
+@EnableConfigurationProperties(DuplicateDetectionProperties.class)
+public class DuplicateDetectionConfig {
+}
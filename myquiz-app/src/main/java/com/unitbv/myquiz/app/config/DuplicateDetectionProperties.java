@@ -0,0 +1,346 @@
+package com.unitbv.myquiz.app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning knobs for the duplicate detection engine, bound from {@code myquiz.duplicates.*}.
+ * The similarity algorithm itself is still selected through {@code myquiz.duplicates.similarity.algorithm}.
+ */
+@ConfigurationProperties(prefix = "myquiz.duplicates")
+public class DuplicateDetectionProperties {
+    public static final String CANDIDATE_SOURCE_EXACT = "exact";
+    public static final String CANDIDATE_SOURCE_LSH = "lsh";
+    public static final String CANDIDATE_SOURCE_PG_TRGM = "pg-trgm";
+    public static final String PAIR_ENGINE_FORK_JOIN = "fork-join";
+    public static final String PAIR_ENGINE_BATCHED = "batched";
+
+    /**
+     * How candidate pairs are generated: {@code exact} compares every question with every other one,
+     * {@code lsh} only compares questions sharing at least one MinHash band bucket, {@code pg-trgm} only compares
+     * questions the database finds trigram-similar with the pg_trgm extension. Both also compare the questions where a
+     * value contains the other's.
+     */
+    private String candidateSource = CANDIDATE_SOURCE_EXACT;
+    /**
+     * Re-evaluate only the touched question when a single question is created, edited or deleted,
+     * instead of leaving its duplicate state stale until the next full recompute.
+     */
+    private boolean incremental = true;
+    /**
+     * How a full recompute walks the pairs: {@code fork-join} evaluates each unordered pair once on
+     * work-stealing tiles of the pair matrix, {@code batched} checks every question against all candidates
+     * in sequential batches, so each pair is evaluated from both sides.
+     */
+    private String pairEngine = PAIR_ENGINE_FORK_JOIN;
+    /**
+     * Rows and columns per fork/join tile of the pair matrix.
+     */
+    private int pairTileSize = 64;
+    /**
+     * Number of courses whose normalized question corpus is kept in memory between duplicate checks;
+     * {@code 0} disables the cache.
+     */
+    private int corpusCacheCourses = 8;
+    /**
+     * Keep the cached corpus of each course in an index file under {@code upload.dir}, so the first duplicate
+     * check after a restart does not load and normalize the whole course again.
+     */
+    private boolean persistentIndex = true;
+    /**
+     * Keep the similarity scores of every pair reaching {@link #scoreFloor} after a full course recompute, so the
+     * next recompute only compares questions whose content changed and any threshold not below the floor can be
+     * applied without comparing texts again.
+     */
+    private boolean scoreCache = true;
+    /**
+     * Lowest similarity stored by the score cache; recomputes with a lower threshold compare every pair.
+     */
+    private double scoreFloor = 0.6d;
+    /**
+     * Similarity algorithm ranking the existing questions closest to a draft. It has to grade partial matches, so
+     * it is kept apart from the detection algorithm, which defaults to exact matching.
+     */
+    private String similarAlgorithm = "jaro-winkler";
+    private LshProperties lsh = new LshProperties();
+    private PgTrgmProperties pgTrgm = new PgTrgmProperties();
+    private EmbeddingProperties embedding = new EmbeddingProperties();
+    private RecomputeAllProperties recomputeAll = new RecomputeAllProperties();
+
+    public String getCandidateSource() {
+        return candidateSource;
+    }
+
+    public void setCandidateSource(String candidateSource) {
+        this.candidateSource = candidateSource;
+    }
+
+    public boolean isPgTrgmCandidateSource() {
+        return CANDIDATE_SOURCE_PG_TRGM.equalsIgnoreCase(candidateSource);
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public String getPairEngine() {
+        return pairEngine;
+    }
+
+    public void setPairEngine(String pairEngine) {
+        this.pairEngine = pairEngine;
+    }
+
+    public boolean isForkJoinPairEngine() {
+        return !PAIR_ENGINE_BATCHED.equalsIgnoreCase(pairEngine);
+    }
+
+    public int getPairTileSize() {
+        return pairTileSize;
+    }
+
+    public void setPairTileSize(int pairTileSize) {
+        this.pairTileSize = pairTileSize;
+    }
+
+    public int getCorpusCacheCourses() {
+        return corpusCacheCourses;
+    }
+
+    public void setCorpusCacheCourses(int corpusCacheCourses) {
+        this.corpusCacheCourses = corpusCacheCourses;
+    }
+
+    public boolean isPersistentIndex() {
+        return persistentIndex;
+    }
+
+    public void setPersistentIndex(boolean persistentIndex) {
+        this.persistentIndex = persistentIndex;
+    }
+
+    public boolean isScoreCache() {
+        return scoreCache;
+    }
+
+    public void setScoreCache(boolean scoreCache) {
+        this.scoreCache = scoreCache;
+    }
+
+    public double getScoreFloor() {
+        return scoreFloor;
+    }
+
+    public void setScoreFloor(double scoreFloor) {
+        this.scoreFloor = scoreFloor;
+    }
+
+    public String getSimilarAlgorithm() {
+        return similarAlgorithm;
+    }
+
+    public void setSimilarAlgorithm(String similarAlgorithm) {
+        this.similarAlgorithm = similarAlgorithm;
+    }
+
+    public LshProperties getLsh() {
+        return lsh;
+    }
+
+    public void setLsh(LshProperties lsh) {
+        this.lsh = lsh;
+    }
+
+    public PgTrgmProperties getPgTrgm() {
+        return pgTrgm;
+    }
+
+    public void setPgTrgm(PgTrgmProperties pgTrgm) {
+        this.pgTrgm = pgTrgm;
+    }
+
+    public EmbeddingProperties getEmbedding() {
+        return embedding;
+    }
+
+    public void setEmbedding(EmbeddingProperties embedding) {
+        this.embedding = embedding;
+    }
+
+    public RecomputeAllProperties getRecomputeAll() {
+        return recomputeAll;
+    }
+
+    public void setRecomputeAll(RecomputeAllProperties recomputeAll) {
+        this.recomputeAll = recomputeAll;
+    }
+
+    /**
+     * MinHash/LSH parameters. The signature has {@code bands * rows} hash values; two fields become
+     * candidates when all rows of one band agree. More bands raise recall, more rows raise precision.
+     * The Jaccard similarity where the candidate probability is about 50% is roughly {@code (1/bands)^(1/rows)}.
+     * Values contained in one another are candidates whatever their similarity.
+     */
+    public static class LshProperties {
+        private int bands = 20;
+        private int rows = 4;
+        private int shingleSize = 3;
+
+        public LshProperties() {
+        }
+
+        public LshProperties(int bands, int rows, int shingleSize) {
+            this.bands = bands;
+            this.rows = rows;
+            this.shingleSize = shingleSize;
+        }
+
+        public int getBands() {
+            return bands;
+        }
+
+        public void setBands(int bands) {
+            this.bands = bands;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public void setRows(int rows) {
+            this.rows = rows;
+        }
+
+        public int getShingleSize() {
+            return shingleSize;
+        }
+
+        public void setShingleSize(int shingleSize) {
+            this.shingleSize = shingleSize;
+        }
+    }
+
+    /**
+     * pg_trgm parameters. Two fields make their questions candidates when their trigram similarity reaches the
+     * threshold; it has to stay well below the strategy's threshold, as trigram overlap and edit-distance or
+     * Jaro-Winkler similarity disagree on short and reordered texts.
+     */
+    public static class PgTrgmProperties {
+        private double similarityThreshold = 0.3d;
+
+        public double getSimilarityThreshold() {
+            return similarityThreshold;
+        }
+
+        public void setSimilarityThreshold(double similarityThreshold) {
+            this.similarityThreshold = similarityThreshold;
+        }
+    }
+
+    /**
+     * Parameters of the {@code embedding} strategy. Two fields match when the cosine similarity of their Ollama
+     * embeddings reaches the threshold; which value separates paraphrases from related questions depends on the
+     * embedding model. Candidates are the {@code neighbours} nearest fields found in the HNSW graph of the course,
+     * built with {@code m} links per node and searched with {@code efConstruction} and {@code efSearch} entries.
+     */
+    public static class EmbeddingProperties {
+        private double threshold = 0.9d;
+        /**
+         * Texts sent to Ollama by one task; up to {@code myquiz.tasks.embedding.max-pool-size} tasks run at once.
+         */
+        private int batchSize = 32;
+        /**
+         * Embeddings kept in memory besides the {@code question_embedding} table.
+         */
+        private int memoryCacheSize = 20000;
+        private int neighbours = 10;
+        private int m = 16;
+        private int efConstruction = 100;
+        private int efSearch = 64;
+
+        public double getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(double threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMemoryCacheSize() {
+            return memoryCacheSize;
+        }
+
+        public void setMemoryCacheSize(int memoryCacheSize) {
+            this.memoryCacheSize = memoryCacheSize;
+        }
+
+        public int getNeighbours() {
+            return neighbours;
+        }
+
+        public void setNeighbours(int neighbours) {
+            this.neighbours = neighbours;
+        }
+
+        public int getM() {
+            return m;
+        }
+
+        public void setM(int m) {
+            this.m = m;
+        }
+
+        public int getEfConstruction() {
+            return efConstruction;
+        }
+
+        public void setEfConstruction(int efConstruction) {
+            this.efConstruction = efConstruction;
+        }
+
+        public int getEfSearch() {
+            return efSearch;
+        }
+
+        public void setEfSearch(int efSearch) {
+            this.efSearch = efSearch;
+        }
+    }
+
+    /**
+     * Scheduling of a recompute of all courses. {@code concurrency} courses run at the same time, largest first, and
+     * each compares its pairs on at most {@code pairParallelism} fork/join workers; {@code 0} splits the pool evenly
+     * between the concurrent courses.
+     */
+    public static class RecomputeAllProperties {
+        private int concurrency = 2;
+        private int pairParallelism = 0;
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getPairParallelism() {
+            return pairParallelism;
+        }
+
+        public void setPairParallelism(int pairParallelism) {
+            this.pairParallelism = pairParallelism;
+        }
+    }
+}
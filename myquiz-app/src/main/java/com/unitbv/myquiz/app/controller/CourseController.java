@@ -3,10 +3,13 @@ package com.unitbv.myquiz.app.controller;
 import com.unitbv.myquiz.api.dto.CourseDto;
 import com.unitbv.myquiz.api.dto.CourseDuplicateRecomputeResultDto;
 import com.unitbv.myquiz.api.dto.DuplicateRecomputeHistoryDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeBatchDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
 import com.unitbv.myquiz.api.dto.DuplicateStatisticsDto;
 import com.unitbv.myquiz.api.interfaces.CourseApi;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.app.services.CourseService;
+import com.unitbv.myquiz.app.services.DuplicateRecomputeJobService;
 import com.unitbv.myquiz.app.services.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -39,6 +42,7 @@ public class CourseController implements CourseApi {
     private static final Logger log = LoggerFactory.getLogger(CourseController.class);
     private final CourseService courseService;
     private final ExportService exportService;
+    private final DuplicateRecomputeJobService duplicateRecomputeJobService;
 
     @GetMapping({"/", ""})
     @Operation(
@@ -164,14 +168,18 @@ public class CourseController implements CourseApi {
 
     @PostMapping("/{id}/recompute-duplicates")
     @Override
-    public ResponseEntity<CourseDuplicateRecomputeResultDto> recomputeCourseDuplicates(@PathVariable Long id) {
+    public ResponseEntity<DuplicateRecomputeJobDto> recomputeCourseDuplicates(@PathVariable Long id) {
         try {
-            CourseDuplicateRecomputeResultDto result = courseService.recomputeDuplicatesForCourse(id);
-            return ResponseEntity.ok(result);
+            DuplicateRecomputeJobDto job = duplicateRecomputeJobService.submitCourseRecompute(id, null);
+            return ResponseEntity.accepted().body(job);
         } catch (IllegalArgumentException e) {
             log.atWarn().addArgument(id).addArgument(e.getMessage())
                 .log("Could not recompute duplicates for course {}: {}");
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            log.atWarn().addArgument(id).addArgument(e.getMessage())
+                .log("Duplicate recompute for course {} not submitted: {}");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.atError().setCause(e).addArgument(id)
                 .log("Failed to recompute duplicates for course {}");
@@ -180,28 +188,43 @@ public class CourseController implements CourseApi {
     }
 
     @PostMapping("/recompute-with-strategy")
-    public ResponseEntity<CourseDuplicateRecomputeResultDto> recomputeCourseDuplicatesWithStrategy(
+    @Operation(summary = "Recompute duplicates with a strategy",
+               description = "Submits a background recompute job for a course, a question bank, or an author within a question bank. "
+                       + "A course recompute can replace the strategy's threshold; unchanged pairs are then decided from their stored scores")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Duplicate recompute job submitted"),
+        @ApiResponse(responseCode = "400", description = "No course or question bank given, or a threshold the scope or strategy cannot apply"),
+        @ApiResponse(responseCode = "404", description = "Course or question bank not found"),
+        @ApiResponse(responseCode = "409", description = "A recompute job is already running for the course")
+    })
+    public ResponseEntity<DuplicateRecomputeJobDto> recomputeCourseDuplicatesWithStrategy(
             @RequestParam(required = false) Long courseId,
             @RequestParam String strategy,
             @RequestParam(required = false) Long questionBankId,
-            @RequestParam(required = false) Long authorId) {
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Double threshold) {
         try {
-            CourseDuplicateRecomputeResultDto result;
-            if (questionBankId != null && authorId != null) {
-                result = courseService.recomputeDuplicatesForAuthor(questionBankId, authorId, strategy);
-            } else if (questionBankId != null) {
-                result = courseService.recomputeDuplicatesForQuestionBank(questionBankId, strategy);
+            if (threshold != null && (questionBankId != null || !duplicateRecomputeJobService.acceptsThreshold(strategy, threshold))) {
+                return ResponseEntity.badRequest().build();
+            }
+            DuplicateRecomputeJobDto job;
+            if (questionBankId != null) {
+                job = duplicateRecomputeJobService.submitQuestionBankRecompute(questionBankId, authorId, strategy);
             } else {
                 if (courseId == null) {
                     return ResponseEntity.badRequest().build();
                 }
-                result = courseService.recomputeDuplicatesForCourseWithStrategy(courseId, strategy);
+                job = duplicateRecomputeJobService.submitCourseRecompute(courseId, strategy, threshold);
             }
-            return ResponseEntity.ok(result);
+            return ResponseEntity.accepted().body(job);
         } catch (IllegalArgumentException e) {
             log.atWarn().addArgument(courseId).addArgument(e.getMessage())
                 .log("Could not recompute duplicates for courseId '{}': {}");
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            log.atWarn().addArgument(courseId).addArgument(e.getMessage())
+                .log("Duplicate recompute for courseId '{}' not submitted: {}");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             log.atError().setCause(e).addArgument(courseId)
                 .log("Failed to recompute duplicates for courseId '{}'");
@@ -209,6 +232,87 @@ public class CourseController implements CourseApi {
         }
     }
 
+    // ---- Recompute job endpoints ----
+
+    @GetMapping("/recompute-jobs")
+    @Operation(summary = "List duplicate recompute jobs",
+               description = "Returns running jobs and jobs finished within the last hour, newest first")
+    public ResponseEntity<List<DuplicateRecomputeJobDto>> getRecomputeJobs() {
+        return ResponseEntity.ok(duplicateRecomputeJobService.getJobs());
+    }
+
+    @GetMapping("/recompute-jobs/{jobId}")
+    @Override
+    public ResponseEntity<DuplicateRecomputeJobDto> getRecomputeJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(duplicateRecomputeJobService.getJob(jobId));
+        } catch (IllegalArgumentException e) {
+            log.atWarn().addArgument(jobId).addArgument(e.getMessage())
+                .log("Could not find recompute job '{}': {}");
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/recompute-jobs/{jobId}/cancel")
+    @Override
+    public ResponseEntity<DuplicateRecomputeJobDto> cancelRecomputeJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(duplicateRecomputeJobService.cancelJob(jobId));
+        } catch (IllegalArgumentException e) {
+            log.atWarn().addArgument(jobId).addArgument(e.getMessage())
+                .log("Could not cancel recompute job '{}': {}");
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // ---- Recompute all courses ----
+
+    @PostMapping("/recompute-all")
+    @Operation(summary = "Recompute duplicates for all courses",
+               description = "Submits one background job per course with questions. Courses run side by side up to the configured "
+                       + "concurrency, largest first, each on its share of the pair comparison workers")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Recompute of all courses submitted"),
+        @ApiResponse(responseCode = "409", description = "A recompute job is already running for one of the courses")
+    })
+    public ResponseEntity<DuplicateRecomputeBatchDto> recomputeAllCourses(@RequestParam(required = false) String strategy) {
+        try {
+            return ResponseEntity.accepted().body(duplicateRecomputeJobService.submitAllCoursesRecompute(strategy));
+        } catch (IllegalStateException e) {
+            log.atWarn().addArgument(e.getMessage()).log("Duplicate recompute of all courses not submitted: {}");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception e) {
+            log.atError().setCause(e).log("Failed to recompute duplicates for all courses");
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/recompute-batches/{batchId}")
+    @Operation(summary = "Get a recompute of all courses",
+               description = "Returns the aggregated progress of a recompute of all courses and the job of each course")
+    public ResponseEntity<DuplicateRecomputeBatchDto> getRecomputeBatch(@PathVariable String batchId) {
+        try {
+            return ResponseEntity.ok(duplicateRecomputeJobService.getBatch(batchId));
+        } catch (IllegalArgumentException e) {
+            log.atWarn().addArgument(batchId).addArgument(e.getMessage())
+                .log("Could not find recompute batch '{}': {}");
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/recompute-batches/{batchId}/cancel")
+    @Operation(summary = "Cancel a recompute of all courses",
+               description = "Queued courses never start; running courses stop before their next batch")
+    public ResponseEntity<DuplicateRecomputeBatchDto> cancelRecomputeBatch(@PathVariable String batchId) {
+        try {
+            return ResponseEntity.ok(duplicateRecomputeJobService.cancelBatch(batchId));
+        } catch (IllegalArgumentException e) {
+            log.atWarn().addArgument(batchId).addArgument(e.getMessage())
+                .log("Could not cancel recompute batch '{}': {}");
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/duplicate-statistics")
     public ResponseEntity<DuplicateStatisticsDto> getDuplicateStatistics(
             @RequestParam(required = false) Long courseId,
@@ -7,6 +7,7 @@ import com.unitbv.myquiz.api.dto.DuplicateUnlinkRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionBankDto;
 import com.unitbv.myquiz.api.dto.QuestionCorrectionDto;
 import com.unitbv.myquiz.api.dto.QuestionDto;
+import com.unitbv.myquiz.api.dto.QuestionDuplicateDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterResponseDto;
 import com.unitbv.myquiz.api.interfaces.QuestionApi;
@@ -21,6 +22,7 @@ import com.unitbv.myquiz.app.services.QuestionBankAuthorService;
 import com.unitbv.myquiz.app.services.QuestionBankService;
 import com.unitbv.myquiz.app.services.QuestionCorrectionService;
 import com.unitbv.myquiz.app.services.QuestionService;
+import com.unitbv.myquiz.app.services.SimilarQuestionService;
 import com.unitbv.myquiz.app.web.ResourceNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -58,10 +60,11 @@ public class QuestionController implements QuestionApi {
     private final QuestionBankService questionBankService;
     private final QuestionBankAuthorService questionBankAuthorService;
     private final QuestionCorrectionService questionCorrectionService;
+    private final SimilarQuestionService similarQuestionService;
 
     public QuestionController(
             QuestionService questionService, AuthorService authorService, CourseService courseService, QuestionBankService questionBankService, QuestionBankAuthorService questionBankAuthorService,
-            QuestionCorrectionService questionCorrectionService
+            QuestionCorrectionService questionCorrectionService, SimilarQuestionService similarQuestionService
     ) {
         this.questionService = questionService;
         this.authorService = authorService;
@@ -69,6 +72,7 @@ public class QuestionController implements QuestionApi {
         this.questionBankService = questionBankService;
         this.questionBankAuthorService = questionBankAuthorService;
         this.questionCorrectionService = questionCorrectionService;
+        this.similarQuestionService = similarQuestionService;
     }
 
     @Override
@@ -688,6 +692,32 @@ public class QuestionController implements QuestionApi {
         }
     }
 
+    /**
+     * Returns the existing questions of the draft's course most similar to the draft, for the question editors to
+     * warn about likely duplicates before saving.
+     *
+     * @param draft title, text and answers being edited, with course and type; an id excludes that question
+     * @param limit maximum number of questions to return
+     * @return similar questions, best first, with similarity and cause
+     */
+    @PostMapping(ControllerSettings.API_QUESTION_SIMILAR)
+    @Override
+    public ResponseEntity<List<QuestionDuplicateDto>> findSimilarQuestions(
+            @RequestBody QuestionDto draft, @org.springframework.web.bind.annotation.RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        try {
+            return ResponseEntity.ok(similarQuestionService.findSimilarQuestions(draft, limit));
+        }
+        catch (IllegalArgumentException e) {
+            log.atWarn().addArgument(e.getMessage()).log("Invalid similar question lookup: {}");
+            return ResponseEntity.badRequest().build();
+        }
+        catch (Exception e) {
+            log.atError().setCause(e).log("Error finding similar questions");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     private QuestionFilterResponseDto buildQuestionFilterResponse(QuestionBankDto questionBankDto, Long questionBankId, Long selectedAuthorId, List<QuestionDto> questions) {
         QuestionFilterResponseDto dto = QuestionFilterResponseDto.builder().questions(questions != null ? questions : new ArrayList<>()).selectedQuestionBank(questionBankDto)
                                                                  .selectedCourse(questionBankDto.getCourse()).selectedCourseId(questionBankDto.getCourseId()).selectedAuthorId(selectedAuthorId)
@@ -1,7 +1,9 @@
 package com.unitbv.myquiz.app.controller;
 
+import com.unitbv.myquiz.api.dto.QuestionDuplicateClusterDto;
 import com.unitbv.myquiz.api.interfaces.QuestionDuplicateApi;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
+import com.unitbv.myquiz.app.services.DuplicateClusterService;
 import com.unitbv.myquiz.app.services.QuestionDuplicationService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -10,15 +12,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * Standalone REST controller for individual duplicate-link operations, addressed by the
  * {@code QuestionDuplicate} link's own ID (not a question ID) - mirrors
- * {@link QuestionErrorController}'s structure.
+ * {@link QuestionErrorController}'s structure. Duplicate clusters are addressed by the cluster ID.
  */
 @RequiredArgsConstructor
 @RestController
@@ -30,6 +36,7 @@ public class QuestionDuplicateController implements QuestionDuplicateApi {
     private static final Logger log = LoggerFactory.getLogger(QuestionDuplicateController.class);
 
     private final QuestionDuplicationService questionDuplicationService;
+    private final DuplicateClusterService duplicateClusterService;
 
     @Override
     @PutMapping(ControllerSettings.API_DUPLICATES_RESOLVE_BY_ID)
@@ -47,4 +54,37 @@ public class QuestionDuplicateController implements QuestionDuplicateApi {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    @Override
+    @GetMapping(ControllerSettings.API_DUPLICATES_CLUSTERS)
+    public ResponseEntity<List<QuestionDuplicateClusterDto>> getDuplicateClusters(@RequestParam("course") String course,
+                                                                                  @RequestParam(value = "status", required = false) String status) {
+        log.info("Listing duplicate clusters for course: {}, status: {}", course, status);
+        try {
+            return ResponseEntity.ok(duplicateClusterService.getClusters(course, status));
+        } catch (IllegalArgumentException e) {
+            log.warn("Duplicate clusters not available: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error listing duplicate clusters for course: {}", course, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Override
+    @PutMapping(ControllerSettings.API_DUPLICATES_CLUSTERS_RESOLVE_BY_ID)
+    public ResponseEntity<Void> resolveDuplicateCluster(@PathVariable Long id) {
+        log.info("Resolving duplicate cluster with id: {}", id);
+        try {
+            int resolvedLinks = duplicateClusterService.resolveCluster(id);
+            log.info("Duplicate cluster {} resolved successfully, {} links resolved", id, resolvedLinks);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            log.warn("Duplicate cluster not found: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error resolving duplicate cluster with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
 }
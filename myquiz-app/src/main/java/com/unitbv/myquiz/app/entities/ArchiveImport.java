@@ -19,7 +19,8 @@ import lombok.NoArgsConstructor;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "archive_import", indexes = {@Index(name = "idx_archive_import_size", columnList = "file_size"), @Index(name = "idx_archive_import_created_at", columnList = "processed_at")})
+@Table(name = "archive_import", indexes = {@Index(name = "idx_archive_import_size", columnList = "file_size"), @Index(name = "idx_archive_import_created_at", columnList = "processed_at"),
+        @Index(name = "idx_archive_import_content_hash", columnList = "content_hash")})
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
@@ -37,6 +38,13 @@ public class ArchiveImport {
     @Column(name = "file_size", nullable = false)
     private Long fileSize;
 
+    /**
+     * SHA-256 of the archive, see {@link com.unitbv.myquiz.app.util.ContentHash}; {@code null} for archives imported
+     * before it was recorded.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "processed_at", nullable = false, updatable = false)
     private OffsetDateTime processedAt;
 
@@ -44,9 +52,10 @@ public class ArchiveImport {
     @JoinColumn(name = "question_bank_id")
     private QuestionBank questionBank;
 
-    public ArchiveImport(String fileName, Long fileSize, QuestionBank questionBank) {
+    public ArchiveImport(String fileName, Long fileSize, String contentHash, QuestionBank questionBank) {
         this.fileName = fileName;
         this.fileSize = fileSize;
+        this.contentHash = contentHash;
         this.questionBank = questionBank;
     }
 
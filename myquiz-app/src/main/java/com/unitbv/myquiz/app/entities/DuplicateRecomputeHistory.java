@@ -78,6 +78,12 @@ public class DuplicateRecomputeHistory {
     @Column(name = "duration_ms")
     private long durationMs;
 
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+
+    @Column(name = "queue_wait_ms")
+    private Long queueWaitMs;
+
     @Column(name = "saved_at", updatable = false)
     private OffsetDateTime savedAt;
 
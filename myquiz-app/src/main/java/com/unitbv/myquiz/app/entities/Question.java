@@ -1,6 +1,7 @@
 package com.unitbv.myquiz.app.entities;
 
 import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -21,7 +22,9 @@ import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
+import lombok.Setter;
 import lombok.ToString;
 
 import java.time.OffsetDateTime;
@@ -32,13 +35,27 @@ import java.util.List;
  * JPA entity representing a question_bank question.
  * Supports multiple question types including multiple choice and true/false questions.
  * Questions belong to a QuestionBankAuthor and can have associated errors.
+ * Title, text and answers are also stored in normalized form with 64-bit fingerprints
+ * (see {@link QuestionFingerprints}), kept in sync by the setters and the persistence callbacks.
  */
 @Entity
-@Table(name = "question", indexes = {@Index(name = "idx_qbi_question_bank_author_id", columnList = "question_bank_author_id"), @Index(name = "idx_qbi_type", columnList = "type")})
+@Table(name = "question", indexes = {
+        @Index(name = "idx_qbi_question_bank_author_id", columnList = "question_bank_author_id"),
+        @Index(name = "idx_qbi_type", columnList = "type"),
+        @Index(name = "idx_qbi_title_fingerprint", columnList = "title_fingerprint"),
+        @Index(name = "idx_qbi_text_fingerprint", columnList = "text_fingerprint"),
+        @Index(name = "idx_qbi_title_text_fingerprint", columnList = "title_text_fingerprint"),
+        @Index(name = "idx_qbi_response1_fingerprint", columnList = "response1_fingerprint"),
+        @Index(name = "idx_qbi_response2_fingerprint", columnList = "response2_fingerprint"),
+        @Index(name = "idx_qbi_response3_fingerprint", columnList = "response3_fingerprint"),
+        @Index(name = "idx_qbi_response4_fingerprint", columnList = "response4_fingerprint")
+})
 @Data
 @EqualsAndHashCode(of = "id")
 @ToString(exclude = {"questionBankAuthor", "questionErrors", "duplicateLinks", "duplicateOfLinks", "answersReference"})
 public class Question {
+    private static final int NORMALIZED_TITLE_LENGTH = 1000;
+    private static final int NORMALIZED_TEXT_LENGTH = 4096;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_gen")
@@ -116,6 +133,63 @@ public class Question {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    // Normalized forms and fingerprints, derived from the fields above
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_normalized", length = NORMALIZED_TITLE_LENGTH)
+    private String normalizedTitle;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "text_normalized", length = NORMALIZED_TEXT_LENGTH)
+    private String normalizedText;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response1_normalized", length = NORMALIZED_TEXT_LENGTH)
+    private String normalizedResponse1;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response2_normalized", length = NORMALIZED_TEXT_LENGTH)
+    private String normalizedResponse2;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response3_normalized", length = NORMALIZED_TEXT_LENGTH)
+    private String normalizedResponse3;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response4_normalized", length = NORMALIZED_TEXT_LENGTH)
+    private String normalizedResponse4;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_fingerprint")
+    private Long titleFingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "text_fingerprint")
+    private Long textFingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_text_fingerprint")
+    private Long titleTextFingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response1_fingerprint")
+    private Long response1Fingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response2_fingerprint")
+    private Long response2Fingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response3_fingerprint")
+    private Long response3Fingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "response4_fingerprint")
+    private Long response4Fingerprint;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "fingerprint_version")
+    private Integer fingerprintVersion;
+
     public Question() {
     }
 
@@ -123,11 +197,83 @@ public class Question {
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
         updatedAt = OffsetDateTime.now();
+        refreshFingerprints();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = OffsetDateTime.now();
+        refreshFingerprints();
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        String normalized = QuestionFingerprints.normalize(title);
+        titleFingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedTitle = fitColumn(normalized, NORMALIZED_TITLE_LENGTH);
+        titleTextFingerprint = QuestionFingerprints.titleTextFingerprint(normalizedTitle, normalizedText);
+    }
+
+    public void setText(String text) {
+        this.text = text;
+        String normalized = QuestionFingerprints.normalize(text);
+        textFingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedText = fitColumn(normalized, NORMALIZED_TEXT_LENGTH);
+        titleTextFingerprint = QuestionFingerprints.titleTextFingerprint(normalizedTitle, normalizedText);
+    }
+
+    public void setResponse1(String response1) {
+        this.response1 = response1;
+        String normalized = QuestionFingerprints.normalize(response1);
+        response1Fingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedResponse1 = fitColumn(normalized, NORMALIZED_TEXT_LENGTH);
+    }
+
+    public void setResponse2(String response2) {
+        this.response2 = response2;
+        String normalized = QuestionFingerprints.normalize(response2);
+        response2Fingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedResponse2 = fitColumn(normalized, NORMALIZED_TEXT_LENGTH);
+    }
+
+    public void setResponse3(String response3) {
+        this.response3 = response3;
+        String normalized = QuestionFingerprints.normalize(response3);
+        response3Fingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedResponse3 = fitColumn(normalized, NORMALIZED_TEXT_LENGTH);
+    }
+
+    public void setResponse4(String response4) {
+        this.response4 = response4;
+        String normalized = QuestionFingerprints.normalize(response4);
+        response4Fingerprint = QuestionFingerprints.fingerprint(normalized);
+        normalizedResponse4 = fitColumn(normalized, NORMALIZED_TEXT_LENGTH);
+    }
+
+    /**
+     * Recomputes every normalized form and fingerprint from the current field values.
+     */
+    public void refreshFingerprints() {
+        setTitle(title);
+        setText(text);
+        setResponse1(response1);
+        setResponse2(response2);
+        setResponse3(response3);
+        setResponse4(response4);
+        fingerprintVersion = QuestionFingerprints.CURRENT_VERSION;
+    }
+
+    /**
+     * Whether the stored normalized forms were written by the current normalization and can be used as is.
+     */
+    @Transient
+    public boolean hasCurrentFingerprints() {
+        return fingerprintVersion != null && fingerprintVersion == QuestionFingerprints.CURRENT_VERSION;
+    }
+
+    // Compatibility decompositions can lengthen a value past its column; the field fingerprint still covers the full form.
+    private static String fitColumn(String normalized, int length) {
+        return normalized == null || normalized.length() <= length ? normalized : normalized.substring(0, length);
     }
 
     // Utility method for row number
@@ -13,7 +13,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "question_bank_author")
+@Table(name = "question_bank_author", indexes = @Index(name = "idx_question_bank_author_content_hash", columnList = "content_hash"))
 @Data
 @EqualsAndHashCode(of = "id")
 @ToString(exclude = {"author", "questionBank", "questions"})
@@ -42,6 +42,20 @@ public class QuestionBankAuthor {
     @Column(name = "template_type", length = 50)
     private TemplateType templateType;
 
+    /**
+     * SHA-256 of the workbook the questions and errors were parsed from, set once the parse completed. Editing the
+     * questions or their errors clears it, so only untouched parse results are reused for the same workbook.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    /**
+     * {@link com.unitbv.myquiz.app.services.WorkbookReuseService#PARSER_VERSION} of the parse stored with the content
+     * hash; parses of an older version are not reused.
+     */
+    @Column(name = "parser_version")
+    private Integer parserVersion;
+
 
     @OneToMany(mappedBy = "questionBankAuthor", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Question> questions = new ArrayList<>();
@@ -56,6 +56,13 @@ public class QuestionDuplicate {
     @Column(name = "status", length = 20)
     private String status = ControllerSettings.DUPLICATE_STATUS_OPEN;
 
+    /**
+     * Why the pair was linked, encoded by {@code DuplicateCauseCodes}; {@code null} for links stored before causes
+     * were recorded.
+     */
+    @Column(name = "cause_code")
+    private Integer causeCode;
+
     @PrePersist
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
@@ -0,0 +1,75 @@
+package com.unitbv.myquiz.app.entities;
+
+import com.unitbv.myquiz.api.settings.ControllerSettings;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group of questions of one course that are transitively linked as duplicates.
+ * Members are stored by question id, one row each, and the lowest id is the canonical question the others duplicate.
+ * Clusters are rebuilt from the open duplicate links at the end of a recompute.
+ */
+@Entity
+@Table(name = "question_duplicate_cluster", indexes = {@Index(name = "idx_question_duplicate_cluster_course_id", columnList = "course_id")})
+@Data
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "memberIds")
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionDuplicateCluster {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_duplicate_cluster_gen")
+    @SequenceGenerator(name = "question_duplicate_cluster_gen", sequenceName = "question_duplicate_cluster_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "canonical_question_id", nullable = false)
+    private Long canonicalQuestionId;
+
+    @Column(name = "member_count", nullable = false)
+    private int memberCount;
+
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "question_duplicate_cluster_member",
+            joinColumns = @JoinColumn(name = "cluster_id"),
+            indexes = {@Index(name = "idx_question_duplicate_cluster_member_question_id", columnList = "question_id")})
+    @Column(name = "question_id", nullable = false)
+    @OrderBy
+    private List<Long> memberIds = new ArrayList<>();
+
+    @Column(name = "created_at", updatable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "status", length = 20)
+    private String status = ControllerSettings.DUPLICATE_STATUS_OPEN;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+    }
+}
@@ -0,0 +1,48 @@
+package com.unitbv.myquiz.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Embedding an Ollama model computed for a normalized question field, keyed by the fingerprint of the field, so the
+ * embedding strategy only asks Ollama for texts it has not seen with that model. The vector is stored as
+ * little-endian 32-bit floats.
+ */
+@Entity
+@Table(name = "question_embedding", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_question_embedding_model_fingerprint", columnNames = {"model", "content_fingerprint"})
+})
+@Data
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionEmbedding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_embedding_gen")
+    @SequenceGenerator(name = "question_embedding_gen", sequenceName = "question_embedding_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "model", length = 100, nullable = false)
+    private String model;
+
+    @Column(name = "content_fingerprint", nullable = false)
+    private long contentFingerprint;
+
+    @Column(name = "dimensions", nullable = false)
+    private int dimensions;
+
+    @Column(name = "vector", nullable = false)
+    private byte[] vector;
+}
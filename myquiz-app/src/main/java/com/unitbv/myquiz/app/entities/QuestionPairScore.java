@@ -0,0 +1,64 @@
+package com.unitbv.myquiz.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Similarity scores of one question pair of a course for one algorithm, kept for pairs that matched at or above the
+ * score floor. Questions are referenced by id, lower id first; the rows of a question are dropped as soon as its
+ * content fingerprint in {@link QuestionScoreState} no longer matches.
+ */
+@Entity
+@Table(name = "question_pair_score", indexes = {
+        @Index(name = "idx_question_pair_score_course_question", columnList = "algorithm, course_id, question_id"),
+        @Index(name = "idx_question_pair_score_course_other_question", columnList = "algorithm, course_id, other_question_id")
+})
+@Data
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPairScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_pair_score_gen")
+    @SequenceGenerator(name = "question_pair_score_gen", sequenceName = "question_pair_score_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "algorithm", length = 40, nullable = false)
+    private String algorithm;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "other_question_id", nullable = false)
+    private Long otherQuestionId;
+
+    /**
+     * Exact and substring matches, encoded by {@code DuplicateCauseCodes}.
+     */
+    @Column(name = "exact_cause", nullable = false)
+    private int exactCause;
+
+    @Column(name = "title_score")
+    private Double titleScore;
+
+    @Column(name = "content_score")
+    private Double contentScore;
+
+    @Column(name = "content_answers", nullable = false)
+    private int contentAnswers;
+}
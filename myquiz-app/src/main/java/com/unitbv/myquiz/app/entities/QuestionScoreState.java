@@ -0,0 +1,51 @@
+package com.unitbv.myquiz.app.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * Content fingerprint a question of a course had when its pairs were last scored with an algorithm, and the score floor
+ * of that run. Pairs of two questions whose fingerprints still match are answered from {@link QuestionPairScore}; a
+ * pair without a score row scored below the floor. States stored with another floor are not reused.
+ */
+@Entity
+@Table(name = "question_score_state", indexes = {
+        @Index(name = "idx_question_score_state_course_question", columnList = "algorithm, course_id, question_id")
+})
+@Data
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionScoreState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_score_state_gen")
+    @SequenceGenerator(name = "question_score_state_gen", sequenceName = "question_score_state_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "algorithm", length = 40, nullable = false)
+    private String algorithm;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "content_fingerprint", nullable = false)
+    private long contentFingerprint;
+
+    @Column(name = "score_floor")
+    private Double scoreFloor;
+}
@@ -6,6 +6,7 @@ import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionBank;
 import com.unitbv.myquiz.app.entities.QuestionDuplicate;
+import com.unitbv.myquiz.app.services.DuplicateCauseCodes;
 import org.springframework.stereotype.Component;
 
 /**
@@ -34,6 +35,7 @@ public class QuestionDuplicateMapper {
 
         // Populate both questions in the duplicate pair for display
         if (duplicateLink != null) {
+            duplicateDto.setCause(DuplicateCauseCodes.describe(duplicateLink.getCauseCode() == null ? 0 : duplicateLink.getCauseCode()));
             Question q1 = duplicateLink.getQuestion();
             Question q2 = duplicateLink.getDuplicateQuestion();
             if (q1 != null) {
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ArchiveImportRepository extends JpaRepository<ArchiveImport, Long> {
 
-    boolean existsByFileSize(Long fileSize);
+    boolean existsByContentHash(String contentHash);
 }
 
 
@@ -2,6 +2,7 @@ package com.unitbv.myquiz.app.repositories;
 
 import com.unitbv.myquiz.app.entities.Course;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
@@ -17,4 +18,11 @@ import java.util.Optional;
 public interface CourseRepository extends PagingAndSortingRepository<Course, Long>, JpaSpecificationExecutor<Course>, CrudRepository<Course, Long> {
     List<Course> findAll();
     Optional<Course> findByCourseIgnoreCase(String course);
+
+    /**
+     * Number of questions of each course as {@code [courseId, count]} rows; courses without questions are left out.
+     */
+    @Query("SELECT qb.course.id, COUNT(q) FROM Question q JOIN q.questionBankAuthor qba JOIN qba.questionBank qb "
+            + "WHERE qb.course IS NOT NULL GROUP BY qb.course.id")
+    List<Object[]> countQuestionsByCourse();
 }
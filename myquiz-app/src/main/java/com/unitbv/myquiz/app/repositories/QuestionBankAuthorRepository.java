@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 
 /**
  * Repository interface for QuestionBankAuthor entity operations.
@@ -13,5 +15,6 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface QuestionBankAuthorRepository extends JpaRepository<QuestionBankAuthor, Long>, JpaSpecificationExecutor<QuestionBankAuthor> {
 
+    Optional<QuestionBankAuthor> findFirstByContentHashAndParserVersionOrderByIdDesc(String contentHash, Integer parserVersion);
 }
 
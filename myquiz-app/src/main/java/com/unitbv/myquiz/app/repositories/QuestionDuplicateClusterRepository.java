@@ -0,0 +1,24 @@
+package com.unitbv.myquiz.app.repositories;
+
+import com.unitbv.myquiz.app.entities.QuestionDuplicateCluster;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for QuestionDuplicateCluster entities.
+ */
+@Repository
+public interface QuestionDuplicateClusterRepository extends JpaRepository<QuestionDuplicateCluster, Long> {
+
+    /**
+     * Returns the clusters of a course, largest first.
+     */
+    List<QuestionDuplicateCluster> findByCourseIdOrderByMemberCountDescIdAsc(Long courseId);
+
+    /**
+     * Returns the clusters of a course with the given status, largest first.
+     */
+    List<QuestionDuplicateCluster> findByCourseIdAndStatusOrderByMemberCountDescIdAsc(Long courseId, String status);
+}
@@ -5,12 +5,24 @@ package com.unitbv.myquiz.app.services;
  */
 public abstract class AbstractQuestionSimilarityStrategy {
 
+    /** Returned by {@link #score(String, String, double)} for values below the floor. */
+    public static final double NO_SCORE = -1.0d;
+
     private final String algorithmName;
     private final double threshold;
+    private final SimilarityFilterCascade filterCascade;
 
     protected AbstractQuestionSimilarityStrategy(String algorithmName, double threshold) {
+        this(algorithmName, threshold, SimilarityFilterCascade.NONE);
+    }
+
+    /**
+     * @param filterCascade filters derived from {@code threshold} that reject pairs before {@link #meetsThreshold}
+     */
+    AbstractQuestionSimilarityStrategy(String algorithmName, double threshold, SimilarityFilterCascade filterCascade) {
         this.algorithmName = algorithmName;
         this.threshold = threshold;
+        this.filterCascade = filterCascade;
     }
 
     public String getAlgorithmName() {
@@ -28,9 +40,105 @@ public abstract class AbstractQuestionSimilarityStrategy {
         if (left.isBlank() || right.isBlank()) {
             return false;
         }
+        return filterCascade.mayBeSimilar(left, right) && meetsThreshold(left, right);
+    }
+
+    /**
+     * Returns the similarity of two values if it is at least {@code floor}, otherwise {@link #NO_SCORE}. Unlike
+     * {@link #isSimilar(String, String)} the result can be compared with any threshold not below {@code floor}, so
+     * scores kept from one run answer later runs with a different threshold.
+     */
+    public double score(String left, String right, double floor) {
+        if (left == null || right == null || left.isBlank() || right.isBlank()) {
+            return NO_SCORE;
+        }
+        return scoreAtLeast(left, right, floor);
+    }
+
+    /**
+     * Similarity of two non-blank values if it reaches {@code floor}. Distance based strategies can override this
+     * to bound the distance by the floor instead of computing it in full.
+     */
+    protected double scoreAtLeast(String left, String right, double floor) {
+        double similarity = similarity(left, right);
+        return similarity >= floor ? similarity : NO_SCORE;
+    }
+
+    /**
+     * Snapshot of the filter cascade counters of this instance. The counters of a strategy bean are shared by every
+     * caller; a run that reports its own counts checks its pairs through {@link #withOwnFilterStats()}.
+     */
+    public SimilarityFilterStats filterStats() {
+        return filterCascade.stats();
+    }
+
+    /**
+     * Returns this strategy with filter counters of its own, so {@link #filterStats()} of the result only counts the
+     * pairs checked through it and not those of concurrent recomputes, upload checks or similar-question lookups.
+     * Strategies without filters count nothing and are returned as they are.
+     */
+    AbstractQuestionSimilarityStrategy withOwnFilterStats() {
+        if (filterCascade == SimilarityFilterCascade.NONE) {
+            return this;
+        }
+        return new OwnFilterStats(this, filterCascade.withOwnCounters());
+    }
+
+    /**
+     * Decides whether two non-blank values reach the threshold. Distance based strategies can override
+     * this to stop as soon as the outcome is known instead of computing the exact similarity.
+     */
+    protected boolean meetsThreshold(String left, String right) {
         return similarity(left, right) >= threshold;
     }
 
+    /**
+     * Largest edit distance k for which {@code 1 - k / maxLen >= threshold}, for strategies whose similarity is
+     * a normalized edit distance. Evaluated with the same floating point expression so bounded checks agree with
+     * {@link #similarity(String, String)} at the boundary.
+     */
+    protected int maxAllowedDistance(int maxLen) {
+        return maxAllowedDistance(getThreshold(), maxLen);
+    }
+
+    static int maxAllowedDistance(double threshold, int maxLen) {
+        int k = (int) Math.floor((1.0d - threshold) * maxLen);
+        while (k < maxLen && 1.0d - ((double) (k + 1) / maxLen) >= threshold) {
+            k++;
+        }
+        while (k >= 0 && 1.0d - ((double) k / maxLen) < threshold) {
+            k--;
+        }
+        return k;
+    }
+
     protected abstract double similarity(String left, String right);
+
+    /**
+     * A strategy checking pairs exactly like the one it wraps, through a cascade with counters of its own.
+     */
+    private static final class OwnFilterStats extends AbstractQuestionSimilarityStrategy {
+        private final AbstractQuestionSimilarityStrategy strategy;
+
+        private OwnFilterStats(AbstractQuestionSimilarityStrategy strategy, SimilarityFilterCascade filterCascade) {
+            super(strategy.getAlgorithmName(), strategy.getThreshold(), filterCascade);
+            this.strategy = strategy;
+        }
+
+        @Override
+        protected double scoreAtLeast(String left, String right, double floor) {
+            return strategy.scoreAtLeast(left, right, floor);
+        }
+
+        @Override
+        protected boolean meetsThreshold(String left, String right) {
+            return strategy.meetsThreshold(left, right);
+        }
+
+        @Override
+        protected double similarity(String left, String right) {
+            return strategy.similarity(left, right);
+        }
+    }
 }
 
@@ -20,19 +20,23 @@ public class ArchiveImportService {
         this.questionBankRepository = questionBankRepository;
     }
 
+    /**
+     * Whether an archive with this content was imported before; archives imported before hashes were recorded are
+     * not matched.
+     */
     @Transactional(readOnly = true)
-    public boolean existsBySize(Long fileSize) {
-        if (fileSize == null || fileSize <= 0) {
+    public boolean existsByContentHash(String contentHash) {
+        if (contentHash == null || contentHash.isBlank()) {
             return false;
         }
-        return archiveImportRepository.existsByFileSize(fileSize);
+        return archiveImportRepository.existsByContentHash(contentHash);
     }
 
     @Transactional
-    public ArchiveImportDto saveArchiveImport(String fileName, Long fileSize, Long questionBankId) {
+    public ArchiveImportDto saveArchiveImport(String fileName, Long fileSize, String contentHash, Long questionBankId) {
         QuestionBank foundQuestionBank = questionBankId != null ? questionBankRepository.findById(questionBankId).orElse(null) : null;
         QuestionBank questionBank = toQuestionBank(foundQuestionBank);
-        ArchiveImport entity = new ArchiveImport(fileName, fileSize, questionBank);
+        ArchiveImport entity = new ArchiveImport(fileName, fileSize, contentHash, questionBank);
         entity = archiveImportRepository.save(entity);
         return toDto(entity);
     }
@@ -4,9 +4,9 @@ import com.unitbv.myquiz.api.types.TemplateType;
 import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
 import com.unitbv.myquiz.app.util.InputTemplate;
-import org.apache.poi.ss.usermodel.Cell;
+import com.unitbv.myquiz.app.util.SheetCell;
+import com.unitbv.myquiz.app.util.SheetRow;
 import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -44,9 +44,9 @@ public class CellConversionService {
      * @param row The row to count
      * @return Number of non-null, non-empty cells
      */
-    public int countNotNullValues(Row row) {
+    public int countNotNullValues(SheetRow row) {
         int count = 0;
-        for (Cell cell : row) {
+        for (SheetCell cell : row) {
             if (cell != null) {
                 if (cell.getCellType() == CellType.STRING) {
                     if (!cell.getStringCellValue().isEmpty()) {
@@ -68,7 +68,7 @@ public class CellConversionService {
      * @param question           Question for error association
      * @return Converted double value or 0.0 on error
      */
-    public double convertCellToDouble(QuestionBankAuthor questionBankAuthor, Cell cell, Question question) {
+    public double convertCellToDouble(QuestionBankAuthor questionBankAuthor, SheetCell cell, Question question) {
         if (cell == null) {
             question.setCrtNo(-1);
             questionErrorService.addAuthorError(questionBankAuthor, question, MyUtil.MISSING_POINTS);
@@ -140,7 +140,7 @@ public class CellConversionService {
      * @param question           Question for error association
      * @return String value or empty string
      */
-    public String getValueAsString(QuestionBankAuthor questionBankAuthor, Cell cell, Question question) {
+    public String getValueAsString(QuestionBankAuthor questionBankAuthor, SheetCell cell, Question question) {
         String result = "";
         try {
             if (cell != null) {
@@ -168,42 +168,42 @@ public class CellConversionService {
     /**
      * Convert Excel row to multiple choice Question entity.
      */
-    public void convertRowToQuestion(QuestionBankAuthor questionBankAuthor, Row row, Question question, InputTemplate inputTemplate, TemplateType templateType) {
-        Cell cellNrCrt = row.getCell(inputTemplate.getPositionNO());
+    public void convertRowToQuestion(QuestionBankAuthor questionBankAuthor, SheetRow row, Question question, InputTemplate inputTemplate, TemplateType templateType) {
+        SheetCell cellNrCrt = row.getCell(inputTemplate.getPositionNO());
         convertCellToDouble(questionBankAuthor, cellNrCrt, question);
 
         validateAndSetTitle(questionBankAuthor, row, question, inputTemplate);
         validateAndSetQuestionText(questionBankAuthor, row, question, inputTemplate);
 
-        Cell cellPR1 = row.getCell(inputTemplate.getPositionPR1());
+        SheetCell cellPR1 = row.getCell(inputTemplate.getPositionPR1());
         question.setWeightResponse1(convertCellToDouble(questionBankAuthor, cellPR1, question));
 
-        Cell cellResponse1 = row.getCell(inputTemplate.getPositionResponse1());
+        SheetCell cellResponse1 = row.getCell(inputTemplate.getPositionResponse1());
         question.setResponse1(cleanAndConvert(getValueAsString(questionBankAuthor, cellResponse1, question)));
 
-        Cell cellPR2 = row.getCell(inputTemplate.getPositionPR2());
+        SheetCell cellPR2 = row.getCell(inputTemplate.getPositionPR2());
         question.setWeightResponse2(convertCellToDouble(questionBankAuthor, cellPR2, question));
 
-        Cell cellResponse2 = row.getCell(inputTemplate.getPositionResponse2());
+        SheetCell cellResponse2 = row.getCell(inputTemplate.getPositionResponse2());
         question.setResponse2(cleanAndConvert(getValueAsString(questionBankAuthor, cellResponse2, question)));
 
-        Cell cellPR3 = row.getCell(inputTemplate.getPositionPR3());
+        SheetCell cellPR3 = row.getCell(inputTemplate.getPositionPR3());
         question.setWeightResponse3(convertCellToDouble(questionBankAuthor, cellPR3, question));
 
-        Cell cellResponse3 = row.getCell(inputTemplate.getPositionResponse3());
+        SheetCell cellResponse3 = row.getCell(inputTemplate.getPositionResponse3());
         question.setResponse3(cleanAndConvert(getValueAsString(questionBankAuthor, cellResponse3, question)));
 
-        Cell cellPR4 = row.getCell(inputTemplate.getPositionPR4());
+        SheetCell cellPR4 = row.getCell(inputTemplate.getPositionPR4());
         question.setWeightResponse4(convertCellToDouble(questionBankAuthor, cellPR4, question));
 
-        Cell cellResponse4 = row.getCell(inputTemplate.getPositionResponse4());
+        SheetCell cellResponse4 = row.getCell(inputTemplate.getPositionResponse4());
         question.setResponse4(cleanAndConvert(getValueAsString(questionBankAuthor, cellResponse4, question)));
 
-        Cell cellReference = row.getCell(inputTemplate.getPostionReference());
+        SheetCell cellReference = row.getCell(inputTemplate.getPostionReference());
         question.setAnswerReferenceText(textProcessingService.prepareImportedReference(getOptionalCellValueAsString(cellReference)));
 
         if (templateType == TemplateType.Template2024) {
-            Cell cellCourse = row.getCell(inputTemplate.getPositionCourse());
+            SheetCell cellCourse = row.getCell(inputTemplate.getPositionCourse());
             question.setChapter(cleanAndConvert(getValueAsString(questionBankAuthor, cellCourse, question)));
         }
     }
@@ -211,27 +211,27 @@ public class CellConversionService {
     /**
      * Convert Excel row to true/false Question entity.
      */
-    public void convertRowToTrueFalseQuestion(QuestionBankAuthor questionBankAuthor, Row row, Question question, InputTemplate inputTemplate) {
-        Cell cellNrCrt = row.getCell(inputTemplate.getPositionNO());
+    public void convertRowToTrueFalseQuestion(QuestionBankAuthor questionBankAuthor, SheetRow row, Question question, InputTemplate inputTemplate) {
+        SheetCell cellNrCrt = row.getCell(inputTemplate.getPositionNO());
         convertCellToDouble(questionBankAuthor, cellNrCrt, question);
 
         validateAndSetTitle(questionBankAuthor, row, question, inputTemplate);
         validateAndSetQuestionText(questionBankAuthor, row, question, inputTemplate);
 
-        Cell cellPRTrue = row.getCell(inputTemplate.getPositionPRTrue());
+        SheetCell cellPRTrue = row.getCell(inputTemplate.getPositionPRTrue());
         question.setWeightTrue(convertCellToDouble(questionBankAuthor, cellPRTrue, question));
 
-        Cell cellPRFalse = row.getCell(inputTemplate.getPositionPRFalse());
+        SheetCell cellPRFalse = row.getCell(inputTemplate.getPositionPRFalse());
         question.setWeightFalse(convertCellToDouble(questionBankAuthor, cellPRFalse, question));
 
-        Cell cellResponse1 = row.getCell(inputTemplate.getPositionResponse1());
+        SheetCell cellResponse1 = row.getCell(inputTemplate.getPositionResponse1());
         question.setResponse1(cleanAndConvert(getValueAsString(questionBankAuthor, cellResponse1, question)));
 
-        Cell cellReference = row.getCell(inputTemplate.getPostion_TF_Reference());
+        SheetCell cellReference = row.getCell(inputTemplate.getPostion_TF_Reference());
         question.setAnswerReferenceText(textProcessingService.prepareImportedReference(getOptionalCellValueAsString(cellReference)));
     }
 
-    private String getOptionalCellValueAsString(Cell cell) {
+    private String getOptionalCellValueAsString(SheetCell cell) {
         if (cell == null) {
             return null;
         }
@@ -248,8 +248,8 @@ public class CellConversionService {
     /**
      * Validate and set title from cell.
      */
-    private void validateAndSetTitle(QuestionBankAuthor questionBankAuthor, Row row, Question question, InputTemplate inputTemplate) {
-        Cell cellTitlu = row.getCell(inputTemplate.getPositionTitle());
+    private void validateAndSetTitle(QuestionBankAuthor questionBankAuthor, SheetRow row, Question question, InputTemplate inputTemplate) {
+        SheetCell cellTitlu = row.getCell(inputTemplate.getPositionTitle());
 
         if (cellTitlu == null) {
             questionErrorService.addAuthorError(questionBankAuthor, question, MyUtil.MISSING_TITLE);
@@ -282,8 +282,8 @@ public class CellConversionService {
     /**
      * Validate and set question text from cell.
      */
-    private void validateAndSetQuestionText(QuestionBankAuthor questionBankAuthor, Row row, Question question, InputTemplate inputTemplate) {
-        Cell cellText = row.getCell(inputTemplate.getPositionText());
+    private void validateAndSetQuestionText(QuestionBankAuthor questionBankAuthor, SheetRow row, Question question, InputTemplate inputTemplate) {
+        SheetCell cellText = row.getCell(inputTemplate.getPositionText());
 
         if (cellText == null) {
             questionErrorService.addAuthorError(questionBankAuthor, question, MyUtil.EMPTY_QUESTION_TEXT);
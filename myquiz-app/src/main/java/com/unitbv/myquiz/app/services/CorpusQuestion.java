@@ -0,0 +1,102 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
+
+import java.util.Arrays;
+
+/**
+ * Compact, immutable view of a course question as seen by duplicate detection: only the id, the type and the
+ * normalized fields that are compared. Records are built once per question and can be kept across requests in
+ * {@link DuplicateCorpusCache}, unlike the managed {@link Question} entities they are derived from.
+ * <p>
+ * True/false questions compare title and text, every other type compares title and answers, so only the
+ * compared field is kept. {@code answers} holds the distinct non-null normalized responses in response order.
+ *
+ * @param skipped       the title marks a row that could not be parsed
+ * @param missingAnswer the question lacks the answers its type requires and is never analysed as a source
+ * @param answerNumbers response number (1-4) of each entry of {@code answers}
+ */
+record CorpusQuestion(Long id, QuestionType type, boolean skipped, boolean missingAnswer, String title, String text, String[] answers,
+                      byte[] answerNumbers) {
+
+    private static final String[] NO_ANSWERS = new String[0];
+    private static final byte[] NO_ANSWER_NUMBERS = new byte[0];
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final CorpusQuestion EMPTY = new CorpusQuestion(null, null, false, false, null, null, NO_ANSWERS, NO_ANSWER_NUMBERS);
+
+    static CorpusQuestion of(Question question) {
+        if (question == null) {
+            return EMPTY;
+        }
+        QuestionType type = question.getType();
+        boolean trueFalse = type == QuestionType.TRUEFALSE;
+        boolean missingAnswer = (type == QuestionType.MULTICHOICE && !QuestionDuplicationService.hasAllMultichoiceAnswers(question))
+                || (trueFalse && !QuestionDuplicationService.hasTrueFalseAnswer(question));
+        String[] answers = NO_ANSWERS;
+        byte[] answerNumbers = NO_ANSWER_NUMBERS;
+        if (!trueFalse) {
+            answers = new String[QuestionDuplicationService.NUM_ANSWERS];
+            answerNumbers = new byte[QuestionDuplicationService.NUM_ANSWERS];
+            int count = collectDistinctAnswers(question, answers, answerNumbers);
+            answers = count == 0 ? NO_ANSWERS : Arrays.copyOf(answers, count);
+            answerNumbers = count == 0 ? NO_ANSWER_NUMBERS : Arrays.copyOf(answerNumbers, count);
+        }
+        return new CorpusQuestion(
+                question.getId(),
+                type,
+                MyUtil.SKIPPED_DUE_TO_ERROR.equals(question.getTitle()),
+                missingAnswer,
+                QuestionDuplicationService.normalizedTitleOf(question),
+                trueFalse ? QuestionDuplicationService.normalizedTextOf(question) : null,
+                answers,
+                answerNumbers
+        );
+    }
+
+    /**
+     * Whether the question takes part in comparisons at all.
+     */
+    boolean comparable() {
+        return id != null && type != null && !skipped;
+    }
+
+    /**
+     * Whether the question is analysed against its candidates, as opposed to only being a candidate.
+     */
+    boolean isSource() {
+        return comparable() && !missingAnswer;
+    }
+
+    /**
+     * Fingerprint of everything a comparison of this question depends on, so a stored comparison result is only
+     * reused while it is unchanged.
+     */
+    long contentFingerprint() {
+        StringBuilder content = new StringBuilder()
+                .append(QuestionFingerprints.CURRENT_VERSION).append(FIELD_SEPARATOR)
+                .append(type).append(FIELD_SEPARATOR)
+                .append(skipped).append(FIELD_SEPARATOR)
+                .append(missingAnswer).append(FIELD_SEPARATOR)
+                .append(title).append(FIELD_SEPARATOR)
+                .append(text);
+        for (int i = 0; i < answers.length; i++) {
+            content.append(FIELD_SEPARATOR).append(answerNumbers[i]).append(FIELD_SEPARATOR).append(answers[i]);
+        }
+        return QuestionFingerprints.fingerprint(content.toString());
+    }
+
+    private static int collectDistinctAnswers(Question question, String[] answers, byte[] answerNumbers) {
+        int count = 0;
+        int number = 0;
+        for (String answer : QuestionDuplicationService.normalizedResponsesOf(question)) {
+            number++;
+            if (answer != null && !Arrays.asList(answers).subList(0, count).contains(answer)) {
+                answers[count] = answer;
+                answerNumbers[count++] = (byte) number;
+            }
+        }
+        return count;
+    }
+}
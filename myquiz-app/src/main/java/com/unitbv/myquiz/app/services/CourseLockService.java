@@ -0,0 +1,278 @@
+package com.unitbv.myquiz.app.services;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Course-scoped mutual exclusion for work that rewrites the duplicate state of a course, duplicate recomputes and
+ * archive imports, so application instances sharing one database never run such work on the same course at once and
+ * race on {@code uk_question_duplicate_pair}.
+ * <p>
+ * On PostgreSQL a lock is the session advisory lock {@code pg_try_advisory_lock(LOCK_NAMESPACE, courseId)}, taken on
+ * a pooled connection of its own that is held until the lock is closed. It is independent of the transactions of the
+ * locked work, and the database drops it if the instance dies. Other databases, H2 in tests, get an in-memory
+ * stand-in that only excludes work within this instance. Holders in this instance are tracked in both cases, so a
+ * conflict can name the work holding the course.
+ * <p>
+ * Locks are not reentrant: work holding a course must not lock it again.
+ */
+@Service
+public class CourseLockService {
+    private static final Logger logger = LoggerFactory.getLogger(CourseLockService.class);
+    /**
+     * First key of the two-key advisory locks, keeping course locks apart from other advisory locks of the database.
+     */
+    static final int LOCK_NAMESPACE = 0x6D710001;
+    private static final String TRY_LOCK = "SELECT pg_try_advisory_lock(?, ?)";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?, ?)";
+
+    private final DataSource dataSource;
+    private final Duration waitTimeout;
+    private final Duration retryInterval;
+    private final Map<Long, String> localHolders = new ConcurrentHashMap<>();
+    private volatile Boolean advisoryLocks;
+
+    public CourseLockService(
+            DataSource dataSource,
+            @Value("${myquiz.course-lock.wait-timeout-seconds:1800}") long waitTimeoutSeconds,
+            @Value("${myquiz.course-lock.retry-interval-ms:2000}") long retryIntervalMs
+    ) {
+        this.dataSource = dataSource;
+        this.waitTimeout = Duration.ofSeconds(Math.max(0, waitTimeoutSeconds));
+        this.retryInterval = Duration.ofMillis(Math.max(1, retryIntervalMs));
+    }
+
+    /**
+     * Locks the course unless other work holds it. A {@code null} course, a question bank without course, gets a lock
+     * guarding nothing.
+     *
+     * @param purpose what the work does, reported to work conflicting with it in this instance
+     * @return the lock, to be closed when the work is done, or {@code null} if the course is busy
+     */
+    public CourseLock tryLock(Long courseId, String purpose) {
+        if (courseId == null) {
+            return new CourseLock(null, null);
+        }
+        if (localHolders.putIfAbsent(courseId, purpose) != null) {
+            return null;
+        }
+        try {
+            Connection connection = null;
+            if (usesAdvisoryLocks()) {
+                connection = acquireAdvisoryLock(courseId);
+                if (connection == null) {
+                    localHolders.remove(courseId);
+                    return null;
+                }
+            }
+            logger.atDebug().addArgument(courseId).addArgument(purpose).log("Locked course {} for {}");
+            return new CourseLock(courseId, connection);
+        } catch (RuntimeException e) {
+            localHolders.remove(courseId);
+            throw e;
+        }
+    }
+
+    /**
+     * Locks the course unless other work holds it, for work that waits for the course by trying again after
+     * {@link #getRetryInterval()} rather than by holding a thread.
+     *
+     * @param waitingSince when the work first found the course busy, {@code null} on its first attempt
+     * @return the lock, or {@code null} if the course is busy and the work may try again
+     * @throws CourseLockedException if the course is still busy {@code myquiz.course-lock.wait-timeout-seconds}
+     *                               after {@code waitingSince}
+     */
+    public CourseLock tryLock(Long courseId, String purpose, Instant waitingSince) {
+        CourseLock lock = tryLock(courseId, purpose);
+        if (lock == null && waitingSince != null && Duration.between(waitingSince, Instant.now()).compareTo(waitTimeout) >= 0) {
+            throw locked(courseId);
+        }
+        return lock;
+    }
+
+    /**
+     * Time between two attempts of work waiting for a busy course.
+     */
+    public Duration getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * Runs the work holding the course, rejecting it at once if other work holds the course.
+     *
+     * @throws CourseLockedException if the course is busy
+     */
+    public <T> T runExclusively(Long courseId, String purpose, Supplier<T> work) {
+        CourseLock lock = tryLock(courseId, purpose);
+        if (lock == null) {
+            throw locked(courseId);
+        }
+        try (lock) {
+            return work.get();
+        }
+    }
+
+    private CourseLockedException locked(Long courseId) {
+        String holder = localHolders.get(courseId);
+        String message = holder != null
+                ? "Course " + courseId + " is busy with " + holder
+                : "Course " + courseId + " is busy with a duplicate recompute or archive import on another instance";
+        return new CourseLockedException(courseId, message);
+    }
+
+    private boolean usesAdvisoryLocks() {
+        Boolean checked = advisoryLocks;
+        if (checked == null) {
+            if (dataSource == null) {
+                checked = false;
+            } else {
+                try (Connection connection = dataSource.getConnection()) {
+                    checked = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+                } catch (SQLException e) {
+                    throw new CannotAcquireLockException("Could not inspect the database for course locks", e);
+                }
+            }
+            if (!checked) {
+                logger.atInfo().log("Database has no advisory locks, course locks only exclude work within this instance");
+            }
+            advisoryLocks = checked;
+        }
+        return checked;
+    }
+
+    /**
+     * Tries the advisory lock on a connection of its own; returns the connection holding it, or {@code null}.
+     */
+    private Connection acquireAdvisoryLock(long courseId) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement(TRY_LOCK)) {
+                statement.setInt(1, LOCK_NAMESPACE);
+                statement.setInt(2, Long.hashCode(courseId));
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) {
+                        return connection;
+                    }
+                }
+            }
+            connection.close();
+            return null;
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new CannotAcquireLockException("Could not lock course " + courseId, e);
+        }
+    }
+
+    private void release(CourseLock lock) {
+        if (lock.connection != null) {
+            boolean unlocked = false;
+            try (PreparedStatement statement = lock.connection.prepareStatement(UNLOCK)) {
+                statement.setInt(1, LOCK_NAMESPACE);
+                statement.setInt(2, Long.hashCode(lock.courseId));
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        logger.atWarn().addArgument(lock.courseId).log("Advisory lock of course {} was not held at release");
+                    }
+                }
+                unlocked = true;
+            } catch (SQLException e) {
+                logger.atWarn().addArgument(lock.courseId).addArgument(e.getMessage()).log("Could not release advisory lock of course {}: {}");
+            } finally {
+                if (unlocked) {
+                    closeQuietly(lock.connection);
+                } else {
+                    evict(lock.connection);
+                }
+            }
+        }
+        localHolders.remove(lock.courseId);
+        logger.atDebug().addArgument(lock.courseId).log("Released course {}");
+    }
+
+    /**
+     * Drops a connection whose session may still hold an advisory lock; returned to the pool, the session would keep the
+     * course locked for every instance until the pool retires it.
+     */
+    private void evict(Connection connection) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                dataSource.unwrap(HikariDataSource.class).evictConnection(connection);
+            } else {
+                connection.abort(Runnable::run);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.atWarn().addArgument(e.getMessage()).log("Could not evict course lock connection: {}");
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.atDebug().addArgument(e.getMessage()).log("Could not close course lock connection: {}");
+        }
+    }
+
+    /**
+     * A held course lock; closing it releases the course. Closing twice has no effect.
+     */
+    public final class CourseLock implements AutoCloseable {
+        private final Long courseId;
+        private final Connection connection;
+        private boolean released;
+
+        private CourseLock(Long courseId, Connection connection) {
+            this.courseId = courseId;
+            this.connection = connection;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (released || courseId == null) {
+                return;
+            }
+            released = true;
+            release(this);
+        }
+    }
+
+    /**
+     * Thrown when work is rejected because other work, in this or another instance, holds the course.
+     */
+    public static class CourseLockedException extends IllegalStateException {
+        private final Long courseId;
+
+        public CourseLockedException(Long courseId, String message) {
+            super(message);
+            this.courseId = courseId;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+    }
+}
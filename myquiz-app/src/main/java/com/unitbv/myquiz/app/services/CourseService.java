@@ -57,11 +57,13 @@ public class CourseService {
     private final QuestionDuplicateRepository questionDuplicateRepository;
     private final QuestionErrorRepository questionErrorRepository;
     private final DuplicateRecomputeHistoryRepository duplicateRecomputeHistoryRepository;
+    private final CourseLockService courseLockService;
 
     @Autowired
     public CourseService(CourseRepository courseRepository, QuestionRepository questionRepository, AuthorRepository authorRepository, QuestionBankAuthorRepository questionBankAuthorRepository,
                          QuestionBankRepository questionBankRepository, CourseMapper courseMapper, QuestionDuplicationService questionDuplicationService, QuestionDuplicateRepository questionDuplicateRepository,
-                         QuestionErrorRepository questionErrorRepository, DuplicateRecomputeHistoryRepository duplicateRecomputeHistoryRepository) {
+                         QuestionErrorRepository questionErrorRepository, DuplicateRecomputeHistoryRepository duplicateRecomputeHistoryRepository,
+                         CourseLockService courseLockService) {
         this.courseRepository = courseRepository;
         this.questionRepository = questionRepository;
         this.authorRepository = authorRepository;
@@ -72,6 +74,7 @@ public class CourseService {
         this.questionDuplicateRepository = questionDuplicateRepository;
         this.questionErrorRepository = questionErrorRepository;
         this.duplicateRecomputeHistoryRepository = duplicateRecomputeHistoryRepository;
+        this.courseLockService = courseLockService;
     }
 
 
@@ -364,7 +367,8 @@ public class CourseService {
         java.time.OffsetDateTime startedAt = java.time.OffsetDateTime.now();
         long startedMs = System.currentTimeMillis();
 
-        QuestionDuplicationService.DuplicateRecomputeSummary summary = questionDuplicationService.recomputeDuplicatesForCourse(course.getCourse());
+        QuestionDuplicationService.DuplicateRecomputeSummary summary = courseLockService.runExclusively(course.getId(), recomputePurpose(course.getCourse()),
+                () -> questionDuplicationService.recomputeDuplicatesForCourse(course.getCourse()));
 
         long endedMs = System.currentTimeMillis();
         java.time.OffsetDateTime endedAt = java.time.OffsetDateTime.now();
@@ -381,6 +385,7 @@ public class CourseService {
         dto.setDuplicateLinksRemoved(summary.duplicateLinksRemoved());
         dto.setDuplicateErrorsRemoved(summary.duplicateErrorsRemoved());
         dto.setDuplicateErrorsCreated(summary.duplicateErrorsCreated());
+        setFilterStats(dto, summary.filterStats());
         return dto;
     }
 
@@ -395,7 +400,8 @@ public class CourseService {
         java.time.OffsetDateTime startedAt = java.time.OffsetDateTime.now();
         long startedMs = System.currentTimeMillis();
 
-        QuestionDuplicationService.DuplicateRecomputeSummary summary = questionDuplicationService.recomputeDuplicatesForCourse(course.getCourse(), strategy);
+        QuestionDuplicationService.DuplicateRecomputeSummary summary = courseLockService.runExclusively(course.getId(), recomputePurpose(course.getCourse()),
+                () -> questionDuplicationService.recomputeDuplicatesForCourse(course.getCourse(), strategy));
 
         long endedMs = System.currentTimeMillis();
         java.time.OffsetDateTime endedAt = java.time.OffsetDateTime.now();
@@ -412,6 +418,7 @@ public class CourseService {
         dto.setDuplicateLinksRemoved(summary.duplicateLinksRemoved());
         dto.setDuplicateErrorsRemoved(summary.duplicateErrorsRemoved());
         dto.setDuplicateErrorsCreated(summary.duplicateErrorsCreated());
+        setFilterStats(dto, summary.filterStats());
         return dto;
     }
 
@@ -638,15 +645,22 @@ public class CourseService {
             Long courseId,
             Supplier<QuestionDuplicationService.DuplicateRecomputeSummary> recomputeAction
     ) {
+        Long lockedCourseId = courseId != null || courseName == null
+                ? courseId
+                : courseRepository.findByCourseIgnoreCase(courseName).map(Course::getId).orElse(null);
         OffsetDateTime startedAt = OffsetDateTime.now();
         long startedMs = System.currentTimeMillis();
-        QuestionDuplicationService.DuplicateRecomputeSummary summary = recomputeAction.get();
+        QuestionDuplicationService.DuplicateRecomputeSummary summary = courseLockService.runExclusively(lockedCourseId, recomputePurpose(courseName), recomputeAction);
         long durationMs = System.currentTimeMillis() - startedMs;
         OffsetDateTime endedAt = OffsetDateTime.now();
         return buildRecomputeResult(courseName, courseId, startedAt, endedAt, durationMs, summary);
     }
 
-    private CourseDuplicateRecomputeResultDto buildRecomputeResult(
+    private static String recomputePurpose(String courseName) {
+        return "a duplicate recompute of course '" + courseName + "'";
+    }
+
+    CourseDuplicateRecomputeResultDto buildRecomputeResult(
             String courseName,
             Long courseId,
             OffsetDateTime startedAt,
@@ -666,9 +680,20 @@ public class CourseService {
         dto.setDuplicateLinksRemoved(summary.duplicateLinksRemoved());
         dto.setDuplicateErrorsRemoved(summary.duplicateErrorsRemoved());
         dto.setDuplicateErrorsCreated(summary.duplicateErrorsCreated());
+        setFilterStats(dto, summary.filterStats());
         return dto;
     }
 
+    private static void setFilterStats(CourseDuplicateRecomputeResultDto dto, SimilarityFilterStats filterStats) {
+        if (filterStats == null) {
+            return;
+        }
+        dto.setSimilarityChecks(filterStats.evaluated());
+        dto.setPrunedByLength(filterStats.prunedByLength());
+        dto.setPrunedByBag(filterStats.prunedByBag());
+        dto.setPrunedByQGram(filterStats.prunedByQGram());
+    }
+
     private record DuplicateClearSummary(int duplicateLinksRemoved, int duplicateErrorsRemoved) {
     }
 
@@ -689,6 +714,21 @@ public class CourseService {
                                                               Long courseId,
                                                               Long questionBankId,
                                                               Long authorId) {
+        return saveRecomputeHistory(result, strategy, courseId, questionBankId, authorId, null, null);
+    }
+
+    /**
+     * Saves the result of one course of an all-courses recompute, with the batch it belonged to and the time it
+     * waited for a free slot.
+     */
+    @Transactional
+    public DuplicateRecomputeHistoryDto saveRecomputeHistory(CourseDuplicateRecomputeResultDto result,
+                                                              String strategy,
+                                                              Long courseId,
+                                                              Long questionBankId,
+                                                              Long authorId,
+                                                              String batchId,
+                                                              Long queueWaitMs) {
         DuplicateRecomputeHistory entity = new DuplicateRecomputeHistory();
         entity.setCourseId(result.getCourseId() != null ? result.getCourseId() : courseId);
         entity.setCourseName(result.getCourseName());
@@ -704,6 +744,8 @@ public class CourseService {
         entity.setStartedAt(result.getStartedAt());
         entity.setEndedAt(result.getEndedAt());
         entity.setDurationMs(result.getDurationMs());
+        entity.setBatchId(batchId);
+        entity.setQueueWaitMs(queueWaitMs);
         DuplicateRecomputeHistory saved = duplicateRecomputeHistoryRepository.save(entity);
         log.atInfo().addArgument(saved.getId()).addArgument(saved.getCourseName()).log("Saved recompute history entry id={} for course '{}'");
         return mapHistoryToDto(saved);
@@ -750,6 +792,8 @@ public class CourseService {
         dto.setStartedAt(entity.getStartedAt());
         dto.setEndedAt(entity.getEndedAt());
         dto.setDurationMs(entity.getDurationMs());
+        dto.setBatchId(entity.getBatchId());
+        dto.setQueueWaitMs(entity.getQueueWaitMs());
         dto.setSavedAt(entity.getSavedAt());
         return dto;
     }
@@ -0,0 +1,43 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.List;
+
+/**
+ * Narrows the course questions a single question has to be compared against during duplicate detection.
+ * Implementations are built once per detection run and are read-only afterwards, so they can be shared
+ * between the duplicate-check worker threads.
+ */
+interface DuplicateCandidateIndex {
+
+    /**
+     * Returns the questions that may be duplicates of {@code question}, in course order.
+     * The result may contain the question itself; callers filter self-matches.
+     */
+    List<CorpusQuestion> candidatesFor(CorpusQuestion question);
+
+    /**
+     * Whether every course question is a candidate for every question. Callers comparing a list with itself
+     * can then walk the pair matrix directly instead of asking for candidates row by row.
+     */
+    default boolean isExhaustive() {
+        return false;
+    }
+
+    /**
+     * Exhaustive index: every course question is a candidate for every question.
+     */
+    static DuplicateCandidateIndex exhaustive(List<CorpusQuestion> courseQuestions) {
+        List<CorpusQuestion> safeCourseQuestions = courseQuestions == null ? List.of() : courseQuestions;
+        return new DuplicateCandidateIndex() {
+            @Override
+            public List<CorpusQuestion> candidatesFor(CorpusQuestion question) {
+                return safeCourseQuestions;
+            }
+
+            @Override
+            public boolean isExhaustive() {
+                return true;
+            }
+        };
+    }
+}
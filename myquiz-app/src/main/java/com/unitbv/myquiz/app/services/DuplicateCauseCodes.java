@@ -0,0 +1,153 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact encoding of why two questions were linked as duplicates, stored as one {@code int} per link and rendered
+ * only when the link is displayed.
+ * <p>
+ * Layout, from the lowest bit:
+ * <ul>
+ *     <li>bits 0-8: one bit per compared field (title, text, answer) and match kind (exact, substring, similar)</li>
+ *     <li>bits 9-11 and 12-14: number (1-4) of the matched answer in the lower and in the higher id question of the
+ *     pair, {@code 0} when no answer matched or the number is unknown</li>
+ *     <li>bits 15-21: similarity score in percent of the best similar match, {@code 0} when nothing matched by
+ *     similarity only</li>
+ * </ul>
+ * Causes of the same pair found from several sides are combined with {@link #merge(int, int)}.
+ */
+public final class DuplicateCauseCodes {
+
+    static final int FIELD_TITLE = 0;
+    static final int FIELD_TEXT = 1;
+    static final int FIELD_ANSWER = 2;
+
+    /** No match; {@link #of(int, int)} returns {@code 0} for it. */
+    static final int KIND_NONE = 0;
+    static final int KIND_EXACT = 1;
+    static final int KIND_SUBSTRING = 2;
+    static final int KIND_SIMILAR = 3;
+
+    private static final int KINDS_PER_FIELD = 3;
+    private static final int MATCH_MASK = (1 << 9) - 1;
+    private static final int ANSWER_BITS = 3;
+    private static final int ANSWER_MASK = (1 << ANSWER_BITS) - 1;
+    private static final int LOWER_ANSWER_SHIFT = 9;
+    private static final int HIGHER_ANSWER_SHIFT = LOWER_ANSWER_SHIFT + ANSWER_BITS;
+    private static final int SCORE_SHIFT = HIGHER_ANSWER_SHIFT + ANSWER_BITS;
+    private static final int SCORE_MASK = (1 << 7) - 1;
+    private static final int MAX_SCORE = 100;
+    private static final String[] FIELD_NAMES = {"Title", "Text", "Answer"};
+    private static final String[] KIND_NAMES = {"", "exact match", "substring match", "similar"};
+
+    private DuplicateCauseCodes() {
+        // Prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the cause bit for a match of {@code kind} on {@code field}, or {@code 0} for {@link #KIND_NONE}.
+     */
+    static int of(int field, int kind) {
+        if (kind == KIND_NONE) {
+            return 0;
+        }
+        return 1 << (field * KINDS_PER_FIELD + kind - 1);
+    }
+
+    /**
+     * Returns the cause for a similar match on {@code field} with the given similarity in {@code [0, 1]}.
+     */
+    static int similar(int field, double similarity) {
+        int score = (int) Math.round(Math.clamp(similarity, 0.0d, 1.0d) * MAX_SCORE);
+        return of(field, KIND_SIMILAR) | (score << SCORE_SHIFT);
+    }
+
+    /**
+     * Adds the numbers (1-4) of the matched answers to an answer cause. The numbers are given from the point of view
+     * of the compared questions; {@link #orient(int, boolean)} moves them to the lower and higher id slots.
+     */
+    static int withAnswers(int cause, int sourceAnswer, int candidateAnswer) {
+        return (cause & ~(ANSWER_MASK << LOWER_ANSWER_SHIFT | ANSWER_MASK << HIGHER_ANSWER_SHIFT))
+                | (sourceAnswer & ANSWER_MASK) << LOWER_ANSWER_SHIFT
+                | (candidateAnswer & ANSWER_MASK) << HIGHER_ANSWER_SHIFT;
+    }
+
+    /**
+     * Orients a cause built with the source question's answer first to the lower/higher id order of the pair key.
+     */
+    static int orient(int cause, boolean sourceIsLower) {
+        if (sourceIsLower) {
+            return cause;
+        }
+        return withAnswers(cause, higherAnswer(cause), lowerAnswer(cause));
+    }
+
+    /**
+     * Combines two causes of the same pair: match bits are united, the first known answer numbers are kept and the
+     * higher score wins.
+     */
+    static int merge(int left, int right) {
+        int merged = (left | right) & MATCH_MASK;
+        int answers = answersOf(left) != 0 ? answersOf(left) : answersOf(right);
+        int score = Math.max(score(left), score(right));
+        return merged | answers << LOWER_ANSWER_SHIFT | score << SCORE_SHIFT;
+    }
+
+    /**
+     * Returns the strongest match kind recorded for {@code field}, or {@link #KIND_NONE}.
+     */
+    static int kindOf(int cause, int field) {
+        for (int kind = KIND_EXACT; kind <= KIND_SIMILAR; kind++) {
+            if ((cause & of(field, kind)) != 0) {
+                return kind;
+            }
+        }
+        return KIND_NONE;
+    }
+
+    static int lowerAnswer(int cause) {
+        return cause >>> LOWER_ANSWER_SHIFT & ANSWER_MASK;
+    }
+
+    static int higherAnswer(int cause) {
+        return cause >>> HIGHER_ANSWER_SHIFT & ANSWER_MASK;
+    }
+
+    static int score(int cause) {
+        return cause >>> SCORE_SHIFT & SCORE_MASK;
+    }
+
+    /**
+     * Renders a cause as {@code "Title: exact match; Answer 2/4: similar (87%)"}, where the answer numbers refer to
+     * the lower and the higher id question of the pair. Unknown causes render as {@code "Duplicate detected"}.
+     */
+    public static String describe(int cause) {
+        List<String> parts = new ArrayList<>(2);
+        for (int field = 0; field < FIELD_NAMES.length; field++) {
+            for (int kind = KIND_EXACT; kind <= KIND_SIMILAR; kind++) {
+                if ((cause & of(field, kind)) != 0) {
+                    parts.add(describePart(cause, field, kind));
+                }
+            }
+        }
+        return parts.isEmpty() ? "Duplicate detected" : String.join("; ", parts);
+    }
+
+    private static String describePart(int cause, int field, int kind) {
+        StringBuilder part = new StringBuilder(FIELD_NAMES[field]);
+        if (field == FIELD_ANSWER && lowerAnswer(cause) != 0 && higherAnswer(cause) != 0) {
+            part.append(' ').append(lowerAnswer(cause)).append('/').append(higherAnswer(cause));
+        }
+        part.append(": ").append(KIND_NAMES[kind]);
+        if (kind == KIND_SIMILAR && score(cause) != 0) {
+            part.append(" (").append(score(cause)).append("%)");
+        }
+        return part.toString();
+    }
+
+    private static int answersOf(int cause) {
+        return cause >>> LOWER_ANSWER_SHIFT & (ANSWER_MASK << ANSWER_BITS | ANSWER_MASK);
+    }
+}
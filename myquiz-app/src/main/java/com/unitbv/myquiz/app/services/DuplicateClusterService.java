@@ -0,0 +1,169 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.dto.QuestionDuplicateClusterDto;
+import com.unitbv.myquiz.api.settings.ControllerSettings;
+import com.unitbv.myquiz.app.entities.Course;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.entities.QuestionDuplicateCluster;
+import com.unitbv.myquiz.app.repositories.CourseRepository;
+import com.unitbv.myquiz.app.repositories.QuestionDuplicateClusterRepository;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains duplicate clusters: groups of questions of a course that are transitively linked by open duplicate links.
+ * <p>
+ * A group of {@code k} mutually duplicated questions is {@code k·(k-1)/2} links but only one cluster with {@code k}
+ * members, so listing and resolving a group costs time linear in its size. Clusters are a snapshot rebuilt from the
+ * open links at the end of each recompute; links added or removed in between by incremental maintenance show up with
+ * the next recompute. Members are plain question ids; questions deleted since the last rebuild are left out when
+ * clusters are listed, and their member rows go away with the next rebuild.
+ */
+@Service
+public class DuplicateClusterService {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateClusterService.class);
+    private static final String SELECT_OPEN_PAIRS = """
+            SELECT d.question_id, d.duplicate_question_id FROM question_duplicate d
+            JOIN question q ON q.id = d.question_id
+            JOIN question_bank_author qba ON qba.id = q.question_bank_author_id
+            JOIN question_bank qb ON qb.id = qba.question_bank_id
+            WHERE qb.course_id = ? AND d.status = ?""";
+    private static final String SELECT_CLUSTER_MEMBERS = """
+            SELECT m.cluster_id, m.question_id FROM question_duplicate_cluster_member m
+            JOIN question_duplicate_cluster c ON c.id = m.cluster_id
+            JOIN question q ON q.id = m.question_id
+            WHERE c.course_id = ?
+            ORDER BY m.cluster_id, m.question_id""";
+    private static final String RESOLVE_CLUSTER_LINKS = """
+            UPDATE question_duplicate SET status = ?
+            WHERE status <> ?
+            AND question_id IN (SELECT question_id FROM question_duplicate_cluster_member WHERE cluster_id = ?)
+            AND duplicate_question_id IN (SELECT question_id FROM question_duplicate_cluster_member WHERE cluster_id = ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CourseRepository courseRepository;
+    private final QuestionRepository questionRepository;
+    private final QuestionDuplicateClusterRepository questionDuplicateClusterRepository;
+    private final DuplicateOutputWriter duplicateOutputWriter;
+
+    public DuplicateClusterService(JdbcTemplate jdbcTemplate, CourseRepository courseRepository, QuestionRepository questionRepository,
+                                   QuestionDuplicateClusterRepository questionDuplicateClusterRepository, DuplicateOutputWriter duplicateOutputWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.courseRepository = courseRepository;
+        this.questionRepository = questionRepository;
+        this.questionDuplicateClusterRepository = questionDuplicateClusterRepository;
+        this.duplicateOutputWriter = duplicateOutputWriter;
+    }
+
+    /**
+     * Replaces the clusters of the course by the connected components of its open duplicate links.
+     * Links written through the persistence context have to be flushed before.
+     *
+     * @return number of clusters, {@code 0} if the course does not exist
+     */
+    @Transactional
+    public int rebuildClusters(String courseName) {
+        Course course = courseName == null ? null : courseRepository.findByCourseIgnoreCase(courseName).orElse(null);
+        if (course == null) {
+            logger.atWarn().addArgument(courseName).log("Skipping duplicate cluster rebuild, course '{}' not found");
+            return 0;
+        }
+        long startedMs = System.currentTimeMillis();
+        DuplicatePairSet openPairs = new DuplicatePairSet();
+        jdbcTemplate.query(SELECT_OPEN_PAIRS, rs -> {
+            openPairs.add(DuplicatePairSet.pack(rs.getLong(1), rs.getLong(2)));
+        }, course.getId(), ControllerSettings.DUPLICATE_STATUS_OPEN);
+
+        List<long[]> clusters = DuplicateClusters.of(openPairs.sortedKeys());
+        duplicateOutputWriter.replaceClusters(course.getId(), clusters);
+        logger.atInfo().addArgument(clusters.size()).addArgument(openPairs.size()).addArgument(course.getCourse())
+              .addArgument(System.currentTimeMillis() - startedMs)
+              .log("Rebuilt {} duplicate clusters from {} open links for course '{}' in {} ms");
+        return clusters.size();
+    }
+
+    /**
+     * Lists the clusters of a course, largest first. Deleted questions are not listed as members; a cluster left with
+     * fewer than two members is skipped, and one whose canonical question was deleted is headed by its lowest
+     * remaining member.
+     *
+     * @param status optional cluster status filter
+     * @throws IllegalArgumentException if the course does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<QuestionDuplicateClusterDto> getClusters(String courseName, String status) {
+        Course course = courseName == null ? null : courseRepository.findByCourseIgnoreCase(courseName).orElse(null);
+        if (course == null) {
+            throw new IllegalArgumentException("Course not found: " + courseName);
+        }
+        List<QuestionDuplicateCluster> clusters = status == null || status.isBlank()
+                ? questionDuplicateClusterRepository.findByCourseIdOrderByMemberCountDescIdAsc(course.getId())
+                : questionDuplicateClusterRepository.findByCourseIdAndStatusOrderByMemberCountDescIdAsc(course.getId(), status);
+        if (clusters.isEmpty()) {
+            return List.of();
+        }
+
+        // Members of all clusters in one query instead of one collection load per cluster; the join drops deleted questions.
+        Map<Long, List<Long>> membersByCluster = new HashMap<>();
+        jdbcTemplate.query(SELECT_CLUSTER_MEMBERS, rs -> {
+            membersByCluster.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+        }, course.getId());
+        List<QuestionDuplicateCluster> listed = clusters.stream()
+                                                        .filter(cluster -> membersByCluster.getOrDefault(cluster.getId(), List.of()).size() > 1)
+                                                        .toList();
+        Map<Long, String> canonicalTitles = new HashMap<>();
+        for (Question question : questionRepository.findAllById(listed.stream().map(cluster -> membersByCluster.get(cluster.getId()).getFirst()).toList())) {
+            canonicalTitles.put(question.getId(), question.getTitle());
+        }
+
+        List<QuestionDuplicateClusterDto> dtos = new ArrayList<>(listed.size());
+        for (QuestionDuplicateCluster cluster : listed) {
+            List<Long> memberIds = membersByCluster.get(cluster.getId());
+            dtos.add(QuestionDuplicateClusterDto.builder()
+                                                .id(cluster.getId())
+                                                .course(course.getCourse())
+                                                .canonicalQuestionId(memberIds.getFirst())
+                                                .canonicalQuestionTitle(canonicalTitles.get(memberIds.getFirst()))
+                                                .memberIds(memberIds)
+                                                .size(memberIds.size())
+                                                .status(cluster.getStatus())
+                                                .build());
+        }
+        dtos.sort(Comparator.comparingInt(QuestionDuplicateClusterDto::getSize).reversed().thenComparing(QuestionDuplicateClusterDto::getId));
+        return dtos;
+    }
+
+    /**
+     * Flags a cluster and, with a single update, every duplicate link between two of its members as resolved.
+     *
+     * @return number of links that changed status
+     * @throws IllegalArgumentException if the cluster does not exist
+     */
+    @Transactional
+    public int resolveCluster(Long clusterId) {
+        logger.atInfo().addArgument(clusterId).log("Resolving duplicate cluster {}");
+        if (clusterId == null) {
+            throw new IllegalArgumentException("Duplicate cluster ID cannot be null");
+        }
+        QuestionDuplicateCluster cluster = questionDuplicateClusterRepository.findById(clusterId)
+                .orElseThrow(() -> new IllegalArgumentException("Duplicate cluster not found with id: " + clusterId));
+
+        int resolvedLinks = jdbcTemplate.update(RESOLVE_CLUSTER_LINKS, ControllerSettings.DUPLICATE_STATUS_RESOLVED, ControllerSettings.DUPLICATE_STATUS_RESOLVED,
+                                                clusterId, clusterId);
+        cluster.setStatus(ControllerSettings.DUPLICATE_STATUS_RESOLVED);
+        questionDuplicateClusterRepository.save(cluster);
+        logger.atInfo().addArgument(clusterId).addArgument(cluster.getMemberCount()).addArgument(resolvedLinks)
+              .log("Duplicate cluster {} with {} questions resolved, {} links marked as resolved");
+        return resolvedLinks;
+    }
+}
@@ -0,0 +1,99 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups duplicate pairs into clusters of transitively duplicated questions with a union-find.
+ * <p>
+ * Question ids are mapped to dense indexes through a sorted id array, so the forest is two {@code int[]} arrays and
+ * the whole grouping is {@code O(p log n)} for {@code p} pairs over {@code n} distinct questions. Unions are by size
+ * with path halving. Members of a cluster are returned in ascending id order and the lowest id, the question that was
+ * stored first, is the cluster's canonical question.
+ */
+final class DuplicateClusters {
+
+    private DuplicateClusters() {
+        // Prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the member ids of every cluster, each sorted ascending; clusters are ordered by their canonical id.
+     *
+     * @param pairKeys keys packed by {@link DuplicatePairSet#pack(Long, Long)}
+     */
+    static List<long[]> of(long[] pairKeys) {
+        if (pairKeys == null || pairKeys.length == 0) {
+            return List.of();
+        }
+        long[] ids = distinctIds(pairKeys);
+        int[] parent = new int[ids.length];
+        int[] size = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        for (long pairKey : pairKeys) {
+            union(parent, size, Arrays.binarySearch(ids, DuplicatePairSet.lowerId(pairKey)), Arrays.binarySearch(ids, DuplicatePairSet.higherId(pairKey)));
+        }
+
+        // Ids are sorted, so the first member met for a root is its canonical id and clusters come out in canonical order.
+        int[] clusterOfRoot = new int[ids.length];
+        Arrays.fill(clusterOfRoot, -1);
+        List<long[]> clusters = new ArrayList<>();
+        int[] filled = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int root = find(parent, i);
+            int cluster = clusterOfRoot[root];
+            if (cluster < 0) {
+                cluster = clusters.size();
+                clusterOfRoot[root] = cluster;
+                clusters.add(new long[size[root]]);
+            }
+            clusters.get(cluster)[filled[cluster]++] = ids[i];
+        }
+        return clusters;
+    }
+
+    private static long[] distinctIds(long[] pairKeys) {
+        long[] ids = new long[pairKeys.length * 2];
+        int next = 0;
+        for (long pairKey : pairKeys) {
+            ids[next++] = DuplicatePairSet.lowerId(pairKey);
+            ids[next++] = DuplicatePairSet.higherId(pairKey);
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private static void union(int[] parent, int[] size, int left, int right) {
+        int leftRoot = find(parent, left);
+        int rightRoot = find(parent, right);
+        if (leftRoot == rightRoot) {
+            return;
+        }
+        if (size[leftRoot] < size[rightRoot]) {
+            int swap = leftRoot;
+            leftRoot = rightRoot;
+            rightRoot = swap;
+        }
+        parent[rightRoot] = leftRoot;
+        size[leftRoot] += size[rightRoot];
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+}
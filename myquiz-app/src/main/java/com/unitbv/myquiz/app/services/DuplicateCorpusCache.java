@@ -0,0 +1,406 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import com.unitbv.myquiz.app.specifications.QuestionSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded, course-keyed cache of the {@link CorpusQuestion} records duplicate detection compares against, so
+ * back-to-back checks in the same course do not load and normalize every question entity again.
+ * <p>
+ * Every cached record keeps the {@code updated_at} stamp its row had when it was loaded. Every read scans the ids and
+ * stamps of the course and compares them with the cached ones: identical ids and stamps are a hit. Otherwise only the
+ * rows that are new or whose stamp differs are loaded, and rows no longer in the course are dropped; when more than
+ * half of the course changed it is reloaded in full. Comparing stamps row by row, rather than loading rows stamped
+ * after a watermark, also catches edits committed by a transaction that stamped them long before it committed.
+ * Writes reported through {@link #markChanged(String)} inside a transaction mark the course again once it completes,
+ * so other threads pick up the committed state, and a rollback drops every course read or written by the
+ * transaction.
+ * <p>
+ * At most {@code myquiz.duplicates.corpus-cache-courses} courses are kept, least recently used first out.
+ * <p>
+ * Loaded corpora are also written to a {@link DuplicateIndexStore} file once the loading transaction commits. A course
+ * not in memory, typically the first one read after a restart, starts from its file and goes through the same
+ * stamp comparison, so only questions changed since the file was written are loaded from the database.
+ */
+@Service
+public class DuplicateCorpusCache {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateCorpusCache.class);
+    /**
+     * Stamp of a row without {@code updated_at}.
+     */
+    private static final long NO_STAMP = Long.MIN_VALUE;
+    /**
+     * Stamp of a row loaded without a matching stamp scan; never equal to a scanned stamp, so the row is reloaded.
+     */
+    private static final long UNKNOWN_STAMP = Long.MAX_VALUE;
+    private static final String SELECT_STAMPS = """
+            SELECT q.id, q.updated_at FROM question q
+            JOIN question_bank_author qba ON qba.id = q.question_bank_author_id
+            JOIN question_bank qb ON qb.id = qba.question_bank_id
+            JOIN course c ON c.id = qb.course_id
+            WHERE lower(c.course) = ?
+            ORDER BY q.id""";
+
+    private final QuestionRepository questionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateIndexStore indexStore;
+    private final int maxCourses;
+    private final Map<String, Entry> entries;
+
+    public DuplicateCorpusCache(QuestionRepository questionRepository, JdbcTemplate jdbcTemplate, DuplicateDetectionProperties duplicateDetectionProperties,
+                                DuplicateIndexStore indexStore) {
+        this.questionRepository = questionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexStore = indexStore;
+        this.maxCourses = duplicateDetectionProperties == null ? 0 : Math.max(0, duplicateDetectionProperties.getCorpusCacheCourses());
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > DuplicateCorpusCache.this.maxCourses;
+            }
+        };
+    }
+
+    /**
+     * Returns the records of every question in the course, sorted by id.
+     */
+    public List<CorpusQuestion> corpusFor(String course) {
+        if (course == null || course.isBlank()) {
+            return List.of();
+        }
+        if (maxCourses == 0 || jdbcTemplate == null) {
+            return toRecords(loadCourse(course));
+        }
+
+        String key = keyOf(course);
+        trackInTransaction(key, false);
+        // The count query auto-flushes pending question changes, so the stamp scan includes this transaction's writes.
+        questionRepository.count(QuestionSpecification.byFilters(course, null, null, null));
+        Stamps current = stampsOf(key);
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        boolean fromIndexFile = false;
+        if (cached == null && indexStore != null) {
+            DuplicateIndexStore.Snapshot snapshot = indexStore.read(key);
+            cached = snapshot == null ? null : new Entry(snapshot.records(), idsOf(snapshot.records()), snapshot.stamps(), false);
+            fromIndexFile = cached != null;
+        }
+        if (cached != null && !cached.stale() && Arrays.equals(cached.ids(), current.ids()) && Arrays.equals(cached.stamps(), current.stamps())) {
+            if (fromIndexFile) {
+                synchronized (entries) {
+                    entries.putIfAbsent(key, cached);
+                }
+            }
+            return cached.records();
+        }
+
+        long startedMs = System.currentTimeMillis();
+        Entry loaded = cached == null ? null : mergeChanged(cached, current);
+        boolean delta = loaded != null;
+        if (loaded == null) {
+            loaded = withStamps(toRecords(loadCourse(course)), current);
+        }
+        synchronized (entries) {
+            entries.put(key, loaded);
+        }
+        persistWhenCommitted(key, loaded);
+        logger.atDebug().addArgument(delta ? "Delta" : "Full").addArgument(fromIndexFile ? " (from index file)" : "").addArgument(course)
+              .addArgument(loaded.records().size()).addArgument(System.currentTimeMillis() - startedMs)
+              .log("{} load{} of duplicate corpus for course '{}': {} questions in {} ms");
+        return loaded.records();
+    }
+
+    /**
+     * Returns the cached records of the course without the stamp scan of {@link #corpusFor(String)}, for lookups
+     * frequent enough that the scan would dominate them. Only a course that is not cached, or was marked changed since
+     * it was read, goes through {@link #corpusFor(String)}; edits made by another instance show up once this one reads
+     * the course that way, typically for a duplicate check or a recompute.
+     */
+    public List<CorpusQuestion> cachedCorpusFor(String course) {
+        if (course == null || course.isBlank() || maxCourses == 0 || jdbcTemplate == null) {
+            return corpusFor(course);
+        }
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(keyOf(course));
+        }
+        return cached != null && !cached.stale() ? cached.records() : corpusFor(course);
+    }
+
+    /**
+     * Records that questions of the course were created or edited; the next read loads the changed rows.
+     */
+    public void markChanged(String course) {
+        if (course == null || course.isBlank()) {
+            return;
+        }
+        String key = keyOf(course);
+        markStale(key);
+        trackInTransaction(key, true);
+    }
+
+    /**
+     * Records a change to the course of the given question.
+     */
+    public void markChanged(Question question) {
+        markChanged(courseNameOf(question));
+    }
+
+    /**
+     * Drops a deleted question from the cached corpus of its course without reloading the course.
+     */
+    public void removeQuestion(String course, Long questionId) {
+        if (course == null || course.isBlank() || questionId == null) {
+            return;
+        }
+        String key = keyOf(course);
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            int index = cached == null ? -1 : Arrays.binarySearch(cached.ids(), questionId);
+            if (index >= 0) {
+                List<CorpusQuestion> remaining = new ArrayList<>(cached.records());
+                remaining.remove(index);
+                entries.put(key, new Entry(List.copyOf(remaining), idsOf(remaining), without(cached.stamps(), index), cached.stale()));
+            }
+        }
+        trackInTransaction(key, true);
+    }
+
+    public void invalidate(String course) {
+        if (course == null) {
+            return;
+        }
+        String key = keyOf(course);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        if (indexStore != null) {
+            indexStore.delete(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (indexStore != null) {
+            indexStore.deleteAll();
+        }
+    }
+
+    static String courseNameOf(Question question) {
+        if (question == null || question.getQuestionBankAuthor() == null || question.getQuestionBankAuthor().getQuestionBank() == null
+                || question.getQuestionBankAuthor().getQuestionBank().getCourse() == null) {
+            return null;
+        }
+        return question.getQuestionBankAuthor().getQuestionBank().getCourse().getCourse();
+    }
+
+    /**
+     * Keeps the cached records whose stamp still matches and loads the rows that are new or changed.
+     *
+     * @return the merged entry, {@code null} when more than half of the course changed and a full load is cheaper
+     */
+    private Entry mergeChanged(Entry cached, Stamps current) {
+        int[] cachedIndexes = new int[current.ids().length];
+        List<Long> changedIds = new ArrayList<>();
+        int cachedIndex = 0;
+        for (int i = 0; i < current.ids().length; i++) {
+            long id = current.ids()[i];
+            while (cachedIndex < cached.ids().length && cached.ids()[cachedIndex] < id) {
+                cachedIndex++;
+            }
+            boolean unchanged = cachedIndex < cached.ids().length && cached.ids()[cachedIndex] == id
+                    && cached.stamps()[cachedIndex] == current.stamps()[i];
+            cachedIndexes[i] = unchanged ? cachedIndex : -1;
+            if (!unchanged) {
+                changedIds.add(id);
+            }
+        }
+        if (changedIds.size() * 2 > current.ids().length) {
+            return null;
+        }
+        Map<Long, CorpusQuestion> changedRecords = HashMap.newHashMap(changedIds.size());
+        if (!changedIds.isEmpty()) {
+            for (Question question : questionRepository.findAllById(changedIds)) {
+                changedRecords.put(question.getId(), CorpusQuestion.of(question));
+            }
+        }
+        List<CorpusQuestion> records = new ArrayList<>(current.ids().length);
+        long[] stamps = new long[current.ids().length];
+        for (int i = 0; i < current.ids().length; i++) {
+            CorpusQuestion record = cachedIndexes[i] >= 0 ? cached.records().get(cachedIndexes[i]) : changedRecords.get(current.ids()[i]);
+            // A changed row deleted since the scan is simply left out.
+            if (record != null) {
+                stamps[records.size()] = current.stamps()[i];
+                records.add(record);
+            }
+        }
+        return new Entry(List.copyOf(records), idsOf(records), Arrays.copyOf(stamps, records.size()), false);
+    }
+
+    /**
+     * Pairs freshly loaded records with the stamps scanned before loading them. A record loaded with content newer
+     * than its scanned stamp is reloaded once more by the next read; a row added after the scan gets
+     * {@link #UNKNOWN_STAMP}.
+     */
+    private static Entry withStamps(List<CorpusQuestion> records, Stamps current) {
+        long[] ids = idsOf(records);
+        long[] stamps = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            int index = Arrays.binarySearch(current.ids(), ids[i]);
+            stamps[i] = index >= 0 ? current.stamps()[index] : UNKNOWN_STAMP;
+        }
+        return new Entry(records, ids, stamps, false);
+    }
+
+    private List<Question> loadCourse(String course) {
+        return questionRepository.findAll(QuestionSpecification.byFilters(course, null, null, null));
+    }
+
+    private static List<CorpusQuestion> toRecords(List<Question> questions) {
+        return questions.stream()
+                        .filter(question -> question.getId() != null)
+                        .sorted(Comparator.comparing(Question::getId))
+                        .map(CorpusQuestion::of)
+                        .toList();
+    }
+
+    private Stamps stampsOf(String key) {
+        long[][] columns = {new long[64], new long[64]};
+        int[] size = {0};
+        jdbcTemplate.query(SELECT_STAMPS, resultSet -> {
+            if (size[0] == columns[0].length) {
+                columns[0] = Arrays.copyOf(columns[0], size[0] * 2);
+                columns[1] = Arrays.copyOf(columns[1], size[0] * 2);
+            }
+            columns[0][size[0]] = resultSet.getLong(1);
+            columns[1][size[0]] = stampOf(resultSet.getTimestamp(2));
+            size[0]++;
+        }, key);
+        return new Stamps(Arrays.copyOf(columns[0], size[0]), Arrays.copyOf(columns[1], size[0]));
+    }
+
+    /**
+     * Microseconds since the epoch, the precision {@code updated_at} is stored with.
+     */
+    private static long stampOf(Timestamp updatedAt) {
+        if (updatedAt == null) {
+            return NO_STAMP;
+        }
+        Instant instant = updatedAt.toInstant();
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+
+    private static long[] idsOf(List<CorpusQuestion> records) {
+        return records.stream().mapToLong(CorpusQuestion::id).toArray();
+    }
+
+    private static long[] without(long[] values, int index) {
+        long[] remaining = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, index + 1, remaining, index, values.length - index - 1);
+        return remaining;
+    }
+
+    private void markStale(String key) {
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null && !cached.stale()) {
+                entries.put(key, new Entry(cached.records(), cached.ids(), cached.stamps(), true));
+            }
+        }
+    }
+
+    /**
+     * Writes a loaded corpus to its index file, after commit when loaded inside a transaction so a rollback never
+     * leaves uncommitted questions in the file.
+     */
+    private void persistWhenCommitted(String key, Entry loaded) {
+        if (indexStore == null || !indexStore.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexStore.write(key, loaded.records(), loaded.stamps());
+            return;
+        }
+        trackInTransaction(key, false);
+        ((TransactionCourses) TransactionSynchronizationManager.getResource(this)).loaded.put(key, loaded);
+    }
+
+    private void trackInTransaction(String key, boolean changed) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionCourses courses = (TransactionCourses) TransactionSynchronizationManager.getResource(this);
+        if (courses == null) {
+            courses = new TransactionCourses();
+            TransactionSynchronizationManager.bindResource(this, courses);
+            TransactionSynchronizationManager.registerSynchronization(courses);
+        }
+        courses.read.add(key);
+        if (changed) {
+            courses.changed.add(key);
+        }
+    }
+
+    private static String keyOf(String course) {
+        return course.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cached records sorted by id, with their ids and the {@code updated_at} stamps they were loaded at.
+     */
+    private record Entry(List<CorpusQuestion> records, long[] ids, long[] stamps, boolean stale) {
+    }
+
+    /**
+     * Ids and {@code updated_at} stamps of the questions of a course, sorted by id.
+     */
+    private record Stamps(long[] ids, long[] stamps) {
+    }
+
+    /**
+     * Courses read and changed by the current transaction, settled once it completes.
+     */
+    private final class TransactionCourses implements TransactionSynchronization {
+        private final Set<String> read = new HashSet<>();
+        private final Set<String> changed = new HashSet<>();
+        private final Map<String, Entry> loaded = new HashMap<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DuplicateCorpusCache.this);
+            if (status == STATUS_COMMITTED) {
+                changed.forEach(DuplicateCorpusCache.this::markStale);
+                loaded.forEach((key, entry) -> indexStore.write(key, entry.records(), entry.stamps()));
+                return;
+            }
+            synchronized (entries) {
+                read.forEach(entries::remove);
+            }
+        }
+    }
+}
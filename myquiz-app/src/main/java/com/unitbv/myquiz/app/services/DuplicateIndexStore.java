@@ -0,0 +1,270 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-course index files that keep the normalized duplicate corpus across restarts.
+ * <p>
+ * {@link DuplicateCorpusCache} writes the corpus of a course to {@code duplicate-index/<prefix>-<fingerprint>.idx}
+ * under {@code upload.dir} together with the {@code updated_at} stamp of every record. The prefix is the course key
+ * cut to 40 characters, with every run of characters other than {@code a-z0-9_-} replaced by {@code _}. The
+ * fingerprint is the hex FNV-1a hash of the full key, which keeps courses with the same prefix apart. After a restart the first read of the
+ * course reads the records back from the file instead of loading and normalizing every question again; the cache
+ * then compares the stamps with the database and only loads the questions whose stamp differs.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * header:  magic "MQDX" | format version | normalization version | record count (int)
+ * record:  id (long) | stamp (long) | type name | flags (byte: 1 skipped, 2 missing answer) | title | text
+ *          | answer count (byte) | answer count x (answer | answer number (byte))
+ * trailer: magic
+ * </pre>
+ * Strings are a length in bytes ({@code -1} for null) followed by UTF-8. Files of another format or normalization
+ * version, or truncated ones, are ignored and deleted. Files are replaced atomically, so readers never see a partial
+ * write; when the file cannot be replaced the write is skipped and retried with the next load.
+ * <p>
+ * Disabled with {@code myquiz.duplicates.persistent-index=false}.
+ */
+@Service
+public class DuplicateIndexStore {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateIndexStore.class);
+    private static final String INDEX_FOLDER = "duplicate-index";
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final int MAGIC = 0x4D514458;
+    private static final int FORMAT_VERSION = 2;
+    private static final int MAX_NAME_PREFIX = 40;
+    private static final byte FLAG_SKIPPED = 1;
+    private static final byte FLAG_MISSING_ANSWER = 2;
+
+    private final Path indexDir;
+
+    public DuplicateIndexStore(@Value("${upload.dir:}") String uploadDir, DuplicateDetectionProperties duplicateDetectionProperties) {
+        if (duplicateDetectionProperties != null && !duplicateDetectionProperties.isPersistentIndex()) {
+            this.indexDir = null;
+            return;
+        }
+        String baseDir = uploadDir == null || uploadDir.isBlank() ? System.getProperty("java.io.tmpdir") : uploadDir;
+        this.indexDir = Path.of(baseDir).resolve(INDEX_FOLDER);
+    }
+
+    /**
+     * Corpus records of a course and the {@code updated_at} stamp each record was loaded at, in the same order.
+     */
+    record Snapshot(List<CorpusQuestion> records, long[] stamps) {
+    }
+
+    boolean isEnabled() {
+        return indexDir != null;
+    }
+
+    /**
+     * Reads the index file of the course with one sequential, buffered pass.
+     *
+     * @return the stored snapshot, {@code null} if there is no usable file
+     */
+    Snapshot read(String courseKey) {
+        if (indexDir == null) {
+            return null;
+        }
+        Path file = fileOf(courseKey);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        long startedMs = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Snapshot snapshot = decode(in, Files.size(file));
+            if (snapshot != null) {
+                logger.atDebug().addArgument(snapshot.records().size()).addArgument(courseKey).addArgument(System.currentTimeMillis() - startedMs)
+                      .log("Read {} duplicate corpus records of course '{}' from the index file in {} ms");
+                return snapshot;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.atWarn().addArgument(file).addArgument(e.getMessage()).log("Unreadable duplicate index file {}: {}");
+        }
+        delete(file);
+        return null;
+    }
+
+    /**
+     * Replaces the index file of the course by the given records.
+     */
+    void write(String courseKey, List<CorpusQuestion> records, long[] stamps) {
+        if (indexDir == null || records == null || stamps == null || stamps.length != records.size()) {
+            return;
+        }
+        Path file = fileOf(courseKey);
+        Path tempFile = null;
+        try {
+            Files.createDirectories(indexDir);
+            tempFile = Files.createTempFile(indexDir, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                encode(out, records, stamps);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempFile = null;
+        } catch (IOException e) {
+            logger.atWarn().addArgument(file).addArgument(e.getMessage()).log("Could not write duplicate index file {}: {}");
+        } finally {
+            if (tempFile != null) {
+                delete(tempFile);
+            }
+        }
+    }
+
+    void delete(String courseKey) {
+        if (indexDir != null) {
+            delete(fileOf(courseKey));
+        }
+    }
+
+    void deleteAll() {
+        if (indexDir == null || !Files.isDirectory(indexDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(indexDir, "*" + INDEX_EXTENSION)) {
+            files.forEach(DuplicateIndexStore::delete);
+        } catch (IOException e) {
+            logger.atWarn().addArgument(indexDir).addArgument(e.getMessage()).log("Could not list duplicate index files in {}: {}");
+        }
+    }
+
+    /**
+     * File name of a course: a readable prefix of the name plus its fingerprint, so any course name maps to a valid
+     * and distinct file name.
+     */
+    Path fileOf(String courseKey) {
+        String prefix = courseKey.replaceAll("[^a-z0-9_-]+", "_");
+        if (prefix.length() > MAX_NAME_PREFIX) {
+            prefix = prefix.substring(0, MAX_NAME_PREFIX);
+        }
+        String fingerprint = Long.toHexString(QuestionFingerprints.fingerprint(courseKey));
+        return indexDir.resolve(prefix + "-" + fingerprint + INDEX_EXTENSION);
+    }
+
+    private static void encode(DataOutputStream out, List<CorpusQuestion> records, long[] stamps) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(QuestionFingerprints.CURRENT_VERSION);
+        int stored = (int) records.stream().filter(record -> record.id() != null).count();
+        out.writeInt(stored);
+        for (int index = 0; index < records.size(); index++) {
+            CorpusQuestion record = records.get(index);
+            if (record.id() == null) {
+                continue;
+            }
+            out.writeLong(record.id());
+            out.writeLong(stamps[index]);
+            writeString(out, record.type() == null ? null : record.type().name());
+            out.writeByte((record.skipped() ? FLAG_SKIPPED : 0) | (record.missingAnswer() ? FLAG_MISSING_ANSWER : 0));
+            writeString(out, record.title());
+            writeString(out, record.text());
+            out.writeByte(record.answers().length);
+            for (int i = 0; i < record.answers().length; i++) {
+                writeString(out, record.answers()[i]);
+                out.writeByte(record.answerNumbers()[i]);
+            }
+        }
+        out.writeInt(MAGIC);
+    }
+
+    private static Snapshot decode(DataInputStream in, long fileSize) throws IOException {
+        if (fileSize < Integer.BYTES * 3 || in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                || in.readInt() != QuestionFingerprints.CURRENT_VERSION) {
+            return null;
+        }
+        int count = in.readInt();
+        if (count < 0 || count > fileSize) {
+            return null;
+        }
+        List<CorpusQuestion> records = new ArrayList<>(count);
+        long[] stamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            long id = in.readLong();
+            stamps[i] = in.readLong();
+            String typeName = readString(in);
+            byte flags = in.readByte();
+            String title = readString(in);
+            String text = readString(in);
+            int answerCount = in.readByte();
+            if (answerCount < 0) {
+                throw new IllegalArgumentException("Negative answer count in record " + id);
+            }
+            String[] answers = new String[answerCount];
+            byte[] answerNumbers = new byte[answerCount];
+            for (int answer = 0; answer < answerCount; answer++) {
+                answers[answer] = readString(in);
+                answerNumbers[answer] = in.readByte();
+            }
+            records.add(new CorpusQuestion(
+                    id,
+                    typeName == null ? null : QuestionType.valueOf(typeName),
+                    (flags & FLAG_SKIPPED) != 0,
+                    (flags & FLAG_MISSING_ANSWER) != 0,
+                    title,
+                    text,
+                    answers,
+                    answerNumbers
+            ));
+        }
+        if (in.readInt() != MAGIC) {
+            return null;
+        }
+        return new Snapshot(List.copyOf(records), stamps);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        // readNBytes grows its buffer as data arrives, so a corrupt length cannot allocate more than the file holds.
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("String of " + length + " bytes cut off after " + bytes.length);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.atDebug().addArgument(file).addArgument(e.getMessage()).log("Could not delete duplicate index file {}: {}");
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.settings.ControllerSettings;
+import com.unitbv.myquiz.app.entities.QuestionError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk JDBC writer for the output of duplicate detection: links between question pairs, the duplicate errors
+ * attached to questions and the duplicate clusters of a course.
+ * <p>
+ * Rows reference questions by id only, so no {@code Question} entity has to be loaded, and are written as
+ * multi-row inserts of up to {@value #ROWS_PER_STATEMENT} rows. Ids are drawn from the entity sequences inside the
+ * statement, so a row costs no separate {@code nextval} round trip. Links use
+ * {@code ON CONFLICT ON CONSTRAINT uk_question_duplicate_pair DO NOTHING}, which makes an existence check before
+ * inserting unnecessary.
+ * <p>
+ * The statements bypass the persistence context: callers flush pending entity changes first, so that deleted links
+ * or not yet inserted questions are visible to the database.
+ */
+@Service
+public class DuplicateOutputWriter {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateOutputWriter.class);
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final String INSERT_LINKS_PREFIX = "INSERT INTO question_duplicate (id, question_id, duplicate_question_id, created_at, status, cause_code) VALUES ";
+    private static final String LINK_ROW = "(nextval('question_duplicate_seq'), ?, ?, ?, ?, ?)";
+    private static final String INSERT_LINKS_SUFFIX = " ON CONFLICT ON CONSTRAINT uk_question_duplicate_pair DO NOTHING";
+    private static final String INSERT_ERRORS_PREFIX = "INSERT INTO question_error (id, question_id, description, row_number, status, created_at) VALUES ";
+    private static final String ERROR_ROW = "(nextval('question_error_seq'), ?, ?, ?, ?, ?)";
+    private static final String DELETE_CLUSTER_MEMBERS = "DELETE FROM question_duplicate_cluster_member WHERE cluster_id IN (SELECT id FROM question_duplicate_cluster WHERE course_id = ?)";
+    private static final String DELETE_CLUSTERS = "DELETE FROM question_duplicate_cluster WHERE course_id = ?";
+    private static final String SELECT_CLUSTER_IDS = "SELECT nextval('question_duplicate_cluster_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_CLUSTERS_PREFIX = "INSERT INTO question_duplicate_cluster (id, course_id, canonical_question_id, member_count, created_at, status) VALUES ";
+    private static final String CLUSTER_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLUSTER_MEMBERS_PREFIX = "INSERT INTO question_duplicate_cluster_member (cluster_id, question_id) VALUES ";
+    private static final String CLUSTER_MEMBER_ROW = "(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DuplicateOutputWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts one link per pair key, skipping pairs that are already linked.
+     *
+     * @param pairKeys keys packed by {@link DuplicatePairSet#pack(Long, Long)}
+     * @param causes   {@link DuplicateCauseCodes} of each pair, parallel to {@code pairKeys}
+     * @return number of links actually inserted
+     */
+    int insertLinks(long[] pairKeys, int[] causes) {
+        if (pairKeys == null || pairKeys.length == 0) {
+            return 0;
+        }
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        int inserted = 0;
+        for (int start = 0; start < pairKeys.length; start += ROWS_PER_STATEMENT) {
+            int end = Math.min(pairKeys.length, start + ROWS_PER_STATEMENT);
+            Object[] args = new Object[(end - start) * 5];
+            int arg = 0;
+            for (int i = start; i < end; i++) {
+                args[arg++] = DuplicatePairSet.lowerId(pairKeys[i]);
+                args[arg++] = DuplicatePairSet.higherId(pairKeys[i]);
+                args[arg++] = createdAt;
+                args[arg++] = ControllerSettings.DUPLICATE_STATUS_OPEN;
+                args[arg++] = causes[i];
+            }
+            inserted += jdbcTemplate.update(buildInsert(INSERT_LINKS_PREFIX, LINK_ROW, end - start) + INSERT_LINKS_SUFFIX, args);
+        }
+        logger.atDebug().addArgument(inserted).addArgument(pairKeys.length).log("Inserted {} of {} duplicate links");
+        return inserted;
+    }
+
+    /**
+     * Inserts the given errors. Errors whose question has no id are skipped; the entities are not updated with the
+     * generated ids.
+     *
+     * @return number of inserted errors
+     */
+    int insertErrors(List<QuestionError> errors) {
+        if (errors == null || errors.isEmpty()) {
+            return 0;
+        }
+        List<QuestionError> insertable = new ArrayList<>(errors.size());
+        for (QuestionError error : errors) {
+            if (error != null && error.getQuestion() != null && error.getQuestion().getId() != null) {
+                insertable.add(error);
+            }
+        }
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        int inserted = 0;
+        for (int start = 0; start < insertable.size(); start += ROWS_PER_STATEMENT) {
+            List<QuestionError> chunk = insertable.subList(start, Math.min(insertable.size(), start + ROWS_PER_STATEMENT));
+            Object[] args = new Object[chunk.size() * 5];
+            int arg = 0;
+            for (QuestionError error : chunk) {
+                args[arg++] = error.getQuestion().getId();
+                args[arg++] = error.getDescription();
+                args[arg++] = error.getRowNumber();
+                args[arg++] = error.getStatus() == null ? ControllerSettings.ERROR_STATUS_OPEN : error.getStatus();
+                args[arg++] = createdAt;
+            }
+            inserted += jdbcTemplate.update(buildInsert(INSERT_ERRORS_PREFIX, ERROR_ROW, chunk.size()), args);
+        }
+        logger.atDebug().addArgument(inserted).log("Inserted {} duplicate errors");
+        return inserted;
+    }
+
+    /**
+     * Replaces the duplicate clusters of a course. The first member of each cluster is its canonical question.
+     *
+     * @param clusters member ids per cluster, as returned by {@link DuplicateClusters#of(long[])}
+     * @return number of inserted clusters
+     */
+    int replaceClusters(Long courseId, List<long[]> clusters) {
+        jdbcTemplate.update(DELETE_CLUSTER_MEMBERS, courseId);
+        int removed = jdbcTemplate.update(DELETE_CLUSTERS, courseId);
+        if (clusters == null || clusters.isEmpty()) {
+            logger.atDebug().addArgument(removed).addArgument(courseId).log("Removed {} duplicate clusters of course {}");
+            return 0;
+        }
+        List<Long> clusterIds = jdbcTemplate.queryForList(SELECT_CLUSTER_IDS, Long.class, clusters.size());
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        for (int start = 0; start < clusters.size(); start += ROWS_PER_STATEMENT) {
+            int end = Math.min(clusters.size(), start + ROWS_PER_STATEMENT);
+            Object[] args = new Object[(end - start) * 6];
+            int arg = 0;
+            for (int i = start; i < end; i++) {
+                args[arg++] = clusterIds.get(i);
+                args[arg++] = courseId;
+                args[arg++] = clusters.get(i)[0];
+                args[arg++] = clusters.get(i).length;
+                args[arg++] = createdAt;
+                args[arg++] = ControllerSettings.DUPLICATE_STATUS_OPEN;
+            }
+            jdbcTemplate.update(buildInsert(INSERT_CLUSTERS_PREFIX, CLUSTER_ROW, end - start), args);
+        }
+
+        List<Object> memberArgs = new ArrayList<>(ROWS_PER_STATEMENT * 2);
+        int members = 0;
+        for (int i = 0; i < clusters.size(); i++) {
+            for (long questionId : clusters.get(i)) {
+                memberArgs.add(clusterIds.get(i));
+                memberArgs.add(questionId);
+                if (memberArgs.size() == ROWS_PER_STATEMENT * 2) {
+                    members += insertClusterMembers(memberArgs);
+                }
+            }
+        }
+        members += insertClusterMembers(memberArgs);
+        logger.atDebug().addArgument(removed).addArgument(clusters.size()).addArgument(members).addArgument(courseId)
+              .log("Replaced {} duplicate clusters by {} clusters with {} members for course {}");
+        return clusters.size();
+    }
+
+    private int insertClusterMembers(List<Object> memberArgs) {
+        if (memberArgs.isEmpty()) {
+            return 0;
+        }
+        int inserted = jdbcTemplate.update(buildInsert(INSERT_CLUSTER_MEMBERS_PREFIX, CLUSTER_MEMBER_ROW, memberArgs.size() / 2), memberArgs.toArray());
+        memberArgs.clear();
+        return inserted;
+    }
+
+    static String buildInsert(String prefix, String row, int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 2));
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,208 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.Arrays;
+
+/**
+ * Set of unordered question id pairs with an encoded cause per pair, backed by primitive arrays.
+ * <p>
+ * A pair is packed into one {@code long} as {@code (lowerId << 32) | higherId}, both ids taken as unsigned 32-bit
+ * values, so the unsigned order of the keys is the {@code (lower, higher)} order the links are written in. Keys with
+ * a lower id from 2^31 on are negative; they are only compared with {@link Long#compareUnsigned}. Keys live in an
+ * open-addressing table with linear probing; {@code 0} marks a free slot, which is never a valid key because ids
+ * start at 1. Causes are
+ * {@link DuplicateCauseCodes} kept in a parallel {@code int[]} and merged when a pair is seen again.
+ * <p>
+ * Not thread safe; concurrent writers have to synchronize on the set.
+ */
+final class DuplicatePairSet {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final long MAX_ID = 0xFFFFFFFFL;
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] causes;
+    private int size;
+    private int resizeThreshold;
+
+    DuplicatePairSet() {
+        this(MIN_CAPACITY);
+    }
+
+    DuplicatePairSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    @FunctionalInterface
+    interface PairConsumer {
+        void accept(long pairKey, int cause);
+    }
+
+    /**
+     * Packs two question ids into an order-independent pair key.
+     *
+     * @throws IllegalArgumentException if an id is missing, not positive or does not fit in 32 bits
+     */
+    static long pack(Long left, Long right) {
+        long leftId = requireId(left);
+        long rightId = requireId(right);
+        return leftId <= rightId ? (leftId << 32) | rightId : (rightId << 32) | leftId;
+    }
+
+    static long lowerId(long pairKey) {
+        return pairKey >>> 32;
+    }
+
+    static long higherId(long pairKey) {
+        return pairKey & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the other id of the pair, or {@code -1} if {@code questionId} is not part of it.
+     */
+    static long partnerOf(long pairKey, long questionId) {
+        if (lowerId(pairKey) == questionId) {
+            return higherId(pairKey);
+        }
+        return higherId(pairKey) == questionId ? lowerId(pairKey) : -1L;
+    }
+
+    /**
+     * Adds the pair without a cause.
+     *
+     * @return {@code true} if the pair was not present yet
+     */
+    boolean add(long pairKey) {
+        return insert(pairKey, 0);
+    }
+
+    /**
+     * Adds the pair if needed and merges {@code cause} into its cause.
+     */
+    void mergeCause(long pairKey, int cause) {
+        insert(pairKey, cause);
+    }
+
+    void addAll(DuplicatePairSet other) {
+        if (other == null || other == this) {
+            return;
+        }
+        other.forEach(this::mergeCause);
+    }
+
+    boolean contains(long pairKey) {
+        return pairKey != 0 && keys[indexOf(pairKey)] == pairKey;
+    }
+
+    /**
+     * Returns the merged cause of the pair, or {@code 0} if it is absent or has no cause.
+     */
+    int causeOf(long pairKey) {
+        if (pairKey == 0) {
+            return 0;
+        }
+        int slot = indexOf(pairKey);
+        return keys[slot] == pairKey ? causes[slot] : 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the pair keys sorted by lower id, then higher id.
+     */
+    long[] sortedKeys() {
+        long[] sorted = new long[size];
+        int next = 0;
+        for (long key : keys) {
+            if (key != 0) {
+                // Flipping the sign bit makes the signed sort order the unsigned one
+                sorted[next++] = key ^ Long.MIN_VALUE;
+            }
+        }
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] ^= Long.MIN_VALUE;
+        }
+        return sorted;
+    }
+
+    void forEach(PairConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], causes[slot]);
+            }
+        }
+    }
+
+    private boolean insert(long pairKey, int cause) {
+        if (pairKey == 0) {
+            throw new IllegalArgumentException("Invalid pair key: " + pairKey);
+        }
+        int slot = indexOf(pairKey);
+        if (keys[slot] == pairKey) {
+            causes[slot] = DuplicateCauseCodes.merge(causes[slot], cause);
+            return false;
+        }
+        keys[slot] = pairKey;
+        causes[slot] = cause;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the slot holding {@code pairKey}, or the free slot where it would be inserted.
+     */
+    private int indexOf(long pairKey) {
+        int mask = keys.length - 1;
+        int slot = mix(pairKey) & mask;
+        while (keys[slot] != 0 && keys[slot] != pairKey) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCauses = causes;
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                int target = indexOf(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                causes[target] = oldCauses[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        causes = new int[capacity];
+        // Load factor 0.5 keeps linear probe chains short.
+        resizeThreshold = capacity >>> 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long required = Math.max(MIN_CAPACITY, (long) expectedSize << 1);
+        return (int) Math.min(1L << 30, Long.highestOneBit(required - 1) << 1);
+    }
+
+    private static int mix(long pairKey) {
+        long hash = pairKey * LONG_PHI;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static long requireId(Long id) {
+        if (id == null || id <= 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Question id cannot be packed into a pair key: " + id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,664 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.dto.CourseDuplicateRecomputeResultDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeBatchDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeHistoryDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
+import com.unitbv.myquiz.api.types.DuplicateRecomputeJobStatus;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.entities.Course;
+import com.unitbv.myquiz.app.entities.QuestionBank;
+import com.unitbv.myquiz.app.repositories.CourseRepository;
+import com.unitbv.myquiz.app.repositories.QuestionBankRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Runs duplicate recomputes as background jobs on the duplicate recompute scheduler, apart from the duplicate check
+ * executor that runs the per-question tasks of the jobs.
+ * <p>
+ * Submitting returns immediately with a job id. The job commits every duplicate-check batch on its own, reports
+ * progress at the execution plan's progress step and can be cancelled between batches. Completed jobs are recorded
+ * in the recompute history. Job state is kept in memory; finished jobs are dropped after {@link #FINISHED_JOB_RETENTION}.
+ * Before starting, a job takes the course lock of {@link CourseLockService}. While another instance recomputes or
+ * imports into the same course the job stays queued and tries again every {@code myquiz.course-lock.retry-interval-ms},
+ * without holding a thread in between.
+ * <p>
+ * A recompute of all courses is a batch of one course job per course, as duplicates never cross courses. The jobs are
+ * queued largest course first and {@code myquiz.duplicates.recompute-all.concurrency} runners take the next one as
+ * soon as they are free, so the largest courses never start last and stretch the total time. A course busy with other
+ * work goes back to the queue and the runner moves on to the next course, trying the busy one again after the retry
+ * interval. Each job compares its
+ * pairs on its share of the fork/join pool, see {@link DuplicateRecomputeMonitor#pairParallelism()}, and is recorded
+ * in the history with its batch and the time it waited for a runner.
+ */
+@Service
+public class DuplicateRecomputeJobService {
+    private static final Logger log = LoggerFactory.getLogger(DuplicateRecomputeJobService.class);
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+    private static final String MSG_COURSE_NOT_FOUND_WITH_ID = "Course not found with ID: ";
+    static final String STAGE_WAITING_FOR_COURSE = "WAITING_FOR_COURSE";
+
+    private final CourseRepository courseRepository;
+    private final QuestionBankRepository questionBankRepository;
+    private final QuestionDuplicationService questionDuplicationService;
+    private final CourseService courseService;
+    private final CourseLockService courseLockService;
+    private final TaskScheduler duplicateRecomputeTaskScheduler;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DuplicateDetectionProperties.RecomputeAllProperties recomputeAllProperties;
+    private final Map<String, RecomputeJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, RecomputeBatch> batches = new ConcurrentHashMap<>();
+
+    public DuplicateRecomputeJobService(
+            CourseRepository courseRepository,
+            QuestionBankRepository questionBankRepository,
+            QuestionDuplicationService questionDuplicationService,
+            CourseService courseService,
+            CourseLockService courseLockService,
+            @Qualifier("duplicateRecomputeTaskScheduler") TaskScheduler duplicateRecomputeTaskScheduler,
+            PlatformTransactionManager transactionManager,
+            DuplicateDetectionProperties duplicateDetectionProperties
+    ) {
+        this.courseRepository = courseRepository;
+        this.questionBankRepository = questionBankRepository;
+        this.questionDuplicationService = questionDuplicationService;
+        this.courseService = courseService;
+        this.courseLockService = courseLockService;
+        this.duplicateRecomputeTaskScheduler = duplicateRecomputeTaskScheduler;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.recomputeAllProperties = duplicateDetectionProperties.getRecomputeAll();
+    }
+
+    /**
+     * Submits a recompute of all questions of a course.
+     *
+     * @throws IllegalArgumentException if the course does not exist
+     * @throws IllegalStateException    if a recompute for the same course is still running
+     */
+    public DuplicateRecomputeJobDto submitCourseRecompute(Long courseId, String strategy) {
+        return submitCourseRecompute(courseId, strategy, null);
+    }
+
+    /**
+     * Submits a recompute of all questions of a course that decides pairs against {@code threshold} instead of the
+     * strategy's own threshold, answering unchanged pairs from their stored scores.
+     *
+     * @param threshold optional threshold, see {@link #acceptsThreshold(String, double)}
+     * @throws IllegalArgumentException if the course does not exist
+     * @throws IllegalStateException    if a recompute for the same course is still running
+     */
+    public DuplicateRecomputeJobDto submitCourseRecompute(Long courseId, String strategy, Double threshold) {
+        if (courseId == null) {
+            throw new IllegalArgumentException("Course ID cannot be null");
+        }
+        RecomputeScope scope = readOnlyTransaction.execute(status -> {
+            Course course = courseRepository.findById(courseId)
+                    .orElseThrow(() -> new IllegalArgumentException(MSG_COURSE_NOT_FOUND_WITH_ID + courseId));
+            return new RecomputeScope(course.getId(), course.getCourse(), null, null);
+        });
+        return submit(scope, strategy, threshold);
+    }
+
+    /**
+     * Whether a course recompute with the strategy can be re-thresholded to {@code threshold}: the threshold lies
+     * between the score floor and {@code 1} and the strategy keeps pair scores.
+     */
+    public boolean acceptsThreshold(String strategy, double threshold) {
+        return threshold >= questionDuplicationService.getScoreFloor()
+                && threshold <= 1.0d
+                && questionDuplicationService.supportsThresholdOverride(resolveAlgorithm(strategy));
+    }
+
+    /**
+     * Submits a recompute of one question bank, or of one author within it when {@code authorId} is given.
+     *
+     * @throws IllegalArgumentException if the question bank does not exist
+     * @throws IllegalStateException    if a recompute for the same course is still running
+     */
+    public DuplicateRecomputeJobDto submitQuestionBankRecompute(Long questionBankId, Long authorId, String strategy) {
+        if (questionBankId == null) {
+            throw new IllegalArgumentException("QuestionBank ID cannot be null");
+        }
+        RecomputeScope scope = readOnlyTransaction.execute(status -> {
+            QuestionBank questionBank = questionBankRepository.findById(questionBankId)
+                    .orElseThrow(() -> new IllegalArgumentException("QuestionBank not found with ID: " + questionBankId));
+            Long courseId = questionBank.getCourse() != null ? questionBank.getCourse().getId() : null;
+            return new RecomputeScope(courseId, questionBank.getCourseName(), questionBankId, authorId);
+        });
+        return submit(scope, strategy, null);
+    }
+
+    /**
+     * Submits a recompute of every course with questions, one job per course, largest course first.
+     *
+     * @throws IllegalStateException if a recompute is still running for one of the courses
+     */
+    public DuplicateRecomputeBatchDto submitAllCoursesRecompute(String strategy) {
+        evictExpiredJobs();
+        String algorithm = resolveAlgorithm(strategy);
+        List<CourseSize> courses = readOnlyTransaction.execute(status -> courseSizes());
+        int concurrency = Math.max(1, recomputeAllProperties.getConcurrency());
+        int pairParallelism = recomputeAllProperties.getPairParallelism() > 0
+                ? recomputeAllProperties.getPairParallelism()
+                : Math.max(1, questionDuplicationService.getPairParallelism() / concurrency);
+        RecomputeBatch batch = new RecomputeBatch(UUID.randomUUID().toString(), algorithm, concurrency, pairParallelism);
+        for (CourseSize course : courses) {
+            RecomputeScope scope = new RecomputeScope(course.courseId(), course.courseName(), null, null);
+            batch.add(new RecomputeJob(UUID.randomUUID().toString(), scope, algorithm, null, batch.id, course.questions(), pairParallelism));
+        }
+        synchronized (jobs) {
+            Set<String> courseNames = courses.stream().map(CourseSize::courseName).collect(Collectors.toSet());
+            RecomputeJob active = findActiveJob(courseNames);
+            if (active != null) {
+                throw new IllegalStateException("Duplicate recompute job " + active.id + " is still running for course '" + active.scope.courseName() + "'");
+            }
+            batch.jobs.forEach(job -> jobs.put(job.id, job));
+            batches.put(batch.id, batch);
+        }
+        int runners = Math.min(concurrency, batch.jobs.size());
+        log.atInfo().addArgument(batch.id).addArgument(batch.jobs.size()).addArgument(algorithm).addArgument(runners).addArgument(pairParallelism)
+                .log("Submitted duplicate recompute batch {} for {} courses with strategy '{}', {} at a time on {} pair workers each");
+        for (int runner = 0; runner < runners; runner++) {
+            duplicateRecomputeTaskScheduler.schedule(() -> runQueued(batch), Instant.now());
+        }
+        return batch.toDto();
+    }
+
+    /**
+     * @throws IllegalArgumentException if no batch with this id is known (never submitted or already evicted)
+     */
+    public DuplicateRecomputeBatchDto getBatch(String batchId) {
+        return findBatchOrThrow(batchId).toDto();
+    }
+
+    /**
+     * Requests cancellation of every course of a batch that is not finished yet.
+     *
+     * @throws IllegalArgumentException if no batch with this id is known
+     */
+    public DuplicateRecomputeBatchDto cancelBatch(String batchId) {
+        RecomputeBatch batch = findBatchOrThrow(batchId);
+        batch.cancelRequested = true;
+        long cancelled = batch.jobs.stream().filter(RecomputeJob::requestCancellation).count();
+        log.atInfo().addArgument(batchId).addArgument(cancelled).log("Cancellation requested for duplicate recompute batch {}, {} courses not finished");
+        return batch.toDto();
+    }
+
+    /**
+     * @throws IllegalArgumentException if no job with this id is known (never submitted or already evicted)
+     */
+    public DuplicateRecomputeJobDto getJob(String jobId) {
+        return findJobOrThrow(jobId).toDto();
+    }
+
+    public List<DuplicateRecomputeJobDto> getJobs() {
+        evictExpiredJobs();
+        return jobs.values().stream()
+                .map(RecomputeJob::toDto)
+                .sorted(Comparator.comparing(DuplicateRecomputeJobDto::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Requests cancellation. A queued job never starts; a running job stops before its next batch.
+     * Cancelling a finished job has no effect.
+     *
+     * @throws IllegalArgumentException if no job with this id is known
+     */
+    public DuplicateRecomputeJobDto cancelJob(String jobId) {
+        RecomputeJob job = findJobOrThrow(jobId);
+        if (job.requestCancellation()) {
+            log.atInfo().addArgument(jobId).addArgument(job.scope.courseName()).log("Cancellation requested for duplicate recompute job {} on course '{}'");
+        }
+        return job.toDto();
+    }
+
+    private DuplicateRecomputeJobDto submit(RecomputeScope scope, String strategy, Double threshold) {
+        evictExpiredJobs();
+        String algorithm = resolveAlgorithm(strategy);
+        RecomputeJob job = new RecomputeJob(UUID.randomUUID().toString(), scope, algorithm, threshold);
+        synchronized (jobs) {
+            RecomputeJob active = scope.courseName() == null ? null : findActiveJob(Set.of(scope.courseName()));
+            if (active != null) {
+                throw new IllegalStateException("Duplicate recompute job " + active.id + " is still running for course '" + scope.courseName() + "'");
+            }
+            jobs.put(job.id, job);
+        }
+        log.atInfo().addArgument(job.id).addArgument(scope.courseName()).addArgument(scope.questionBankId()).addArgument(scope.authorId()).addArgument(algorithm)
+                .log("Submitted duplicate recompute job {} for course '{}', qbId={}, authorId={} with strategy '{}'");
+        duplicateRecomputeTaskScheduler.schedule(() -> run(job), Instant.now());
+        return job.toDto();
+    }
+
+    private RecomputeJob findActiveJob(Set<String> courseNames) {
+        return jobs.values().stream()
+                .filter(existing -> !existing.getStatus().isFinished())
+                .filter(existing -> existing.scope.courseName() != null && courseNames.contains(existing.scope.courseName()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Courses with questions, largest first.
+     */
+    private List<CourseSize> courseSizes() {
+        Map<Long, Long> questionsByCourse = new HashMap<>();
+        for (Object[] row : courseRepository.countQuestionsByCourse()) {
+            questionsByCourse.put((Long) row[0], (Long) row[1]);
+        }
+        return courseRepository.findAll().stream()
+                .filter(course -> questionsByCourse.getOrDefault(course.getId(), 0L) > 0)
+                .map(course -> new CourseSize(course.getId(), course.getCourse(), questionsByCourse.get(course.getId()).intValue()))
+                .sorted(Comparator.comparingInt(CourseSize::questions).reversed().thenComparing(CourseSize::courseId))
+                .toList();
+    }
+
+    /**
+     * One runner of a batch: recomputes the next queued course until none is left. A busy course is queued again to be
+     * tried after the retry interval; when only such courses are left, the runner gives up its thread until the first
+     * of them is due.
+     */
+    private void runQueued(RecomputeBatch batch) {
+        RecomputeJob job;
+        while ((job = batch.queue.poll()) != null) {
+            Instant retryAt = job.retryAt;
+            if (retryAt.isAfter(Instant.now())) {
+                batch.queue.add(job);
+                scheduleWhileWaiting(job, () -> runQueued(batch), retryAt);
+                return;
+            }
+            if (!tryRun(job)) {
+                job.retryAt = Instant.now().plus(courseLockService.getRetryInterval());
+                batch.queue.add(job);
+            }
+        }
+    }
+
+    private String resolveAlgorithm(String strategy) {
+        return strategy == null || strategy.isBlank() ? questionDuplicationService.getDefaultSimilarityAlgorithm() : strategy;
+    }
+
+    private void run(RecomputeJob job) {
+        if (!tryRun(job)) {
+            scheduleWhileWaiting(job, () -> run(job), Instant.now().plus(courseLockService.getRetryInterval()));
+        }
+    }
+
+    /**
+     * Runs the job unless its course is busy.
+     *
+     * @return {@code false} if the course is busy and the job is to be tried again, {@code true} once it is finished
+     */
+    private boolean tryRun(RecomputeJob job) {
+        RecomputeScope scope = job.scope;
+        try (CourseLockService.CourseLock lock = lockCourse(job)) {
+            if (lock == null) {
+                return false;
+            }
+            if (!job.start()) {
+                log.atInfo().addArgument(job.id).log("Duplicate recompute job {} was cancelled before it started");
+                return true;
+            }
+            long startedMs = System.currentTimeMillis();
+            QuestionDuplicationService.DuplicateRecomputeSummary summary = questionDuplicationService.recomputeDuplicatesInBatches(
+                    scope.courseName(),
+                    scope.questionBankId(),
+                    scope.authorId(),
+                    job.strategy,
+                    job,
+                    job.threshold
+            );
+            long durationMs = System.currentTimeMillis() - startedMs;
+            CourseDuplicateRecomputeResultDto result = courseService.buildRecomputeResult(
+                    scope.courseName(), scope.courseId(), job.startedAt, OffsetDateTime.now(), durationMs, summary);
+            DuplicateRecomputeHistoryDto history = courseService.saveRecomputeHistory(
+                    result, job.strategy, scope.courseId(), scope.questionBankId(), scope.authorId(), job.batchId, job.queueWaitMs());
+            job.complete(result, history.getId());
+            log.atInfo().addArgument(job.id).addArgument(scope.courseName()).addArgument(durationMs)
+                    .log("Duplicate recompute job {} for course '{}' completed in {} ms");
+        } catch (CancellationException e) {
+            job.finish(DuplicateRecomputeJobStatus.CANCELLED, e.getMessage());
+            log.atInfo().addArgument(job.id).addArgument(e.getMessage()).log("Duplicate recompute job {} cancelled: {}");
+        } catch (CourseLockService.CourseLockedException e) {
+            job.finish(DuplicateRecomputeJobStatus.FAILED, e.getMessage());
+            log.atWarn().addArgument(job.id).addArgument(e.getMessage()).log("Duplicate recompute job {} gave up waiting: {}");
+        } catch (RuntimeException e) {
+            job.finish(DuplicateRecomputeJobStatus.FAILED, e.getMessage());
+            log.atError().setCause(e).addArgument(job.id).addArgument(scope.courseName()).log("Duplicate recompute job {} for course '{}' failed");
+        }
+        return true;
+    }
+
+    /**
+     * Takes the course lock shared by all instances; while another instance or job holds the course, the job stays
+     * queued in stage {@link #STAGE_WAITING_FOR_COURSE}.
+     *
+     * @return the lock, or {@code null} if the course is busy
+     * @throws CancellationException if the job was cancelled while waiting for the course
+     */
+    private CourseLockService.CourseLock lockCourse(RecomputeJob job) {
+        String purpose = "the duplicate recompute job " + job.id;
+        CourseLockService.CourseLock lock = courseLockService.tryLock(job.scope.courseId(), purpose, job.getWaitingSince());
+        if (lock == null) {
+            if (job.isCancellationRequested()) {
+                throw new CancellationException("Cancelled while waiting for course '" + job.scope.courseName() + "'");
+            }
+            if (job.waitForCourse()) {
+                log.atInfo().addArgument(job.id).addArgument(job.scope.courseName())
+                        .log("Duplicate recompute job {} waits for course '{}', busy with other work");
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Schedules the next attempt for a job waiting for its course; the job is cancelled if the scheduler is shut down.
+     */
+    private void scheduleWhileWaiting(RecomputeJob job, Runnable attempt, Instant at) {
+        try {
+            duplicateRecomputeTaskScheduler.schedule(attempt, at);
+        } catch (TaskRejectedException e) {
+            job.finish(DuplicateRecomputeJobStatus.CANCELLED, "Shut down while waiting for course '" + job.scope.courseName() + "'");
+        }
+    }
+
+    private RecomputeJob findJobOrThrow(String jobId) {
+        RecomputeJob job = jobId == null ? null : jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Duplicate recompute job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private RecomputeBatch findBatchOrThrow(String batchId) {
+        RecomputeBatch batch = batchId == null ? null : batches.get(batchId);
+        if (batch == null) {
+            throw new IllegalArgumentException("Duplicate recompute batch not found with ID: " + batchId);
+        }
+        return batch;
+    }
+
+    private void evictExpiredJobs() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+        batches.values().removeIf(batch -> batch.jobs.stream().allMatch(job -> job.isFinishedBefore(cutoff)));
+    }
+
+    private record RecomputeScope(Long courseId, String courseName, Long questionBankId, Long authorId) {
+    }
+
+    private record CourseSize(Long courseId, String courseName, int questions) {
+    }
+
+    /**
+     * The course jobs of one recompute of all courses. Runners poll the queue, which yields the courses due for an
+     * attempt first and among them the largest; the job list stays complete for reporting.
+     */
+    private static final class RecomputeBatch {
+        private final String id;
+        private final String strategy;
+        private final int concurrency;
+        private final int pairParallelism;
+        private final OffsetDateTime submittedAt = OffsetDateTime.now();
+        private final List<RecomputeJob> jobs = new ArrayList<>();
+        private final PriorityBlockingQueue<RecomputeJob> queue = new PriorityBlockingQueue<>(
+                16, Comparator.comparing((RecomputeJob job) -> job.retryAt).thenComparingInt(job -> job.queuePosition));
+        private volatile boolean cancelRequested;
+
+        private RecomputeBatch(String id, String strategy, int concurrency, int pairParallelism) {
+            this.id = id;
+            this.strategy = strategy;
+            this.concurrency = concurrency;
+            this.pairParallelism = pairParallelism;
+        }
+
+        private void add(RecomputeJob job) {
+            job.queuePosition = jobs.size();
+            jobs.add(job);
+            queue.add(job);
+        }
+
+        private DuplicateRecomputeBatchDto toDto() {
+            DuplicateRecomputeBatchDto dto = new DuplicateRecomputeBatchDto();
+            dto.setBatchId(id);
+            dto.setStrategy(strategy);
+            dto.setConcurrency(concurrency);
+            dto.setPairParallelism(pairParallelism);
+            dto.setTotalCourses(jobs.size());
+            dto.setCancelRequested(cancelRequested);
+            dto.setSubmittedAt(submittedAt);
+            int queued = 0;
+            for (RecomputeJob job : jobs) {
+                DuplicateRecomputeJobDto jobDto = job.toDto();
+                dto.getJobs().add(jobDto);
+                dto.setProcessedQuestions(dto.getProcessedQuestions() + jobDto.getProcessedQuestions());
+                dto.setTotalQuestions(dto.getTotalQuestions() + jobDto.getTotalQuestions());
+                if (jobDto.getStartedAt() != null && (dto.getStartedAt() == null || jobDto.getStartedAt().isBefore(dto.getStartedAt()))) {
+                    dto.setStartedAt(jobDto.getStartedAt());
+                }
+                if (jobDto.getEndedAt() != null && (dto.getEndedAt() == null || jobDto.getEndedAt().isAfter(dto.getEndedAt()))) {
+                    dto.setEndedAt(jobDto.getEndedAt());
+                }
+                switch (jobDto.getStatus()) {
+                    case QUEUED -> queued++;
+                    case RUNNING -> dto.setRunningCourses(dto.getRunningCourses() + 1);
+                    case COMPLETED -> dto.setCompletedCourses(dto.getCompletedCourses() + 1);
+                    case FAILED -> dto.setFailedCourses(dto.getFailedCourses() + 1);
+                    case CANCELLED -> dto.setCancelledCourses(dto.getCancelledCourses() + 1);
+                }
+            }
+            dto.setStatus(batchStatus(dto, queued));
+            if (!dto.getStatus().isFinished()) {
+                dto.setEndedAt(null);
+            }
+            return dto;
+        }
+
+        private static DuplicateRecomputeJobStatus batchStatus(DuplicateRecomputeBatchDto dto, int queued) {
+            if (queued == dto.getTotalCourses() && queued > 0) {
+                return DuplicateRecomputeJobStatus.QUEUED;
+            }
+            if (queued > 0 || dto.getRunningCourses() > 0) {
+                return DuplicateRecomputeJobStatus.RUNNING;
+            }
+            if (dto.getFailedCourses() > 0) {
+                return DuplicateRecomputeJobStatus.FAILED;
+            }
+            if (dto.getCancelledCourses() > 0) {
+                return DuplicateRecomputeJobStatus.CANCELLED;
+            }
+            return DuplicateRecomputeJobStatus.COMPLETED;
+        }
+    }
+
+    /**
+     * One submitted job. Progress callbacks come from the job thread, reads from request threads.
+     */
+    private static final class RecomputeJob implements DuplicateRecomputeMonitor {
+        private final String id;
+        private final RecomputeScope scope;
+        private final String strategy;
+        private final Double threshold;
+        private final String batchId;
+        private final int plannedQuestions;
+        private final int pairParallelism;
+        private final OffsetDateTime submittedAt = OffsetDateTime.now();
+        private volatile boolean cancelRequested;
+        /**
+         * Position in the batch and earliest next attempt, ordering the batch queue; changed only while out of it.
+         */
+        private int queuePosition;
+        private volatile Instant retryAt = Instant.EPOCH;
+        private DuplicateRecomputeJobStatus status = DuplicateRecomputeJobStatus.QUEUED;
+        private String stage;
+        private Instant waitingSince;
+        private int totalQuestions;
+        private int completedStageQuestions;
+        private int stageQuestions;
+        private int processedInStage;
+        private int committedBatches;
+        private OffsetDateTime startedAt;
+        private OffsetDateTime endedAt;
+        private String errorMessage;
+        private Long historyId;
+        private CourseDuplicateRecomputeResultDto result;
+
+        private RecomputeJob(String id, RecomputeScope scope, String strategy, Double threshold) {
+            this(id, scope, strategy, threshold, null, 0, 0);
+        }
+
+        private RecomputeJob(String id, RecomputeScope scope, String strategy, Double threshold, String batchId, int plannedQuestions, int pairParallelism) {
+            this.id = id;
+            this.scope = scope;
+            this.strategy = strategy;
+            this.threshold = threshold;
+            this.batchId = batchId;
+            this.plannedQuestions = plannedQuestions;
+            this.pairParallelism = pairParallelism;
+        }
+
+        @Override
+        public synchronized void onQuestionsLoaded(int questionsToCheck) {
+            totalQuestions = questionsToCheck;
+        }
+
+        @Override
+        public synchronized void onStageStarted(String stage, int questions, int batches) {
+            completedStageQuestions += stageQuestions;
+            this.stage = stage;
+            stageQuestions = questions;
+            processedInStage = 0;
+        }
+
+        @Override
+        public synchronized void onProgress(int processedInStage) {
+            this.processedInStage = Math.max(this.processedInStage, processedInStage);
+        }
+
+        @Override
+        public synchronized void onBatchCommitted(int processedInStage, int linksPersisted, int errorsCreated) {
+            this.processedInStage = Math.max(this.processedInStage, processedInStage);
+            committedBatches++;
+        }
+
+        @Override
+        public boolean isCancellationRequested() {
+            return cancelRequested;
+        }
+
+        @Override
+        public int pairParallelism() {
+            return pairParallelism;
+        }
+
+        private synchronized DuplicateRecomputeJobStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * Marks the job as waiting for its course; returns {@code true} when it starts waiting.
+         */
+        private synchronized boolean waitForCourse() {
+            stage = STAGE_WAITING_FOR_COURSE;
+            if (waitingSince != null) {
+                return false;
+            }
+            waitingSince = Instant.now();
+            return true;
+        }
+
+        private synchronized Instant getWaitingSince() {
+            return waitingSince;
+        }
+
+        private synchronized boolean start() {
+            if (cancelRequested) {
+                status = DuplicateRecomputeJobStatus.CANCELLED;
+                endedAt = OffsetDateTime.now();
+                return false;
+            }
+            status = DuplicateRecomputeJobStatus.RUNNING;
+            startedAt = OffsetDateTime.now();
+            return true;
+        }
+
+        private synchronized boolean requestCancellation() {
+            if (status.isFinished()) {
+                return false;
+            }
+            cancelRequested = true;
+            return true;
+        }
+
+        private synchronized void complete(CourseDuplicateRecomputeResultDto result, Long historyId) {
+            this.result = result;
+            this.historyId = historyId;
+            finish(DuplicateRecomputeJobStatus.COMPLETED, null);
+        }
+
+        private synchronized void finish(DuplicateRecomputeJobStatus finalStatus, String message) {
+            status = finalStatus;
+            errorMessage = message;
+            endedAt = OffsetDateTime.now();
+        }
+
+        /**
+         * Milliseconds a batch job waited for a runner; {@code null} for jobs submitted on their own.
+         */
+        private synchronized Long queueWaitMs() {
+            return batchId == null || startedAt == null ? null : Duration.between(submittedAt, startedAt).toMillis();
+        }
+
+        private synchronized boolean isFinishedBefore(OffsetDateTime cutoff) {
+            return status.isFinished() && endedAt != null && endedAt.isBefore(cutoff);
+        }
+
+        private synchronized DuplicateRecomputeJobDto toDto() {
+            DuplicateRecomputeJobDto dto = new DuplicateRecomputeJobDto();
+            dto.setJobId(id);
+            dto.setBatchId(batchId);
+            dto.setStatus(status);
+            dto.setCourseId(scope.courseId());
+            dto.setCourseName(scope.courseName());
+            dto.setQuestionBankId(scope.questionBankId());
+            dto.setAuthorId(scope.authorId());
+            dto.setStrategy(strategy);
+            dto.setThreshold(threshold);
+            dto.setStage(stage);
+            dto.setProcessedQuestions(completedStageQuestions + processedInStage);
+            dto.setTotalQuestions(totalQuestions > 0 || status.isFinished() ? totalQuestions : plannedQuestions);
+            dto.setCommittedBatches(committedBatches);
+            dto.setCancelRequested(cancelRequested);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setEndedAt(endedAt);
+            dto.setErrorMessage(errorMessage);
+            dto.setHistoryId(historyId);
+            dto.setResult(result);
+            return dto;
+        }
+    }
+}
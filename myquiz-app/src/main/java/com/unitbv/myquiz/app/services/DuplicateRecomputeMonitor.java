@@ -0,0 +1,37 @@
+package com.unitbv.myquiz.app.services;
+
+/**
+ * Receives progress of a batched duplicate recompute and lets the caller stop it.
+ * <p>
+ * Stages are the question types, processed one after the other. Cancellation is checked before each batch,
+ * so a cancelled recompute keeps every batch committed so far and never leaves a batch half written.
+ * The fork/join pair engine also checks it between tiles and may report progress from several threads.
+ */
+public interface DuplicateRecomputeMonitor {
+
+    DuplicateRecomputeMonitor NONE = new DuplicateRecomputeMonitor() {
+    };
+
+    default void onQuestionsLoaded(int questionsToCheck) {
+    }
+
+    default void onStageStarted(String stage, int questions, int batches) {
+    }
+
+    default void onProgress(int processedInStage) {
+    }
+
+    default void onBatchCommitted(int processedInStage, int linksPersisted, int errorsCreated) {
+    }
+
+    default boolean isCancellationRequested() {
+        return false;
+    }
+
+    /**
+     * Most fork/join workers the pair engine may use at once for this recompute; {@code 0} uses the whole pool.
+     */
+    default int pairParallelism() {
+        return 0;
+    }
+}
@@ -0,0 +1,176 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cosine similarity of the Ollama embeddings of two texts, so paraphrased questions match even when they share
+ * few words.
+ * <p>
+ * Pairwise calls are only used to confirm and describe matches; during duplicate detection the candidate pairs come
+ * from {@link #buildCandidateIndex(List)}. It embeds every compared field of the course in one batched pass through
+ * {@link QuestionEmbeddingService} and builds one {@link HnswIndex} per field kind (titles, true/false texts,
+ * answers) over the distinct values. Each value then asks its graph once for its nearest values, so a course costs
+ * one k-NN query per value instead of a cosine per pair.
+ * <p>
+ * A detection run first binds the strategy to its corpus with {@link #forCorpus(List)}: the returned copy holds the
+ * embeddings of every compared field in an immutable map, so the pair checks of the run read vectors without taking
+ * the embedding service's cache lock or calling Ollama from the pair engine's workers.
+ */
+@Component
+public class EmbeddingQuestionSimilarityStrategy extends AbstractQuestionSimilarityStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingQuestionSimilarityStrategy.class);
+
+    private final QuestionEmbeddingService questionEmbeddingService;
+    private final DuplicateDetectionProperties.EmbeddingProperties settings;
+    /**
+     * Embeddings of the compared fields of one corpus, {@code null} on the shared bean.
+     */
+    private final Map<String, float[]> corpusEmbeddings;
+
+    @Autowired
+    public EmbeddingQuestionSimilarityStrategy(QuestionEmbeddingService questionEmbeddingService, DuplicateDetectionProperties duplicateDetectionProperties) {
+        this(questionEmbeddingService, duplicateDetectionProperties.getEmbedding(), null);
+    }
+
+    private EmbeddingQuestionSimilarityStrategy(
+            QuestionEmbeddingService questionEmbeddingService, DuplicateDetectionProperties.EmbeddingProperties settings, Map<String, float[]> corpusEmbeddings
+    ) {
+        super("embedding", settings.getThreshold());
+        this.questionEmbeddingService = questionEmbeddingService;
+        this.settings = settings;
+        this.corpusEmbeddings = corpusEmbeddings;
+    }
+
+    /**
+     * Embeds every compared field of the corpus in one batched pass and returns a copy of this strategy that answers
+     * pair checks and {@link #buildCandidateIndex(List)} from those embeddings.
+     */
+    EmbeddingQuestionSimilarityStrategy forCorpus(List<CorpusQuestion> corpus) {
+        long startedMs = System.currentTimeMillis();
+        Map<String, float[]> embeddings = Map.copyOf(questionEmbeddingService.embeddingsFor(fieldValuesOf(comparableOf(corpus))));
+        logger.atDebug().addArgument(embeddings.size()).addArgument(System.currentTimeMillis() - startedMs)
+              .log("Embedded {} distinct corpus fields before the pair checks in {} ms");
+        return new EmbeddingQuestionSimilarityStrategy(questionEmbeddingService, settings, embeddings);
+    }
+
+    /**
+     * Reads both vectors from the bound corpus; values outside of it, and calls on the shared bean, go through the
+     * embedding service.
+     */
+    @Override
+    protected double similarity(String left, String right) {
+        float[] leftVector = corpusEmbeddings == null ? null : corpusEmbeddings.get(left);
+        float[] rightVector = corpusEmbeddings == null ? null : corpusEmbeddings.get(right);
+        if (leftVector != null && rightVector != null) {
+            return HnswIndex.similarity(leftVector, rightVector);
+        }
+        Map<String, float[]> embeddings = questionEmbeddingService.embeddingsFor(List.of(left, right));
+        return HnswIndex.similarity(embeddings.get(left), embeddings.get(right));
+    }
+
+    /**
+     * Builds the candidate index of one detection run: two questions are candidates when the same kind of field
+     * has the same value, is among the {@code neighbours} nearest values of the other at or above the threshold, or
+     * contains the other's value, which detection reports whatever the embeddings say.
+     */
+    DuplicateCandidateIndex buildCandidateIndex(List<CorpusQuestion> corpus) {
+        long startedMs = System.currentTimeMillis();
+        List<CorpusQuestion> comparable = comparableOf(corpus);
+        Set<String> values = fieldValuesOf(comparable);
+        Map<String, float[]> embeddings = corpusEmbeddings != null && corpusEmbeddings.keySet().containsAll(values)
+                ? corpusEmbeddings
+                : questionEmbeddingService.embeddingsFor(values);
+
+        Map<Long, long[]> pairs = new LinkedHashMap<>();
+        collectNeighbours(comparable, record -> record.title() == null ? new String[0] : new String[]{record.title()}, embeddings, pairs);
+        collectNeighbours(comparable, record -> record.text() == null ? new String[0] : new String[]{record.text()}, embeddings, pairs);
+        collectNeighbours(comparable, CorpusQuestion::answers, embeddings, pairs);
+        for (long[] pair : TokenSetSimilarityJoin.containedPairs(comparable)) {
+            pairs.putIfAbsent(DuplicatePairSet.pack(pair[0], pair[1]), pair);
+        }
+        logger.atInfo().addArgument(comparable.size()).addArgument(values.size()).addArgument(pairs.size())
+              .addArgument(System.currentTimeMillis() - startedMs)
+              .log("Embedding candidate search over {} questions ({} distinct fields) found {} pairs in {} ms");
+        return new PairCandidateIndex(corpus, new ArrayList<>(pairs.values()));
+    }
+
+    /**
+     * Indexes the distinct values of one field kind and pairs the owners of every value with each other and with
+     * the owners of its nearest values at or above the threshold.
+     */
+    private void collectNeighbours(
+            List<CorpusQuestion> comparable, Function<CorpusQuestion, String[]> fieldsOf, Map<String, float[]> embeddings, Map<Long, long[]> pairs
+    ) {
+        Map<String, List<Long>> ownersByValue = new LinkedHashMap<>();
+        for (CorpusQuestion record : comparable) {
+            for (String value : fieldsOf.apply(record)) {
+                ownersByValue.computeIfAbsent(value, key -> new ArrayList<>()).add(record.id());
+            }
+        }
+        if (ownersByValue.isEmpty()) {
+            return;
+        }
+
+        HnswIndex hnsw = new HnswIndex(settings.getM(), settings.getEfConstruction());
+        List<List<Long>> owners = new ArrayList<>(ownersByValue.size());
+        ownersByValue.forEach((value, valueOwners) -> {
+            hnsw.add(embeddings.get(value));
+            owners.add(valueOwners);
+        });
+        int node = 0;
+        for (Map.Entry<String, List<Long>> entry : ownersByValue.entrySet()) {
+            List<Long> valueOwners = entry.getValue();
+            for (int i = 0; i < valueOwners.size(); i++) {
+                for (int j = i + 1; j < valueOwners.size(); j++) {
+                    addPair(valueOwners.get(i), valueOwners.get(j), pairs);
+                }
+            }
+            for (HnswIndex.Neighbour neighbour : hnsw.search(embeddings.get(entry.getKey()), settings.getNeighbours() + 1, settings.getEfSearch())) {
+                if (neighbour.node() == node || neighbour.similarity() < getThreshold()) {
+                    continue;
+                }
+                for (Long owner : valueOwners) {
+                    for (Long other : owners.get(neighbour.node())) {
+                        addPair(owner, other, pairs);
+                    }
+                }
+            }
+            node++;
+        }
+    }
+
+    private static List<CorpusQuestion> comparableOf(List<CorpusQuestion> corpus) {
+        return corpus.stream().filter(CorpusQuestion::comparable).toList();
+    }
+
+    private static Set<String> fieldValuesOf(List<CorpusQuestion> comparable) {
+        Set<String> values = new LinkedHashSet<>();
+        for (CorpusQuestion record : comparable) {
+            values.add(record.title());
+            values.add(record.text());
+            values.addAll(List.of(record.answers()));
+        }
+        values.remove(null);
+        return values;
+    }
+
+    private static void addPair(Long left, Long right, Map<Long, long[]> pairs) {
+        if (!left.equals(right)) {
+            long lower = Math.min(left, right);
+            long higher = Math.max(left, right);
+            pairs.putIfAbsent(DuplicatePairSet.pack(lower, higher), new long[]{lower, higher});
+        }
+    }
+}
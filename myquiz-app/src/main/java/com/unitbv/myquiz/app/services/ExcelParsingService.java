@@ -8,22 +8,32 @@ import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionBank;
 import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
 import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
+import com.unitbv.myquiz.app.tasks.ThreadPoolTaskProperties;
+import com.unitbv.myquiz.app.util.ContentHash;
+import com.unitbv.myquiz.app.util.ExcelArchiveReader;
 import com.unitbv.myquiz.app.util.FileValidator;
 import com.unitbv.myquiz.app.util.InputTemplate;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.unitbv.myquiz.app.util.SheetRow;
+import com.unitbv.myquiz.app.util.XlsxSheet;
+import com.unitbv.myquiz.app.util.XlsxSheetReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Service responsible for parsing Excel files containing QuestionBank questions.
@@ -31,6 +41,13 @@ import java.util.Objects;
  * <p>
  * This service supports:
  * - Recursive directory traversal for batch file processing
+ * - Zip archives read in process with {@link ExcelArchiveReader}, without extracting them to disk
+ * - Streaming reads of the question sheets with {@link XlsxSheetReader}, keeping cell values rather than the
+ *   document tree of the workbook
+ * - Reading the workbooks of a folder in parallel on the readAndParseFileTaskExecutor, while rows are converted and
+ *   stored by the calling thread alone, one file at a time in file order
+ * - Reusing the parse results of workbooks imported before, recognized by their SHA-256, see
+ *   {@link WorkbookReuseService}
  * - Template type detection (2023 vs 2024 formats)
  * - Multiple choice and true/false question parsing
  * - Error tracking and validation
@@ -47,24 +64,40 @@ public class ExcelParsingService {
     private static final int MAX_CONSECUTIVE_EMPTY_ROWS_TRUEFALSE = 2;
     private static final int MAX_CONSECUTIVE_EMPTY_ROWS_MULTICHOICE = 20;
     private static final int MAX_RECURSION_DEPTH = 10;
+    // Multichoice sheet first, true/false sheet second; further sheets are not read
+    private static final int QUESTION_SHEETS = 2;
 
     private final QuestionWeightValidationService weightValidationService;
     private final CellConversionService cellConversionService;
     private final QuestionErrorService questionErrorService;
     private final QuestionBankAuthorRepository questionBankAuthorRepository;
     private final AuthorService authorService;
+    private final WorkbookReuseService workbookReuseService;
+    private final Executor readAndParseFileTaskExecutor;
+    /**
+     * Workbooks read ahead of the file being stored; bounds the sheet values held in memory.
+     */
+    private final int readAhead;
 
     public ExcelParsingService(QuestionWeightValidationService weightValidationService, CellConversionService cellConversionService, QuestionErrorService questionErrorService,
-                               QuestionBankAuthorRepository questionBankAuthorRepository, AuthorService authorService) {
+                               QuestionBankAuthorRepository questionBankAuthorRepository, AuthorService authorService, WorkbookReuseService workbookReuseService,
+                               @Qualifier("readAndParseFileTaskExecutor") Executor readAndParseFileTaskExecutor, ThreadPoolTaskProperties threadPoolTaskProperties) {
         this.weightValidationService = weightValidationService;
         this.cellConversionService = cellConversionService;
         this.questionErrorService = questionErrorService;
         this.questionBankAuthorRepository = questionBankAuthorRepository;
         this.authorService = authorService;
+        this.workbookReuseService = workbookReuseService;
+        this.readAndParseFileTaskExecutor = readAndParseFileTaskExecutor;
+        this.readAhead = Math.max(1, threadPoolTaskProperties.getReadAndParse().getMaxPoolSize());
     }
 
     /**
      * Recursively parse Excel files from a folder structure.
+     * <p>
+     * The workbooks are read in parallel, each file one task on the readAndParseFileTaskExecutor. Authors, questions
+     * and errors are stored by the calling thread, so all repository calls keep running on it in file order. Workbooks
+     * parsed before are not read again; their questions and errors are copied from the earlier parse.
      *
      * @param questionBank The questionBank to associate questions with
      * @param folder       The root folder or file path to process
@@ -81,98 +114,210 @@ public class ExcelParsingService {
             return noFilesInput;
         }
 
-        return parseExcelFilesFromFolderInternal(questionBank, folder, noFilesInput, 0);
+        List<Path> files = new ArrayList<>();
+        collectFiles(folder, files, 0);
+        return noFilesInput + processFiles(questionBank, files);
     }
 
     /**
-     * Internal recursive implementation with depth tracking.
+     * Parse the Excel files of a zip archive without extracting it.
+     * <p>
+     * Entries are read in archive order and named like files extracted from the archive, see
+     * {@link ExcelArchiveReader}. As for a folder, each workbook is parsed by one task on the
+     * readAndParseFileTaskExecutor, at most {@link #readAhead} entries ahead of the one being stored, and everything
+     * is stored by the calling thread.
+     *
+     * @param questionBank The questionBank to associate questions with
+     * @param archive      The zip archive; read to its end but not closed
+     * @return Number of Excel files successfully processed
+     * @throws IllegalArgumentException if questionBank is null
+     * @throws IOException              if the archive cannot be read or breaks the archive limits
      */
-    private int parseExcelFilesFromFolderInternal(QuestionBank questionBank, Path folder, int currentCount, int depth) {
-        if (depth > MAX_RECURSION_DEPTH) {
-            logger.atWarn().addArgument(MAX_RECURSION_DEPTH).addArgument(folder).log("Maximum recursion depth {} reached at path: {}, stopping traversal");
-            return currentCount;
+    public int parseExcelFilesFromArchive(QuestionBank questionBank, InputStream archive) throws IOException {
+        if (questionBank == null) {
+            throw new IllegalArgumentException("QuestionBank cannot be null");
         }
 
-        if (!FileValidator.exists(folder)) {
-            logger.atWarn().addArgument(folder).log("Path does not exist: {}");
-            return currentCount;
+        Deque<PendingFile> pending = new ArrayDeque<>();
+        AtomicInteger processedCount = new AtomicInteger();
+        int entries = ExcelArchiveReader.readExcelEntries(archive, (name, content) -> {
+            if (pending.size() >= readAhead && processFile(questionBank, pending.poll())) {
+                processedCount.incrementAndGet();
+            }
+            // The entry is only valid until the next one is read, so the parse task gets its bytes
+            Path file = Path.of(name);
+            byte[] workbook = content.readAllBytes();
+            String contentHash = ContentHash.of(workbook);
+            pending.add(pendingWorkbook(file, contentHash, () -> readWorkbook(file, contentHash, workbook)));
+        });
+        while (!pending.isEmpty()) {
+            if (processFile(questionBank, pending.poll())) {
+                processedCount.incrementAndGet();
+            }
         }
+        logger.atInfo().addArgument(entries).addArgument(processedCount.get()).log("Read {} Excel files from archive, {} processed");
+        return processedCount.get();
+    }
 
-        int processedCount = currentCount;
+    /**
+     * Collects the regular files below a path in traversal order, with depth tracking.
+     */
+    private void collectFiles(Path path, List<Path> files, int depth) {
+        if (depth > MAX_RECURSION_DEPTH) {
+            logger.atWarn().addArgument(MAX_RECURSION_DEPTH).addArgument(path).log("Maximum recursion depth {} reached at path: {}, stopping traversal");
+            return;
+        }
 
-        if (FileValidator.isDirectory(folder)) {
-            processedCount = processDirectory(questionBank, folder, processedCount, depth);
-        } else if (FileValidator.isRegularFile(folder)) {
-            if (FileValidator.isExcelFile(folder)) {
-                processedCount = processExcelFile(questionBank, folder, processedCount);
-            } else {
-                handleInvalidFile(questionBank, folder);
-            }
+        if (!FileValidator.exists(path)) {
+            logger.atWarn().addArgument(path).log("Path does not exist: {}");
+            return;
         }
 
-        return processedCount;
+        if (FileValidator.isDirectory(path)) {
+            collectDirectory(path, files, depth);
+        } else if (FileValidator.isRegularFile(path)) {
+            files.add(path);
+        }
     }
 
     /**
-     * Process all files in a directory recursively.
+     * Collect all files in a directory recursively.
      */
-    private int processDirectory(QuestionBank questionBank, Path directory, int currentCount, int depth) {
-        Path[] files = FileValidator.listFiles(directory);
+    private void collectDirectory(Path directory, List<Path> files, int depth) {
+        Path[] children = FileValidator.listFiles(directory);
 
-        if (files == null) {
+        if (children == null) {
             logger.atWarn().addArgument(directory).log("Cannot list files in directory: {}");
-            return currentCount;
+            return;
         }
 
-        if (files.length == 0) {
+        if (children.length == 0) {
             logger.atInfo().addArgument(directory).log("Empty directory: {}");
-            return currentCount;
+            return;
         } else {
-            logger.atInfo().addArgument(directory).addArgument(files.length).log("Process directory '{}' with total number of files: {}");
+            logger.atInfo().addArgument(directory).addArgument(children.length).log("Process directory '{}' with total number of files: {}");
         }
 
-        int processedCount = currentCount;
-        for (Path file : files) {
+        for (Path child : children) {
             try {
-                processedCount = parseExcelFilesFromFolderInternal(questionBank, file, processedCount, depth + 1);
+                collectFiles(child, files, depth + 1);
             } catch (Exception e) {
-                logger.atError().addArgument(file).setCause(e).log("Error processing file/directory: {}");
+                logger.atError().addArgument(child).setCause(e).log("Error processing file/directory: {}");
             }
         }
+    }
 
+    /**
+     * Reads the workbooks at most {@link #readAhead} files ahead of the one being stored, and stores them one at a
+     * time in file order.
+     *
+     * @return Number of Excel files successfully processed
+     */
+    private int processFiles(QuestionBank questionBank, List<Path> files) {
+        Deque<PendingFile> pending = new ArrayDeque<>();
+        int next = 0;
+        int processedCount = 0;
+        while (next < files.size() || !pending.isEmpty()) {
+            while (next < files.size() && pending.size() < readAhead) {
+                pending.add(readAsync(files.get(next++)));
+            }
+            if (processFile(questionBank, pending.poll())) {
+                processedCount++;
+            }
+        }
         return processedCount;
     }
 
+    private PendingFile readAsync(Path file) {
+        if (!FileValidator.isExcelFile(file)) {
+            return new PendingFile(file, null, null, null);
+        }
+        String contentHash = contentHashOf(file);
+        return pendingWorkbook(file, contentHash, () -> readWorkbook(file, contentHash));
+    }
+
+    /**
+     * Looks up an earlier parse of the workbook on the calling thread; only workbooks without one are read, by a task
+     * on the readAndParseFileTaskExecutor.
+     */
+    private PendingFile pendingWorkbook(Path file, String contentHash, Supplier<ReadWorkbook> reader) {
+        Long parsedId = workbookReuseService.findParsed(contentHash);
+        if (parsedId != null) {
+            return new PendingFile(file, parsedId, reader, null);
+        }
+        return new PendingFile(file, null, reader, CompletableFuture.supplyAsync(reader, readAndParseFileTaskExecutor));
+    }
+
+    private boolean processFile(QuestionBank questionBank, PendingFile file) {
+        if (file.reader() == null) {
+            handleInvalidFile(questionBank, file.path());
+            return false;
+        }
+        try {
+            if (file.parsedId() != null) {
+                return reuseExcelFile(questionBank, file);
+            }
+            return processExcelFile(questionBank, file.workbook().join());
+        } catch (Exception e) {
+            logger.atError().addArgument(file.path()).setCause(e).log("Exception while processing Excel file: {}");
+            handleInvalidFile(questionBank, file.path());
+            return false;
+        }
+    }
+
     /**
      * Process a single Excel file.
      */
-    private int processExcelFile(QuestionBank questionBank, Path excelFile, int currentCount) {
+    private boolean processExcelFile(QuestionBank questionBank, ReadWorkbook workbook) {
+        Path excelFile = workbook.path();
         try {
             Author author = resolveAuthorForFile(excelFile);
 
             if (author == null) {
                 logger.atWarn().addArgument(excelFile).log("Could not extract or save author from file: {}");
                 handleInvalidFile(questionBank, excelFile);
-                return currentCount;
+                return false;
             }
 
             logger.atInfo().addArgument(excelFile.getFileName()).addArgument(author.getName()).log("Processing Excel file '{}' for author '{}'");
 
-            String result = parseFileSheets(questionBank, author, excelFile);
+            String result = storeWorkbook(questionBank, author, workbook);
 
             if (result != null && !result.startsWith("Error")) {
                 logger.atInfo().addArgument(excelFile.getFileName()).log("Successfully processed Excel file: {}");
-                return currentCount + 1;
+                return true;
             } else {
                 logger.atWarn().addArgument(excelFile.getFileName()).addArgument(result).log("Failed to process Excel file '{}': {}");
-                return currentCount;
+                return false;
             }
 
         } catch (Exception e) {
             logger.atError().addArgument(excelFile).setCause(e).log("Exception while processing Excel file: {}");
             handleInvalidFile(questionBank, excelFile);
-            return currentCount;
+            return false;
+        }
+    }
+
+    /**
+     * Copy the questions and errors of an earlier parse of the same workbook for the author of this file; the
+     * workbook is parsed after all if the earlier parse was edited or deleted in the meantime.
+     */
+    private boolean reuseExcelFile(QuestionBank questionBank, PendingFile file) {
+        Path excelFile = file.path();
+        Author author = resolveAuthorForFile(excelFile);
+        if (author == null) {
+            logger.atWarn().addArgument(excelFile).log("Could not extract or save author from file: {}");
+            handleInvalidFile(questionBank, excelFile);
+            return false;
+        }
+
+        QuestionBankAuthor questionBankAuthor = workbookReuseService.copyParsed(file.parsedId(), questionBank, author, excelFile.getFileName().toString());
+        if (questionBankAuthor == null) {
+            logger.atInfo().addArgument(excelFile.getFileName()).log("Earlier parse of '{}' changed meanwhile, parsing the file");
+            return processExcelFile(questionBank, file.reader().get());
         }
+        logger.atInfo().addArgument(excelFile.getFileName()).addArgument(author.getName()).log("Reused earlier parse of unchanged Excel file '{}' for author '{}'");
+        return true;
     }
 
     /**
@@ -249,11 +394,58 @@ public class ExcelParsingService {
             throw new IllegalArgumentException("File path cannot be null");
         }
 
+        return storeWorkbook(questionBank, author, readWorkbook(filePath, contentHashOf(filePath)));
+    }
+
+    /**
+     * SHA-256 of a file, or {@code null} if it cannot be read; reading it for parsing then reports the problem.
+     */
+    private static String contentHashOf(Path filePath) {
+        try {
+            return ContentHash.of(filePath);
+        } catch (IOException e) {
+            logger.atDebug().addArgument(filePath).addArgument(e.getMessage()).log("Could not hash file {}: {}");
+            return null;
+        }
+    }
+
+    /**
+     * Validates an Excel file and reads the values of its question sheets without touching the database, so it can
+     * run on any thread. Failures are kept in the result and reported when the workbook is stored.
+     */
+    private static ReadWorkbook readWorkbook(Path filePath, String contentHash) {
         // Validate Excel file using FileValidator
         FileValidator.ValidationResult validation = FileValidator.validateExcelFile(filePath);
         if (validation.hasError()) {
-            logger.atError().addArgument(filePath).addArgument(validation.getErrorMessage()).log("File validation failed for {}: {}");
-            return "Error: " + validation.getErrorMessage();
+            return new ReadWorkbook(filePath, contentHash, validation.getErrorMessage(), null, null);
+        }
+        try {
+            return new ReadWorkbook(filePath, contentHash, null, XlsxSheetReader.readSheets(filePath, QUESTION_SHEETS), null);
+        } catch (Exception e) {
+            return new ReadWorkbook(filePath, contentHash, null, null, e);
+        }
+    }
+
+    /**
+     * Reads the question sheets of an Excel file held in memory, like {@link #readWorkbook(Path, String)} does for a
+     * file on disk.
+     */
+    private static ReadWorkbook readWorkbook(Path file, String contentHash, byte[] content) {
+        try {
+            return new ReadWorkbook(file, contentHash, null, XlsxSheetReader.readSheets(new ByteArrayInputStream(content), file.toString(), QUESTION_SHEETS), null);
+        } catch (Exception e) {
+            return new ReadWorkbook(file, contentHash, null, null, e);
+        }
+    }
+
+    /**
+     * Extracts the questions of a read workbook and stores them for the author; runs on the calling thread.
+     */
+    private String storeWorkbook(QuestionBank questionBank, Author author, ReadWorkbook readWorkbook) {
+        Path filePath = readWorkbook.path();
+        if (readWorkbook.validationError() != null) {
+            logger.atError().addArgument(filePath).addArgument(readWorkbook.validationError()).log("File validation failed for {}: {}");
+            return "Error: " + readWorkbook.validationError();
         }
 
         logger.atInfo().addArgument(filePath).log("Start parse excel file: {}");
@@ -264,9 +456,18 @@ public class ExcelParsingService {
         questionBankAuthor.setSource(filePath.getFileName().toString());
         questionBankAuthor = questionBankAuthorRepository.save(questionBankAuthor);
 
-        try (InputStream inputStream = Files.newInputStream(filePath); Workbook workbook = new XSSFWorkbook(inputStream)) {
+        if (readWorkbook.failure() instanceof IOException e) {
+            logger.atError().addArgument(filePath).setCause(e).log("I/O error processing Excel file: {}");
+            return "I/O error reading file: " + e.getMessage();
+        } else if (readWorkbook.failure() != null) {
+            Exception e = readWorkbook.failure();
+            logger.atError().addArgument(filePath).setCause(e).log("Unexpected error processing Excel file: {}");
+            return "Unexpected error processing file: " + e.getMessage();
+        }
 
-            Sheet sheet = workbook.getSheetAt(0);
+        try {
+            List<XlsxSheet> sheets = readWorkbook.sheets();
+            XlsxSheet sheet = sheets.getFirst();
 
             TemplateType templateType = detectTemplateType(sheet);
             questionBankAuthor.setTemplateType(Objects.requireNonNullElse(templateType, TemplateType.Other));
@@ -275,8 +476,8 @@ public class ExcelParsingService {
             String message = processMultichoiceSheet(questionBankAuthor, sheet, inputTemplate);
             logger.atInfo().addArgument(message).log("First sheet processed: '{}'");
 
-            if (workbook.getNumberOfSheets() > 1) {
-                Sheet sheetTF = workbook.getSheetAt(1);
+            if (sheets.size() > 1) {
+                XlsxSheet sheetTF = sheets.get(1);
                 message = processTruefalseSheet(questionBankAuthor, sheetTF, inputTemplate);
                 logger.atInfo().addArgument(message).log("Second sheet processed: '{}'");
             } else {
@@ -288,12 +489,12 @@ public class ExcelParsingService {
             logger.atInfo().addArgument(filePath.getFileName()).addArgument(questionBankAuthor.getAuthor().getName()).addArgument(questionCount).addArgument(errorCount).log(
                     "File '{}' | author '{}' | questions extracted: {} | errors: {}");
 
+            // Only complete parses are reused for the same workbook
+            questionBankAuthor.setContentHash(readWorkbook.contentHash());
+            questionBankAuthor.setParserVersion(WorkbookReuseService.PARSER_VERSION);
             questionBankAuthorRepository.save(questionBankAuthor);
             return "Finish parsing of the excel sheets";
 
-        } catch (IOException e) {
-            logger.atError().addArgument(filePath).setCause(e).log("I/O error processing Excel file: {}");
-            return "I/O error reading file: " + e.getMessage();
         } catch (Exception e) {
             logger.atError().addArgument(filePath).setCause(e).log("Unexpected error processing Excel file: {}");
             return "Unexpected error processing file: " + e.getMessage();
@@ -303,10 +504,10 @@ public class ExcelParsingService {
     /**
      * Process a sheet containing true/false questions.
      */
-    public String processTruefalseSheet(QuestionBankAuthor questionBankAuthor, Sheet sheet, InputTemplate inputTemplate) {
+    public String processTruefalseSheet(QuestionBankAuthor questionBankAuthor, XlsxSheet sheet, InputTemplate inputTemplate) {
         int consecutiveEmptyRows = 0;
 
-        for (Row row : sheet) {
+        for (SheetRow row : sheet) {
             int currentRowNumber = row.getRowNum();
             RowProcessingResult result = processTrueFalseRowWithResult(row, questionBankAuthor, inputTemplate, currentRowNumber);
 
@@ -326,7 +527,7 @@ public class ExcelParsingService {
     /**
      * Process a sheet containing multiple choice questions.
      */
-    public String processMultichoiceSheet(QuestionBankAuthor questionBankAuthor, Sheet sheet, InputTemplate inputTemplate) {
+    public String processMultichoiceSheet(QuestionBankAuthor questionBankAuthor, XlsxSheet sheet, InputTemplate inputTemplate) {
         logger.atInfo().addArgument(questionBankAuthor.getAuthor().getName()).addArgument(questionBankAuthor.getTemplateType()).log("Start parsing multi choice sheet for '{}' template {}");
 
         questionBankAuthor.setQuestions(new ArrayList<>());
@@ -339,7 +540,7 @@ public class ExcelParsingService {
         int consecutiveEmptyRows = 0;
         int currentRowNumber = 0;
 
-        for (Row row : sheet) {
+        for (SheetRow row : sheet) {
             currentRowNumber = row.getRowNum();
             RowProcessingResult result = processMultichoiceRowWithResult(row, questionBankAuthor, inputTemplate, templateType, currentRowNumber);
 
@@ -361,7 +562,7 @@ public class ExcelParsingService {
     /**
      * Process a single row and return the result status.
      */
-    private RowProcessingResult processMultichoiceRowWithResult(Row row, QuestionBankAuthor questionBankAuthor, InputTemplate inputTemplate, TemplateType templateType, int rowNumber) {
+    private RowProcessingResult processMultichoiceRowWithResult(SheetRow row, QuestionBankAuthor questionBankAuthor, InputTemplate inputTemplate, TemplateType templateType, int rowNumber) {
         if (weightValidationService.isHeaderRow(row, inputTemplate, rowNumber)) {
             return RowProcessingResult.SKIP_HEADER;
         }
@@ -378,7 +579,7 @@ public class ExcelParsingService {
     /**
      * Process a single true/false row.
      */
-    private RowProcessingResult processTrueFalseRowWithResult(Row row, QuestionBankAuthor questionBankAuthor, InputTemplate inputTemplate, int rowNumber) {
+    private RowProcessingResult processTrueFalseRowWithResult(SheetRow row, QuestionBankAuthor questionBankAuthor, InputTemplate inputTemplate, int rowNumber) {
         if (weightValidationService.isTrueFalseHeaderRow(row, inputTemplate, rowNumber)) {
             return RowProcessingResult.SKIP_HEADER;
         }
@@ -408,7 +609,7 @@ public class ExcelParsingService {
     /**
      * Process a single multichoice row.
      */
-    private void processMultichoiceRow(QuestionBankAuthor questionBankAuthor, Row row, InputTemplate inputTemplate, TemplateType templateType, int rowNumber, int noNotNull) {
+    private void processMultichoiceRow(QuestionBankAuthor questionBankAuthor, SheetRow row, InputTemplate inputTemplate, TemplateType templateType, int rowNumber, int noNotNull) {
         Question question = new Question();
         question.setCrtNo(rowNumber);
         question.setType(QuestionType.MULTICHOICE);
@@ -435,8 +636,8 @@ public class ExcelParsingService {
      * @param sheet The sheet to analyze
      * @return Detected template type or TemplateType.Other if unable to determine
      */
-    private TemplateType detectTemplateType(Sheet sheet) {
-        for (Row row : sheet) {
+    private TemplateType detectTemplateType(XlsxSheet sheet) {
+        for (SheetRow row : sheet) {
             int notNulls = cellConversionService.countNotNullValues(row);
             if (notNulls != 0) {
                 return (notNulls == MIN_MULTICHOICE_VALUES) ? TemplateType.Template2023 : TemplateType.Template2024;
@@ -456,4 +657,19 @@ public class ExcelParsingService {
         EMPTY_ROW,
         PROCESSED
     }
+
+    /**
+     * A file of the folder or archive. For an Excel file, {@code reader} reads it and either {@code parsedId} names
+     * the earlier parse to reuse, or {@code workbook} completes when the file has been read; all are {@code null} for
+     * other files.
+     */
+    private record PendingFile(Path path, Long parsedId, Supplier<ReadWorkbook> reader, CompletableFuture<ReadWorkbook> workbook) {
+    }
+
+    /**
+     * Outcome of reading an Excel file: the values of its question sheets, or why it could not be validated or read.
+     * {@code contentHash} is {@code null} if the file could not be hashed.
+     */
+    private record ReadWorkbook(Path path, String contentHash, String validationError, List<XlsxSheet> sheets, Exception failure) {
+    }
 }
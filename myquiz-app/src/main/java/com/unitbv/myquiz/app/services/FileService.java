@@ -1,5 +1,6 @@
 package com.unitbv.myquiz.app.services;
 
+import com.unitbv.myquiz.app.util.ExcelArchiveReader;
 import com.unitbv.myquiz.app.util.FileValidator;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -11,15 +12,13 @@ import org.springframework.util.FileSystemUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.Comparator;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 @Service
 public class FileService {
@@ -151,25 +150,27 @@ public class FileService {
     /**
      * Extracts all Excel files from a zip archive, renames them to start with the string before the first underscore of their parent folder,
      * and places them in the destination folder (flat structure).
+     * <p>
+     * The archive is streamed in process by {@link ExcelArchiveReader}, which names the files and enforces the archive limits;
+     * each Excel entry is written once, straight to its target file.
      * @param zipFilePath Path to the zip archive
      * @param destFolder Destination folder for extracted and renamed Excel files
      * @return number of files extracted
      */
     public int unzipAndRenameExcelFiles(Path zipFilePath, Path destFolder) throws IOException {
         validateZipInput(zipFilePath);
+        ensureDirectoryExists(destFolder);
 
-        Path inpArchive = prepareExtractionDirectory(zipFilePath);
-        try {
-            extractArchive(zipFilePath, inpArchive);
-            ensureDirectoryExists(destFolder);
-            int count = moveExcelFiles(inpArchive, destFolder);
-            logger.atInfo().addArgument(count).log("Extracted and renamed {} Excel files from archive");
-            return count;
-        } finally {
-            if (FileValidator.exists(inpArchive)) {
-                FileSystemUtils.deleteRecursively(inpArchive);
-            }
+        int count;
+        try (InputStream archive = Files.newInputStream(zipFilePath)) {
+            count = ExcelArchiveReader.readExcelEntries(archive, (name, content) -> {
+                Path targetFile = uniqueTargetPath(destFolder, name);
+                Files.copy(content, targetFile);
+                logger.atInfo().addArgument(targetFile.toString()).log("Excel file extracted and renamed to: {}");
+            });
         }
+        logger.atInfo().addArgument(count).log("Extracted and renamed {} Excel files from archive");
+        return count;
     }
 
     private Path resolveUploadPath() {
@@ -210,18 +211,6 @@ public class FileService {
         if (!FileValidator.isReadable(zipFilePath)) {
             throw new IOException("Zip file is not readable: " + zipFilePath);
         }
-        if (zipFilePath.getParent() == null) {
-            throw new IOException("Zip file must have a parent directory: " + zipFilePath);
-        }
-    }
-
-    private Path prepareExtractionDirectory(Path zipFilePath) throws IOException {
-        Path inpArchive = zipFilePath.getParent().resolve("inpArchive");
-        if (FileValidator.exists(inpArchive)) {
-            FileSystemUtils.deleteRecursively(inpArchive);
-        }
-        Files.createDirectories(inpArchive);
-        return inpArchive;
     }
 
     private void ensureDirectoryExists(Path directory) throws IOException {
@@ -230,48 +219,6 @@ public class FileService {
         }
     }
 
-    private void extractArchive(Path zipFilePath, Path destinationDir) throws IOException {
-        if (isSystemUnzipAvailable()) {
-            extractWithSystemUnzip(zipFilePath, destinationDir);
-            return;
-        }
-
-        logger.atWarn().addArgument(zipFilePath.toString())
-              .log("System 'unzip' is not available. Falling back to Java ZIP extraction for: {}");
-        extractWithJavaZip(zipFilePath, destinationDir);
-    }
-
-    private int moveExcelFiles(Path sourceDir, Path destFolder) throws IOException {
-        AtomicInteger count = new AtomicInteger();
-        try (var excelStream = Files.walk(sourceDir)) {
-            excelStream.filter(FileValidator::isRegularFile)
-                    .filter(FileValidator::isExcelFile)
-                    .forEach(excelFile -> moveExcelFile(excelFile, destFolder, count));
-        }
-        return count.get();
-    }
-
-    private void moveExcelFile(Path excelFile, Path destFolder, AtomicInteger count) {
-        try {
-            Path parent = excelFile.getParent();
-            String parentName = parent != null && parent.getFileName() != null ? parent.getFileName().toString() : "";
-            String partialParent = parentName;
-            int underscoreIdx = parentName.indexOf('_');
-            if (underscoreIdx > 0) {
-                partialParent = parentName.substring(0, underscoreIdx);
-            }
-
-            String originalFileName = excelFile.getFileName().toString();
-            String targetName = partialParent.isEmpty() ? originalFileName : partialParent + "_" + originalFileName;
-            Path targetFile = uniqueTargetPath(destFolder, targetName);
-            Files.move(excelFile, targetFile);
-            logger.atInfo().addArgument(targetFile.toString()).log("Excel file moved and renamed to: {}");
-            count.incrementAndGet();
-        } catch (IOException e) {
-            logger.atError().addArgument(excelFile.toString()).setCause(e).log("Error moving Excel file: {}");
-        }
-    }
-
     private Path uniqueTargetPath(Path destFolder, String fileName) {
         Path targetFile = destFolder.resolve(fileName);
         int suffix = 1;
@@ -286,90 +233,4 @@ public class FileService {
         return targetFile;
     }
 
-    private boolean isSystemUnzipAvailable() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("unzip", "-v");
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            return exitCode == 0;
-        } catch (IOException e) {
-            return false;
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return false;
-        }
-    }
-
-    private void extractWithSystemUnzip(Path zipFilePath, Path destinationDir) throws IOException {
-        try {
-            ProcessBuilder pb = new ProcessBuilder(
-                "unzip",
-                zipFilePath.toAbsolutePath().toString(),
-                "-d",
-                destinationDir.toAbsolutePath().toString()
-            );
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                logger.atError().addArgument(zipFilePath.toString())
-                      .log("Unzip command failed for: {} (exit code: " + exitCode + ")");
-                throw new IOException("Unzip command failed");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException("Unzip interrupted", e);
-        }
-    }
-
-    private void extractWithJavaZip(Path zipFilePath, Path destinationDir) throws IOException {
-        Path normalizedDestination = destinationDir.toAbsolutePath().normalize();
-
-        try (ZipFile zipFile = new ZipFile(zipFilePath.toFile())) {
-            var entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                Path targetPath = resolveZipEntryPath(normalizedDestination, entry.getName());
-
-                if (entry.isDirectory()) {
-                    Files.createDirectories(targetPath);
-                    continue;
-                }
-
-                Path parent = targetPath.getParent();
-                if (parent != null) {
-                    Files.createDirectories(parent);
-                }
-
-                try (var entryInputStream = zipFile.getInputStream(entry)) {
-                    Files.copy(entryInputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-            }
-        }
-    }
-
-    private Path resolveZipEntryPath(Path destinationRoot, String entryName) throws IOException {
-        if (destinationRoot == null) {
-            throw new IOException("ZIP extraction destination is not configured");
-        }
-
-        String normalizedEntryName = entryName == null ? "" : entryName.replace('\\', '/').trim();
-        if (normalizedEntryName.isEmpty()) {
-            throw new IOException("ZIP entry name is empty");
-        }
-        if (normalizedEntryName.startsWith("/")
-                || normalizedEntryName.startsWith("../")
-                || normalizedEntryName.contains("/../")
-                || normalizedEntryName.matches("^[A-Za-z]:.*")) {
-            throw new IOException("Invalid ZIP entry path: " + entryName);
-        }
-
-        Path resolvedPath = destinationRoot.resolve(normalizedEntryName).normalize();
-        if (!resolvedPath.startsWith(destinationRoot)) {
-            throw new IOException("Invalid ZIP entry path: " + entryName);
-        }
-        return resolvedPath;
-    }
-
 }
@@ -0,0 +1,237 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical navigable small world graph over unit-length vectors, answering approximate k-nearest-neighbour
+ * queries by cosine similarity in about logarithmic time instead of comparing the query with every vector.
+ * <p>
+ * Every node lives on layer 0 and on each layer above with probability {@code 1/m}. An insert greedily descends
+ * from the entry point through the upper layers, then links the node to its {@code m} nearest of the
+ * {@code efConstruction} best nodes found on each of its layers ({@code 2m} on layer 0); a neighbour exceeding its
+ * link budget keeps its nearest links. A query descends the same way and returns the best of {@code ef} nodes found
+ * on layer 0.
+ * <p>
+ * Inserts are not thread safe; once built, the index can be searched concurrently. Levels are drawn from a fixed
+ * seed, so the same inserts always build the same graph.
+ */
+final class HnswIndex {
+    private static final long LEVEL_SEED = 0x5DEECE66DL;
+    private static final Comparator<Neighbour> NEAREST_FIRST = Comparator.comparingDouble(Neighbour::similarity).reversed()
+                                                                         .thenComparingInt(Neighbour::node);
+    private static final Comparator<Neighbour> FARTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final int m;
+    private final int efConstruction;
+    private final double levelFactor;
+    private final SplittableRandom random = new SplittableRandom(LEVEL_SEED);
+    private final List<float[]> vectors = new ArrayList<>();
+    private final List<int[][]> links = new ArrayList<>();
+    private final List<int[]> linkCounts = new ArrayList<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    /**
+     * A node and its cosine similarity with the query.
+     */
+    record Neighbour(int node, double similarity) {
+    }
+
+    HnswIndex(int m, int efConstruction) {
+        if (m < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("HNSW needs m >= 2 and efConstruction >= 1");
+        }
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelFactor = 1.0d / Math.log(m);
+    }
+
+    /**
+     * Adds a unit-length vector and returns its node number; nodes are numbered in insertion order from 0.
+     */
+    int add(float[] vector) {
+        if (!vectors.isEmpty() && vectors.getFirst().length != vector.length) {
+            throw new IllegalArgumentException("Vector has " + vector.length + " dimensions, the index " + vectors.getFirst().length);
+        }
+        int node = vectors.size();
+        int level = (int) (-Math.log(1.0d - random.nextDouble()) * levelFactor);
+        int[][] nodeLinks = new int[level + 1][];
+        for (int layer = 0; layer <= level; layer++) {
+            nodeLinks[layer] = new int[maxLinks(layer) + 1];
+        }
+        vectors.add(vector);
+        links.add(nodeLinks);
+        linkCounts.add(new int[level + 1]);
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return node;
+        }
+
+        int nearest = descend(vector, level);
+        List<Neighbour> entries = List.of(new Neighbour(nearest, similarity(vector, vectors.get(nearest))));
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            List<Neighbour> found = searchLayer(vector, entries, efConstruction, layer);
+            for (Neighbour neighbour : found.subList(0, Math.min(m, found.size()))) {
+                link(node, neighbour.node(), layer);
+                link(neighbour.node(), node, layer);
+            }
+            entries = found;
+        }
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+        return node;
+    }
+
+    /**
+     * Returns up to {@code k} nodes nearest to {@code query}, nearest first, searching {@code max(ef, k)} candidates
+     * on the bottom layer.
+     */
+    List<Neighbour> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int nearest = descend(query, 0);
+        List<Neighbour> found = searchLayer(query, List.of(new Neighbour(nearest, similarity(query, vectors.get(nearest)))), Math.max(ef, k), 0);
+        return found.subList(0, Math.min(k, found.size()));
+    }
+
+    int size() {
+        return vectors.size();
+    }
+
+    /**
+     * Cosine similarity of two unit-length vectors.
+     */
+    static double similarity(float[] left, float[] right) {
+        double dot = 0.0d;
+        for (int i = 0; i < left.length; i++) {
+            dot += left[i] * right[i];
+        }
+        return dot;
+    }
+
+    /**
+     * Scales a vector to unit length in place, so cosine similarity is a dot product; returns it for chaining.
+     */
+    static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(similarity(vector, vector));
+        if (norm > 0.0d) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) (vector[i] / norm);
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Greedy walk from the entry point through the layers above {@code level}, returning the node nearest to the
+     * query on the way down.
+     */
+    private int descend(float[] query, int level) {
+        int current = entryPoint;
+        double currentSimilarity = similarity(query, vectors.get(current));
+        for (int layer = topLevel; layer > level; layer--) {
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                int[] neighbours = links.get(current)[layer];
+                int count = linkCounts.get(current)[layer];
+                for (int i = 0; i < count; i++) {
+                    double neighbourSimilarity = similarity(query, vectors.get(neighbours[i]));
+                    if (neighbourSimilarity > currentSimilarity) {
+                        current = neighbours[i];
+                        currentSimilarity = neighbourSimilarity;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer from the entry points, keeping the {@code ef} nearest nodes seen; returns them
+     * nearest first.
+     */
+    private List<Neighbour> searchLayer(float[] query, List<Neighbour> entries, int ef, int layer) {
+        BitSet visited = new BitSet(vectors.size());
+        PriorityQueue<Neighbour> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(ef + 1, FARTHEST_FIRST);
+        for (Neighbour entry : entries) {
+            if (!visited.get(entry.node())) {
+                visited.set(entry.node());
+                candidates.add(entry);
+                best.add(entry);
+                if (best.size() > ef) {
+                    best.poll();
+                }
+            }
+        }
+        while (!candidates.isEmpty()) {
+            Neighbour candidate = candidates.poll();
+            if (best.size() >= ef && candidate.similarity() < best.peek().similarity()) {
+                break;
+            }
+            int[][] candidateLinks = links.get(candidate.node());
+            if (layer >= candidateLinks.length) {
+                continue;
+            }
+            int count = linkCounts.get(candidate.node())[layer];
+            for (int i = 0; i < count; i++) {
+                int neighbour = candidateLinks[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double neighbourSimilarity = similarity(query, vectors.get(neighbour));
+                if (best.size() < ef || neighbourSimilarity > best.peek().similarity()) {
+                    Neighbour found = new Neighbour(neighbour, neighbourSimilarity);
+                    candidates.add(found);
+                    best.add(found);
+                    if (best.size() > ef) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        List<Neighbour> found = new ArrayList<>(best);
+        found.sort(NEAREST_FIRST);
+        return found;
+    }
+
+    /**
+     * Adds {@code to} to the links of {@code from} on a layer; when the budget is exceeded, the farthest link is
+     * dropped.
+     */
+    private void link(int from, int to, int layer) {
+        int[] fromLinks = links.get(from)[layer];
+        int[] counts = linkCounts.get(from);
+        fromLinks[counts[layer]++] = to;
+        if (counts[layer] <= maxLinks(layer)) {
+            return;
+        }
+        float[] vector = vectors.get(from);
+        Neighbour[] kept = new Neighbour[counts[layer]];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = new Neighbour(fromLinks[i], similarity(vector, vectors.get(fromLinks[i])));
+        }
+        Arrays.sort(kept, NEAREST_FIRST);
+        counts[layer] = maxLinks(layer);
+        for (int i = 0; i < counts[layer]; i++) {
+            fromLinks[i] = kept[i].node();
+        }
+    }
+
+    private int maxLinks(int layer) {
+        return layer == 0 ? 2 * m : m;
+    }
+}
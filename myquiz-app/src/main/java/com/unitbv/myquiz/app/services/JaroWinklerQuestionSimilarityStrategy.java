@@ -6,15 +6,16 @@ import org.springframework.stereotype.Component;
 public class JaroWinklerQuestionSimilarityStrategy extends AbstractQuestionSimilarityStrategy {
 
     private static final double PREFIX_SCALING = 0.1d;
+    private static final int MAX_PREFIX_LENGTH = 4;
 
     public JaroWinklerQuestionSimilarityStrategy() {
-        super("jaro-winkler", 0.93d);
+        super("jaro-winkler", 0.93d, SimilarityFilterCascade.jaroWinkler(0.93d, PREFIX_SCALING, MAX_PREFIX_LENGTH));
     }
 
     @Override
     protected double similarity(String left, String right) {
         double jaro = jaroSimilarity(left, right);
-        int commonPrefixLength = commonPrefixLength(left, right, 4);
+        int commonPrefixLength = commonPrefixLength(left, right, MAX_PREFIX_LENGTH);
         return jaro + (commonPrefixLength * PREFIX_SCALING * (1.0d - jaro));
     }
 
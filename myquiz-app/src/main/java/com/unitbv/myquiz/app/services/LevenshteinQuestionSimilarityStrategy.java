@@ -2,11 +2,18 @@ package com.unitbv.myquiz.app.services;
 
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+
 @Component
 public class LevenshteinQuestionSimilarityStrategy extends AbstractQuestionSimilarityStrategy {
 
+    /**
+     * Two DP rows per worker thread, grown on demand, so a recompute does not allocate per compared pair.
+     */
+    private static final ThreadLocal<int[][]> ROW_BUFFERS = ThreadLocal.withInitial(() -> new int[2][0]);
+
     public LevenshteinQuestionSimilarityStrategy() {
-        super("levenshtein", 0.90d);
+        super("levenshtein", 0.90d, SimilarityFilterCascade.editDistance(0.90d));
     }
 
     @Override
@@ -15,34 +22,110 @@ public class LevenshteinQuestionSimilarityStrategy extends AbstractQuestionSimil
         if (maxLen == 0) {
             return 1.0d;
         }
-        int distance = levenshteinDistance(left, right);
+        int distance = boundedLevenshteinDistance(left, right, maxLen);
         return 1.0d - ((double) distance / maxLen);
     }
 
-    private int levenshteinDistance(String left, String right) {
-        int[] previous = new int[right.length() + 1];
-        int[] current = new int[right.length() + 1];
+    @Override
+    protected double scoreAtLeast(String left, String right, double floor) {
+        int maxLen = Math.max(left.length(), right.length());
+        int maxDistance = maxAllowedDistance(floor, maxLen);
+        if (maxDistance < 0 || Math.abs(left.length() - right.length()) > maxDistance) {
+            return NO_SCORE;
+        }
+        int distance = boundedLevenshteinDistance(left, right, maxDistance);
+        return distance <= maxDistance ? 1.0d - ((double) distance / maxLen) : NO_SCORE;
+    }
+
+    @Override
+    protected boolean meetsThreshold(String left, String right) {
+        int maxLen = Math.max(left.length(), right.length());
+        if (maxLen == 0) {
+            return true;
+        }
+        int maxDistance = maxAllowedDistance(maxLen);
+        if (maxDistance < 0) {
+            return false;
+        }
+        return boundedLevenshteinDistance(left, right, maxDistance) <= maxDistance;
+    }
 
-        for (int j = 0; j <= right.length(); j++) {
+    /**
+     * Levenshtein distance restricted to the diagonal band of width {@code 2 * maxDistance + 1} (Ukkonen).
+     * Returns the exact distance when it is at most {@code maxDistance}, otherwise {@code maxDistance + 1}.
+     * Common prefixes and suffixes are skipped, pairs whose length difference already exceeds the bound are
+     * rejected without touching the DP rows, and the scan stops once a whole row is above the bound.
+     */
+    int boundedLevenshteinDistance(String left, String right, int maxDistance) {
+        String shorter = left.length() <= right.length() ? left : right;
+        String longer = shorter == left ? right : left;
+        int limit = maxDistance + 1;
+        if (longer.length() - shorter.length() > maxDistance) {
+            return limit;
+        }
+
+        int prefix = 0;
+        while (prefix < shorter.length() && shorter.charAt(prefix) == longer.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter.length() - prefix
+                && shorter.charAt(shorter.length() - 1 - suffix) == longer.charAt(longer.length() - 1 - suffix)) {
+            suffix++;
+        }
+        int m = shorter.length() - prefix - suffix;
+        int n = longer.length() - prefix - suffix;
+        if (m == 0) {
+            return n;
+        }
+
+        int[][] buffers = rowBuffers(n + 1);
+        int[] previous = buffers[0];
+        int[] current = buffers[1];
+        int initialized = Math.min(n, maxDistance);
+        for (int j = 0; j <= initialized; j++) {
             previous[j] = j;
         }
+        Arrays.fill(previous, initialized + 1, n + 1, limit);
 
-        for (int i = 1; i <= left.length(); i++) {
-            current[0] = i;
-            char leftChar = left.charAt(i - 1);
-            for (int j = 1; j <= right.length(); j++) {
-                int substitutionCost = leftChar == right.charAt(j - 1) ? 0 : 1;
-                int delete = previous[j] + 1;
-                int insert = current[j - 1] + 1;
-                int substitute = previous[j - 1] + substitutionCost;
-                current[j] = Math.min(Math.min(delete, insert), substitute);
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(n, i + maxDistance);
+            current[from - 1] = from == 1 ? Math.min(i, limit) : limit;
+            int rowMin = current[from - 1];
+            char shorterChar = shorter.charAt(prefix + i - 1);
+            for (int j = from; j <= to; j++) {
+                int substitutionCost = shorterChar == longer.charAt(prefix + j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + substitutionCost);
+                if (value > limit) {
+                    value = limit;
+                }
+                current[j] = value;
+                if (value < rowMin) {
+                    rowMin = value;
+                }
+            }
+            if (rowMin > maxDistance) {
+                return limit;
+            }
+            if (to < n) {
+                current[to + 1] = limit;
             }
             int[] temp = previous;
             previous = current;
             current = temp;
         }
 
-        return previous[right.length()];
+        return Math.min(previous[n], limit);
     }
-}
 
+    private static int[][] rowBuffers(int length) {
+        int[][] buffers = ROW_BUFFERS.get();
+        if (buffers[0].length < length) {
+            int capacity = Math.max(length, buffers[0].length * 2);
+            buffers[0] = new int[capacity];
+            buffers[1] = new int[capacity];
+        }
+        return buffers;
+    }
+}
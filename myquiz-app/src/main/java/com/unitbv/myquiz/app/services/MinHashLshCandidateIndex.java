@@ -0,0 +1,262 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash/LSH candidate index over the normalized title and answers of the course questions.
+ * <p>
+ * Every non-blank field is shingled into character q-grams and summarized by a MinHash signature of
+ * {@code bands * rows} values. Each band is hashed into a bucket key; two questions become candidates
+ * when one of their title buckets, answer buckets (multichoice) or text buckets (true/false) collide.
+ * Identical normalized fields always collide, near-identical ones collide with high probability,
+ * and unrelated ones are never handed to the similarity strategy.
+ * <p>
+ * Band buckets only catch fields with a high Jaccard similarity of their shingles, while detection also reports a
+ * value contained in another one. The pairs of {@link TokenSetSimilarityJoin#containedPairs(List)} are therefore
+ * candidates too; a question outside the index is checked for containment against every indexed question.
+ * <p>
+ * Bucket entries are kept as a single sorted {@code long[]} of {@code (bucketKey, position)} pairs
+ * instead of a map of lists, so a 20k-question course costs a few megabytes rather than millions of boxed entries.
+ */
+final class MinHashLshCandidateIndex implements DuplicateCandidateIndex {
+    private static final long FIELD_TITLE = 1L;
+    private static final long FIELD_TEXT = 2L;
+    private static final long FIELD_ANSWER = 3L;
+    private static final long HASH_SEED = 0x6A09E667F3BCC909L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final List<CorpusQuestion> questions;
+    private final int bands;
+    private final int rows;
+    private final int shingleSize;
+    private final long[] hashSalts;
+    private final long[] hashMultipliers;
+    private final int positionBits;
+    private final long keyMask;
+    private final long[] sortedEntries;
+    private final Map<Long, long[]> bandKeysByQuestionId;
+    private final Map<Long, List<Integer>> containedPartnersByQuestionId;
+
+    MinHashLshCandidateIndex(List<CorpusQuestion> questions, int bands, int rows, int shingleSize) {
+        if (bands <= 0 || rows <= 0 || shingleSize <= 0) {
+            throw new IllegalArgumentException("LSH bands, rows and shingle size must be greater than 0");
+        }
+        this.questions = questions == null ? List.of() : questions;
+        this.bands = bands;
+        this.rows = rows;
+        this.shingleSize = shingleSize;
+
+        int signatureLength = bands * rows;
+        this.hashSalts = new long[signatureLength];
+        this.hashMultipliers = new long[signatureLength];
+        SplittableRandom random = new SplittableRandom(HASH_SEED);
+        for (int i = 0; i < signatureLength; i++) {
+            hashSalts[i] = random.nextLong();
+            hashMultipliers[i] = random.nextLong() | 1L;
+        }
+
+        this.positionBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(this.questions.size()));
+        this.keyMask = (1L << (63 - positionBits)) - 1;
+        this.bandKeysByQuestionId = HashMap.newHashMap(this.questions.size());
+        this.sortedEntries = buildEntries();
+        this.containedPartnersByQuestionId = buildContainedPartners();
+    }
+
+    @Override
+    public List<CorpusQuestion> candidatesFor(CorpusQuestion question) {
+        if (question == null) {
+            return List.of();
+        }
+        long[] bandKeys = question.id() == null ? null : bandKeysByQuestionId.get(question.id());
+        boolean indexed = bandKeys != null;
+        if (!indexed) {
+            bandKeys = computeBandKeys(question);
+        }
+        if (bandKeys.length == 0) {
+            return List.of();
+        }
+
+        BitSet positions = new BitSet(questions.size());
+        for (long bandKey : bandKeys) {
+            collectBucket(bandKey, positions);
+        }
+        if (indexed) {
+            containedPartnersByQuestionId.getOrDefault(question.id(), List.of()).forEach(positions::set);
+        } else {
+            collectContaining(question, positions);
+        }
+
+        List<CorpusQuestion> candidates = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            candidates.add(questions.get(position));
+        }
+        return candidates;
+    }
+
+    int size() {
+        return questions.size();
+    }
+
+    private long[] buildEntries() {
+        long[] entries = new long[Math.max(16, questions.size() * bands * 2)];
+        int entryCount = 0;
+        for (int position = 0; position < questions.size(); position++) {
+            CorpusQuestion question = questions.get(position);
+            if (question == null) {
+                continue;
+            }
+            long[] bandKeys = computeBandKeys(question);
+            if (question.id() != null) {
+                bandKeysByQuestionId.put(question.id(), bandKeys);
+            }
+            for (long bandKey : bandKeys) {
+                if (entryCount == entries.length) {
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                }
+                entries[entryCount++] = (bandKey << positionBits) | position;
+            }
+        }
+        long[] trimmed = Arrays.copyOf(entries, entryCount);
+        Arrays.sort(trimmed);
+        return trimmed;
+    }
+
+    private Map<Long, List<Integer>> buildContainedPartners() {
+        Map<Long, Integer> positionsByQuestionId = HashMap.newHashMap(questions.size());
+        List<CorpusQuestion> indexed = new ArrayList<>(questions.size());
+        for (int position = 0; position < questions.size(); position++) {
+            CorpusQuestion question = questions.get(position);
+            if (question != null && question.id() != null && positionsByQuestionId.putIfAbsent(question.id(), position) == null) {
+                indexed.add(question);
+            }
+        }
+        Map<Long, List<Integer>> partners = new HashMap<>();
+        for (long[] pair : TokenSetSimilarityJoin.containedPairs(indexed)) {
+            partners.computeIfAbsent(pair[0], key -> new ArrayList<>()).add(positionsByQuestionId.get(pair[1]));
+            partners.computeIfAbsent(pair[1], key -> new ArrayList<>()).add(positionsByQuestionId.get(pair[0]));
+        }
+        return partners;
+    }
+
+    /**
+     * Adds the indexed questions of the same type where a compared field contains the other's, or is contained in it.
+     */
+    private void collectContaining(CorpusQuestion question, BitSet positions) {
+        if (question.type() == null) {
+            return;
+        }
+        for (int position = 0; position < questions.size(); position++) {
+            CorpusQuestion other = questions.get(position);
+            if (other == null || other.type() != question.type() || (question.id() != null && question.id().equals(other.id()))) {
+                continue;
+            }
+            boolean contained = containsEither(question.title(), other.title());
+            if (question.type() == QuestionType.TRUEFALSE) {
+                contained = contained || containsEither(question.text(), other.text());
+            } else {
+                for (int i = 0; i < question.answers().length && !contained; i++) {
+                    for (int j = 0; j < other.answers().length && !contained; j++) {
+                        contained = containsEither(question.answers()[i], other.answers()[j]);
+                    }
+                }
+            }
+            if (contained) {
+                positions.set(position);
+            }
+        }
+    }
+
+    private static boolean containsEither(String left, String right) {
+        if (left == null || right == null || left.isEmpty() || right.isEmpty()) {
+            return false;
+        }
+        return left.length() >= right.length() ? left.contains(right) : right.contains(left);
+    }
+
+    private void collectBucket(long bandKey, BitSet positions) {
+        long lowerBound = bandKey << positionBits;
+        int index = Arrays.binarySearch(sortedEntries, lowerBound);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (index < sortedEntries.length && (sortedEntries[index] >>> positionBits) == bandKey) {
+            positions.set((int) (sortedEntries[index] & ((1L << positionBits) - 1)));
+            index++;
+        }
+    }
+
+    private long[] computeBandKeys(CorpusQuestion question) {
+        List<long[]> fieldKeys = new ArrayList<>(QuestionDuplicationService.NUM_ANSWERS + 1);
+        addFieldKeys(fieldKeys, FIELD_TITLE, question.title());
+        if (question.type() == QuestionType.TRUEFALSE) {
+            addFieldKeys(fieldKeys, FIELD_TEXT, question.text());
+        } else {
+            for (String answer : question.answers()) {
+                addFieldKeys(fieldKeys, FIELD_ANSWER, answer);
+            }
+        }
+
+        long[] bandKeys = new long[fieldKeys.size() * bands];
+        int offset = 0;
+        for (long[] keys : fieldKeys) {
+            System.arraycopy(keys, 0, bandKeys, offset, keys.length);
+            offset += keys.length;
+        }
+        return bandKeys;
+    }
+
+    private void addFieldKeys(List<long[]> fieldKeys, long field, String value) {
+        if (value == null) {
+            return;
+        }
+        long[] signature = minHashSignature(value);
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = mix64(field * GOLDEN_GAMMA + band);
+            for (int row = 0; row < rows; row++) {
+                key = mix64(key ^ signature[band * rows + row]);
+            }
+            keys[band] = key & keyMask;
+        }
+        fieldKeys.add(keys);
+    }
+
+    private long[] minHashSignature(String value) {
+        long[] signature = new long[hashSalts.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        int shingleCount = Math.max(1, value.length() - shingleSize + 1);
+        for (int start = 0; start < shingleCount; start++) {
+            long shingleHash = shingleHash(value, start, Math.min(value.length(), start + shingleSize));
+            for (int i = 0; i < signature.length; i++) {
+                long hash = ((shingleHash ^ hashSalts[i]) * hashMultipliers[i]) >>> 1;
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long shingleHash(String value, int start, int end) {
+        long hash = 1125899906842597L;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return mix64(hash);
+    }
+
+    private static long mix64(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
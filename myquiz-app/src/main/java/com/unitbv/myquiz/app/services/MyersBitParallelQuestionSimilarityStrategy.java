@@ -0,0 +1,241 @@
+package com.unitbv.myquiz.app.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Normalized Levenshtein similarity computed with the Myers/Hyyrö bit-vector algorithm.
+ * <p>
+ * The shorter string is the pattern; its DP column is encoded as vertical delta bit vectors and each character
+ * of the longer string advances the whole column with a handful of word operations. Patterns up to 64 chars fit in
+ * a single word, longer ones (answers go up to 2048 chars) are split into 64-bit blocks with the horizontal delta
+ * carried from block to block, giving {@code O(ceil(m / 64) * n)} per pair instead of {@code O(m * n)}.
+ * Similarity and threshold are the same as {@link LevenshteinQuestionSimilarityStrategy}.
+ */
+@Component
+public class MyersBitParallelQuestionSimilarityStrategy extends AbstractQuestionSimilarityStrategy {
+
+    private static final int WORD_SIZE = 64;
+    private static final int DIRECT_CHARS = 256;
+    private static final long HIGH_BIT = 1L << (WORD_SIZE - 1);
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    public MyersBitParallelQuestionSimilarityStrategy() {
+        super("myers", 0.90d, SimilarityFilterCascade.editDistance(0.90d));
+    }
+
+    @Override
+    protected double similarity(String left, String right) {
+        int maxLen = Math.max(left.length(), right.length());
+        if (maxLen == 0) {
+            return 1.0d;
+        }
+        int distance = editDistance(left, right, maxLen);
+        return 1.0d - ((double) distance / maxLen);
+    }
+
+    @Override
+    protected double scoreAtLeast(String left, String right, double floor) {
+        int maxLen = Math.max(left.length(), right.length());
+        int maxDistance = maxAllowedDistance(floor, maxLen);
+        if (maxDistance < 0 || Math.abs(left.length() - right.length()) > maxDistance) {
+            return NO_SCORE;
+        }
+        int distance = editDistance(left, right, maxDistance);
+        return distance <= maxDistance ? 1.0d - ((double) distance / maxLen) : NO_SCORE;
+    }
+
+    @Override
+    protected boolean meetsThreshold(String left, String right) {
+        int maxLen = Math.max(left.length(), right.length());
+        if (maxLen == 0) {
+            return true;
+        }
+        int maxDistance = maxAllowedDistance(maxLen);
+        if (maxDistance < 0 || Math.abs(left.length() - right.length()) > maxDistance) {
+            return false;
+        }
+        return editDistance(left, right, maxDistance) <= maxDistance;
+    }
+
+    /**
+     * Returns the exact Levenshtein distance when it is at most {@code maxDistance}; otherwise some value greater
+     * than {@code maxDistance}. The scan stops once the remaining text cannot bring the distance back under the bound.
+     */
+    int editDistance(String left, String right, int maxDistance) {
+        String pattern = left.length() <= right.length() ? left : right;
+        String text = pattern == left ? right : left;
+        if (pattern.isEmpty()) {
+            return text.length();
+        }
+
+        Workspace workspace = WORKSPACES.get();
+        int blocks = (pattern.length() + WORD_SIZE - 1) / WORD_SIZE;
+        workspace.prepare(pattern, blocks);
+        try {
+            return blocks == 1
+                    ? singleWordDistance(workspace, pattern.length(), text, maxDistance)
+                    : blockDistance(workspace, pattern.length(), blocks, text, maxDistance);
+        } finally {
+            workspace.clear(pattern, blocks);
+        }
+    }
+
+    private static int singleWordDistance(Workspace workspace, int patternLength, String text, int maxDistance) {
+        long lastBit = 1L << (patternLength - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = patternLength;
+        int textLength = text.length();
+
+        for (int j = 0; j < textLength; j++) {
+            int slot = workspace.slotOf(text.charAt(j));
+            long eq = slot < 0 ? 0L : workspace.peq[slot];
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & lastBit) != 0) {
+                score++;
+            } else if ((mh & lastBit) != 0) {
+                score--;
+            }
+            ph = (ph << 1) | 1L;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            if (score - (textLength - 1 - j) > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return score;
+    }
+
+    private static int blockDistance(Workspace workspace, int patternLength, int blocks, String text, int maxDistance) {
+        long lastBit = 1L << ((patternLength - 1) & (WORD_SIZE - 1));
+        long[] pvs = workspace.verticalPositive(blocks);
+        long[] mvs = workspace.verticalNegative(blocks);
+        Arrays.fill(pvs, 0, blocks, -1L);
+        Arrays.fill(mvs, 0, blocks, 0L);
+        long[] peq = workspace.peq;
+        int score = patternLength;
+        int textLength = text.length();
+
+        for (int j = 0; j < textLength; j++) {
+            int slot = workspace.slotOf(text.charAt(j));
+            int peqOffset = slot * blocks;
+            int horizontal = 1;
+            for (int block = 0; block < blocks; block++) {
+                long eq = slot < 0 ? 0L : peq[peqOffset + block];
+                long pv = pvs[block];
+                long mv = mvs[block];
+                long xv = eq | mv;
+                if (horizontal < 0) {
+                    eq |= 1L;
+                }
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+
+                long outBit = block == blocks - 1 ? lastBit : HIGH_BIT;
+                int horizontalOut = (ph & outBit) != 0 ? 1 : ((mh & outBit) != 0 ? -1 : 0);
+
+                ph <<= 1;
+                mh <<= 1;
+                if (horizontal < 0) {
+                    mh |= 1L;
+                } else if (horizontal > 0) {
+                    ph |= 1L;
+                }
+                pvs[block] = mh | ~(xv | ph);
+                mvs[block] = ph & xv;
+                horizontal = horizontalOut;
+            }
+            score += horizontal;
+            if (score - (textLength - 1 - j) > maxDistance) {
+                return maxDistance + 1;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Per-thread match masks and column state. Latin-1 chars are addressed directly, other chars of the
+     * pattern (e.g. Romanian diacritics) get extra slots after the direct ones. Masks are zeroed after every
+     * comparison so the arrays are reused without a full clear.
+     */
+    private static final class Workspace {
+        private long[] peq = new long[DIRECT_CHARS];
+        private char[] extraChars = new char[16];
+        private int extraCount;
+        private long[] pvs = new long[0];
+        private long[] mvs = new long[0];
+
+        private void prepare(String pattern, int blocks) {
+            extraCount = 0;
+            ensurePeqCapacity(DIRECT_CHARS * blocks);
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int slot = c < DIRECT_CHARS ? c : extraSlot(c, blocks);
+                peq[slot * blocks + i / WORD_SIZE] |= 1L << (i & (WORD_SIZE - 1));
+            }
+        }
+
+        private void clear(String pattern, int blocks) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < DIRECT_CHARS) {
+                    Arrays.fill(peq, c * blocks, (c + 1) * blocks, 0L);
+                }
+            }
+            Arrays.fill(peq, DIRECT_CHARS * blocks, (DIRECT_CHARS + extraCount) * blocks, 0L);
+            extraCount = 0;
+        }
+
+        private int slotOf(char c) {
+            if (c < DIRECT_CHARS) {
+                return c;
+            }
+            for (int i = 0; i < extraCount; i++) {
+                if (extraChars[i] == c) {
+                    return DIRECT_CHARS + i;
+                }
+            }
+            return -1;
+        }
+
+        private int extraSlot(char c, int blocks) {
+            int slot = slotOf(c);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (extraCount == extraChars.length) {
+                extraChars = Arrays.copyOf(extraChars, extraChars.length * 2);
+            }
+            extraChars[extraCount++] = c;
+            ensurePeqCapacity((DIRECT_CHARS + extraCount) * blocks);
+            return DIRECT_CHARS + extraCount - 1;
+        }
+
+        private void ensurePeqCapacity(int capacity) {
+            if (peq.length < capacity) {
+                peq = Arrays.copyOf(peq, Math.max(capacity, peq.length * 2));
+            }
+        }
+
+        private long[] verticalPositive(int blocks) {
+            if (pvs.length < blocks) {
+                pvs = new long[blocks];
+            }
+            return pvs;
+        }
+
+        private long[] verticalNegative(int blocks) {
+            if (mvs.length < blocks) {
+                mvs = new long[blocks];
+            }
+            return mvs;
+        }
+    }
+}
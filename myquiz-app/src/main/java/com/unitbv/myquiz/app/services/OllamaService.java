@@ -1,5 +1,6 @@
 package com.unitbv.myquiz.app.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.unitbv.myquiz.api.dto.OllamaRequestDto;
 import com.unitbv.myquiz.api.dto.OllamaResponseDto;
@@ -15,6 +16,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Map;
 
 /**
  * Service implementation for Ollama AI integration using JSON API calls
@@ -33,6 +35,9 @@ public class OllamaService {
     @Value("${OLLAMA_TIMEOUT_SECONDS:${ollama.timeout.seconds:60}}")
     private int timeoutSeconds;
 
+    @Value("${OLLAMA_EMBEDDING_MODEL:${ollama.embedding.model:nomic-embed-text}}")
+    private String embeddingModel;
+
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
 
@@ -91,6 +96,48 @@ public class OllamaService {
     }
 
 
+    /**
+     * Returns the embedding of {@code prompt} computed by the embedding model through {@code /api/embeddings}.
+     */
+    public float[] generateEmbedding(String prompt) {
+        try {
+            String requestJson = objectMapper.writeValueAsString(Map.of("model", embeddingModel, "prompt", prompt));
+            HttpRequest httpRequest = HttpRequest.newBuilder()
+                    .uri(URI.create(ollamaApiUrl + "/api/embeddings"))
+                    .timeout(Duration.ofSeconds(timeoutSeconds))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(requestJson))
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                logger.error("Ollama embeddings API error: {} - {}", response.statusCode(), response.body());
+                throw new RuntimeException("Ollama API returned error: " + response.statusCode());
+            }
+            JsonNode values = objectMapper.readTree(response.body()).path("embedding");
+            if (!values.isArray() || values.isEmpty()) {
+                throw new RuntimeException("Ollama API returned no embedding for model " + embeddingModel);
+            }
+            float[] embedding = new float[values.size()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = (float) values.get(i).asDouble();
+            }
+            return embedding;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Ollama embeddings API call interrupted", e);
+            throw new RuntimeException("Failed to call Ollama API", e);
+        } catch (IOException e) {
+            logger.error("Error calling Ollama embeddings API", e);
+            throw new RuntimeException("Failed to call Ollama API", e);
+        }
+    }
+
+    public String getEmbeddingModel() {
+        return embeddingModel;
+    }
+
+
     public String improveQuestion(Question question) {
         String prompt = String.format(
                 "Îmbunătățește această întrebare pentru a fi mai clară și mai precisă:\n\n" +
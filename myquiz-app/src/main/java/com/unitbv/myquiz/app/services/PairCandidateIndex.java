@@ -0,0 +1,36 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candidates given as explicit id pairs, as produced by candidate sources that find the similar pairs of a course
+ * in one pass. Every question's candidates keep the course order of the corpus.
+ */
+final class PairCandidateIndex implements DuplicateCandidateIndex {
+    private final Map<Long, List<CorpusQuestion>> candidatesById;
+
+    PairCandidateIndex(List<CorpusQuestion> corpus, List<long[]> pairs) {
+        Map<Long, List<Long>> partners = new HashMap<>();
+        for (long[] pair : pairs) {
+            partners.computeIfAbsent(pair[0], key -> new ArrayList<>()).add(pair[1]);
+            partners.computeIfAbsent(pair[1], key -> new ArrayList<>()).add(pair[0]);
+        }
+        this.candidatesById = HashMap.newHashMap(partners.size());
+        for (CorpusQuestion record : corpus) {
+            if (record.id() == null) {
+                continue;
+            }
+            for (Long partner : partners.getOrDefault(record.id(), List.of())) {
+                candidatesById.computeIfAbsent(partner, key -> new ArrayList<>()).add(record);
+            }
+        }
+    }
+
+    @Override
+    public List<CorpusQuestion> candidatesFor(CorpusQuestion question) {
+        return question == null || question.id() == null ? List.of() : candidatesById.getOrDefault(question.id(), List.of());
+    }
+}
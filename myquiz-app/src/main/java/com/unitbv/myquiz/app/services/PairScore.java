@@ -0,0 +1,44 @@
+package com.unitbv.myquiz.app.services;
+
+/**
+ * Threshold independent comparison result of one question pair, kept by {@link PairScoreStore} so a later run can
+ * decide the pair for any threshold not below the floor it was scored at without comparing the texts again.
+ * <p>
+ * Everything is oriented to the lower and higher id question of the pair, like {@link DuplicateCauseCodes}.
+ *
+ * @param exactCause     exact and substring matches of title and content, with the matched answer numbers
+ * @param titleScore     similarity of the titles, {@link AbstractQuestionSimilarityStrategy#NO_SCORE} when they
+ *                       matched exactly or scored below the floor
+ * @param contentScore   best similarity of the texts (true/false) or of an answer pair (multichoice), or
+ *                       {@link AbstractQuestionSimilarityStrategy#NO_SCORE}
+ * @param contentAnswers answer numbers of the best scoring answer pair, packed by
+ *                       {@link DuplicateCauseCodes#withAnswers(int, int, int)}
+ */
+record PairScore(int exactCause, double titleScore, double contentScore, int contentAnswers) {
+
+    /**
+     * Whether the pair matched nothing at or above the floor; such pairs are not stored.
+     */
+    boolean isEmpty() {
+        return exactCause == 0 && titleScore == AbstractQuestionSimilarityStrategy.NO_SCORE
+                && contentScore == AbstractQuestionSimilarityStrategy.NO_SCORE;
+    }
+
+    /**
+     * Returns the {@link DuplicateCauseCodes cause} of the pair for {@code threshold}, or {@code 0} if it is not a
+     * duplicate. A field that matched exactly or as a substring keeps that match, otherwise it matches by similarity
+     * when its score reaches the threshold.
+     *
+     * @param contentField {@link DuplicateCauseCodes#FIELD_TEXT} or {@link DuplicateCauseCodes#FIELD_ANSWER}
+     */
+    int causeAt(double threshold, int contentField) {
+        int cause = exactCause;
+        if (DuplicateCauseCodes.kindOf(exactCause, DuplicateCauseCodes.FIELD_TITLE) == DuplicateCauseCodes.KIND_NONE && titleScore >= threshold) {
+            cause = DuplicateCauseCodes.merge(cause, DuplicateCauseCodes.similar(DuplicateCauseCodes.FIELD_TITLE, titleScore));
+        }
+        if (DuplicateCauseCodes.kindOf(exactCause, contentField) == DuplicateCauseCodes.KIND_NONE && contentScore >= threshold) {
+            cause = DuplicateCauseCodes.merge(cause, DuplicateCauseCodes.similar(contentField, contentScore) | contentAnswers);
+        }
+        return cause;
+    }
+}
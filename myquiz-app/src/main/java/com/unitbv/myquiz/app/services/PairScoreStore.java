@@ -0,0 +1,183 @@
+package com.unitbv.myquiz.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the {@link PairScore}s of full course recomputes, per course and algorithm, so the next recompute only
+ * compares questions whose content changed.
+ * <p>
+ * Each scored question is stored with the content fingerprint it had and the score floor of the run
+ * ({@code question_score_state}); pairs that matched at or above the floor are stored with their scores
+ * ({@code question_pair_score}). Questions whose fingerprint still matches are reused: a pair of two reused questions is
+ * answered from its score row, or is no duplicate when it has none. States stored with another floor are not loaded,
+ * since a missing score row means "below the floor" only for the floor it was stored with; the course is then scored
+ * again in full. Rows of questions that changed, moved or were deleted are dropped when the run is saved, and their
+ * pairs are scored again.
+ * <p>
+ * Statements bypass the persistence context and run in the caller's transaction.
+ */
+@Service
+public class PairScoreStore {
+    private static final Logger logger = LoggerFactory.getLogger(PairScoreStore.class);
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final String SELECT_COURSE_ID = "SELECT id FROM course WHERE lower(course) = ?";
+    private static final String SELECT_STATES = """
+            SELECT question_id, content_fingerprint FROM question_score_state
+            WHERE algorithm = ? AND course_id = ? AND score_floor = ?""";
+    private static final String SELECT_SCORES = """
+            SELECT question_id, other_question_id, exact_cause, title_score, content_score, content_answers
+            FROM question_pair_score WHERE algorithm = ? AND course_id = ?""";
+    private static final String DELETE_STATES = "DELETE FROM question_score_state WHERE algorithm = ? AND course_id = ?";
+    private static final String DELETE_SCORES = "DELETE FROM question_pair_score WHERE algorithm = ? AND course_id = ?";
+    private static final String DELETE_STATE_OF_QUESTION = DELETE_STATES + " AND question_id = ?";
+    private static final String DELETE_SCORES_OF_QUESTION = DELETE_SCORES + " AND (question_id = ? OR other_question_id = ?)";
+    private static final String INSERT_STATES_PREFIX = """
+            INSERT INTO question_score_state (id, algorithm, course_id, question_id, content_fingerprint, score_floor) \
+            VALUES\s""";
+    private static final String STATE_ROW = "(nextval('question_score_state_seq'), ?, ?, ?, ?, ?)";
+    private static final String INSERT_SCORES_PREFIX = """
+            INSERT INTO question_pair_score (id, algorithm, course_id, question_id, other_question_id, exact_cause, title_score, content_score, content_answers) \
+            VALUES\s""";
+    private static final String SCORE_ROW = "(nextval('question_pair_score_seq'), ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PairScoreStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Scores stored for a course.
+     *
+     * @param scoreFloor   score floor the scores were stored with and the run saves with
+     * @param fingerprints content fingerprint each stored question was scored with, by id
+     * @param scores       stored pair scores, by {@link DuplicatePairSet#pack(Long, Long) pair key}
+     */
+    record Snapshot(Long courseId, double scoreFloor, Map<Long, Long> fingerprints, Map<Long, PairScore> scores) {
+        static final Snapshot NONE = new Snapshot(null, Double.NaN, Map.of(), Map.of());
+
+        /**
+         * Whether the stored comparisons of the question are still valid for its current content fingerprint.
+         */
+        boolean isCurrent(Long questionId, long fingerprint) {
+            Long stored = fingerprints.get(questionId);
+            return stored != null && stored == fingerprint;
+        }
+    }
+
+    /**
+     * Loads the scores of a course stored with the given score floor.
+     *
+     * @return the snapshot, {@link Snapshot#NONE} if the course does not exist
+     */
+    Snapshot load(String algorithm, double scoreFloor, String courseName) {
+        Long courseId = courseName == null ? null
+                : jdbcTemplate.query(SELECT_COURSE_ID, (rs, rowNum) -> rs.getLong(1), courseName.toLowerCase(Locale.ROOT)).stream().findFirst().orElse(null);
+        if (courseId == null) {
+            return Snapshot.NONE;
+        }
+
+        Map<Long, Long> fingerprints = new HashMap<>();
+        jdbcTemplate.query(SELECT_STATES, rs -> {
+            fingerprints.put(rs.getLong(1), rs.getLong(2));
+        }, algorithm, courseId, scoreFloor);
+        Map<Long, PairScore> scores = new HashMap<>();
+        if (!fingerprints.isEmpty()) {
+            jdbcTemplate.query(SELECT_SCORES, rs -> {
+                scores.put(DuplicatePairSet.pack(rs.getLong(1), rs.getLong(2)), new PairScore(
+                        rs.getInt(3),
+                        scoreOf(rs.getObject(4, Double.class)),
+                        scoreOf(rs.getObject(5, Double.class)),
+                        rs.getInt(6)
+                ));
+            }, algorithm, courseId);
+        }
+        return new Snapshot(courseId, scoreFloor, fingerprints, scores);
+    }
+
+    /**
+     * Stores the outcome of a run: drops the rows of every stored question that was not reused, records the
+     * fingerprint of every question that was scored again and inserts the scores of the pairs compared in this run.
+     * When nothing was reused every row of the course and algorithm is replaced, including rows of another floor.
+     *
+     * @param fingerprints current content fingerprint of every question of the run, by id
+     * @param reusedIds    questions whose stored rows were reused, see {@link Snapshot#isCurrent(Long, long)}
+     * @param newScores    non-empty scores of the compared pairs, by pair key
+     */
+    void save(Snapshot snapshot, String algorithm, Map<Long, Long> fingerprints, Set<Long> reusedIds, Map<Long, PairScore> newScores) {
+        Long courseId = snapshot.courseId();
+        if (courseId == null) {
+            return;
+        }
+        long startedMs = System.currentTimeMillis();
+        List<Long> staleIds = snapshot.fingerprints().keySet().stream().filter(questionId -> !reusedIds.contains(questionId)).toList();
+        if (reusedIds.isEmpty()) {
+            jdbcTemplate.update(DELETE_SCORES, algorithm, courseId);
+            jdbcTemplate.update(DELETE_STATES, algorithm, courseId);
+        } else if (!staleIds.isEmpty()) {
+            List<Object[]> scoreArgs = new ArrayList<>(staleIds.size());
+            List<Object[]> stateArgs = new ArrayList<>(staleIds.size());
+            for (Long staleId : staleIds) {
+                scoreArgs.add(new Object[]{algorithm, courseId, staleId, staleId});
+                stateArgs.add(new Object[]{algorithm, courseId, staleId});
+            }
+            jdbcTemplate.batchUpdate(DELETE_SCORES_OF_QUESTION, scoreArgs);
+            jdbcTemplate.batchUpdate(DELETE_STATE_OF_QUESTION, stateArgs);
+        }
+
+        List<Map.Entry<Long, Long>> states = fingerprints.entrySet().stream().filter(entry -> !reusedIds.contains(entry.getKey())).toList();
+        for (int start = 0; start < states.size(); start += ROWS_PER_STATEMENT) {
+            int end = Math.min(states.size(), start + ROWS_PER_STATEMENT);
+            Object[] args = new Object[(end - start) * 5];
+            int arg = 0;
+            for (Map.Entry<Long, Long> state : states.subList(start, end)) {
+                args[arg++] = algorithm;
+                args[arg++] = courseId;
+                args[arg++] = state.getKey();
+                args[arg++] = state.getValue();
+                args[arg++] = snapshot.scoreFloor();
+            }
+            jdbcTemplate.update(DuplicateOutputWriter.buildInsert(INSERT_STATES_PREFIX, STATE_ROW, end - start), args);
+        }
+
+        List<Map.Entry<Long, PairScore>> scores = new ArrayList<>(newScores.entrySet());
+        for (int start = 0; start < scores.size(); start += ROWS_PER_STATEMENT) {
+            int end = Math.min(scores.size(), start + ROWS_PER_STATEMENT);
+            Object[] args = new Object[(end - start) * 8];
+            int arg = 0;
+            for (Map.Entry<Long, PairScore> entry : scores.subList(start, end)) {
+                PairScore score = entry.getValue();
+                args[arg++] = algorithm;
+                args[arg++] = courseId;
+                args[arg++] = DuplicatePairSet.lowerId(entry.getKey());
+                args[arg++] = DuplicatePairSet.higherId(entry.getKey());
+                args[arg++] = score.exactCause();
+                args[arg++] = columnOf(score.titleScore());
+                args[arg++] = columnOf(score.contentScore());
+                args[arg++] = score.contentAnswers();
+            }
+            jdbcTemplate.update(DuplicateOutputWriter.buildInsert(INSERT_SCORES_PREFIX, SCORE_ROW, end - start), args);
+        }
+        logger.atDebug().addArgument(algorithm).addArgument(courseId).addArgument(staleIds.size()).addArgument(states.size())
+              .addArgument(scores.size()).addArgument(System.currentTimeMillis() - startedMs)
+              .log("Saved '{}' pair scores of course {}: dropped {} stale questions, scored {} questions, inserted {} pairs in {} ms");
+    }
+
+    private static double scoreOf(Double column) {
+        return column == null ? AbstractQuestionSimilarityStrategy.NO_SCORE : column;
+    }
+
+    private static Double columnOf(double score) {
+        return score == AbstractQuestionSimilarityStrategy.NO_SCORE ? null : score;
+    }
+}
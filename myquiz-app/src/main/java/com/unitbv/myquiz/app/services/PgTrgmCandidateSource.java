@@ -0,0 +1,339 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Candidate source backed by the PostgreSQL {@code pg_trgm} extension, selected with
+ * {@code myquiz.duplicates.candidate-source=pg-trgm}.
+ * <p>
+ * Two questions are candidates when a compared field pair is trigram-similar ({@code %}) at
+ * {@code myquiz.duplicates.pg-trgm.similarity-threshold}: the titles, the texts of two true/false questions or any
+ * answer pair of two other questions, the same fields {@link CorpusQuestion} keeps. The pairs are computed by the
+ * database with GIN trigram indexes on the normalized columns, so only the candidate pairs travel to the JVM, where
+ * the similarity strategy verifies them as usual. The extension and the indexes are installed at startup when the
+ * source is selected, outside of any transaction a failing statement could abort.
+ * <p>
+ * A short value contained in a long one has a low trigram similarity, yet detection reports it. Such pairs are added
+ * in memory by the containment join of {@link TokenSetSimilarityJoin#containedPairs(List)}.
+ * <p>
+ * When the database is not PostgreSQL or the extension cannot be installed (H2, missing privileges), the same pairs are
+ * computed in memory with pg_trgm's trigram similarity: words of letters and digits, lower-cased and padded with two
+ * spaces in front and one behind, compared by the Jaccard coefficient of their trigram sets.
+ */
+@Service
+public class PgTrgmCandidateSource {
+    private static final Logger logger = LoggerFactory.getLogger(PgTrgmCandidateSource.class);
+    private static final String EXTENSION = "pg_trgm";
+    private static final String TRUEFALSE = QuestionType.TRUEFALSE.name();
+    private static final String[] RESPONSE_COLUMNS = {"response1_normalized", "response2_normalized", "response3_normalized", "response4_normalized"};
+    private static final String[] INDEXED_COLUMNS = {
+            "title_normalized", "text_normalized", "response1_normalized", "response2_normalized", "response3_normalized", "response4_normalized"
+    };
+    private static final String CANDIDATE_PAIRS_SQL = buildCandidatePairsSql();
+
+    private static final String SELECT_EXTENSION = "SELECT count(*) FROM pg_extension WHERE extname = '" + EXTENSION + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateDetectionProperties duplicateDetectionProperties;
+    private volatile Boolean available;
+
+    public PgTrgmCandidateSource(JdbcTemplate jdbcTemplate, DuplicateDetectionProperties duplicateDetectionProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.duplicateDetectionProperties = duplicateDetectionProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void installOnStartup() {
+        if (duplicateDetectionProperties != null && duplicateDetectionProperties.isPgTrgmCandidateSource()) {
+            available = installExtension();
+        }
+    }
+
+    /**
+     * Builds the candidate index of one detection run over {@code corpus}.
+     *
+     * @param threshold trigram similarity at which two fields make their questions candidates
+     */
+    DuplicateCandidateIndex buildIndex(List<CorpusQuestion> corpus, double threshold) {
+        return new PairCandidateIndex(corpus, candidatePairs(corpus, threshold));
+    }
+
+    /**
+     * Candidate pairs among the comparable records, lower id first: the trigram-similar pairs, from the database when
+     * it has pg_trgm and from the in-memory trigrams otherwise, and the pairs where one value contains the other.
+     */
+    List<long[]> candidatePairs(List<CorpusQuestion> corpus, double threshold) {
+        List<CorpusQuestion> comparable = corpus.stream().filter(CorpusQuestion::comparable).toList();
+        long startedMs = System.currentTimeMillis();
+        boolean inDatabase = isAvailable();
+        List<long[]> similar = inDatabase ? databasePairs(comparable, threshold) : inMemoryPairs(comparable, threshold);
+        Map<Long, long[]> pairsByKey = HashMap.newHashMap(similar.size());
+        for (long[] pair : similar) {
+            pairsByKey.putIfAbsent(DuplicatePairSet.pack(pair[0], pair[1]), pair);
+        }
+        for (long[] pair : TokenSetSimilarityJoin.containedPairs(comparable)) {
+            pairsByKey.putIfAbsent(DuplicatePairSet.pack(pair[0], pair[1]), pair);
+        }
+        List<long[]> pairs = new ArrayList<>(pairsByKey.values());
+        logger.atInfo().addArgument(pairs.size()).addArgument(similar.size()).addArgument(comparable.size())
+              .addArgument(inDatabase ? "pg_trgm" : "in-memory trigrams").addArgument(System.currentTimeMillis() - startedMs)
+              .log("Found {} candidate pairs ({} trigram-similar) over {} questions with {} in {} ms");
+        return pairs;
+    }
+
+    /**
+     * Whether the database answers trigram queries, checked once unless the startup installation already did.
+     */
+    boolean isAvailable() {
+        Boolean checked = available;
+        if (checked == null) {
+            synchronized (this) {
+                checked = available;
+                if (checked == null) {
+                    checked = detectExtension();
+                    available = checked;
+                }
+            }
+        }
+        return checked;
+    }
+
+    private boolean installExtension() {
+        if (jdbcTemplate == null) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+                if (!isPostgres(connection)) {
+                    return false;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE EXTENSION IF NOT EXISTS " + EXTENSION);
+                    for (String column : INDEXED_COLUMNS) {
+                        statement.execute("CREATE INDEX IF NOT EXISTS idx_qbi_" + column + "_trgm ON question USING gin (" + column + " gin_trgm_ops)");
+                    }
+                }
+                return true;
+            }));
+        } catch (DataAccessException e) {
+            logger.atWarn().addArgument(e.getMessage()).log("pg_trgm is not available, trigram candidates are computed in memory: {}");
+            return false;
+        }
+    }
+
+    private boolean detectExtension() {
+        if (jdbcTemplate == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!isPostgres(connection)) {
+                return false;
+            }
+            try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(SELECT_EXTENSION)) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }));
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private List<long[]> databasePairs(List<CorpusQuestion> comparable, double threshold) {
+        Long[] ids = comparable.stream().map(CorpusQuestion::id).toArray(Long[]::new);
+        return jdbcTemplate.execute((ConnectionCallback<List<long[]>>) connection -> {
+            List<long[]> pairs = new ArrayList<>();
+            // The % operator reads its threshold from the session; it is reset so pooled connections keep the default.
+            try (PreparedStatement setThreshold = connection.prepareStatement("SELECT set_config('pg_trgm.similarity_threshold', ?, false)")) {
+                setThreshold.setString(1, Double.toString(threshold));
+                setThreshold.execute();
+            }
+            try (PreparedStatement select = connection.prepareStatement(CANDIDATE_PAIRS_SQL)) {
+                Array idArray = connection.createArrayOf("bigint", ids);
+                select.setArray(1, idArray);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        pairs.add(new long[]{rs.getLong(1), rs.getLong(2)});
+                    }
+                }
+                idArray.free();
+            } catch (SQLException | RuntimeException e) {
+                resetThreshold(connection, e);
+                throw e;
+            }
+            resetThreshold(connection, null);
+            return pairs;
+        });
+    }
+
+    /**
+     * Resets the session threshold. After a failed query the reset usually fails as well (an aborted transaction
+     * rejects every statement), so its exception is attached to the query's instead of replacing it.
+     */
+    private static void resetThreshold(Connection connection, Exception failure) throws SQLException {
+        try (Statement reset = connection.createStatement()) {
+            reset.execute("RESET pg_trgm.similarity_threshold");
+        } catch (SQLException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * One arm per compared field pair, each able to probe the GIN index of the other question's column; {@code UNION}
+     * removes pairs found by several arms.
+     */
+    private static String buildCandidatePairsSql() {
+        List<String> arms = new ArrayList<>();
+        arms.add(candidateArm("title_normalized", "title_normalized", null));
+        arms.add(candidateArm("text_normalized", "text_normalized", "a.type = '" + TRUEFALSE + "' AND b.type = '" + TRUEFALSE + "'"));
+        for (String left : RESPONSE_COLUMNS) {
+            for (String right : RESPONSE_COLUMNS) {
+                arms.add(candidateArm(left, right, "a.type <> '" + TRUEFALSE + "' AND b.type <> '" + TRUEFALSE + "'"));
+            }
+        }
+        StringJoiner sql = new StringJoiner("\nUNION\n", "WITH scope AS (SELECT unnest(?::bigint[]) AS id)\n", "");
+        arms.forEach(sql::add);
+        return sql.toString();
+    }
+
+    private static String candidateArm(String leftColumn, String rightColumn, String typeCondition) {
+        return "SELECT a.id, b.id FROM question a JOIN question b ON b." + rightColumn + " % a." + leftColumn + " AND b.id > a.id"
+                + " WHERE a.id IN (SELECT id FROM scope) AND b.id IN (SELECT id FROM scope)"
+                + (typeCondition == null ? "" : " AND " + typeCondition);
+    }
+
+    /**
+     * Computes the pairs the database would return, from the normalized fields of the records.
+     */
+    static List<long[]> inMemoryPairs(List<CorpusQuestion> comparable, double threshold) {
+        Map<Long, long[]> pairsByKey = new HashMap<>();
+        collectSimilarFields(comparable, record -> record.title() == null ? new String[0] : new String[]{record.title()}, threshold, pairsByKey);
+        collectSimilarFields(comparable, record -> record.text() == null ? new String[0] : new String[]{record.text()}, threshold, pairsByKey);
+        collectSimilarFields(comparable, CorpusQuestion::answers, threshold, pairsByKey);
+        return new ArrayList<>(pairsByKey.values());
+    }
+
+    /**
+     * Adds every pair of records with a trigram-similar pair of the given fields, through an inverted index of the
+     * trigrams of the fields seen so far.
+     */
+    private static void collectSimilarFields(
+            List<CorpusQuestion> comparable, Function<CorpusQuestion, String[]> fieldsOf, double threshold, Map<Long, long[]> pairsByKey
+    ) {
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        List<long[]> fieldGrams = new ArrayList<>();
+        List<Long> fieldOwners = new ArrayList<>();
+        for (CorpusQuestion record : comparable) {
+            for (String field : fieldsOf.apply(record)) {
+                long[] grams = trigrams(field);
+                if (grams.length == 0) {
+                    continue;
+                }
+                Map<Integer, Integer> shared = new HashMap<>();
+                for (long gram : grams) {
+                    for (Integer other : postings.getOrDefault(gram, List.of())) {
+                        shared.merge(other, 1, Integer::sum);
+                    }
+                }
+                shared.forEach((other, count) -> {
+                    Long otherId = fieldOwners.get(other);
+                    // pg_trgm computes the similarity as a float4 and compares it with the threshold as a double.
+                    float similarity = (float) count / (grams.length + fieldGrams.get(other).length - count);
+                    if (!otherId.equals(record.id()) && similarity >= threshold) {
+                        long lower = Math.min(otherId, record.id());
+                        long higher = Math.max(otherId, record.id());
+                        pairsByKey.putIfAbsent(DuplicatePairSet.pack(lower, higher), new long[]{lower, higher});
+                    }
+                });
+                int fieldIndex = fieldGrams.size();
+                fieldGrams.add(grams);
+                fieldOwners.add(record.id());
+                for (long gram : grams) {
+                    postings.computeIfAbsent(gram, key -> new ArrayList<>()).add(fieldIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * pg_trgm's {@code similarity()}: the share of the trigrams of both values that they have in common.
+     */
+    static double similarity(String left, String right) {
+        long[] leftGrams = trigrams(left);
+        long[] rightGrams = trigrams(right);
+        if (leftGrams.length == 0 || rightGrams.length == 0) {
+            return 0.0d;
+        }
+        int shared = 0;
+        for (int l = 0, r = 0; l < leftGrams.length && r < rightGrams.length; ) {
+            int order = Long.compare(leftGrams[l], rightGrams[r]);
+            if (order == 0) {
+                shared++;
+            }
+            l += order <= 0 ? 1 : 0;
+            r += order >= 0 ? 1 : 0;
+        }
+        return (double) shared / (leftGrams.length + rightGrams.length - shared);
+    }
+
+    /**
+     * Distinct trigrams of a value as pg_trgm extracts them, sorted, each packed into a {@code long}.
+     */
+    static long[] trigrams(String value) {
+        if (value == null) {
+            return new long[0];
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        long[] grams = new long[lower.length() * 3 + 3];
+        int count = 0;
+        int wordStart = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && wordStart < 0) {
+                wordStart = i;
+            } else if (!wordChar && wordStart >= 0) {
+                String padded = "  " + lower.substring(wordStart, i) + " ";
+                for (int g = 0; g + 3 <= padded.length(); g++) {
+                    grams[count++] = (long) padded.charAt(g) << 32 | (long) padded.charAt(g + 1) << 16 | padded.charAt(g + 2);
+                }
+                wordStart = -1;
+            }
+        }
+        long[] sorted = Arrays.copyOf(grams, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || sorted[distinct - 1] != sorted[i]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+}
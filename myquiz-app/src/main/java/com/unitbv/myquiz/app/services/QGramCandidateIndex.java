@@ -0,0 +1,262 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted trigram index over the duplicate corpus of one course, used to find the stored questions closest
+ * to a draft without comparing the draft with every question.
+ * <p>
+ * A record is indexed by the distinct trigrams of its compared fields, the title and the text or the answers (see
+ * {@link CorpusQuestion}). Every field is padded with a space on both sides, like pg_trgm does, so short values and
+ * word boundaries still produce grams. A query counts the grams the draft shares with each record through the posting
+ * lists and ranks the records by their Dice coefficient {@code 2 * shared / (draftGrams + recordGrams)}.
+ * <p>
+ * The index follows the corpus incrementally: {@link #synchronize(List)} compares the records by reference with the
+ * indexed ones, which {@link DuplicateCorpusCache} keeps for unchanged questions, appends added and changed records
+ * and marks replaced or removed ones as dead. Queries skip dead slots; they are dropped by a compaction once they
+ * make up half of the slots.
+ * <p>
+ * Thread safe: queries share a read lock, synchronization takes the write lock.
+ */
+final class QGramCandidateIndex {
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 64;
+    private static final int INITIAL_SLOTS = 16;
+    private static final Comparator<Candidate> BY_OVERLAP = Comparator.comparingDouble(Candidate::overlap)
+                                                                      .thenComparing(candidate -> candidate.question().id(), Comparator.reverseOrder());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postingsByGram = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private CorpusQuestion[] records = new CorpusQuestion[INITIAL_SLOTS];
+    private int[] gramCounts = new int[INITIAL_SLOTS];
+    private int slotCount;
+    private volatile List<CorpusQuestion> indexed = List.of();
+
+    /**
+     * A record and the Dice coefficient of its trigrams with the query.
+     */
+    record Candidate(CorpusQuestion question, double overlap) {
+    }
+
+    /**
+     * Brings the index in line with the current corpus of the course. Returns at once when the list is the one
+     * indexed last.
+     */
+    void synchronize(List<CorpusQuestion> corpus) {
+        if (corpus == indexed) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (corpus == indexed) {
+                return;
+            }
+            Set<Long> present = HashSet.newHashSet(corpus.size());
+            for (CorpusQuestion record : corpus) {
+                if (!record.comparable()) {
+                    continue;
+                }
+                present.add(record.id());
+                Integer slot = slotsById.get(record.id());
+                if (slot != null && records[slot] == record) {
+                    continue;
+                }
+                if (slot != null) {
+                    dead.set(slot);
+                }
+                add(record);
+            }
+            for (Iterator<Map.Entry<Long, Integer>> entries = slotsById.entrySet().iterator(); entries.hasNext(); ) {
+                Map.Entry<Long, Integer> entry = entries.next();
+                if (!present.contains(entry.getKey())) {
+                    dead.set(entry.getValue());
+                    entries.remove();
+                }
+            }
+            int deadSlots = dead.cardinality();
+            if (deadSlots >= MIN_DEAD_SLOTS_TO_COMPACT && deadSlots >= slotCount - deadSlots) {
+                compact();
+            }
+            indexed = corpus;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} live records accepted by {@code filter} that share at least one trigram with the
+     * given fields, best overlap first and lower ids first among equal overlaps.
+     */
+    List<Candidate> query(String title, String text, String[] answers, Predicate<CorpusQuestion> filter, int limit) {
+        long[] grams = gramsOf(title, text, answers);
+        if (grams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int[] shared = new int[slotCount];
+            int[] touched = new int[Math.min(slotCount, INITIAL_SLOTS)];
+            int touchedCount = 0;
+            for (long gram : grams) {
+                Postings postings = postingsByGram.get(gram);
+                if (postings == null) {
+                    continue;
+                }
+                for (int i = 0; i < postings.size; i++) {
+                    int slot = postings.slots[i];
+                    if (shared[slot]++ == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touched.length * 2);
+                        }
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, BY_OVERLAP);
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                if (dead.get(slot) || !filter.test(records[slot])) {
+                    continue;
+                }
+                best.add(new Candidate(records[slot], 2.0d * shared[slot] / (grams.length + gramCounts[slot])));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            List<Candidate> candidates = new ArrayList<>(best);
+            candidates.sort(BY_OVERLAP.reversed());
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live records.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of slots, live and dead, the posting lists refer to.
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(CorpusQuestion record) {
+        if (slotCount == records.length) {
+            records = Arrays.copyOf(records, slotCount * 2);
+            gramCounts = Arrays.copyOf(gramCounts, slotCount * 2);
+        }
+        int slot = slotCount++;
+        long[] grams = gramsOf(record.title(), record.text(), record.answers());
+        records[slot] = record;
+        gramCounts[slot] = grams.length;
+        slotsById.put(record.id(), slot);
+        for (long gram : grams) {
+            postingsByGram.computeIfAbsent(gram, key -> new Postings()).add(slot);
+        }
+    }
+
+    private void compact() {
+        List<CorpusQuestion> live = new ArrayList<>(slotsById.size());
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (!dead.get(slot)) {
+                live.add(records[slot]);
+            }
+        }
+        postingsByGram.clear();
+        slotsById.clear();
+        dead.clear();
+        records = new CorpusQuestion[Math.max(INITIAL_SLOTS, live.size())];
+        gramCounts = new int[records.length];
+        slotCount = 0;
+        live.forEach(this::add);
+    }
+
+    /**
+     * Distinct trigrams of the non-null fields, sorted. A gram packs its three characters into one {@code long}.
+     */
+    static long[] gramsOf(String title, String text, String[] answers) {
+        long[] grams = ensureCapacity(new long[16], 0, title);
+        int count = appendGrams(title, grams, 0);
+        grams = ensureCapacity(grams, count, text);
+        count = appendGrams(text, grams, count);
+        if (answers != null) {
+            for (String answer : answers) {
+                grams = ensureCapacity(grams, count, answer);
+                count = appendGrams(answer, grams, count);
+            }
+        }
+        Arrays.sort(grams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static long[] ensureCapacity(long[] grams, int count, String value) {
+        int needed = count + (value == null ? 0 : value.length());
+        return needed <= grams.length ? grams : Arrays.copyOf(grams, Math.max(needed, grams.length * 2));
+    }
+
+    private static int appendGrams(String value, long[] grams, int count) {
+        if (value == null || value.isEmpty()) {
+            return count;
+        }
+        // Padded with one space on each side: length + 2 characters give length grams.
+        char previous = ' ';
+        char current = value.charAt(0);
+        for (int i = 1; i <= value.length(); i++) {
+            char next = i < value.length() ? value.charAt(i) : ' ';
+            grams[count++] = (long) previous << 32 | (long) current << 16 | next;
+            previous = current;
+            current = next;
+        }
+        return count;
+    }
+
+    /**
+     * Growable list of the slots containing one gram, in insertion order.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
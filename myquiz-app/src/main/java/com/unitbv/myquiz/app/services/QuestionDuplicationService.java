@@ -4,6 +4,7 @@ import com.unitbv.myquiz.api.dto.QuestionDto;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.api.types.DuplicateComparisonStrategy;
 import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
 import com.unitbv.myquiz.app.entities.Author;
 import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionDuplicate;
@@ -14,20 +15,23 @@ import com.unitbv.myquiz.app.repositories.QuestionDuplicateRepository;
 import com.unitbv.myquiz.app.repositories.QuestionErrorRepository;
 import com.unitbv.myquiz.app.repositories.QuestionRepository;
 import com.unitbv.myquiz.app.specifications.QuestionSpecification;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -36,10 +40,15 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.Arrays;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 @Service
 public class QuestionDuplicationService {
@@ -47,21 +56,8 @@ public class QuestionDuplicationService {
     private static final String DEFAULT_SIMILARITY_ALGORITHM = DuplicateComparisonStrategy.STRING_EQUALITY.getAlgorithmName();
     private static final String MSG_NO_COURSE_FOR_DUPLICATE_CHECK = "No course provided for duplicate checking";
     private static final int DUPLICATE_CHECK_BATCH_SIZE = 250;
-    private static final int DUPLICATE_CAUSE_MAX_LENGTH = 1000;
-    private static final String CAUSE_DEFAULT_DUPLICATE = "Duplicate detected";
-    private static final String CAUSE_DEFAULT_SUFFIX = "duplicate detected";
-    private static final String CAUSE_FIELD_TITLE = "Title";
-    private static final String CAUSE_FIELD_TEXT = "Text";
-    private static final String CAUSE_FIELD_ANSWER = "Answer";
-    private static final String CAUSE_SUBSTRING_TEMPLATE = "%s: '%s' found as substring into '%s'";
-    private static final String CAUSE_EXACT_TEMPLATE = "%s: '%s' matches exactly '%s'";
-    private static final String CAUSE_SIMILAR_TEMPLATE = "%s: '%s' considered similar to '%s'";
-    private static final String CAUSE_PART_DELIMITER = "; ";
-    private static final String CAUSE_PART_SPLIT_REGEX = "\\s*;\\s*";
-    private static final int CAUSE_PRIORITY_EXACT = 0;
-    private static final int CAUSE_PRIORITY_SUBSTRING = 1;
-    private static final int CAUSE_PRIORITY_SIMILAR = 2;
-    private static final int CAUSE_PRIORITY_GENERIC = 3;
+    private static final int PAIR_MATCH_TITLE = 1;
+    private static final int PAIR_MATCH_CONTENT = 2;
     public static final int NUM_ANSWERS = 4;
 
     private final QuestionRepository questionRepository;
@@ -72,13 +68,29 @@ public class QuestionDuplicationService {
     private final Map<String, AbstractQuestionSimilarityStrategy> similarityStrategies;
     private final AbstractQuestionSimilarityStrategy defaultSimilarityStrategy;
     private final Executor duplicateQuestionCheckTaskExecutor;
+    private final ForkJoinPool duplicatePairForkJoinPool;
+    private final DuplicateDetectionProperties duplicateDetectionProperties;
+    private final TransactionOperations batchTransactions;
+    private final DuplicateOutputWriter duplicateOutputWriter;
+    private final DuplicateCorpusCache duplicateCorpusCache;
+    private final DuplicateClusterService duplicateClusterService;
+    private final PairScoreStore pairScoreStore;
+    private final PgTrgmCandidateSource pgTrgmCandidateSource;
 
     @Autowired
     public QuestionDuplicationService(
             QuestionRepository questionRepository, QuestionErrorRepository questionErrorRepository, QuestionDuplicateRepository questionDuplicateRepository, QuestionMapper questionMapper,
             QuestionDtoEnricher questionDtoEnricher, List<AbstractQuestionSimilarityStrategy> similarityStrategies,
             @Value("${myquiz.duplicates.similarity.algorithm:string-equality}") String defaultSimilarityAlgorithm,
-            @Qualifier("duplicateQuestionCheckTaskExecutor") Executor duplicateQuestionCheckTaskExecutor
+            @Qualifier("duplicateQuestionCheckTaskExecutor") Executor duplicateQuestionCheckTaskExecutor,
+            @Qualifier("duplicatePairForkJoinPool") ForkJoinPool duplicatePairForkJoinPool,
+            DuplicateDetectionProperties duplicateDetectionProperties,
+            PlatformTransactionManager transactionManager,
+            DuplicateOutputWriter duplicateOutputWriter,
+            DuplicateCorpusCache duplicateCorpusCache,
+            DuplicateClusterService duplicateClusterService,
+            PairScoreStore pairScoreStore,
+            PgTrgmCandidateSource pgTrgmCandidateSource
     ) {
         this.questionErrorRepository = questionErrorRepository;
         this.questionRepository = questionRepository;
@@ -88,11 +100,19 @@ public class QuestionDuplicationService {
         this.similarityStrategies = buildStrategyMap(similarityStrategies);
         this.defaultSimilarityStrategy = resolveStrategy(defaultSimilarityAlgorithm);
         this.duplicateQuestionCheckTaskExecutor = duplicateQuestionCheckTaskExecutor;
+        this.duplicatePairForkJoinPool = duplicatePairForkJoinPool == null ? ForkJoinPool.commonPool() : duplicatePairForkJoinPool;
+        this.duplicateDetectionProperties = duplicateDetectionProperties == null ? new DuplicateDetectionProperties() : duplicateDetectionProperties;
+        this.batchTransactions = transactionManager == null ? TransactionOperations.withoutTransaction() : new TransactionTemplate(transactionManager);
+        this.duplicateOutputWriter = duplicateOutputWriter;
+        this.duplicateCorpusCache = duplicateCorpusCache == null ? new DuplicateCorpusCache(questionRepository, null, null, null) : duplicateCorpusCache;
+        this.duplicateClusterService = duplicateClusterService;
+        this.pairScoreStore = pairScoreStore;
+        this.pgTrgmCandidateSource = pgTrgmCandidateSource == null ? new PgTrgmCandidateSource(null, this.duplicateDetectionProperties) : pgTrgmCandidateSource;
     }
 
     public QuestionDuplicationService(
             QuestionRepository questionRepository, QuestionErrorRepository questionErrorRepository, QuestionDuplicateRepository questionDuplicateRepository,
-            QuestionMapper questionMapper, QuestionDtoEnricher questionDtoEnricher
+            QuestionMapper questionMapper, QuestionDtoEnricher questionDtoEnricher, DuplicateOutputWriter duplicateOutputWriter
     ) {
         this(
                 questionRepository,
@@ -103,10 +123,20 @@ public class QuestionDuplicationService {
                 List.of(
                         new StringEqualityQuestionSimilarityStrategy(),
                         new LevenshteinQuestionSimilarityStrategy(),
+                        new MyersBitParallelQuestionSimilarityStrategy(),
+                        new TokenJaccardQuestionSimilarityStrategy(),
                         new JaroWinklerQuestionSimilarityStrategy()
                 ),
                 DEFAULT_SIMILARITY_ALGORITHM,
-                Runnable::run
+                Runnable::run,
+                ForkJoinPool.commonPool(),
+                new DuplicateDetectionProperties(),
+                null,
+                duplicateOutputWriter,
+                null,
+                null,
+                null,
+                null
         );
     }
 
@@ -125,11 +155,11 @@ public class QuestionDuplicationService {
         return description + " (" + question.getTitle() + ")";
     }
 
-    private static boolean hasAllMultichoiceAnswers(Question question) {
+    static boolean hasAllMultichoiceAnswers(Question question) {
         return question.getResponse1() != null && question.getResponse2() != null && question.getResponse3() != null && question.getResponse4() != null;
     }
 
-    private static boolean hasTrueFalseAnswer(Question question) {
+    static boolean hasTrueFalseAnswer(Question question) {
         return question.getResponse1() != null && !question.getResponse1().isBlank();
     }
 
@@ -191,14 +221,9 @@ public class QuestionDuplicationService {
         }
 
         List<QuestionError> allErrors = new ArrayList<>();
-        Set<String> persistedPairs = new HashSet<>();
-        List<Question> allCourseQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
-                course,
-                null,
-                null,
-                null
-        ));
-        List<Long> courseQuestionIds = allCourseQuestions.stream().map(Question::getId).filter(Objects::nonNull).toList();
+        DuplicatePairSet persistedPairs = new DuplicatePairSet();
+        List<CorpusQuestion> courseCorpus = duplicateCorpusCache.corpusFor(course);
+        List<Long> courseQuestionIds = courseCorpus.stream().map(CorpusQuestion::id).toList();
 
         DuplicateCleanupSummary cleanupSummary = clearDuplicateStateForQuestions(courseQuestionIds);
         logger.atInfo()
@@ -209,7 +234,7 @@ public class QuestionDuplicationService {
 
         logger.atInfo()
               .addArgument(course)
-              .addArgument(allCourseQuestions.size())
+              .addArgument(courseCorpus.size())
               .log("Checking duplicates for course '{}' against {} existing questions");
 
         for (Author author : authors) {
@@ -221,7 +246,7 @@ public class QuestionDuplicationService {
             ));
             List<QuestionError> questionErrors = detectDuplicates(
                     authorQuestions,
-                    allCourseQuestions,
+                    courseCorpus,
                     persistedPairs
             );
             allErrors.addAll(questionErrors);
@@ -247,13 +272,13 @@ public class QuestionDuplicationService {
     @Transactional
     public List<QuestionError> checkDuplicatesInCourse(List<Question> allCourseQuestions, String course, List<Question> uploadedQuestions) {
         return checkDuplicatesInCourseInternal(
-                allCourseQuestions,
+                toCorpus(allCourseQuestions),
                 course,
                 uploadedQuestions
         );
     }
 
-    private List<QuestionError> checkDuplicatesInCourseInternal(List<Question> allCourseQuestions, String course, List<Question> uploadedQuestions) {
+    private List<QuestionError> checkDuplicatesInCourseInternal(List<CorpusQuestion> courseCorpus, String course, List<Question> uploadedQuestions) {
         if (uploadedQuestions == null || uploadedQuestions.isEmpty()) {
             logger.atWarn().log("No uploaded questions provided for duplicate checking");
             return new ArrayList<>();
@@ -263,18 +288,17 @@ public class QuestionDuplicationService {
             return new ArrayList<>();
         }
 
-        List<Question> safeAllCourseQuestions = allCourseQuestions == null ? List.of() : allCourseQuestions;
-        List<Long> courseQuestionIds = safeAllCourseQuestions.stream().map(Question::getId).filter(Objects::nonNull).toList();
+        List<Long> courseQuestionIds = courseCorpus.stream().map(CorpusQuestion::id).filter(Objects::nonNull).toList();
         DuplicateCleanupSummary cleanupSummary = clearDuplicateStateForQuestions(courseQuestionIds);
         logger.atInfo().addArgument(course).addArgument(cleanupSummary.duplicateLinksRemoved()).addArgument(cleanupSummary.duplicateErrorsRemoved())
               .log("Pre-check duplicate cleanup for course '{}': removed links={}, removed errors={}");
 
-        logger.atInfo().addArgument(uploadedQuestions.size()).addArgument(course).addArgument(safeAllCourseQuestions.size())
+        logger.atInfo().addArgument(uploadedQuestions.size()).addArgument(course).addArgument(courseCorpus.size())
               .log("Checking {} uploaded questions for duplicates in course '{}' against {} existing questions");
 
         List<QuestionError> questionErrors = detectDuplicates(
                 uploadedQuestions,
-                safeAllCourseQuestions
+                courseCorpus
         );
 
         logger.atInfo().addArgument(questionErrors.size()).addArgument(course).log("Found {} duplicate violations in course '{}'");
@@ -284,7 +308,7 @@ public class QuestionDuplicationService {
 
     /**
      * Validate duplicates for all questions uploaded in a specific questionBank.
-     * Loads both uploaded and existing course questions from DB after parse/save.
+     * Loads the uploaded questions from DB after parse/save; the course side comes from the corpus cache.
      */
     @Transactional
     public List<QuestionError> checkDuplicatesForQuestionBank(String course, Long questionBankId) {
@@ -297,12 +321,6 @@ public class QuestionDuplicationService {
             return new ArrayList<>();
         }
 
-        List<Question> allCourseQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
-                course,
-                null,
-                null,
-                null
-        ));
         List<Question> uploadedQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
                 course,
                 null,
@@ -311,7 +329,7 @@ public class QuestionDuplicationService {
         ));
 
         return checkDuplicatesInCourseInternal(
-                allCourseQuestions,
+                duplicateCorpusCache.corpusFor(course),
                 course,
                 uploadedQuestions
         );
@@ -323,48 +341,58 @@ public class QuestionDuplicationService {
      * Now preserves question titles instead of marking them as SKIPPED_DUE_TO_ERROR.
      * Note: QuestionError records are persisted after duplicate analysis is complete.
      *
-     * @param authorQuestions    Questions to validate
-     * @param allCourseQuestions All questions from the course used as duplicate candidates
+     * @param authorQuestions Questions to validate
+     * @param courseCorpus    Records of all course questions used as duplicate candidates
      * @return List of errors for duplicate violations
      */
-    private List<QuestionError> detectDuplicates(List<Question> authorQuestions, List<Question> allCourseQuestions) {
-        return detectDuplicates(authorQuestions, allCourseQuestions, new HashSet<>());
+    private List<QuestionError> detectDuplicates(List<Question> authorQuestions, List<CorpusQuestion> courseCorpus) {
+        return detectDuplicates(authorQuestions, courseCorpus, new DuplicatePairSet());
     }
 
     private List<QuestionError> detectDuplicates(
             List<Question> authorQuestions,
-            List<Question> allCourseQuestions,
-            Set<String> persistedPairs
+            List<CorpusQuestion> courseCorpus,
+            DuplicatePairSet persistedPairs
     ) {
         return detectDuplicatesInternal(
                 authorQuestions,
-                allCourseQuestions,
-                true,
+                courseCorpus,
                 false,
                 persistedPairs,
-                defaultSimilarityStrategy
+                defaultSimilarityStrategy,
+                BatchExecution.INLINE
         );
     }
 
     private List<QuestionError> detectDuplicatesForRecompute(
-            List<Question> authorQuestions,
-            List<Question> allCourseQuestions,
-            Set<String> persistedPairs,
-            AbstractQuestionSimilarityStrategy similarityStrategy
+            List<Question> questions,
+            DuplicatePairSet persistedPairs,
+            AbstractQuestionSimilarityStrategy similarityStrategy,
+            BatchExecution batchExecution,
+            PairScoring pairScoring
     ) {
+        if (duplicateDetectionProperties.isForkJoinPairEngine()) {
+            return detectDuplicatesSymmetric(
+                    questions,
+                    persistedPairs,
+                    similarityStrategy,
+                    batchExecution,
+                    pairScoring
+            );
+        }
         return detectDuplicatesInternal(
-                authorQuestions,
-                allCourseQuestions,
-                false,
+                questions,
+                toCorpus(questions),
                 true,
                 persistedPairs,
-                similarityStrategy
+                similarityStrategy,
+                batchExecution
         );
     }
 
     private List<QuestionError> detectDuplicatesInternal(
-            List<Question> authorQuestions, List<Question> allCourseQuestions, boolean checkExistingLinks, boolean ignoreExistingErrorPrefixes, Set<String> persistedPairs,
-            AbstractQuestionSimilarityStrategy similarityStrategy
+            List<Question> authorQuestions, List<CorpusQuestion> courseCorpus, boolean ignoreExistingErrorPrefixes, DuplicatePairSet persistedPairs,
+            AbstractQuestionSimilarityStrategy similarityStrategy, BatchExecution batchExecution
     ) {
         List<QuestionError> questionErrors = new ArrayList<>();
         if (authorQuestions == null || authorQuestions.isEmpty()) {
@@ -377,12 +405,17 @@ public class QuestionDuplicationService {
         );
 
         DuplicateExecutionPlan executionPlan = buildDuplicateExecutionPlan(authorQuestions.size());
+        AbstractQuestionSimilarityStrategy runStrategy = forCorpus(similarityStrategy, courseCorpus);
+        DuplicateCandidateIndex candidateIndex = buildCandidateIndex(courseCorpus, runStrategy);
         int processed = 0;
 
         logger.atInfo().addArgument(executionPlan.total()).addArgument(DUPLICATE_CHECK_BATCH_SIZE).addArgument(executionPlan.totalBatches())
               .log("Submitting duplicate checks for {} questions in sequential batches of {} ({} batches)");
 
         for (int start = 0, batchIndex = 1; start < executionPlan.total(); start += DUPLICATE_CHECK_BATCH_SIZE, batchIndex++) {
+            if (batchExecution.monitor().isCancellationRequested()) {
+                throw new CancellationException("Duplicate checks cancelled after " + processed + "/" + executionPlan.total() + " questions");
+            }
             int end = Math.min(
                     start + DUPLICATE_CHECK_BATCH_SIZE,
                     executionPlan.total()
@@ -391,35 +424,46 @@ public class QuestionDuplicationService {
                     start,
                     end
             );
-            Map<String, String> batchDetectedPairCauses = new LinkedHashMap<>();
+            int processedBefore = processed;
+            int currentBatch = batchIndex;
+            int errorsBefore = questionErrors.size();
+            DuplicatePairSet batchDetectedPairs = new DuplicatePairSet();
 
             logger.atDebug().addArgument(batchIndex).addArgument(executionPlan.totalBatches()).addArgument(batch.size())
                   .log("Starting duplicate-check batch {}/{} with {} questions");
 
-            List<DuplicateCheckTask> tasks = buildDuplicateCheckTasks(
-                    batch,
-                    existingErrorPrefixesByQuestionId,
-                    allCourseQuestions,
-                    similarityStrategy
-            );
+            Integer persistedInBatch = batchExecution.transactions().execute(status -> {
+                List<DuplicateCheckTask> tasks = buildDuplicateCheckTasks(
+                        batch,
+                        existingErrorPrefixesByQuestionId,
+                        candidateIndex,
+                        runStrategy
+                );
 
-            processed = processBatchTasks(
-                    tasks,
-                    allCourseQuestions,
-                    similarityStrategy,
-                    processed,
-                    executionPlan,
-                    questionErrors,
-                    batchDetectedPairCauses
-            );
+                processBatchTasks(
+                        tasks,
+                        candidateIndex,
+                        runStrategy,
+                        processedBefore,
+                        executionPlan,
+                        questionErrors,
+                        batchDetectedPairs,
+                        batchExecution.monitor()
+                );
 
-            int persistedInBatch = persistDuplicateLinks(
-                    batchDetectedPairCauses,
-                    persistedPairs,
-                    checkExistingLinks
-            );
+                int persisted = persistDuplicateLinks(
+                        batchDetectedPairs,
+                        persistedPairs
+                );
+                if (batchExecution.saveErrorsPerBatch()) {
+                    saveQuestionErrors(questionErrors.subList(errorsBefore, questionErrors.size()));
+                }
+                return persisted;
+            });
+            processed = end;
+            batchExecution.monitor().onBatchCommitted(processed, persistedInBatch == null ? 0 : persistedInBatch, questionErrors.size() - errorsBefore);
 
-            logger.atDebug().addArgument(batchIndex).addArgument(executionPlan.totalBatches()).addArgument(batchDetectedPairCauses.size()).addArgument(persistedInBatch)
+            logger.atDebug().addArgument(currentBatch).addArgument(executionPlan.totalBatches()).addArgument(batchDetectedPairs.size()).addArgument(persistedInBatch)
                   .log("Finished duplicate-check batch {}/{}; detected pair keys={}, persisted links={}");
 
             if (batchIndex < executionPlan.totalBatches()) {
@@ -431,6 +475,309 @@ public class QuestionDuplicationService {
         return questionErrors;
     }
 
+    /**
+     * Recompute variant of {@link #detectDuplicatesInternal} for a list compared with itself. Every unordered pair
+     * is evaluated once on the fork/join pool and credited to both questions, instead of being checked once from
+     * each side. Links and errors are still written in batches of {@value #DUPLICATE_CHECK_BATCH_SIZE} questions
+     * in list order; a link belongs to the batch of its lower-positioned question.
+     * <p>
+     * With {@code pairScoring} the pairs are scored down to the score floor and decided against its threshold.
+     * Questions whose stored fingerprint is current are reused: pairs of two reused questions are decided from their
+     * stored scores, and only pairs with at least one changed question are compared.
+     */
+    private List<QuestionError> detectDuplicatesSymmetric(
+            List<Question> questions, DuplicatePairSet persistedPairs, AbstractQuestionSimilarityStrategy similarityStrategy, BatchExecution batchExecution,
+            PairScoring pairScoring
+    ) {
+        List<QuestionError> questionErrors = new ArrayList<>();
+        if (questions == null || questions.isEmpty()) {
+            return questionErrors;
+        }
+
+        DuplicateRecomputeMonitor monitor = batchExecution.monitor();
+        DuplicateExecutionPlan executionPlan = buildDuplicateExecutionPlan(questions.size());
+        CorpusQuestion[] prepared = questions.stream().map(CorpusQuestion::of).toArray(CorpusQuestion[]::new);
+        AtomicIntegerArray matchFlags = new AtomicIntegerArray(prepared.length);
+        AtomicIntegerArray matchCounts = new AtomicIntegerArray(prepared.length);
+        DuplicatePairSet detectedPairs = new DuplicatePairSet(prepared.length);
+        AbstractQuestionSimilarityStrategy runStrategy = forCorpus(similarityStrategy, Arrays.asList(prepared));
+        DuplicateCandidateIndex candidateIndex = buildCandidateIndex(Arrays.asList(prepared), runStrategy);
+        SymmetricPairEngine engine = new SymmetricPairEngine(
+                duplicatePairForkJoinPool,
+                duplicateDetectionProperties.getPairTileSize(),
+                monitor.pairParallelism(),
+                monitor::isCancellationRequested,
+                monitor::onProgress
+        );
+        SymmetricPairEngine.PairVisitor visitor = (left, right) -> evaluateSymmetricPair(
+                prepared[left],
+                prepared[right],
+                left,
+                right,
+                runStrategy,
+                pairScoring,
+                matchFlags,
+                matchCounts,
+                detectedPairs
+        );
+
+        long startedMs = System.currentTimeMillis();
+        BitSet reused = pairScoring == null ? new BitSet() : applyStoredPairScores(prepared, pairScoring, matchFlags, matchCounts, detectedPairs);
+        IntFunction<int[]> candidates = candidateIndex.isExhaustive() ? null : candidatePositions(prepared, candidateIndex);
+        boolean completed;
+        if (!reused.isEmpty()) {
+            completed = engine.forEachCandidatePair(prepared.length, changedPairPartners(prepared.length, reused, candidates), visitor);
+        } else {
+            completed = candidates == null ? engine.forEachPair(prepared.length, visitor) : engine.forEachCandidatePair(prepared.length, candidates, visitor);
+        }
+        if (!completed) {
+            throw new CancellationException("Duplicate checks cancelled while comparing " + prepared.length + " questions");
+        }
+        logger.atInfo().addArgument(prepared.length).addArgument(duplicatePairForkJoinPool.getParallelism()).addArgument(System.currentTimeMillis() - startedMs)
+              .addArgument(detectedPairs.size())
+              .log("Compared {} questions pairwise on {} fork/join workers in {} ms; detected pair keys={}");
+
+        List<DuplicatePairSet> pairsByBatch = partitionPairsByBatch(detectedPairs, prepared, executionPlan.totalBatches());
+        int processed = 0;
+        for (int start = 0, batchIndex = 0; start < executionPlan.total(); start += DUPLICATE_CHECK_BATCH_SIZE, batchIndex++) {
+            if (monitor.isCancellationRequested()) {
+                throw new CancellationException("Duplicate checks cancelled after " + processed + "/" + executionPlan.total() + " questions");
+            }
+            int batchStart = start;
+            int end = Math.min(
+                    start + DUPLICATE_CHECK_BATCH_SIZE,
+                    executionPlan.total()
+            );
+            int errorsBefore = questionErrors.size();
+            DuplicatePairSet batchDetectedPairs = pairsByBatch.get(batchIndex);
+
+            Integer persistedInBatch = batchExecution.transactions().execute(status -> {
+                for (int position = batchStart; position < end; position++) {
+                    QuestionDuplicateCheckResult result = toSymmetricCheckResult(
+                            questions.get(position),
+                            prepared[position],
+                            matchFlags.get(position),
+                            matchCounts.get(position)
+                    );
+                    if (result != null) {
+                        addDuplicateErrors(
+                                questionErrors,
+                                result
+                        );
+                    }
+                }
+                int persisted = persistDuplicateLinks(
+                        batchDetectedPairs,
+                        persistedPairs
+                );
+                if (batchExecution.saveErrorsPerBatch()) {
+                    saveQuestionErrors(questionErrors.subList(errorsBefore, questionErrors.size()));
+                }
+                return persisted;
+            });
+            processed = end;
+            monitor.onBatchCommitted(processed, persistedInBatch == null ? 0 : persistedInBatch, questionErrors.size() - errorsBefore);
+
+            logger.atDebug().addArgument(batchIndex + 1).addArgument(executionPlan.totalBatches()).addArgument(batchDetectedPairs.size()).addArgument(persistedInBatch)
+                  .log("Committed duplicate batch {}/{}; pair keys={}, persisted links={}");
+        }
+        return questionErrors;
+    }
+
+    /**
+     * Evaluates one unordered pair. A question with missing answers is never analysed as a source, but it can
+     * still be the candidate of a complete one, so each side is only credited when it would have been a source.
+     */
+    private void evaluateSymmetricPair(
+            CorpusQuestion left, CorpusQuestion right, int leftPosition, int rightPosition, AbstractQuestionSimilarityStrategy similarityStrategy,
+            PairScoring pairScoring, AtomicIntegerArray matchFlags, AtomicIntegerArray matchCounts, DuplicatePairSet detectedPairs
+    ) {
+        if (!left.comparable() || !right.comparable() || left.type() != right.type()) {
+            return;
+        }
+        if (!left.isSource() && !right.isSource()) {
+            return;
+        }
+        CorpusQuestion source = left.isSource() ? left : right;
+        CorpusQuestion candidate = source == left ? right : left;
+        boolean multichoice = source.type() == QuestionType.MULTICHOICE;
+
+        if (pairScoring != null) {
+            PairScore score = scorePair(source, candidate, similarityStrategy, pairScoring.floor());
+            if (!score.isEmpty()) {
+                pairScoring.newScores().put(DuplicatePairSet.pack(source.id(), candidate.id()), score);
+            }
+            creditSymmetricPair(left, right, leftPosition, rightPosition, score.causeAt(pairScoring.threshold(), contentFieldOf(source)), matchFlags, matchCounts,
+                                detectedPairs);
+            return;
+        }
+
+        int titleMatch = textMatch(
+                DuplicateCauseCodes.FIELD_TITLE,
+                source.title(),
+                candidate.title(),
+                similarityStrategy
+        );
+        int contentMatch = multichoice
+                ? answerMatch(source, candidate, similarityStrategy)
+                : textMatch(DuplicateCauseCodes.FIELD_TEXT, source.text(), candidate.text(), similarityStrategy);
+        if (titleMatch == 0 && contentMatch == 0) {
+            return;
+        }
+        int cause = DuplicateCauseCodes.orient(DuplicateCauseCodes.merge(titleMatch, contentMatch), source.id() < candidate.id());
+        creditSymmetricPair(left, right, leftPosition, rightPosition, cause, matchFlags, matchCounts, detectedPairs);
+    }
+
+    /**
+     * Credits a matched pair to the sides that are sources and records its cause, oriented to the pair key.
+     */
+    private static void creditSymmetricPair(
+            CorpusQuestion left, CorpusQuestion right, int leftPosition, int rightPosition, int cause, AtomicIntegerArray matchFlags,
+            AtomicIntegerArray matchCounts, DuplicatePairSet detectedPairs
+    ) {
+        if (cause == 0) {
+            return;
+        }
+        int contentField = contentFieldOf(left);
+        int flags = (DuplicateCauseCodes.kindOf(cause, DuplicateCauseCodes.FIELD_TITLE) != DuplicateCauseCodes.KIND_NONE ? PAIR_MATCH_TITLE : 0)
+                | (DuplicateCauseCodes.kindOf(cause, contentField) != DuplicateCauseCodes.KIND_NONE ? PAIR_MATCH_CONTENT : 0);
+        if (left.isSource()) {
+            matchFlags.accumulateAndGet(leftPosition, flags, (current, added) -> current | added);
+            matchCounts.incrementAndGet(leftPosition);
+        }
+        if (right.isSource()) {
+            matchFlags.accumulateAndGet(rightPosition, flags, (current, added) -> current | added);
+            matchCounts.incrementAndGet(rightPosition);
+        }
+
+        long pairKey = DuplicatePairSet.pack(left.id(), right.id());
+        // Matches are rare compared to evaluated pairs, so a shared lock is cheaper than a concurrent map.
+        synchronized (detectedPairs) {
+            detectedPairs.mergeCause(pairKey, cause);
+        }
+    }
+
+    /**
+     * Records the current fingerprint of every question and decides the pairs of questions whose stored fingerprint
+     * is still current from their stored scores; a pair of two such questions without a stored score did not match.
+     *
+     * @return positions of the reused questions
+     */
+    private static BitSet applyStoredPairScores(
+            CorpusQuestion[] prepared, PairScoring pairScoring, AtomicIntegerArray matchFlags, AtomicIntegerArray matchCounts, DuplicatePairSet detectedPairs
+    ) {
+        BitSet reused = new BitSet(prepared.length);
+        Map<Long, Integer> reusedPositionsById = new HashMap<>();
+        for (int position = 0; position < prepared.length; position++) {
+            Long questionId = prepared[position].id();
+            if (questionId == null) {
+                continue;
+            }
+            long fingerprint = prepared[position].contentFingerprint();
+            pairScoring.fingerprints().put(questionId, fingerprint);
+            if (pairScoring.stored().isCurrent(questionId, fingerprint)) {
+                reused.set(position);
+                reusedPositionsById.put(questionId, position);
+                pairScoring.reusedIds().add(questionId);
+            }
+        }
+        if (reused.isEmpty()) {
+            return reused;
+        }
+        for (Map.Entry<Long, PairScore> stored : pairScoring.stored().scores().entrySet()) {
+            Integer lowerPosition = reusedPositionsById.get(DuplicatePairSet.lowerId(stored.getKey()));
+            Integer higherPosition = reusedPositionsById.get(DuplicatePairSet.higherId(stored.getKey()));
+            if (lowerPosition == null || higherPosition == null) {
+                continue;
+            }
+            CorpusQuestion lower = prepared[lowerPosition];
+            int cause = stored.getValue().causeAt(pairScoring.threshold(), contentFieldOf(lower));
+            creditSymmetricPair(lower, prepared[higherPosition], lowerPosition, higherPosition, cause, matchFlags, matchCounts, detectedPairs);
+        }
+        return reused;
+    }
+
+    /**
+     * Partners that skip the pairs of two reused questions: a reused question is only paired with the changed ones.
+     *
+     * @param candidates candidate positions of each position, {@code null} for all pairs
+     */
+    private static IntFunction<int[]> changedPairPartners(int size, BitSet reused, IntFunction<int[]> candidates) {
+        int[] changed = IntStream.range(0, size).filter(position -> !reused.get(position)).toArray();
+        int[] all = IntStream.range(0, size).toArray();
+        return position -> {
+            if (candidates == null) {
+                return reused.get(position) ? changed : all;
+            }
+            int[] partners = candidates.apply(position);
+            if (partners == null || !reused.get(position)) {
+                return partners;
+            }
+            return Arrays.stream(partners).filter(partner -> !reused.get(partner)).toArray();
+        };
+    }
+
+    private QuestionDuplicateCheckResult toSymmetricCheckResult(Question question, CorpusQuestion prepared, int flags, int matchCount) {
+        if (question == null || MyUtil.SKIPPED_DUE_TO_ERROR.equals(question.getTitle())) {
+            return null;
+        }
+        DuplicateAnalysis analysis = new DuplicateAnalysis(
+                (flags & PAIR_MATCH_TITLE) != 0,
+                (flags & PAIR_MATCH_CONTENT) != 0,
+                prepared.missingAnswer(),
+                matchCount
+        );
+        return new QuestionDuplicateCheckResult(
+                question,
+                analysis,
+                Set.of(),
+                null
+        );
+    }
+
+    private IntFunction<int[]> candidatePositions(CorpusQuestion[] prepared, DuplicateCandidateIndex candidateIndex) {
+        Map<Long, Integer> positionsById = indexPositionsById(prepared);
+        return position -> {
+            CorpusQuestion source = prepared[position];
+            if (!source.comparable()) {
+                return null;
+            }
+            return candidateIndex.candidatesFor(source).stream()
+                                 .map(CorpusQuestion::id)
+                                 .filter(Objects::nonNull)
+                                 .map(positionsById::get)
+                                 .filter(Objects::nonNull)
+                                 .mapToInt(Integer::intValue)
+                                 .toArray();
+        };
+    }
+
+    private static Map<Long, Integer> indexPositionsById(CorpusQuestion[] prepared) {
+        Map<Long, Integer> positionsById = HashMap.newHashMap(prepared.length);
+        for (int position = 0; position < prepared.length; position++) {
+            if (prepared[position].comparable()) {
+                positionsById.put(prepared[position].id(), position);
+            }
+        }
+        return positionsById;
+    }
+
+    private List<DuplicatePairSet> partitionPairsByBatch(DuplicatePairSet detectedPairs, CorpusQuestion[] prepared, int totalBatches) {
+        Map<Long, Integer> positionsById = indexPositionsById(prepared);
+        List<DuplicatePairSet> pairsByBatch = new ArrayList<>(totalBatches);
+        for (int i = 0; i < totalBatches; i++) {
+            pairsByBatch.add(new DuplicatePairSet());
+        }
+        detectedPairs.forEach((pairKey, cause) -> {
+            int owner = Math.min(
+                    positionsById.getOrDefault(DuplicatePairSet.lowerId(pairKey), 0),
+                    positionsById.getOrDefault(DuplicatePairSet.higherId(pairKey), 0)
+            );
+            pairsByBatch.get(owner / DUPLICATE_CHECK_BATCH_SIZE).mergeCause(pairKey, cause);
+        });
+        return pairsByBatch;
+    }
+
     private DuplicateExecutionPlan buildDuplicateExecutionPlan(int total) {
         int progressStep = Math.max(
                 1,
@@ -444,10 +791,68 @@ public class QuestionDuplicationService {
         );
     }
 
+    /**
+     * Binds the strategy to the corpus of one detection run. The embedding strategy embeds every compared field up
+     * front, so the pair checks of the run only read an immutable map; the other strategies are returned as they are.
+     */
+    private static AbstractQuestionSimilarityStrategy forCorpus(AbstractQuestionSimilarityStrategy similarityStrategy, List<CorpusQuestion> corpus) {
+        return similarityStrategy instanceof EmbeddingQuestionSimilarityStrategy embeddingStrategy ? embeddingStrategy.forCorpus(corpus) : similarityStrategy;
+    }
+
+    /**
+     * Builds the candidate generator for one detection run, as selected by {@code myquiz.duplicates.candidate-source}.
+     * The exact source keeps the exhaustive all-pairs scan; the LSH source only hands questions sharing a
+     * MinHash band bucket to the similarity strategy and the pg-trgm source only the pairs the database finds
+     * trigram-similar. The token-jaccard strategy always runs as a set similarity self-join per question type, so its
+     * candidates are exactly the pairs above its threshold, and the embedding strategy always takes its candidates
+     * from the nearest neighbours in its HNSW graphs, as an exhaustive scan would need an embedding lookup per pair.
+     * Every source but the exact one adds the pairs where a value contains the other's, which detection reports
+     * whatever their similarity.
+     */
+    private DuplicateCandidateIndex buildCandidateIndex(List<CorpusQuestion> courseCorpus, AbstractQuestionSimilarityStrategy similarityStrategy) {
+        if (similarityStrategy instanceof TokenJaccardQuestionSimilarityStrategy) {
+            long startedMs = System.currentTimeMillis();
+            TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(
+                    courseCorpus,
+                    similarityStrategy.getThreshold()
+            );
+            logger.atInfo().addArgument(join.size()).addArgument(join.pairCount()).addArgument(System.currentTimeMillis() - startedMs)
+                  .log("Token set similarity join over {} questions emitted {} pairs in {} ms");
+            return join;
+        }
+        if (similarityStrategy instanceof EmbeddingQuestionSimilarityStrategy embeddingStrategy) {
+            return embeddingStrategy.buildCandidateIndex(courseCorpus);
+        }
+
+        String candidateSource = duplicateDetectionProperties.getCandidateSource();
+        if (duplicateDetectionProperties.isPgTrgmCandidateSource()) {
+            return pgTrgmCandidateSource.buildIndex(courseCorpus, duplicateDetectionProperties.getPgTrgm().getSimilarityThreshold());
+        }
+        if (!DuplicateDetectionProperties.CANDIDATE_SOURCE_LSH.equalsIgnoreCase(candidateSource)) {
+            if (candidateSource != null && !DuplicateDetectionProperties.CANDIDATE_SOURCE_EXACT.equalsIgnoreCase(candidateSource)) {
+                logger.atWarn().addArgument(candidateSource).addArgument(DuplicateDetectionProperties.CANDIDATE_SOURCE_EXACT)
+                      .log("Unknown duplicate candidate source '{}', falling back to {}");
+            }
+            return DuplicateCandidateIndex.exhaustive(courseCorpus);
+        }
+
+        DuplicateDetectionProperties.LshProperties lsh = duplicateDetectionProperties.getLsh();
+        long startedMs = System.currentTimeMillis();
+        MinHashLshCandidateIndex index = new MinHashLshCandidateIndex(
+                courseCorpus,
+                lsh.getBands(),
+                lsh.getRows(),
+                lsh.getShingleSize()
+        );
+        logger.atInfo().addArgument(index.size()).addArgument(lsh.getBands()).addArgument(lsh.getRows()).addArgument(System.currentTimeMillis() - startedMs)
+              .log("Built LSH candidate index over {} questions (bands={}, rows={}) in {} ms");
+        return index;
+    }
+
     private List<DuplicateCheckTask> buildDuplicateCheckTasks(
             List<Question> batch,
             Map<Long, Set<String>> existingErrorPrefixesByQuestionId,
-            List<Question> allCourseQuestions,
+            DuplicateCandidateIndex candidateIndex,
             AbstractQuestionSimilarityStrategy similarityStrategy
     ) {
         return batch.stream().map(question -> {
@@ -457,7 +862,7 @@ public class QuestionDuplicationService {
             );
             CompletableFuture<QuestionDuplicateCheckResult> future = submitQuestionDuplicateCheck(
                     question,
-                    allCourseQuestions,
+                    candidateIndex,
                     similarityStrategy,
                     existingErrorPrefixes
             );
@@ -471,25 +876,26 @@ public class QuestionDuplicationService {
 
     private int processBatchTasks(
             List<DuplicateCheckTask> tasks,
-            List<Question> allCourseQuestions,
+            DuplicateCandidateIndex candidateIndex,
             AbstractQuestionSimilarityStrategy similarityStrategy,
             int processed,
             DuplicateExecutionPlan executionPlan,
             List<QuestionError> questionErrors,
-            Map<String, String> batchDetectedPairCauses
+            DuplicatePairSet batchDetectedPairs,
+            DuplicateRecomputeMonitor monitor
     ) {
         for (DuplicateCheckTask task : tasks) {
             processed++;
             QuestionDuplicateCheckResult result = resolveTaskResult(
                     task,
-                    allCourseQuestions,
+                    candidateIndex,
                     similarityStrategy,
                     processed,
                     executionPlan.total()
             );
 
             if (result != null && result.question() != null && result.analysis() != null) {
-                batchDetectedPairCauses.putAll(result.detectedPairCauses());
+                batchDetectedPairs.addAll(result.detectedPairs());
                 addDuplicateErrors(
                         questionErrors,
                         result
@@ -499,6 +905,7 @@ public class QuestionDuplicationService {
             if (processed % executionPlan.progressStep() == 0 || processed == executionPlan.total()) {
                 logger.atInfo().addArgument(processed).addArgument(executionPlan.total()).addArgument(questionErrors.size())
                       .log("Duplicate checks progress: {}/{} questions processed, {} errors collected");
+                monitor.onProgress(processed);
             }
         }
         return processed;
@@ -531,7 +938,7 @@ public class QuestionDuplicationService {
 
     private QuestionDuplicateCheckResult resolveTaskResult(
             DuplicateCheckTask task,
-            List<Question> allCourseQuestions,
+            DuplicateCandidateIndex candidateIndex,
             AbstractQuestionSimilarityStrategy similarityStrategy,
             int processed,
             int total
@@ -544,7 +951,7 @@ public class QuestionDuplicationService {
                   .log("Async duplicate-check task failed for question id={} at progress {}/{} - retrying on caller thread");
             return analyzeSingleQuestion(
                     task.question(),
-                    allCourseQuestions,
+                    candidateIndex,
                     similarityStrategy,
                     task.existingErrorPrefixes()
             );
@@ -553,7 +960,7 @@ public class QuestionDuplicationService {
 
     private CompletableFuture<QuestionDuplicateCheckResult> submitQuestionDuplicateCheck(
             Question question,
-            List<Question> allCourseQuestions,
+            DuplicateCandidateIndex candidateIndex,
             AbstractQuestionSimilarityStrategy similarityStrategy,
             Set<String> existingErrorPrefixes
     ) {
@@ -561,7 +968,7 @@ public class QuestionDuplicationService {
             return CompletableFuture.supplyAsync(
                     () -> analyzeSingleQuestion(
                             question,
-                            allCourseQuestions,
+                            candidateIndex,
                             similarityStrategy,
                             existingErrorPrefixes
                     ),
@@ -573,7 +980,7 @@ public class QuestionDuplicationService {
                   .log("Duplicate-check task executor saturated for question id={} - running analysis on caller thread");
             return CompletableFuture.completedFuture(analyzeSingleQuestion(
                     question,
-                    allCourseQuestions,
+                    candidateIndex,
                     similarityStrategy,
                     existingErrorPrefixes
             ));
@@ -581,7 +988,7 @@ public class QuestionDuplicationService {
     }
 
     private QuestionDuplicateCheckResult analyzeSingleQuestion(
-            Question question, List<Question> allCourseQuestions, AbstractQuestionSimilarityStrategy similarityStrategy,
+            Question question, DuplicateCandidateIndex candidateIndex, AbstractQuestionSimilarityStrategy similarityStrategy,
             Set<String> existingErrorPrefixes
     ) {
         if (question == null || MyUtil.SKIPPED_DUE_TO_ERROR.equals(question.getTitle())) {
@@ -590,15 +997,13 @@ public class QuestionDuplicationService {
 
         try {
             logger.atDebug().addArgument(Thread.currentThread().getName()).addArgument(question.getId()).log("Thread '{}' started duplicate analysis for question id={}");
-            // Keep cache task-local to avoid shared mutable state across worker threads.
-            LazyNormalizedQuestionCache candidateCache = new LazyNormalizedQuestionCache();
-            Map<String, String> questionDetectedPairCauses = new LinkedHashMap<>();
-            DuplicateAnalysis analysis = analyzeQuestionWithCache(
-                    question,
-                    allCourseQuestions,
-                    candidateCache,
+            CorpusQuestion source = CorpusQuestion.of(question);
+            DuplicatePairSet questionDetectedPairs = new DuplicatePairSet();
+            DuplicateAnalysis analysis = analyzeQuestion(
+                    source,
+                    candidateIndex.candidatesFor(source),
                     similarityStrategy,
-                    questionDetectedPairCauses
+                    questionDetectedPairs
             );
             logger.atDebug().addArgument(Thread.currentThread().getName()).addArgument(question.getId()).addArgument(analysis.duplicateMatchCount())
                   .log("Thread '{}' finished duplicate analysis for question id={} with {} matches");
@@ -606,7 +1011,7 @@ public class QuestionDuplicationService {
                     question,
                     analysis,
                     existingErrorPrefixes,
-                    questionDetectedPairCauses
+                    questionDetectedPairs
             );
         }
         catch (Exception e) {
@@ -815,101 +1220,536 @@ public class QuestionDuplicationService {
                 .log("Duplicate link {} status transitioned from {} to {}");
     }
 
-    // Direct QuestionError creation makes separate linking unnecessary.
-    public void saveQuestionErrors(List<QuestionError> questionErrors) {
-        if (questionErrors == null || questionErrors.isEmpty()) {
-            return;
-        }
-        questionErrorRepository.saveAll(questionErrors);
-    }
-
-    @Transactional
-    public DuplicateRecomputeSummary recomputeDuplicatesForCourse(String courseName) {
-        return recomputeDuplicatesForCourseInternal(
-                courseName,
-                defaultSimilarityStrategy.getAlgorithmName()
-        );
+    public boolean isIncrementalMaintenanceEnabled() {
+        return duplicateDetectionProperties.isIncremental();
     }
 
     /**
-     * Recompute duplicates for a specific list of questions (question bank or author scope).
-     * Duplicates are detected by comparing within the provided list plus all course questions as context.
+     * Re-evaluates a single created or edited question against its course instead of recomputing the whole course.
+     * Only the delta is written: links to questions that no longer match are deleted, new matches are inserted,
+     * and the duplicate errors of the question and of every partner gained, lost or matched differently are aligned
+     * with their matches. Links that still match keep their row, including a resolved status.
      *
-     * @param courseName           the course these questions belong to
-     * @param questionsToProcess   the questions to recompute duplicates for
-     * @param similarityAlgorithm  the similarity algorithm name to use
-     * @return DuplicateRecomputeSummary with results
+     * @param questionId the question that was created or updated
+     * @return the number of links and duplicate errors added and removed
      */
     @Transactional
-    public DuplicateRecomputeSummary recomputeDuplicatesForQuestionList(
-            String courseName,
-            List<Question> questionsToProcess,
-            String similarityAlgorithm) {
-        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
-        List<Question> safeQuestionsToProcess = questionsToProcess == null ? List.of() : questionsToProcess;
-        return recomputeDuplicatesForQuestions(
-                courseName,
-                selectedStrategy,
-                safeQuestionsToProcess,
-                safeQuestionsToProcess.size()
-        );
-    }
-
-    @Transactional
-    public DuplicateRecomputeSummary recomputeDuplicatesForCourse(String courseName, String similarityAlgorithm) {
-        return recomputeDuplicatesForCourseInternal(
-                courseName,
-                similarityAlgorithm
+    public DuplicateDelta refreshDuplicatesForQuestion(Long questionId) {
+        if (questionId == null || !isIncrementalMaintenanceEnabled()) {
+            return DuplicateDelta.NONE;
+        }
+        Question question = questionRepository.findById(questionId).orElse(null);
+        if (question == null) {
+            logger.atWarn().addArgument(questionId).log("Incremental duplicate refresh skipped, question {} not found");
+            return DuplicateDelta.NONE;
+        }
+
+        long startedMs = System.currentTimeMillis();
+        Map<String, List<CorpusQuestion>> corpusByCourse = new HashMap<>();
+        DuplicatePairSet detectedPairs = new DuplicatePairSet();
+        DuplicateAnalysis analysis = analyzeQuestion(
+                CorpusQuestion.of(question),
+                loadCourseCorpus(question, corpusByCourse),
+                defaultSimilarityStrategy,
+                detectedPairs
         );
-    }
+        Set<Long> matchedIds = collectPartnerIds(questionId, detectedPairs);
+
+        Map<Long, QuestionDuplicate> existingLinksByPartner = new HashMap<>();
+        for (QuestionDuplicate link : questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(questionId, questionId)) {
+            existingLinksByPartner.put(partnerIdOf(link, questionId), link);
+        }
+
+        List<QuestionDuplicate> staleLinks = new ArrayList<>();
+        Set<Long> affectedPartnerIds = new LinkedHashSet<>();
+        for (Map.Entry<Long, QuestionDuplicate> entry : existingLinksByPartner.entrySet()) {
+            if (!matchedIds.contains(entry.getKey())) {
+                staleLinks.add(entry.getValue());
+                affectedPartnerIds.add(entry.getKey());
+            } else {
+                int cause = detectedPairs.causeOf(DuplicatePairSet.pack(questionId, entry.getKey()));
+                // A partner matched on other fields than before may gain or lose its title or answer error
+                if (!Objects.equals(entry.getValue().getCauseCode(), cause)) {
+                    entry.getValue().setCauseCode(cause);
+                    affectedPartnerIds.add(entry.getKey());
+                }
+            }
+        }
+        if (!staleLinks.isEmpty()) {
+            questionDuplicateRepository.deleteAll(staleLinks);
+            questionDuplicateRepository.flush();
+        }
 
-    private DuplicateRecomputeSummary recomputeDuplicatesForCourseInternal(String courseName, String similarityAlgorithm) {
-        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+        Map<Long, Question> partnersById = new HashMap<>();
+        List<QuestionDuplicate> newLinks = new ArrayList<>();
+        for (Long partnerId : matchedIds) {
+            Question partner = existingLinksByPartner.containsKey(partnerId) ? null : questionRepository.findById(partnerId).orElse(null);
+            if (partner == null) {
+                continue;
+            }
+            partnersById.put(partnerId, partner);
+            QuestionDuplicate link = new QuestionDuplicate();
+            link.setQuestion(questionId < partnerId ? question : partner);
+            link.setDuplicateQuestion(questionId < partnerId ? partner : question);
+            link.setCauseCode(detectedPairs.causeOf(DuplicatePairSet.pack(questionId, partnerId)));
+            newLinks.add(link);
+            affectedPartnerIds.add(partnerId);
+        }
+        questionDuplicateRepository.saveAll(newLinks);
+        if (!affectedPartnerIds.isEmpty()) {
+            // Partners are resynced from their stored links, which must include the ones written above
+            questionDuplicateRepository.flush();
+        }
 
-        if (courseName == null || courseName.isBlank()) {
-            throw new IllegalArgumentException("Course cannot be null or empty");
+        int[] errorDelta = syncDuplicateErrors(question, analysis);
+        for (Long partnerId : affectedPartnerIds) {
+            int[] partnerDelta = resyncPartnerErrors(partnerId, null, partnersById, corpusByCourse);
+            errorDelta[0] += partnerDelta[0];
+            errorDelta[1] += partnerDelta[1];
         }
 
-        List<Question> allCourseQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
-                courseName,
-                null,
-                null,
-                null
-        ));
-        return recomputeDuplicatesForQuestions(
-                courseName,
-                selectedStrategy,
-                allCourseQuestions,
-                allCourseQuestions.size()
-        );
+        DuplicateDelta delta = new DuplicateDelta(newLinks.size(), staleLinks.size(), errorDelta[0], errorDelta[1]);
+        logger.atInfo().addArgument(questionId).addArgument(delta).addArgument(System.currentTimeMillis() - startedMs)
+              .log("Incremental duplicate refresh for question {} applied {} in {} ms");
+        return delta;
     }
 
+    /**
+     * Removes a question that is about to be deleted from the duplicate state of its course. Its links are deleted
+     * and the duplicate errors of its former partners are re-evaluated without it, so partners keep their errors
+     * only while they still match another question.
+     *
+     * @param questionId the question being deleted
+     * @return the number of links removed and partner duplicate errors added and removed
+     */
     @Transactional
-    public DuplicateRecomputeSummary recomputeDuplicatesForCourseSubset(String courseName, String similarityAlgorithm, int maxQuestions) {
-        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+    public DuplicateDelta detachQuestionFromDuplicates(Long questionId) {
+        if (!isIncrementalMaintenanceEnabled()) {
+            removeAllDuplicateAssociationsForQuestion(questionId);
+            return DuplicateDelta.NONE;
+        }
+        if (questionId == null) {
+            return DuplicateDelta.NONE;
+        }
 
-        if (courseName == null || courseName.isBlank()) {
-            throw new IllegalArgumentException("Course cannot be null or empty");
+        List<QuestionDuplicate> links = questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(questionId, questionId);
+        Set<Long> partnerIds = new LinkedHashSet<>();
+        for (QuestionDuplicate link : links) {
+            partnerIds.add(partnerIdOf(link, questionId));
         }
-        if (maxQuestions <= 0) {
-            throw new IllegalArgumentException("maxQuestions must be greater than 0");
+        if (!links.isEmpty()) {
+            questionDuplicateRepository.deleteAll(links);
+            questionDuplicateRepository.flush();
         }
 
-        List<Question> allCourseQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
-                courseName,
-                null,
-                null,
-                null
-        ));
-        List<Question> selectedQuestions = allCourseQuestions.stream().filter(q -> q.getId() != null).sorted(Comparator.comparing(Question::getId)).limit(maxQuestions).toList();
+        Map<String, List<CorpusQuestion>> corpusByCourse = new HashMap<>();
+        int[] errorDelta = new int[2];
+        for (Long partnerId : partnerIds) {
+            int[] partnerDelta = resyncPartnerErrors(partnerId, questionId, Map.of(), corpusByCourse);
+            errorDelta[0] += partnerDelta[0];
+            errorDelta[1] += partnerDelta[1];
+        }
 
-        logger.atInfo().addArgument(selectedQuestions.size()).addArgument(maxQuestions).addArgument(courseName).log("Selected {} questions (max {}) for subset duplicate recompute on course '{}'");
+        DuplicateDelta delta = new DuplicateDelta(0, links.size(), errorDelta[0], errorDelta[1]);
+        logger.atInfo().addArgument(questionId).addArgument(delta).log("Detached question {} from duplicate state: {}");
+        return delta;
+    }
+
+    /**
+     * Aligns the duplicate errors of a partner with its stored links, which hold the causes of all its matches once
+     * the links of the refreshed or deleted question are written. Only a partner with links stored before causes were
+     * recorded is analysed against its course again.
+     */
+    private int[] resyncPartnerErrors(
+            Long partnerId, Long excludedQuestionId, Map<Long, Question> knownQuestionsById, Map<String, List<CorpusQuestion>> corpusByCourse
+    ) {
+        Question partner = knownQuestionsById.get(partnerId);
+        if (partner == null) {
+            partner = questionRepository.findById(partnerId).orElse(null);
+        }
+        if (partner == null) {
+            return new int[2];
+        }
+        DuplicateAnalysis linkAnalysis = analysisFromLinks(
+                CorpusQuestion.of(partner),
+                questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(partnerId, partnerId)
+        );
+        if (linkAnalysis != null) {
+            return syncDuplicateErrors(partner, linkAnalysis);
+        }
+        List<CorpusQuestion> corpus = loadCourseCorpus(partner, corpusByCourse);
+        if (excludedQuestionId != null) {
+            corpus = corpus.stream().filter(candidate -> !excludedQuestionId.equals(candidate.id())).toList();
+        }
+        DuplicateAnalysis partnerAnalysis = analyzeQuestion(
+                CorpusQuestion.of(partner),
+                corpus,
+                defaultSimilarityStrategy,
+                new DuplicatePairSet()
+        );
+        return syncDuplicateErrors(partner, partnerAnalysis);
+    }
+
+    /**
+     * Derives the duplicate flags of a question from the causes of its links, as {@link #analyzeQuestion} would find
+     * them: cause fields are the same from both sides of a pair. Returns {@code null} if a link has no recorded cause.
+     */
+    private static DuplicateAnalysis analysisFromLinks(CorpusQuestion question, List<QuestionDuplicate> links) {
+        if (question.type() == null || question.missingAnswer()) {
+            return new DuplicateAnalysis(false, false, question.missingAnswer(), 0);
+        }
+        boolean hasTitleDuplicate = false;
+        boolean hasAnswerDuplicate = false;
+        for (QuestionDuplicate link : links) {
+            Integer cause = link.getCauseCode();
+            if (cause == null || cause == 0) {
+                return null;
+            }
+            hasTitleDuplicate |= DuplicateCauseCodes.kindOf(cause, DuplicateCauseCodes.FIELD_TITLE) != DuplicateCauseCodes.KIND_NONE;
+            hasAnswerDuplicate |= DuplicateCauseCodes.kindOf(cause, DuplicateCauseCodes.FIELD_TEXT) != DuplicateCauseCodes.KIND_NONE
+                    || DuplicateCauseCodes.kindOf(cause, DuplicateCauseCodes.FIELD_ANSWER) != DuplicateCauseCodes.KIND_NONE;
+        }
+        return new DuplicateAnalysis(hasTitleDuplicate, hasAnswerDuplicate, false, links.size());
+    }
+
+    /**
+     * Aligns the stored title/answer duplicate errors of a question with a fresh analysis, touching only rows
+     * whose presence or description changed.
+     *
+     * @return {@code [added, removed]}
+     */
+    private int[] syncDuplicateErrors(Question question, DuplicateAnalysis analysis) {
+        int[] delta = new int[2];
+        syncDuplicateError(question, MyUtil.REFORMULATE_QUESTION_TITLE_ALREADY_EXISTS, analysis.hasTitleDuplicate(), delta);
+        syncDuplicateError(question, MyUtil.REFORMULATE_QUESTION_ANSWER_ALREADY_EXISTS, analysis.hasAnswerDuplicate(), delta);
+        return delta;
+    }
+
+    private void syncDuplicateError(Question question, String prefix, boolean expected, int[] delta) {
+        List<QuestionError> existing = questionErrorRepository.findByQuestionIdInAndDescriptionStartingWith(
+                List.of(question.getId()),
+                prefix
+        );
+        if (!expected) {
+            if (!existing.isEmpty()) {
+                // Keep the managed collection in sync so the cascade does not re-save removed rows.
+                question.getQuestionErrors().removeAll(existing);
+                questionErrorRepository.deleteAll(existing);
+                delta[1] += existing.size();
+            }
+            return;
+        }
+        if (existing.isEmpty()) {
+            QuestionError error = createQuestionError(question, prefix);
+            question.getQuestionErrors().add(error);
+            questionErrorRepository.save(error);
+            delta[0]++;
+            return;
+        }
+
+        QuestionError kept = existing.getFirst();
+        String expectedDescription = getDescriptionWithTitle(question, prefix);
+        if (!expectedDescription.equals(kept.getDescription())) {
+            kept.setDescription(expectedDescription);
+            questionErrorRepository.save(kept);
+        }
+        if (existing.size() > 1) {
+            List<QuestionError> extra = existing.subList(1, existing.size());
+            question.getQuestionErrors().removeAll(extra);
+            questionErrorRepository.deleteAll(extra);
+            delta[1] += extra.size();
+        }
+    }
+
+    /**
+     * Returns the corpus of the question's course, read from the cache once per refresh. Reading it flushes pending
+     * question changes first, so the corpus already reflects the question being refreshed.
+     */
+    private List<CorpusQuestion> loadCourseCorpus(Question question, Map<String, List<CorpusQuestion>> corpusByCourse) {
+        String courseName = DuplicateCorpusCache.courseNameOf(question);
+        if (courseName == null) {
+            return List.of();
+        }
+        return corpusByCourse.computeIfAbsent(
+                courseName.toLowerCase(Locale.ROOT),
+                key -> duplicateCorpusCache.corpusFor(courseName)
+        );
+    }
+
+    private static List<CorpusQuestion> toCorpus(List<Question> questions) {
+        if (questions == null) {
+            return List.of();
+        }
+        return questions.stream().map(CorpusQuestion::of).toList();
+    }
+
+    private Set<Long> collectPartnerIds(Long questionId, DuplicatePairSet detectedPairs) {
+        Set<Long> partnerIds = new LinkedHashSet<>();
+        for (long pairKey : detectedPairs.sortedKeys()) {
+            long partnerId = DuplicatePairSet.partnerOf(pairKey, questionId);
+            if (partnerId > 0) {
+                partnerIds.add(partnerId);
+            }
+        }
+        return partnerIds;
+    }
+
+    private static Long partnerIdOf(QuestionDuplicate link, Long questionId) {
+        Long leftId = link.getQuestion().getId();
+        return questionId.equals(leftId) ? link.getDuplicateQuestion().getId() : leftId;
+    }
+
+    // Direct QuestionError creation makes separate linking unnecessary.
+    public void saveQuestionErrors(List<QuestionError> questionErrors) {
+        if (questionErrors == null || questionErrors.isEmpty()) {
+            return;
+        }
+        // Pending entity changes (new questions, removed errors) must reach the database before the JDBC insert.
+        questionErrorRepository.flush();
+        duplicateOutputWriter.insertErrors(questionErrors);
+    }
+
+    @Transactional
+    public DuplicateRecomputeSummary recomputeDuplicatesForCourse(String courseName) {
+        return recomputeDuplicatesForCourseInternal(
+                courseName,
+                defaultSimilarityStrategy.getAlgorithmName()
+        );
+    }
+
+    /**
+     * Recompute duplicates for a specific list of questions (question bank or author scope).
+     * Duplicates are detected by comparing within the provided list plus all course questions as context.
+     *
+     * @param courseName           the course these questions belong to
+     * @param questionsToProcess   the questions to recompute duplicates for
+     * @param similarityAlgorithm  the similarity algorithm name to use
+     * @return DuplicateRecomputeSummary with results
+     */
+    @Transactional
+    public DuplicateRecomputeSummary recomputeDuplicatesForQuestionList(
+            String courseName,
+            List<Question> questionsToProcess,
+            String similarityAlgorithm) {
+        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+        List<Question> safeQuestionsToProcess = questionsToProcess == null ? List.of() : questionsToProcess;
+        return recomputeDuplicatesForQuestions(
+                courseName,
+                selectedStrategy,
+                safeQuestionsToProcess,
+                safeQuestionsToProcess.size(),
+                BatchExecution.INLINE,
+                null
+        );
+    }
+
+    @Transactional
+    public DuplicateRecomputeSummary recomputeDuplicatesForCourse(String courseName, String similarityAlgorithm) {
+        return recomputeDuplicatesForCourseInternal(
+                courseName,
+                similarityAlgorithm
+        );
+    }
+
+    private DuplicateRecomputeSummary recomputeDuplicatesForCourseInternal(String courseName, String similarityAlgorithm) {
+        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+
+        if (courseName == null || courseName.isBlank()) {
+            throw new IllegalArgumentException("Course cannot be null or empty");
+        }
+
+        List<Question> allCourseQuestions = questionRepository.findAll(QuestionSpecification.byFilters(
+                courseName,
+                null,
+                null,
+                null
+        ));
+        return recomputeDuplicatesForQuestions(
+                courseName,
+                selectedStrategy,
+                allCourseQuestions,
+                allCourseQuestions.size(),
+                BatchExecution.INLINE,
+                openPairScoring(courseName, selectedStrategy, null, TransactionOperations.withoutTransaction())
+        );
+    }
+
+    @Transactional
+    public DuplicateRecomputeSummary recomputeDuplicatesForCourseSubset(String courseName, String similarityAlgorithm, int maxQuestions) {
+        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+
+        if (courseName == null || courseName.isBlank()) {
+            throw new IllegalArgumentException("Course cannot be null or empty");
+        }
+        if (maxQuestions <= 0) {
+            throw new IllegalArgumentException("maxQuestions must be greater than 0");
+        }
+
+        List<CorpusQuestion> courseCorpus = duplicateCorpusCache.corpusFor(courseName);
+        List<Long> selectedIds = courseCorpus.stream().map(CorpusQuestion::id).limit(maxQuestions).toList();
+        List<Question> selectedQuestions = new ArrayList<>(selectedIds.size());
+        questionRepository.findAllById(selectedIds).forEach(selectedQuestions::add);
+        selectedQuestions.sort(Comparator.comparing(Question::getId));
+
+        logger.atInfo().addArgument(selectedQuestions.size()).addArgument(maxQuestions).addArgument(courseName).log("Selected {} questions (max {}) for subset duplicate recompute on course '{}'");
 
         return recomputeDuplicatesForQuestions(
                 courseName,
                 selectedStrategy,
                 selectedQuestions,
-                allCourseQuestions.size()
+                courseCorpus.size(),
+                BatchExecution.INLINE,
+                null
+        );
+    }
+
+    /**
+     * Recomputes duplicates for a course, question bank or author scope as a long-running job.
+     * <p>
+     * Unlike the {@code @Transactional} recompute methods this one must be called outside a transaction: the cleanup
+     * and every duplicate-check batch commit in their own short transaction, so locks are held only for one batch and
+     * the progress reported to the monitor is already visible to other readers. When the monitor requests
+     * cancellation the recompute stops before the next batch with a {@link CancellationException}.
+     *
+     * @param courseName          the course the scope belongs to
+     * @param questionBankId      optional question bank scope
+     * @param authorId            optional author scope, used together with the question bank
+     * @param similarityAlgorithm the similarity algorithm name to use
+     * @param monitor             receives progress and is asked for cancellation between batches
+     * @return DuplicateRecomputeSummary with results
+     */
+    public DuplicateRecomputeSummary recomputeDuplicatesInBatches(
+            String courseName,
+            Long questionBankId,
+            Long authorId,
+            String similarityAlgorithm,
+            DuplicateRecomputeMonitor monitor
+    ) {
+        return recomputeDuplicatesInBatches(
+                courseName,
+                questionBankId,
+                authorId,
+                similarityAlgorithm,
+                monitor,
+                null
+        );
+    }
+
+    /**
+     * Same as {@link #recomputeDuplicatesInBatches(String, Long, Long, String, DuplicateRecomputeMonitor)}, deciding
+     * the pairs of a whole-course recompute against {@code threshold} instead of the strategy's own threshold. Pairs
+     * are answered from the stored scores where the questions did not change, so re-thresholding a course does not
+     * compare its texts again.
+     *
+     * @param threshold optional threshold between the score floor and {@code 1}; requires a whole-course scope and a
+     *                  strategy that {@link #supportsThresholdOverride(String) supports it}
+     * @throws IllegalArgumentException if the threshold cannot be applied to the scope or strategy
+     */
+    public DuplicateRecomputeSummary recomputeDuplicatesInBatches(
+            String courseName,
+            Long questionBankId,
+            Long authorId,
+            String similarityAlgorithm,
+            DuplicateRecomputeMonitor monitor,
+            Double threshold
+    ) {
+        AbstractQuestionSimilarityStrategy selectedStrategy = resolveStrategy(similarityAlgorithm);
+        if (questionBankId == null && (courseName == null || courseName.isBlank())) {
+            throw new IllegalArgumentException("Course cannot be null or empty");
+        }
+        boolean wholeCourse = questionBankId == null && authorId == null;
+        if (threshold != null && !wholeCourse) {
+            throw new IllegalArgumentException("A threshold can only be applied when recomputing a whole course");
+        }
+        PairScoring pairScoring = wholeCourse ? openPairScoring(courseName, selectedStrategy, threshold, batchTransactions) : null;
+
+        List<Question> scopedQuestions = batchTransactions.execute(status -> questionRepository.findAll(QuestionSpecification.byFilters(
+                questionBankId == null || authorId != null ? courseName : null,
+                authorId,
+                questionBankId,
+                null
+        )));
+        List<Question> safeScopedQuestions = scopedQuestions == null ? List.of() : scopedQuestions;
+        return recomputeDuplicatesForQuestions(
+                courseName,
+                selectedStrategy,
+                safeScopedQuestions,
+                safeScopedQuestions.size(),
+                new BatchExecution(batchTransactions, true, monitor == null ? DuplicateRecomputeMonitor.NONE : monitor),
+                pairScoring
+        );
+    }
+
+    public String getDefaultSimilarityAlgorithm() {
+        return defaultSimilarityStrategy.getAlgorithmName();
+    }
+
+    /**
+     * Returns the strategy registered for the algorithm, falling back like a recompute does for unknown names.
+     */
+    AbstractQuestionSimilarityStrategy similarityStrategyFor(String similarityAlgorithm) {
+        return resolveStrategy(similarityAlgorithm);
+    }
+
+    /**
+     * Whether whole-course recomputes with the algorithm keep pair scores, which a threshold override needs. The
+     * token-jaccard join only emits pairs above its own threshold and the batched engine does not score pairs, so
+     * neither can be re-thresholded.
+     */
+    public boolean supportsThresholdOverride(String similarityAlgorithm) {
+        return usesPairScores(resolveStrategy(similarityAlgorithm));
+    }
+
+    /**
+     * Lowest threshold a recompute can be re-thresholded to, see {@code myquiz.duplicates.score-floor}.
+     */
+    public double getScoreFloor() {
+        return duplicateDetectionProperties.getScoreFloor();
+    }
+
+    /**
+     * Workers of the fork/join pool comparing question pairs, see {@code myquiz.tasks.duplicate-pairs.parallelism}.
+     */
+    public int getPairParallelism() {
+        return duplicatePairForkJoinPool.getParallelism();
+    }
+
+    private boolean usesPairScores(AbstractQuestionSimilarityStrategy similarityStrategy) {
+        return pairScoreStore != null
+                && duplicateDetectionProperties.isScoreCache()
+                && duplicateDetectionProperties.isForkJoinPairEngine()
+                && !(similarityStrategy instanceof TokenJaccardQuestionSimilarityStrategy)
+                && !(similarityStrategy instanceof EmbeddingQuestionSimilarityStrategy);
+    }
+
+    /**
+     * Loads the stored pair scores of a whole-course recompute.
+     *
+     * @param threshold threshold override, {@code null} for the strategy's threshold
+     * @return the scoring state, or {@code null} when the run compares every pair without keeping scores
+     */
+    private PairScoring openPairScoring(
+            String courseName, AbstractQuestionSimilarityStrategy similarityStrategy, Double threshold, TransactionOperations transactions
+    ) {
+        double floor = duplicateDetectionProperties.getScoreFloor();
+        if (threshold != null && (!usesPairScores(similarityStrategy) || threshold < floor || threshold > 1.0d)) {
+            throw new IllegalArgumentException("Threshold " + threshold + " cannot be applied with '" + similarityStrategy.getAlgorithmName()
+                                                       + "'; it must be between the score floor " + floor + " and 1 on a strategy keeping pair scores");
+        }
+        double effectiveThreshold = threshold == null ? similarityStrategy.getThreshold() : threshold;
+        if (!usesPairScores(similarityStrategy) || effectiveThreshold < floor || courseName == null || courseName.isBlank()) {
+            return null;
+        }
+        String algorithm = similarityStrategy.getAlgorithmName();
+        PairScoreStore.Snapshot stored = transactions.execute(status -> pairScoreStore.load(algorithm, floor, courseName));
+        return new PairScoring(
+                stored == null ? PairScoreStore.Snapshot.NONE : stored,
+                algorithm,
+                floor,
+                effectiveThreshold,
+                new HashMap<>(),
+                new HashSet<>(),
+                new ConcurrentHashMap<>()
         );
     }
 
@@ -917,7 +1757,9 @@ public class QuestionDuplicationService {
             String courseName,
             AbstractQuestionSimilarityStrategy selectedStrategy,
             List<Question> questionsToProcess,
-            int courseQuestionCount
+            int courseQuestionCount,
+            BatchExecution batchExecution,
+            PairScoring pairScoring
     ) {
         List<Question> safeQuestionsToProcess = questionsToProcess == null ? List.of() : questionsToProcess;
         logger.atInfo().addArgument(courseName)
@@ -929,36 +1771,57 @@ public class QuestionDuplicationService {
         List<Question> truefalseQuestions = safeQuestionsToProcess.stream().filter(question -> question.getType() == QuestionType.TRUEFALSE).toList();
 
         List<Long> questionIds = safeQuestionsToProcess.stream().map(Question::getId).filter(Objects::nonNull).toList();
-        DuplicateCleanupSummary cleanupSummary = clearDuplicateStateForQuestions(questionIds);
+        DuplicateCleanupSummary cleanupSummary = batchExecution.transactions().execute(status -> clearDuplicateStateForQuestions(questionIds));
 
         logger.atInfo().addArgument(cleanupSummary.duplicateLinksRemoved()).addArgument(cleanupSummary.duplicateErrorsRemoved()).log("Duplicate cleanup finished: removed links={}, removed errors={}");
+        batchExecution.monitor().onQuestionsLoaded(multichoiceQuestions.size() + truefalseQuestions.size());
 
         List<QuestionError> createdErrors = new ArrayList<>();
-        Set<String> persistedPairs = new HashSet<>();
+        DuplicatePairSet persistedPairs = new DuplicatePairSet();
+        // The counters of the strategy bean are shared with concurrent runs and lookups, so the run counts on its own.
+        AbstractQuestionSimilarityStrategy runStrategy = selectedStrategy.withOwnFilterStats();
         if (!multichoiceQuestions.isEmpty()) {
             logger.atInfo()
                   .addArgument(multichoiceQuestions.size())
                   .log("Recomputing duplicates for {} multichoice questions");
+            batchExecution.monitor().onStageStarted(
+                    QuestionType.MULTICHOICE.name(),
+                    multichoiceQuestions.size(),
+                    buildDuplicateExecutionPlan(multichoiceQuestions.size()).totalBatches()
+            );
             createdErrors.addAll(detectDuplicatesForRecompute(
-                    multichoiceQuestions,
                     multichoiceQuestions,
                     persistedPairs,
-                    selectedStrategy
+                    runStrategy,
+                    batchExecution,
+                    pairScoring
             ));
         }
         if (!truefalseQuestions.isEmpty()) {
             logger.atInfo().addArgument(truefalseQuestions.size()).log("Recomputing duplicates for {} true/false questions");
+            batchExecution.monitor().onStageStarted(
+                    QuestionType.TRUEFALSE.name(),
+                    truefalseQuestions.size(),
+                    buildDuplicateExecutionPlan(truefalseQuestions.size()).totalBatches()
+            );
             createdErrors.addAll(detectDuplicatesForRecompute(
-                    truefalseQuestions,
                     truefalseQuestions,
                     persistedPairs,
-                    selectedStrategy
+                    runStrategy,
+                    batchExecution,
+                    pairScoring
             ));
         }
-        saveQuestionErrors(createdErrors);
+        if (!batchExecution.saveErrorsPerBatch()) {
+            saveQuestionErrors(createdErrors);
+        }
+        savePairScores(pairScoring, batchExecution);
+        SimilarityFilterStats filterStats = runStrategy.filterStats();
+        Integer clusters = rebuildDuplicateClusters(courseName, batchExecution);
 
-        logger.atInfo().addArgument(courseName).addArgument(createdErrors.size()).addArgument(persistedPairs.size())
-              .log("Duplicate recompute completed for course '{}': created errors={}, persisted pairs={}");
+        logger.atInfo().addArgument(courseName).addArgument(createdErrors.size()).addArgument(persistedPairs.size()).addArgument(clusters)
+              .addArgument(filterStats)
+              .log("Duplicate recompute completed for course '{}': created errors={}, persisted pairs={}, clusters={}, similarity filters: {}");
 
         return new DuplicateRecomputeSummary(
                 courseQuestionCount,
@@ -966,10 +1829,41 @@ public class QuestionDuplicationService {
                 truefalseQuestions.size(),
                 cleanupSummary.duplicateLinksRemoved(),
                 cleanupSummary.duplicateErrorsRemoved(),
-                createdErrors.size()
+                createdErrors.size(),
+                filterStats
         );
     }
 
+    private void savePairScores(PairScoring pairScoring, BatchExecution batchExecution) {
+        if (pairScoring == null) {
+            return;
+        }
+        batchExecution.transactions().executeWithoutResult(status -> pairScoreStore.save(
+                pairScoring.stored(),
+                pairScoring.algorithm(),
+                pairScoring.fingerprints(),
+                pairScoring.reusedIds(),
+                pairScoring.newScores()
+        ));
+        logger.atInfo().addArgument(pairScoring.reusedIds().size()).addArgument(pairScoring.fingerprints().size())
+              .addArgument(pairScoring.newScores().size()).addArgument(pairScoring.threshold())
+              .log("Pair scores: reused {} of {} questions, stored {} new pair scores, decided at threshold {}");
+    }
+
+    /**
+     * Regroups the open links of the course into clusters once all links of the recompute are stored.
+     */
+    private Integer rebuildDuplicateClusters(String courseName, BatchExecution batchExecution) {
+        if (duplicateClusterService == null || courseName == null || courseName.isBlank()) {
+            return 0;
+        }
+        return batchExecution.transactions().execute(status -> {
+            // Links deleted by the cleanup may still be pending when no link was inserted afterwards.
+            questionDuplicateRepository.flush();
+            return duplicateClusterService.rebuildClusters(courseName);
+        });
+    }
+
     private DuplicateCleanupSummary clearDuplicateStateForQuestions(List<Long> questionIds) {
         if (questionIds == null || questionIds.isEmpty()) {
             return new DuplicateCleanupSummary(
@@ -1005,13 +1899,13 @@ public class QuestionDuplicationService {
     }
 
     /**
-     * Optimized duplicate analysis using lazy-cached normalized data.
+     * Duplicate analysis of one source question against candidate records of its course.
      */
-    private DuplicateAnalysis analyzeQuestionWithCache(
-            Question question, List<Question> allCourseQuestions, LazyNormalizedQuestionCache cache, AbstractQuestionSimilarityStrategy similarityStrategy,
-            Map<String, String> detectedPairCauses
+    private DuplicateAnalysis analyzeQuestion(
+            CorpusQuestion source, List<CorpusQuestion> candidateQuestions, AbstractQuestionSimilarityStrategy similarityStrategy,
+            DuplicatePairSet detectedPairs
     ) {
-        if (question == null || question.getType() == null) {
+        if (source == null || source.type() == null) {
             return new DuplicateAnalysis(
                     false,
                     false,
@@ -1019,44 +1913,30 @@ public class QuestionDuplicationService {
                     0
             );
         }
+        if (source.missingAnswer()) {
+            return new DuplicateAnalysis(
+                    false,
+                    false,
+                    true,
+                    0
+            );
+        }
 
-        return switch (question.getType()) {
-            case MULTICHOICE -> {
-                if (!hasAllMultichoiceAnswers(question)) {
-                    yield new DuplicateAnalysis(
-                            false,
-                            false,
-                            true,
-                            0
-                    );
-                }
-                yield analyzeMultichoiceWithCache(
-                        question,
-                        allCourseQuestions,
-                        cache,
-                        similarityStrategy,
-                        detectedPairCauses
-                );
-            }
-            case TRUEFALSE -> {
-                if (!hasTrueFalseAnswer(question)) {
-                    yield new DuplicateAnalysis(
-                            false,
-                            false,
-                            true,
-                            0
-                    );
-                }
-                yield analyzeTrueFalseWithCache(
-                        question,
-                        allCourseQuestions,
-                        cache,
-                        similarityStrategy,
-                        detectedPairCauses
-                );
-            }
+        return switch (source.type()) {
+            case MULTICHOICE -> analyzeMultichoice(
+                    source,
+                    candidateQuestions,
+                    similarityStrategy,
+                    detectedPairs
+            );
+            case TRUEFALSE -> analyzeTrueFalse(
+                    source,
+                    candidateQuestions,
+                    similarityStrategy,
+                    detectedPairs
+            );
             default -> {
-                logger.atDebug().addArgument(question.getType()).log("Question type '{}' not recognized");
+                logger.atDebug().addArgument(source.type()).log("Question type '{}' not recognized");
                 yield new DuplicateAnalysis(
                         false,
                         false,
@@ -1067,63 +1947,46 @@ public class QuestionDuplicationService {
         };
     }
 
-    private DuplicateAnalysis analyzeMultichoiceWithCache(
-            Question question, List<Question> allCourseQuestions, LazyNormalizedQuestionCache cache,
-            AbstractQuestionSimilarityStrategy similarityStrategy, Map<String, String> detectedPairCauses
+    private DuplicateAnalysis analyzeMultichoice(
+            CorpusQuestion source, List<CorpusQuestion> candidateQuestions, AbstractQuestionSimilarityStrategy similarityStrategy,
+            DuplicatePairSet detectedPairs
     ) {
-        String normalizedTitle = normalize(question.getTitle());
-        Set<String> questionAnswers = buildAnswerSetForQuestion(question);
-        String[] sourceAnswerArray = questionAnswers.toArray(String[]::new);
-        int[] sourceAnswerLengths = new int[sourceAnswerArray.length];
-        for (int i = 0; i < sourceAnswerArray.length; i++) {
-            sourceAnswerLengths[i] = sourceAnswerArray[i].length();
-        }
-
         boolean hasTitleDuplicate = false;
         boolean hasAnswerDuplicate = false;
         int duplicateMatchCount = 0;
 
-        for (Question candidate : allCourseQuestions) {
-            if (!isPotentialDuplicateCandidateForMultichoice(
-                    question,
+        for (CorpusQuestion candidate : candidateQuestions) {
+            if (!isPotentialDuplicateCandidate(
+                    source,
                     candidate
             )) {
                 continue;
             }
 
-            boolean titleMatch = areTextsEquivalent(
-                    normalizedTitle,
-                    cache.getNormalizedTitle(candidate),
+            int titleMatch = textMatch(
+                    DuplicateCauseCodes.FIELD_TITLE,
+                    source.title(),
+                    candidate.title(),
                     similarityStrategy
             );
-            boolean answerMatch = cache.hasAnswerIntersection(
+            int answerMatch = answerMatch(
+                    source,
                     candidate,
-                    question.getId(),
-                    questionAnswers,
-                    sourceAnswerArray,
-                    sourceAnswerLengths,
                     similarityStrategy
             );
 
-            if (titleMatch) {
+            if (titleMatch != 0) {
                 hasTitleDuplicate = true;
             }
-            if (answerMatch) {
+            if (answerMatch != 0) {
                 hasAnswerDuplicate = true;
             }
-            if (titleMatch || answerMatch) {
-                String cause = buildMultichoiceDuplicateCause(
-                        question,
-                        candidate,
-                        titleMatch,
-                        answerMatch,
-                        similarityStrategy
-                );
+            if (titleMatch != 0 || answerMatch != 0) {
                 registerDuplicatePair(
-                        detectedPairCauses,
-                        question.getId(),
-                        candidate.getId(),
-                        cause
+                        detectedPairs,
+                        source.id(),
+                        candidate.id(),
+                        DuplicateCauseCodes.merge(titleMatch, answerMatch)
                 );
                 duplicateMatchCount++;
             }
@@ -1137,55 +2000,47 @@ public class QuestionDuplicationService {
         );
     }
 
-    private DuplicateAnalysis analyzeTrueFalseWithCache(
-            Question question, List<Question> allCourseQuestions, LazyNormalizedQuestionCache cache, AbstractQuestionSimilarityStrategy similarityStrategy,
-            Map<String, String> detectedPairCauses
+    private DuplicateAnalysis analyzeTrueFalse(
+            CorpusQuestion source, List<CorpusQuestion> candidateQuestions, AbstractQuestionSimilarityStrategy similarityStrategy,
+            DuplicatePairSet detectedPairs
     ) {
-        String normalizedTitle = normalize(question.getTitle());
-        String normalizedText = normalize(question.getText());
-
         boolean hasTitleDuplicate = false;
         boolean hasAnswerDuplicate = false;
         int duplicateMatchCount = 0;
 
-        for (Question candidate : allCourseQuestions) {
-            if (candidate == null || candidate.getType() != question.getType() || !isPotentialDuplicateCandidateForTrueFalse(
-                    question,
+        for (CorpusQuestion candidate : candidateQuestions) {
+            if (!isPotentialDuplicateCandidate(
+                    source,
                     candidate
             )) {
                 continue;
             }
 
-            boolean titleMatch = areTextsEquivalent(
-                    normalizedTitle,
-                    cache.getNormalizedTitle(candidate),
+            int titleMatch = textMatch(
+                    DuplicateCauseCodes.FIELD_TITLE,
+                    source.title(),
+                    candidate.title(),
                     similarityStrategy
             );
-            boolean textMatch = areTextsEquivalent(
-                    normalizedText,
-                    cache.getNormalizedText(candidate),
+            int textMatch = textMatch(
+                    DuplicateCauseCodes.FIELD_TEXT,
+                    source.text(),
+                    candidate.text(),
                     similarityStrategy
             );
 
-            if (titleMatch) {
+            if (titleMatch != 0) {
                 hasTitleDuplicate = true;
             }
-            if (textMatch) {
+            if (textMatch != 0) {
                 hasAnswerDuplicate = true;
             }
-            if (titleMatch || textMatch) {
-                String cause = buildTrueFalseDuplicateCause(
-                        question,
-                        candidate,
-                        titleMatch,
-                        textMatch,
-                        similarityStrategy
-                );
+            if (titleMatch != 0 || textMatch != 0) {
                 registerDuplicatePair(
-                        detectedPairCauses,
-                        question.getId(),
-                        candidate.getId(),
-                        cause
+                        detectedPairs,
+                        source.id(),
+                        candidate.id(),
+                        DuplicateCauseCodes.merge(titleMatch, textMatch)
                 );
                 duplicateMatchCount++;
             }
@@ -1199,74 +2054,30 @@ public class QuestionDuplicationService {
         );
     }
 
-    private void registerDuplicatePair(Map<String, String> detectedPairCauses, Long sourceQuestionId, Long candidateQuestionId, String cause) {
-        if (detectedPairCauses == null || sourceQuestionId == null || candidateQuestionId == null) {
+    private void registerDuplicatePair(DuplicatePairSet detectedPairs, Long sourceQuestionId, Long candidateQuestionId, int cause) {
+        if (detectedPairs == null || sourceQuestionId == null || candidateQuestionId == null) {
             return;
         }
-        String pairKey = toPairKey(
-                sourceQuestionId,
-                candidateQuestionId
-        );
-        String normalizedCause = sanitizeDuplicateCause((cause == null || cause.isBlank()) ? CAUSE_DEFAULT_DUPLICATE : cause);
-        detectedPairCauses.putIfAbsent(
-                pairKey,
-                normalizedCause
-        );
-        detectedPairCauses.computeIfPresent(
-                pairKey,
-                (key, existingCause) -> mergeDuplicateCauses(
-                        existingCause,
-                        normalizedCause
-                )
+        detectedPairs.mergeCause(
+                DuplicatePairSet.pack(
+                        sourceQuestionId,
+                        candidateQuestionId
+                ),
+                DuplicateCauseCodes.orient(cause, sourceQuestionId < candidateQuestionId)
         );
     }
 
-    private boolean isPotentialDuplicateCandidateForMultichoice(Question question, Question candidate) {
-        if (candidate == null || candidate.getId() == null || question.getId() == null) {
+    private boolean isPotentialDuplicateCandidate(CorpusQuestion source, CorpusQuestion candidate) {
+        if (candidate == null || candidate.id() == null || source.id() == null) {
             return false;
         }
-        if (question.getType() == null || candidate.getType() != question.getType()) {
+        if (source.type() == null || candidate.type() != source.type()) {
             return false;
         }
-        if (candidate.getId().equals(question.getId())) {
+        if (candidate.id().equals(source.id())) {
             return false;
         }
-        return !MyUtil.SKIPPED_DUE_TO_ERROR.equals(candidate.getTitle());
-    }
-
-    private boolean isPotentialDuplicateCandidateForTrueFalse(Question question, Question candidate) {
-        return isPotentialDuplicateCandidateForMultichoice(
-                question,
-                candidate
-        );
-    }
-
-    private Set<String> buildAnswerSetForQuestion(Question question) {
-        Set<String> answers = HashSet.newHashSet(NUM_ANSWERS);
-        addNormalizedAnswer(
-                answers,
-                question.getResponse1()
-        );
-        addNormalizedAnswer(
-                answers,
-                question.getResponse2()
-        );
-        addNormalizedAnswer(
-                answers,
-                question.getResponse3()
-        );
-        addNormalizedAnswer(
-                answers,
-                question.getResponse4()
-        );
-        return answers;
-    }
-
-    private void addNormalizedAnswer(Set<String> answers, String answer) {
-        String normalized = normalize(answer);
-        if (normalized != null) {
-            answers.add(normalized);
-        }
+        return !candidate.skipped();
     }
 
     private QuestionError createQuestionError(Question question, String description) {
@@ -1276,156 +2087,41 @@ public class QuestionDuplicationService {
         );
     }
 
-    private int persistDuplicateLinks(Map<String, String> detectedPairCauses, Set<String> persistedPairs, boolean checkExistingLinks) {
-        if (detectedPairCauses == null || detectedPairCauses.isEmpty()) {
+    private int persistDuplicateLinks(DuplicatePairSet detectedPairs, DuplicatePairSet persistedPairs) {
+        if (detectedPairs == null || detectedPairs.isEmpty()) {
             return 0;
         }
 
-        List<String> orderedPairKeys = sortPairKeys(detectedPairCauses.keySet());
-        List<String> pairsToPersist = collectPairsToPersist(
-                orderedPairKeys,
+        long[] pairsToPersist = collectPairsToPersist(
+                detectedPairs.sortedKeys(),
                 persistedPairs
         );
 
-        if (pairsToPersist.isEmpty()) {
-            return 0;
-        }
-
-        Set<Long> allRequiredIds = collectRequiredQuestionIds(pairsToPersist);
-        Set<String> existingPairKeys = loadExistingPairKeys(
-                allRequiredIds,
-                checkExistingLinks
-        );
-        Map<Long, Question> batchLoadedQuestions = loadQuestionsById(allRequiredIds);
-        List<QuestionDuplicate> linksToSave = buildLinksToSave(
-                pairsToPersist,
-                existingPairKeys,
-                batchLoadedQuestions
-        );
-
-        if (linksToSave.isEmpty()) {
+        if (pairsToPersist.length == 0) {
             return 0;
         }
 
-        try {
-            questionDuplicateRepository.saveAll(linksToSave);
-            return linksToSave.size();
+        // Links removed by the pre-recompute cleanup are still pending in the persistence context; flush them so the
+        // conflict check of the bulk insert sees the current rows.
+        questionDuplicateRepository.flush();
+        int[] causes = new int[pairsToPersist.length];
+        for (int i = 0; i < pairsToPersist.length; i++) {
+            causes[i] = detectedPairs.causeOf(pairsToPersist[i]);
         }
-        catch (DataIntegrityViolationException e) {
-            logger.atDebug().setCause(e).addArgument(linksToSave.size()).log("Duplicate pairs already exist during batch save, attempted {} inserts");
-            return 0;
-        }
-    }
-
-    private List<String> sortPairKeys(Set<String> pairKeys) {
-        return pairKeys.stream().sorted((left, right) -> {
-            long[] leftPair = parsePairKey(left);
-            long[] rightPair = parsePairKey(right);
-            int lowerComparison = Long.compare(
-                    leftPair[0],
-                    rightPair[0]
-            );
-            return lowerComparison != 0 ? lowerComparison : Long.compare(
-                    leftPair[1],
-                    rightPair[1]
-            );
-        }).toList();
+        return duplicateOutputWriter.insertLinks(pairsToPersist, causes);
     }
 
-    private List<String> collectPairsToPersist(List<String> orderedPairKeys, Set<String> persistedPairs) {
-        List<String> pairsToPersist = new ArrayList<>(orderedPairKeys.size());
-        for (String pairKey : orderedPairKeys) {
+    private long[] collectPairsToPersist(long[] orderedPairKeys, DuplicatePairSet persistedPairs) {
+        long[] pairsToPersist = new long[orderedPairKeys.length];
+        int count = 0;
+        for (long pairKey : orderedPairKeys) {
             if (persistedPairs == null || persistedPairs.add(pairKey)) {
-                pairsToPersist.add(pairKey);
-            }
-        }
-        return pairsToPersist;
-    }
-
-    private Set<Long> collectRequiredQuestionIds(List<String> pairsToPersist) {
-        Set<Long> allRequiredIds = new LinkedHashSet<>();
-        for (String pairKey : pairsToPersist) {
-            long[] pairIds = parsePairKey(pairKey);
-            allRequiredIds.add(pairIds[0]);
-            allRequiredIds.add(pairIds[1]);
-        }
-        return allRequiredIds;
-    }
-
-    private Set<String> loadExistingPairKeys(Set<Long> allRequiredIds, boolean checkExistingLinks) {
-        if (!checkExistingLinks) {
-            return Set.of();
-        }
-        return questionDuplicateRepository.findByQuestionIdInOrDuplicateQuestionIdIn(
-                allRequiredIds,
-                allRequiredIds
-        ).stream().map(link -> toPairKey(
-                link.getQuestion().getId(),
-                link.getDuplicateQuestion().getId()
-        )).collect(Collectors.toSet());
-    }
-
-    private Map<Long, Question> loadQuestionsById(Set<Long> questionIds) {
-        Map<Long, Question> batchLoadedQuestions = new LinkedHashMap<>();
-        Iterable<Question> loadedQuestionsIterable = questionRepository.findAllById(questionIds);
-        for (Question question : loadedQuestionsIterable) {
-            batchLoadedQuestions.put(
-                    question.getId(),
-                    question
-            );
-        }
-        return batchLoadedQuestions;
-    }
-
-    private List<QuestionDuplicate> buildLinksToSave(
-            List<String> pairsToPersist,
-            Set<String> existingPairKeys,
-            Map<Long, Question> batchLoadedQuestions
-    ) {
-        List<QuestionDuplicate> linksToSave = new ArrayList<>();
-        for (String pairKey : pairsToPersist) {
-            if (existingPairKeys.contains(pairKey)) {
-                continue;
-            }
-
-            long[] pairIds = parsePairKey(pairKey);
-            Question lowerQuestion = batchLoadedQuestions.get(pairIds[0]);
-            Question higherQuestion = batchLoadedQuestions.get(pairIds[1]);
-
-            if (lowerQuestion != null && higherQuestion != null) {
-                QuestionDuplicate link = new QuestionDuplicate();
-                link.setQuestion(lowerQuestion);
-                link.setDuplicateQuestion(higherQuestion);
-                linksToSave.add(link);
+                pairsToPersist[count++] = pairKey;
             }
         }
-        return linksToSave;
+        return count == pairsToPersist.length ? pairsToPersist : Arrays.copyOf(pairsToPersist, count);
     }
 
-    private String toPairKey(Long left, Long right) {
-        long lower = Math.min(
-                left,
-                right
-        );
-        long higher = Math.max(
-                left,
-                right
-        );
-        return lower + "-" + higher;
-    }
-
-    private long[] parsePairKey(String pairKey) {
-        int separatorIndex = pairKey.indexOf('-');
-        return new long[]{
-                Long.parseLong(pairKey.substring(
-                        0,
-                        separatorIndex
-                )),
-                Long.parseLong(pairKey.substring(separatorIndex + 1))
-        };
-    }
-
-
     private void cleanupDuplicateErrors(Set<Long> questionIds) {
         if (questionIds == null || questionIds.isEmpty()) {
             return;
@@ -1477,299 +2173,184 @@ public class QuestionDuplicationService {
         return question.getQuestionErrors().stream().map(QuestionError::getDescription).filter(Objects::nonNull).anyMatch(this::isDuplicateErrorDescription);
     }
 
-    private String normalize(String value) {
-        if (value == null || value.isBlank()) {
-            return null;
-        }
-        return value.trim().toLowerCase(Locale.ROOT);
+    static String normalize(String value) {
+        return QuestionFingerprints.normalize(value);
     }
 
-    private boolean isSubstringMatch(String a, String b) {
-        if (a == null || b == null) {
-            return false;
-        }
-        return a.contains(b) || b.contains(a);
+    /**
+     * Normalized title as stored on the question, falling back to normalizing it for rows written
+     * before the current {@link QuestionFingerprints#CURRENT_VERSION}.
+     */
+    static String normalizedTitleOf(Question question) {
+        return question.hasCurrentFingerprints() ? question.getNormalizedTitle() : normalize(question.getTitle());
     }
 
-    private boolean areTextsEquivalent(String left, String right, AbstractQuestionSimilarityStrategy similarityStrategy) {
-        if (left == null || right == null) {
-            return false;
-        }
-        if (isSubstringMatch(
-                left,
-                right
-        )) {
-            return true;
+    static String normalizedTextOf(Question question) {
+        return question.hasCurrentFingerprints() ? question.getNormalizedText() : normalize(question.getText());
+    }
+
+    static List<String> normalizedResponsesOf(Question question) {
+        if (question.hasCurrentFingerprints()) {
+            return Arrays.asList(
+                    question.getNormalizedResponse1(),
+                    question.getNormalizedResponse2(),
+                    question.getNormalizedResponse3(),
+                    question.getNormalizedResponse4()
+            );
         }
-        return similarityStrategy != null && similarityStrategy.isSimilar(
-                left,
-                right
+        return Arrays.asList(
+                normalize(question.getResponse1()),
+                normalize(question.getResponse2()),
+                normalize(question.getResponse3()),
+                normalize(question.getResponse4())
         );
     }
 
-    private String buildMultichoiceDuplicateCause(
-            Question source,
-            Question candidate,
-            boolean titleMatch,
-            boolean answerMatch,
-            AbstractQuestionSimilarityStrategy similarityStrategy
-    ) {
-        List<String> causes = new ArrayList<>(2);
-        if (titleMatch) {
-            causes.add(buildFieldDuplicateCause(
-                    CAUSE_FIELD_TITLE,
-                    source.getTitle(),
-                    candidate.getTitle(),
-                    similarityStrategy
-            ));
+    /**
+     * Returns the {@link DuplicateCauseCodes cause} of how two normalized texts of {@code field} match: exactly, one
+     * contained in the other, similar according to the strategy, or {@code 0} if they do not match. The similarity
+     * score is only computed for texts already known to be similar.
+     */
+    private int textMatch(int field, String left, String right, AbstractQuestionSimilarityStrategy similarityStrategy) {
+        if (left == null || right == null) {
+            return 0;
         }
-        if (answerMatch) {
-            causes.add(buildMultichoiceAnswerCause(
-                    source,
-                    candidate,
-                    similarityStrategy
-            ));
+        int match = exactOrSubstringMatch(field, left, right);
+        if (match != 0) {
+            return match;
         }
-        return mergeCauseParts(causes);
+        return isSimilar(similarityStrategy, left, right) ? DuplicateCauseCodes.similar(field, similarityStrategy.similarity(left, right)) : 0;
     }
 
-    private String buildTrueFalseDuplicateCause(
-            Question source,
-            Question candidate,
-            boolean titleMatch,
-            boolean textMatch,
-            AbstractQuestionSimilarityStrategy similarityStrategy
-    ) {
-        List<String> causes = new ArrayList<>(2);
-        if (titleMatch) {
-            causes.add(buildFieldDuplicateCause(
-                    CAUSE_FIELD_TITLE,
-                    source.getTitle(),
-                    candidate.getTitle(),
-                    similarityStrategy
-            ));
+    private static int exactOrSubstringMatch(int field, String left, String right) {
+        if (left == null || right == null) {
+            return 0;
         }
-        if (textMatch) {
-            causes.add(buildFieldDuplicateCause(
-                    CAUSE_FIELD_TEXT,
-                    source.getText(),
-                    candidate.getText(),
-                    similarityStrategy
-            ));
+        if (left.equals(right)) {
+            return DuplicateCauseCodes.of(field, DuplicateCauseCodes.KIND_EXACT);
         }
-        return mergeCauseParts(causes);
+        if (left.contains(right) || right.contains(left)) {
+            return DuplicateCauseCodes.of(field, DuplicateCauseCodes.KIND_SUBSTRING);
+        }
+        return 0;
     }
 
-    private String buildMultichoiceAnswerCause(Question source, Question candidate, AbstractQuestionSimilarityStrategy similarityStrategy) {
-        List<String> sourceAnswers = Arrays.asList(
-                source.getResponse1(),
-                source.getResponse2(),
-                source.getResponse3(),
-                source.getResponse4()
-        );
-        List<String> candidateAnswers = Arrays.asList(
-                candidate.getResponse1(),
-                candidate.getResponse2(),
-                candidate.getResponse3(),
-                candidate.getResponse4()
-        );
-
-        for (String sourceAnswer : sourceAnswers) {
-            String normalizedSource = normalize(sourceAnswer);
-            if (normalizedSource == null) {
-                continue;
-            }
-            for (String candidateAnswer : candidateAnswers) {
-                String normalizedCandidate = normalize(candidateAnswer);
-                if (normalizedCandidate == null) {
-                    continue;
-                }
-                if (isSubstringMatch(
-                        normalizedSource,
-                        normalizedCandidate
-                )) {
-                    return buildSubstringCause(
-                            CAUSE_FIELD_ANSWER,
-                            sourceAnswer,
-                            candidateAnswer
-                    );
-                }
-                if (similarityStrategy != null && similarityStrategy.isSimilar(
-                        normalizedSource,
-                        normalizedCandidate
+    /**
+     * Returns the {@link DuplicateCauseCodes cause} of how the answers of two multichoice records match: a shared
+     * answer, one answer contained in another, a pair of answers similar according to the strategy, or {@code 0}.
+     * The cause carries the numbers of the matched answers, the source's first.
+     */
+    private int answerMatch(CorpusQuestion source, CorpusQuestion candidate, AbstractQuestionSimilarityStrategy similarityStrategy) {
+        int match = exactOrSubstringAnswerMatch(source, candidate);
+        if (match != 0) {
+            return match;
+        }
+        String[] sourceAnswers = source.answers();
+        String[] candidateAnswers = candidate.answers();
+        for (int c = 0; c < candidateAnswers.length; c++) {
+            for (int s = 0; s < sourceAnswers.length; s++) {
+                if (isSimilar(
+                        similarityStrategy,
+                        candidateAnswers[c],
+                        sourceAnswers[s]
                 )) {
-                    return buildSimilarityCause(
-                            CAUSE_FIELD_ANSWER,
-                            sourceAnswer,
-                            candidateAnswer
-                    );
+                    int similar = DuplicateCauseCodes.similar(DuplicateCauseCodes.FIELD_ANSWER, similarityStrategy.similarity(candidateAnswers[c], sourceAnswers[s]));
+                    return answerCause(similar, source, s, candidate, c);
                 }
             }
         }
-
-        return CAUSE_FIELD_ANSWER + " " + CAUSE_DEFAULT_SUFFIX;
+        return 0;
     }
 
-    private String buildFieldDuplicateCause(String fieldName, String sourceValue, String candidateValue, AbstractQuestionSimilarityStrategy similarityStrategy) {
-        String normalizedSource = normalize(sourceValue);
-        String normalizedCandidate = normalize(candidateValue);
-        if (normalizedSource == null || normalizedCandidate == null) {
-            return fieldName + " " + CAUSE_DEFAULT_SUFFIX;
-        }
-        if (isSubstringMatch(
-                normalizedSource,
-                normalizedCandidate
-        )) {
-            return buildSubstringCause(
-                    fieldName,
-                    sourceValue,
-                    candidateValue
-            );
+    /**
+     * Cause of a shared answer or of one answer contained in another, the exact match taking precedence, or {@code 0}.
+     */
+    private int exactOrSubstringAnswerMatch(CorpusQuestion source, CorpusQuestion candidate) {
+        String[] sourceAnswers = source.answers();
+        String[] candidateAnswers = candidate.answers();
+        // At most four answers per side, so comparing the arrays directly beats hashing them.
+        for (int c = 0; c < candidateAnswers.length; c++) {
+            for (int s = 0; s < sourceAnswers.length; s++) {
+                if (candidateAnswers[c].equals(sourceAnswers[s])) {
+                    return answerCause(DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_ANSWER, DuplicateCauseCodes.KIND_EXACT), source, s, candidate, c);
+                }
+            }
         }
-        if (similarityStrategy != null && similarityStrategy.isSimilar(
-                normalizedSource,
-                normalizedCandidate
-        )) {
-            return buildSimilarityCause(
-                    fieldName,
-                    sourceValue,
-                    candidateValue
-            );
+        for (int c = 0; c < candidateAnswers.length; c++) {
+            for (int s = 0; s < sourceAnswers.length; s++) {
+                if (hasSubstringOverlap(
+                        candidateAnswers[c],
+                        sourceAnswers[s]
+                )) {
+                    return answerCause(DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_ANSWER, DuplicateCauseCodes.KIND_SUBSTRING), source, s, candidate, c);
+                }
+            }
         }
-        return fieldName + " " + CAUSE_DEFAULT_SUFFIX;
+        return 0;
     }
 
-    private String buildSubstringCause(String fieldName, String sourceValue, String candidateValue) {
-        String source = safeCauseValue(sourceValue);
-        String candidate = safeCauseValue(candidateValue);
-        String normalizedSource = normalize(source);
-        String normalizedCandidate = normalize(candidate);
-
-        if (normalizedSource == null || normalizedCandidate == null) {
-            return fieldName + ": " + CAUSE_DEFAULT_SUFFIX;
-        }
-        if (normalizedSource.contains(normalizedCandidate) && !normalizedSource.equals(normalizedCandidate)) {
-            return CAUSE_SUBSTRING_TEMPLATE.formatted(
-                    fieldName,
-                    candidate,
-                    source
-            );
-        }
-        if (normalizedCandidate.contains(normalizedSource) && !normalizedSource.equals(normalizedCandidate)) {
-            return CAUSE_SUBSTRING_TEMPLATE.formatted(
-                    fieldName,
-                    source,
-                    candidate
-            );
+    /**
+     * Scores a pair down to {@code floor}, so it can be decided for any threshold not below the floor without
+     * comparing the texts again. Exact and substring matches take precedence as in {@link #textMatch} and
+     * {@link #answerMatch}; otherwise the answers are scored by their most similar pair.
+     */
+    private PairScore scorePair(CorpusQuestion source, CorpusQuestion candidate, AbstractQuestionSimilarityStrategy similarityStrategy, double floor) {
+        int titleMatch = exactOrSubstringMatch(DuplicateCauseCodes.FIELD_TITLE, source.title(), candidate.title());
+        double titleScore = titleMatch == 0 ? scoreOf(similarityStrategy, source.title(), candidate.title(), floor) : AbstractQuestionSimilarityStrategy.NO_SCORE;
+        int contentMatch;
+        double contentScore = AbstractQuestionSimilarityStrategy.NO_SCORE;
+        int contentAnswers = 0;
+        if (source.type() == QuestionType.MULTICHOICE) {
+            contentMatch = exactOrSubstringAnswerMatch(source, candidate);
+            String[] sourceAnswers = source.answers();
+            String[] candidateAnswers = candidate.answers();
+            for (int c = 0; contentMatch == 0 && c < candidateAnswers.length; c++) {
+                for (int s = 0; s < sourceAnswers.length; s++) {
+                    double score = scoreOf(similarityStrategy, candidateAnswers[c], sourceAnswers[s], floor);
+                    if (score > contentScore) {
+                        contentScore = score;
+                        contentAnswers = answerCause(0, source, s, candidate, c);
+                    }
+                }
+            }
+        } else {
+            contentMatch = exactOrSubstringMatch(DuplicateCauseCodes.FIELD_TEXT, source.text(), candidate.text());
+            if (contentMatch == 0) {
+                contentScore = scoreOf(similarityStrategy, source.text(), candidate.text(), floor);
+            }
         }
-        return CAUSE_EXACT_TEMPLATE.formatted(
-                fieldName,
-                source,
-                candidate
+        boolean sourceIsLower = source.id() < candidate.id();
+        return new PairScore(
+                DuplicateCauseCodes.orient(DuplicateCauseCodes.merge(titleMatch, contentMatch), sourceIsLower),
+                titleScore,
+                contentScore,
+                DuplicateCauseCodes.orient(contentAnswers, sourceIsLower)
         );
     }
 
-    private String buildSimilarityCause(String fieldName, String sourceValue, String candidateValue) {
-        return CAUSE_SIMILAR_TEMPLATE.formatted(
-                fieldName,
-                safeCauseValue(sourceValue),
-                safeCauseValue(candidateValue)
-        );
+    private static double scoreOf(AbstractQuestionSimilarityStrategy similarityStrategy, String left, String right, double floor) {
+        return similarityStrategy == null ? AbstractQuestionSimilarityStrategy.NO_SCORE : similarityStrategy.score(left, right, floor);
     }
 
-    private String safeCauseValue(String value) {
-        return value == null ? "" : value.trim();
+    private static int contentFieldOf(CorpusQuestion question) {
+        return question.type() == QuestionType.MULTICHOICE ? DuplicateCauseCodes.FIELD_ANSWER : DuplicateCauseCodes.FIELD_TEXT;
     }
 
-    private String mergeCauseParts(List<String> causeParts) {
-        if (causeParts == null || causeParts.isEmpty()) {
-            return CAUSE_DEFAULT_DUPLICATE;
-        }
-        return causeParts.stream()
-                         .filter(Objects::nonNull)
-                         .map(String::trim)
-                         .filter(part -> !part.isEmpty())
-                         .distinct()
-                         .sorted(this::compareCauseParts)
-                         .collect(Collectors.joining(CAUSE_PART_DELIMITER));
+    private static int answerCause(int cause, CorpusQuestion source, int sourceIndex, CorpusQuestion candidate, int candidateIndex) {
+        return DuplicateCauseCodes.withAnswers(cause, source.answerNumbers()[sourceIndex], candidate.answerNumbers()[candidateIndex]);
     }
 
-    private String mergeDuplicateCauses(String existing, String incoming) {
-        if (existing == null || existing.isBlank()) {
-            return sanitizeDuplicateCause(incoming);
-        }
-        if (incoming == null || incoming.isBlank()) {
-            return sanitizeDuplicateCause(existing);
+    private boolean hasSubstringOverlap(String candidateAnswer, String sourceAnswer) {
+        if (candidateAnswer.length() >= sourceAnswer.length()) {
+            return candidateAnswer.contains(sourceAnswer);
         }
-
-        LinkedHashSet<String> parts = new LinkedHashSet<>();
-        addCauseParts(
-                parts,
-                existing
-        );
-        addCauseParts(
-                parts,
-                incoming
-        );
-
-        String merged = parts.stream().sorted(this::compareCauseParts).collect(Collectors.joining(CAUSE_PART_DELIMITER));
-        return sanitizeDuplicateCause(merged);
+        return sourceAnswer.contains(candidateAnswer);
     }
 
-    private void addCauseParts(Set<String> parts, String cause) {
-        if (parts == null || cause == null || cause.isBlank()) {
-            return;
-        }
-        for (String part : cause.split(CAUSE_PART_SPLIT_REGEX)) {
-            String trimmed = part.trim();
-            if (!trimmed.isEmpty()) {
-                parts.add(trimmed);
-            }
-        }
-    }
-
-    private int compareCauseParts(String left, String right) {
-        int leftPriority = causePriority(left);
-        int rightPriority = causePriority(right);
-        if (leftPriority != rightPriority) {
-            return Integer.compare(
-                    leftPriority,
-                    rightPriority
-            );
-        }
-        String safeLeft = left == null ? "" : left;
-        String safeRight = right == null ? "" : right;
-        return safeLeft.compareToIgnoreCase(safeRight);
-    }
-
-    private int causePriority(String causePart) {
-        if (causePart == null || causePart.isBlank()) {
-            return CAUSE_PRIORITY_GENERIC;
-        }
-        String normalized = causePart.toLowerCase(Locale.ROOT);
-        if (normalized.contains("matches exactly")) {
-            return CAUSE_PRIORITY_EXACT;
-        }
-        if (normalized.contains("found as substring")) {
-            return CAUSE_PRIORITY_SUBSTRING;
-        }
-        if (normalized.contains("considered similar")) {
-            return CAUSE_PRIORITY_SIMILAR;
-        }
-        return CAUSE_PRIORITY_GENERIC;
-    }
-
-    private String sanitizeDuplicateCause(String cause) {
-        if (cause == null) {
-            return null;
-        }
-        String trimmed = cause.trim();
-        if (trimmed.length() <= DUPLICATE_CAUSE_MAX_LENGTH) {
-            return trimmed;
-        }
-        return trimmed.substring(
-                0,
-                DUPLICATE_CAUSE_MAX_LENGTH
+    private boolean isSimilar(AbstractQuestionSimilarityStrategy similarityStrategy, String left, String right) {
+        return similarityStrategy != null && similarityStrategy.isSimilar(
+                left,
+                right
         );
     }
 
@@ -1780,7 +2361,7 @@ public class QuestionDuplicationService {
     }
 
     private record QuestionDuplicateCheckResult(
-            Question question, DuplicateAnalysis analysis, Set<String> existingErrorPrefixes, Map<String, String> detectedPairCauses
+            Question question, DuplicateAnalysis analysis, Set<String> existingErrorPrefixes, DuplicatePairSet detectedPairs
     ) {
     }
 
@@ -1794,139 +2375,35 @@ public class QuestionDuplicationService {
     private record DuplicateExecutionPlan(int total, int progressStep, int totalBatches) {
     }
 
-    public record DuplicateRecomputeSummary(int totalQuestions, int multichoiceQuestions, int truefalseQuestions, int duplicateLinksRemoved, int duplicateErrorsRemoved, int duplicateErrorsCreated) {
+    /**
+     * How the duplicate-check batches of one run are executed: inline in the caller's transaction, or each batch
+     * in its own transaction with its errors saved right away.
+     */
+    private record BatchExecution(TransactionOperations transactions, boolean saveErrorsPerBatch, DuplicateRecomputeMonitor monitor) {
+        private static final BatchExecution INLINE = new BatchExecution(TransactionOperations.withoutTransaction(), false, DuplicateRecomputeMonitor.NONE);
     }
 
     /**
-     * Lightweight on-demand cache that normalizes strings only when accessed.
-     * Avoids expensive upfront cache construction.
+     * Stored pair scores a whole-course recompute reads and updates, see {@link PairScoreStore}.
+     *
+     * @param threshold    threshold the stored and new scores are decided against
+     * @param fingerprints current content fingerprint of every question of the run, by id
+     * @param reusedIds    questions whose stored scores were still current
+     * @param newScores    non-empty scores of the pairs compared in this run, by pair key
      */
-    private class LazyNormalizedQuestionCache {
-        private final Map<Long, String> titleCache = new HashMap<>();
-        private final Map<Long, String> textCache = new HashMap<>();
-        private final Map<Long, Set<String>> answerSetCache = new HashMap<>();
-
-        public String getNormalizedTitle(Question question) {
-            if (question == null || question.getId() == null) {
-                return null;
-            }
-            Long id = question.getId();
-            return titleCache.computeIfAbsent(
-                    id,
-                    k -> normalize(question.getTitle())
-            );
-        }
-
-        public String getNormalizedText(Question question) {
-            if (question == null || question.getId() == null) {
-                return null;
-            }
-            Long id = question.getId();
-            return textCache.computeIfAbsent(
-                    id,
-                    k -> normalize(question.getText())
-            );
-        }
-
-        public boolean hasAnswerIntersection(
-                Question candidate, Long sourceQuestionId, Set<String> sourceAnswers, String[] sourceAnswerArray, int[] sourceAnswerLengths,
-                AbstractQuestionSimilarityStrategy similarityStrategy
-        ) {
-            Long candidateId = candidate == null ? null : candidate.getId();
-            if (candidateId == null || sourceAnswers == null || sourceAnswers.isEmpty()) {
-                return false;
-            }
-            // Explicit self-exclusion: never compare a question's answers against itself.
-            if (candidateId.equals(sourceQuestionId)) {
-                return false;
-            }
-
-            Set<String> candidateAnswers = answerSetCache.computeIfAbsent(
-                    candidateId,
-                    k -> buildAnswerSetForQuestion(candidate)
-            );
-            if (candidateAnswers.isEmpty()) {
-                return false;
-            }
-
-            if (hasExactAnswerIntersection(candidateAnswers, sourceAnswers)) {
-                return true;
-            }
-
-            if (sourceAnswerArray == null || sourceAnswerLengths == null || sourceAnswerArray.length != sourceAnswerLengths.length) {
-                return false;
-            }
-
-            return hasSubstringOrSimilarAnswerMatch(
-                    candidateAnswers,
-                    sourceAnswerArray,
-                    sourceAnswerLengths,
-                    similarityStrategy
-            );
-        }
-
-        private boolean hasExactAnswerIntersection(Set<String> candidateAnswers, Set<String> sourceAnswers) {
-            // Fast path: exact-answer intersection via hash lookups.
-            Set<String> smaller = candidateAnswers.size() <= sourceAnswers.size() ? candidateAnswers : sourceAnswers;
-            Set<String> larger = smaller == candidateAnswers ? sourceAnswers : candidateAnswers;
-            for (String answer : smaller) {
-                if (larger.contains(answer)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        private boolean hasSubstringOrSimilarAnswerMatch(
-                Set<String> candidateAnswers,
-                String[] sourceAnswerArray,
-                int[] sourceAnswerLengths,
-                AbstractQuestionSimilarityStrategy similarityStrategy
-        ) {
-            for (String candidateAnswer : candidateAnswers) {
-                if (candidateAnswer == null) {
-                    continue;
-                }
-                int candidateLength = candidateAnswer.length();
-                for (int i = 0; i < sourceAnswerArray.length; i++) {
-                    String sourceAnswer = sourceAnswerArray[i];
-                    if (sourceAnswer == null) {
-                        continue;
-                    }
-                    int sourceLength = sourceAnswerLengths[i];
-                    if (hasSubstringOverlap(
-                            candidateAnswer,
-                            sourceAnswer,
-                            candidateLength,
-                            sourceLength
-                    )) {
-                        return true;
-                    }
-                    if (isSimilar(
-                            similarityStrategy,
-                            candidateAnswer,
-                            sourceAnswer
-                    )) {
-                        return true;
-                    }
-                }
-            }
-            return false;
-        }
+    private record PairScoring(PairScoreStore.Snapshot stored, String algorithm, double floor, double threshold, Map<Long, Long> fingerprints,
+                               Set<Long> reusedIds, Map<Long, PairScore> newScores) {
+    }
 
-        private boolean hasSubstringOverlap(String candidateAnswer, String sourceAnswer, int candidateLength, int sourceLength) {
-            if (candidateLength >= sourceLength) {
-                return candidateAnswer.contains(sourceAnswer);
-            }
-            return sourceAnswer.contains(candidateAnswer);
-        }
+    /**
+     * @param filterStats pairs checked by the strategy's similarity filters and how many each filter pruned
+     */
+    public record DuplicateRecomputeSummary(int totalQuestions, int multichoiceQuestions, int truefalseQuestions, int duplicateLinksRemoved, int duplicateErrorsRemoved, int duplicateErrorsCreated,
+                                            SimilarityFilterStats filterStats) {
+    }
 
-        private boolean isSimilar(AbstractQuestionSimilarityStrategy similarityStrategy, String left, String right) {
-            return similarityStrategy != null && similarityStrategy.isSimilar(
-                    left,
-                    right
-            );
-        }
+    public record DuplicateDelta(int linksAdded, int linksRemoved, int errorsAdded, int errorsRemoved) {
+        public static final DuplicateDelta NONE = new DuplicateDelta(0, 0, 0, 0);
     }
 
 }
@@ -0,0 +1,184 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Embeddings of normalized question fields for the {@code embedding} duplicate strategy.
+ * <p>
+ * Vectors are looked up by the fingerprint of the field, first in a bounded in-memory cache, then in the
+ * {@code question_embedding} table of the configured Ollama embedding model. Only the remaining texts are sent to
+ * Ollama: split into batches of {@code myquiz.duplicates.embedding.batch-size}, each batch one task on the
+ * {@code embeddingTaskExecutor}, whose pool size bounds the concurrent requests. Every batch stores its vectors as
+ * soon as it is done, outside the caller's transaction, so a failed run keeps what it already paid for.
+ * <p>
+ * Returned vectors are scaled to unit length and shared; callers must not modify them.
+ */
+@Service
+public class QuestionEmbeddingService {
+    private static final Logger logger = LoggerFactory.getLogger(QuestionEmbeddingService.class);
+    private static final int FINGERPRINTS_PER_SELECT = 500;
+    private static final String SELECT_VECTORS = "SELECT content_fingerprint, vector FROM question_embedding WHERE model = ? AND content_fingerprint IN ";
+    private static final String INSERT_VECTOR = """
+            INSERT INTO question_embedding (id, model, content_fingerprint, dimensions, vector) \
+            VALUES (nextval('question_embedding_seq'), ?, ?, ?, ?) ON CONFLICT (model, content_fingerprint) DO NOTHING""";
+
+    private final OllamaService ollamaService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor embeddingTaskExecutor;
+    private final int batchSize;
+    private final Map<Long, float[]> memoryCache;
+
+    public QuestionEmbeddingService(
+            OllamaService ollamaService, JdbcTemplate jdbcTemplate, DuplicateDetectionProperties duplicateDetectionProperties,
+            @Qualifier("embeddingTaskExecutor") Executor embeddingTaskExecutor
+    ) {
+        this.ollamaService = ollamaService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.embeddingTaskExecutor = embeddingTaskExecutor;
+        DuplicateDetectionProperties.EmbeddingProperties embedding = duplicateDetectionProperties.getEmbedding();
+        this.batchSize = Math.max(1, embedding.getBatchSize());
+        int maxEntries = Math.max(0, embedding.getMemoryCacheSize());
+        this.memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the embedding of one normalized value.
+     *
+     * @throws IllegalStateException if Ollama cannot embed it
+     */
+    float[] embeddingFor(String value) {
+        return embeddingsFor(List.of(value)).get(value);
+    }
+
+    /**
+     * Returns the embeddings of the distinct non-null values, by value.
+     *
+     * @throws IllegalStateException if Ollama cannot embed one of them
+     */
+    Map<String, float[]> embeddingsFor(Collection<String> values) {
+        Map<Long, String> missing = new LinkedHashMap<>();
+        Map<String, float[]> embeddings = HashMap.newHashMap(values.size());
+        synchronized (memoryCache) {
+            for (String value : new LinkedHashSet<>(values)) {
+                if (value == null) {
+                    continue;
+                }
+                Long fingerprint = QuestionFingerprints.fingerprint(value);
+                float[] cached = memoryCache.get(fingerprint);
+                if (cached != null) {
+                    embeddings.put(value, cached);
+                } else {
+                    missing.put(fingerprint, value);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return embeddings;
+        }
+
+        long startedMs = System.currentTimeMillis();
+        Map<Long, float[]> loaded = load(missing.keySet());
+        List<Map.Entry<Long, String>> toEmbed = missing.entrySet().stream().filter(entry -> !loaded.containsKey(entry.getKey())).toList();
+        List<CompletableFuture<Map<Long, float[]>>> batches = new ArrayList<>();
+        for (int start = 0; start < toEmbed.size(); start += batchSize) {
+            List<Map.Entry<Long, String>> batch = toEmbed.subList(start, Math.min(toEmbed.size(), start + batchSize));
+            batches.add(CompletableFuture.supplyAsync(() -> embedBatch(batch), embeddingTaskExecutor));
+        }
+        try {
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Could not compute embeddings with model " + ollamaService.getEmbeddingModel(), e.getCause());
+        }
+        batches.forEach(batch -> loaded.putAll(batch.join()));
+
+        synchronized (memoryCache) {
+            loaded.forEach((fingerprint, vector) -> {
+                memoryCache.put(fingerprint, vector);
+                embeddings.put(missing.get(fingerprint), vector);
+            });
+        }
+        logger.atInfo().addArgument(missing.size()).addArgument(toEmbed.size()).addArgument(batches.size())
+              .addArgument(System.currentTimeMillis() - startedMs)
+              .log("Resolved {} uncached embeddings, {} of them from Ollama in {} batches, in {} ms");
+        return embeddings;
+    }
+
+    /**
+     * Reads the stored vectors of the fingerprints for the current model.
+     */
+    private Map<Long, float[]> load(Collection<Long> fingerprints) {
+        Map<Long, float[]> loaded = new HashMap<>();
+        if (jdbcTemplate == null) {
+            return loaded;
+        }
+        List<Long> pending = new ArrayList<>(fingerprints);
+        for (int start = 0; start < pending.size(); start += FINGERPRINTS_PER_SELECT) {
+            List<Long> chunk = pending.subList(start, Math.min(pending.size(), start + FINGERPRINTS_PER_SELECT));
+            StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+            chunk.forEach(fingerprint -> placeholders.add("?"));
+            Object[] args = new Object[chunk.size() + 1];
+            args[0] = ollamaService.getEmbeddingModel();
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 1] = chunk.get(i);
+            }
+            jdbcTemplate.query(SELECT_VECTORS + placeholders, rs -> {
+                loaded.put(rs.getLong(1), HnswIndex.normalize(fromBytes(rs.getBytes(2))));
+            }, args);
+        }
+        return loaded;
+    }
+
+    /**
+     * Embeds one batch, one request per text, and stores the vectors.
+     */
+    private Map<Long, float[]> embedBatch(List<Map.Entry<Long, String>> batch) {
+        Map<Long, float[]> embedded = HashMap.newHashMap(batch.size());
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Map.Entry<Long, String> entry : batch) {
+            float[] vector = ollamaService.generateEmbedding(entry.getValue());
+            rows.add(new Object[]{ollamaService.getEmbeddingModel(), entry.getKey(), vector.length, toBytes(vector)});
+            embedded.put(entry.getKey(), HnswIndex.normalize(vector));
+        }
+        if (jdbcTemplate != null) {
+            jdbcTemplate.batchUpdate(INSERT_VECTOR, rows);
+        }
+        return embedded;
+    }
+
+    static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] fromBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
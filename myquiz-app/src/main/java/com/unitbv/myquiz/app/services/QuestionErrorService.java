@@ -178,9 +178,16 @@ public class QuestionErrorService {
         if (id == null) {
             throw new IllegalArgumentException("Error ID cannot be null");
         }
-        if (!questionErrorRepository.existsById(id)) {
+        QuestionError error = questionErrorRepository.findById(id).orElse(null);
+        if (error == null) {
             return false;
         }
+        // Without the error, the parse no longer matches its workbook and must not be reused; duplicate errors are
+        // not part of the parse
+        if (!MyUtil.isDuplicateValidationError(error.getDescription()) && error.getQuestion() != null
+                && error.getQuestion().getQuestionBankAuthor() != null) {
+            error.getQuestion().getQuestionBankAuthor().setContentHash(null);
+        }
         questionErrorRepository.deleteById(id);
         return true;
     }
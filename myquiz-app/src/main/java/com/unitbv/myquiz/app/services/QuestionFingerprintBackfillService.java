@@ -0,0 +1,110 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the normalized/fingerprint columns of questions written before they existed, or by an older
+ * {@link QuestionFingerprints#CURRENT_VERSION}. New and edited questions are covered by the entity callbacks.
+ * <p>
+ * Rows are updated through JDBC so the backfill does not touch {@code updated_at}.
+ */
+@Service
+public class QuestionFingerprintBackfillService {
+    private static final Logger logger = LoggerFactory.getLogger(QuestionFingerprintBackfillService.class);
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final String SELECT_STALE_QUESTIONS = """
+            SELECT id, title, text, response1, response2, response3, response4 FROM question
+            WHERE id > ? AND (fingerprint_version IS NULL OR fingerprint_version <> ?)
+            ORDER BY id LIMIT ?""";
+    private static final String UPDATE_FINGERPRINTS = """
+            UPDATE question SET title_normalized = ?, text_normalized = ?, response1_normalized = ?, response2_normalized = ?,
+            response3_normalized = ?, response4_normalized = ?, title_fingerprint = ?, text_fingerprint = ?, title_text_fingerprint = ?,
+            response1_fingerprint = ?, response2_fingerprint = ?, response3_fingerprint = ?, response4_fingerprint = ?, fingerprint_version = ?
+            WHERE id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionFingerprintBackfillService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            int updated = backfillFingerprints();
+            if (updated > 0) {
+                logger.atInfo().addArgument(updated).log("Backfilled question fingerprints for {} questions");
+            }
+        }
+        catch (RuntimeException e) {
+            logger.atWarn().setCause(e).log("Question fingerprint backfill failed; stale rows fall back to in-memory normalization");
+        }
+    }
+
+    /**
+     * Recomputes the stored normalized forms of every question whose fingerprint version is missing or outdated.
+     *
+     * @return number of updated questions
+     */
+    public int backfillFingerprints() {
+        int updated = 0;
+        long lastId = 0L;
+        while (true) {
+            List<Question> batch = jdbcTemplate.query(
+                    SELECT_STALE_QUESTIONS,
+                    (rs, rowNum) -> {
+                        Question question = new Question();
+                        question.setId(rs.getLong("id"));
+                        question.setTitle(rs.getString("title"));
+                        question.setText(rs.getString("text"));
+                        question.setResponse1(rs.getString("response1"));
+                        question.setResponse2(rs.getString("response2"));
+                        question.setResponse3(rs.getString("response3"));
+                        question.setResponse4(rs.getString("response4"));
+                        return question;
+                    },
+                    lastId,
+                    QuestionFingerprints.CURRENT_VERSION,
+                    BACKFILL_BATCH_SIZE
+            );
+            if (batch.isEmpty()) {
+                return updated;
+            }
+
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (Question question : batch) {
+                question.refreshFingerprints();
+                rows.add(new Object[]{
+                        question.getNormalizedTitle(),
+                        question.getNormalizedText(),
+                        question.getNormalizedResponse1(),
+                        question.getNormalizedResponse2(),
+                        question.getNormalizedResponse3(),
+                        question.getNormalizedResponse4(),
+                        question.getTitleFingerprint(),
+                        question.getTextFingerprint(),
+                        question.getTitleTextFingerprint(),
+                        question.getResponse1Fingerprint(),
+                        question.getResponse2Fingerprint(),
+                        question.getResponse3Fingerprint(),
+                        question.getResponse4Fingerprint(),
+                        question.getFingerprintVersion(),
+                        question.getId()
+                });
+            }
+            jdbcTemplate.batchUpdate(UPDATE_FINGERPRINTS, rows);
+            updated += batch.size();
+            lastId = batch.getLast().getId();
+        }
+    }
+}
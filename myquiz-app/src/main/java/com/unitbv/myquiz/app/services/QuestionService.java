@@ -39,6 +39,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -61,6 +63,7 @@ public class QuestionService {
     private final ExcelParsingService excelParsingService;
     private final QuestionDuplicationService questionDuplicationService;
     private final TextProcessingService textProcessingService;
+    private final DuplicateCorpusCache duplicateCorpusCache;
 
     @Autowired
     public QuestionService(
@@ -68,7 +71,8 @@ public class QuestionService {
             QuestionBankAuthorRepository questionBankAuthorRepository, QuestionBankRepository questionBankRepository, CourseRepository courseRepository, CourseService courseService,
             AuthorRepository authorRepository, QuestionMapper questionMapper, QuestionDtoEnricher questionDtoEnricher, ExcelParsingService excelParsingService,
             QuestionDuplicationService questionDuplicationService,
-            TextProcessingService textProcessingService
+            TextProcessingService textProcessingService,
+            DuplicateCorpusCache duplicateCorpusCache
     ) {
         this.authorService = authorService;
         this.questionRepository = questionRepository;
@@ -82,6 +86,7 @@ public class QuestionService {
         this.excelParsingService = excelParsingService;
         this.questionDuplicationService = questionDuplicationService;
         this.textProcessingService = textProcessingService;
+        this.duplicateCorpusCache = duplicateCorpusCache;
     }
 
     /**
@@ -110,6 +115,21 @@ public class QuestionService {
         );
     }
 
+    /**
+     * Parse the Excel files of a zip archive without extracting it to disk.
+     * <p>
+     * Excel entries are named like the files of an extracted archive (see {@link #parseExcelFilesFromFolder}), their
+     * names prefixed with the author part of their parent folder name.
+     *
+     * @param questionBank The questionBank to associate questions with
+     * @param archive      The zip archive stream, not closed here
+     * @return Number of Excel files successfully processed
+     * @throws IOException if the archive cannot be read or breaks the archive limits
+     */
+    public int parseExcelFilesFromArchive(QuestionBank questionBank, InputStream archive) throws IOException {
+        return excelParsingService.parseExcelFilesFromArchive(questionBank, archive);
+    }
+
     /**
      * Parse an Excel file and extract questions from all sheets.
      * <p>
@@ -185,8 +205,11 @@ public class QuestionService {
     private boolean deleteQuestionInternal(Long id) {
         Question question = findQuestionById(id);
         if (question != null) {
-            questionDuplicationService.removeAllDuplicateAssociationsForQuestion(id);
+            String course = DuplicateCorpusCache.courseNameOf(question);
+            questionDuplicationService.detachQuestionFromDuplicates(id);
+            forgetContentHash(question.getQuestionBankAuthor());
             questionRepository.deleteById(id);
+            duplicateCorpusCache.removeQuestion(course, id);
             return true;
         }
         return false;
@@ -303,9 +326,22 @@ public class QuestionService {
         );
 
         Question savedQuestion = saveQuestion(question);
+        forgetContentHash(savedQuestion.getQuestionBankAuthor());
+        duplicateCorpusCache.markChanged(savedQuestion);
+        questionDuplicationService.refreshDuplicatesForQuestion(savedQuestion.getId());
         return questionMapper.toDto(savedQuestion);
     }
 
+    /**
+     * Edited questions no longer match the workbook they were parsed from, so its parse must not be reused.
+     */
+    private void forgetContentHash(QuestionBankAuthor questionBankAuthor) {
+        if (questionBankAuthor != null && questionBankAuthor.getContentHash() != null) {
+            questionBankAuthor.setContentHash(null);
+            questionBankAuthorRepository.save(questionBankAuthor);
+        }
+    }
+
     private void assignQuestionBankAuthorForQuestion(QuestionDto questionDto, Question question, QuestionBankAuthor fallbackQuestionBankAuthor) {
         Author author = resolveAuthor(
                 questionDto,
@@ -425,6 +461,8 @@ public class QuestionService {
         if (existingQuestion == null) {
             return null;
         }
+        String previousCourse = DuplicateCorpusCache.courseNameOf(existingQuestion);
+        forgetContentHash(existingQuestion.getQuestionBankAuthor());
 
         applyEditableFields(
                 existingQuestion,
@@ -437,6 +475,10 @@ public class QuestionService {
         );
 
         Question savedQuestion = saveQuestion(existingQuestion);
+        forgetContentHash(savedQuestion.getQuestionBankAuthor());
+        duplicateCorpusCache.markChanged(previousCourse);
+        duplicateCorpusCache.markChanged(savedQuestion);
+        questionDuplicationService.refreshDuplicatesForQuestion(savedQuestion.getId());
         return questionMapper.toDto(savedQuestion);
     }
 
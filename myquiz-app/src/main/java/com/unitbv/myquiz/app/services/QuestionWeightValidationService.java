@@ -4,10 +4,10 @@ import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
 import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
 import com.unitbv.myquiz.app.util.InputTemplate;
-import org.apache.poi.ss.usermodel.Cell;
+import com.unitbv.myquiz.app.util.SheetCell;
+import com.unitbv.myquiz.app.util.SheetRow;
+import com.unitbv.myquiz.app.util.XlsxSheet;
 import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -39,7 +39,7 @@ public class QuestionWeightValidationService {
     }
 
     @Transactional
-    public boolean validateMinimumQuestions(Sheet sheet, QuestionBankAuthor questionBankAuthor) {
+    public boolean validateMinimumQuestions(XlsxSheet sheet, QuestionBankAuthor questionBankAuthor) {
         if (sheet.getLastRowNum() < MIN_QUESTIONS_PER_SHEET) {
             Question markerQuestion = new Question();
             markerQuestion.setCrtNo(-1);
@@ -52,9 +52,9 @@ public class QuestionWeightValidationService {
         return true;
     }
 
-    public boolean isHeaderRow(Row row, InputTemplate inputTemplate, int rowNumber) {
+    public boolean isHeaderRow(SheetRow row, InputTemplate inputTemplate, int rowNumber) {
         int positionPR1 = inputTemplate.getPositionPR1();
-        Cell pr1Cell = row.getCell(positionPR1);
+        SheetCell pr1Cell = row.getCell(positionPR1);
         if (pr1Cell != null && pr1Cell.getCellType() == CellType.STRING) {
             String cellValue = pr1Cell.getStringCellValue();
             if (cellValue.contains("PR1") || cellValue.contains("Punctaj")) {
@@ -65,9 +65,9 @@ public class QuestionWeightValidationService {
         return false;
     }
 
-    public boolean isTrueFalseHeaderRow(Row row, InputTemplate inputTemplate, int rowNumber) {
+    public boolean isTrueFalseHeaderRow(SheetRow row, InputTemplate inputTemplate, int rowNumber) {
         int positionPR1 = inputTemplate.getPositionPR1();
-        Cell pr1Cell = row.getCell(positionPR1);
+        SheetCell pr1Cell = row.getCell(positionPR1);
         if (pr1Cell != null && pr1Cell.getCellType() == CellType.STRING) {
             String cellValue = pr1Cell.getStringCellValue();
             if (cellValue.contains("PR1") || cellValue.contains("Punctaj") || cellValue.contains("TRUE")) {
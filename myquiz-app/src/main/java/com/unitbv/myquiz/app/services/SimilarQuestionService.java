@@ -0,0 +1,226 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.dto.QuestionDto;
+import com.unitbv.myquiz.api.dto.QuestionDuplicateDto;
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.mapper.QuestionDuplicateMapper;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the existing questions of a course that are closest to a draft, so authors see likely duplicates while they
+ * are still editing instead of after the next recompute.
+ * <p>
+ * Candidates come from a {@link QGramCandidateIndex} per course, kept in line with the records the
+ * {@link DuplicateCorpusCache} holds for the course. Lookups read them through
+ * {@link DuplicateCorpusCache#cachedCorpusFor(String)}, so they only reach the database for a course not cached or
+ * changed since; only the records that changed since the previous lookup are indexed again. The best candidates by
+ * trigram overlap are then ranked by the {@code myquiz.duplicates.similar-algorithm} strategy on the title and on the
+ * text (true/false) or the best answer pair (multichoice), exact matches scoring 1. Indexes are kept for as many
+ * courses as the corpus cache, least recently used first out.
+ */
+@Service
+public class SimilarQuestionService {
+    private static final Logger logger = LoggerFactory.getLogger(SimilarQuestionService.class);
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    /** Candidates ranked by the strategy per requested result, so the trigram pre-selection rarely hides a match. */
+    private static final int CANDIDATES_PER_RESULT = 4;
+    private static final int MIN_CANDIDATES = 50;
+
+    private final DuplicateCorpusCache duplicateCorpusCache;
+    private final QuestionDuplicationService questionDuplicationService;
+    private final QuestionRepository questionRepository;
+    private final QuestionDuplicateMapper questionDuplicateMapper;
+    private final String similarAlgorithm;
+    private final Map<String, QGramCandidateIndex> indexes;
+
+    public SimilarQuestionService(
+            DuplicateCorpusCache duplicateCorpusCache, QuestionDuplicationService questionDuplicationService, QuestionRepository questionRepository,
+            QuestionDuplicateMapper questionDuplicateMapper, DuplicateDetectionProperties duplicateDetectionProperties
+    ) {
+        this.duplicateCorpusCache = duplicateCorpusCache;
+        this.questionDuplicationService = questionDuplicationService;
+        this.questionRepository = questionRepository;
+        this.questionDuplicateMapper = questionDuplicateMapper;
+        this.similarAlgorithm = duplicateDetectionProperties.getSimilarAlgorithm();
+        int maxCourses = Math.max(1, duplicateDetectionProperties.getCorpusCacheCourses());
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QGramCandidateIndex> eldest) {
+                return size() > maxCourses;
+            }
+        };
+    }
+
+    /**
+     * Returns the existing questions of the draft's course most similar to it, best first. The draft is compared
+     * with questions of its type only; {@code draft.id}, when set, excludes the edited question itself.
+     *
+     * @param limit number of questions to return, capped at {@value #MAX_LIMIT}
+     * @return the similar questions with their similarity in percent and the cause of the match, if any
+     * @throws IllegalArgumentException if the draft has no course or nothing to compare
+     */
+    @Transactional(readOnly = true)
+    public List<QuestionDuplicateDto> findSimilarQuestions(QuestionDto draft, int limit) {
+        if (draft == null || draft.getCourse() == null || draft.getCourse().isBlank()) {
+            throw new IllegalArgumentException("The draft question needs a course");
+        }
+        CorpusQuestion draftRecord = CorpusQuestion.of(toQuestion(draft));
+        if (draftRecord.title() == null && draftRecord.text() == null && draftRecord.answers().length == 0) {
+            throw new IllegalArgumentException("The draft question has no title, text or answers to compare");
+        }
+        long startedMs = System.currentTimeMillis();
+        int resultLimit = Math.clamp(limit, 1, MAX_LIMIT);
+
+        QGramCandidateIndex index = indexFor(draft.getCourse());
+        index.synchronize(duplicateCorpusCache.cachedCorpusFor(draft.getCourse()));
+        List<QGramCandidateIndex.Candidate> candidates = index.query(
+                draftRecord.title(),
+                draftRecord.text(),
+                draftRecord.answers(),
+                record -> record.type() == draftRecord.type() && !record.id().equals(draft.getId()),
+                Math.max(MIN_CANDIDATES, resultLimit * CANDIDATES_PER_RESULT)
+        );
+
+        AbstractQuestionSimilarityStrategy strategy = questionDuplicationService.similarityStrategyFor(similarAlgorithm);
+        List<SimilarMatch> matches = new ArrayList<>(candidates.size());
+        for (QGramCandidateIndex.Candidate candidate : candidates) {
+            matches.add(compare(draftRecord, candidate, strategy));
+        }
+        matches.sort(Comparator.comparingDouble(SimilarMatch::similarity).reversed()
+                               .thenComparing(Comparator.comparingDouble(SimilarMatch::overlap).reversed())
+                               .thenComparing(match -> match.question().id()));
+        List<SimilarMatch> best = matches.subList(0, Math.min(resultLimit, matches.size()));
+
+        Map<Long, Question> questionsById = questionRepository.findAllById(best.stream().map(match -> match.question().id()).toList())
+                                                              .stream().collect(Collectors.toMap(Question::getId, Function.identity()));
+        List<QuestionDuplicateDto> similar = new ArrayList<>(best.size());
+        for (SimilarMatch match : best) {
+            Question question = questionsById.get(match.question().id());
+            if (question == null) {
+                continue;
+            }
+            QuestionDuplicateDto dto = questionDuplicateMapper.toDuplicateDto(null, question);
+            dto.setSimilarity(Math.round(match.similarity() * 100) + "%");
+            dto.setCause(match.cause() == 0 ? null : DuplicateCauseCodes.describe(match.cause()));
+            similar.add(dto);
+        }
+        logger.atDebug().addArgument(similar.size()).addArgument(draft.getCourse()).addArgument(index.size()).addArgument(candidates.size())
+              .addArgument(System.currentTimeMillis() - startedMs)
+              .log("Found {} similar questions in course '{}' ({} indexed, {} candidates ranked) in {} ms");
+        return similar;
+    }
+
+    private QGramCandidateIndex indexFor(String course) {
+        synchronized (indexes) {
+            return indexes.computeIfAbsent(course.toLowerCase(Locale.ROOT), key -> new QGramCandidateIndex());
+        }
+    }
+
+    /**
+     * Scores a candidate against the draft. The similarity is the mean of the title and content scores the draft
+     * can be compared on; the cause lists the matches the detection would report, with the draft as the first
+     * question of the pair.
+     */
+    static SimilarMatch compare(CorpusQuestion draft, QGramCandidateIndex.Candidate candidate, AbstractQuestionSimilarityStrategy strategy) {
+        CorpusQuestion question = candidate.question();
+        double threshold = strategy.getThreshold();
+        double titleScore = fieldScore(draft.title(), question.title(), strategy);
+        int cause = fieldCause(DuplicateCauseCodes.FIELD_TITLE, draft.title(), question.title(), titleScore, threshold);
+        int fields = draft.title() == null ? 0 : 1;
+        double total = titleScore;
+
+        if (draft.type() == QuestionType.MULTICHOICE) {
+            double contentScore = 0.0d;
+            int contentCause = 0;
+            for (int d = 0; d < draft.answers().length; d++) {
+                for (int q = 0; q < question.answers().length; q++) {
+                    double score = fieldScore(draft.answers()[d], question.answers()[q], strategy);
+                    int answerCause = fieldCause(DuplicateCauseCodes.FIELD_ANSWER, draft.answers()[d], question.answers()[q], score, threshold);
+                    contentScore = Math.max(contentScore, score);
+                    if (answerCause != 0 && (contentCause == 0 || strongerAnswerCause(answerCause, contentCause))) {
+                        contentCause = DuplicateCauseCodes.withAnswers(answerCause, draft.answerNumbers()[d], question.answerNumbers()[q]);
+                    }
+                }
+            }
+            cause = DuplicateCauseCodes.merge(cause, contentCause);
+            fields += draft.answers().length == 0 ? 0 : 1;
+            total += contentScore;
+        } else {
+            double textScore = fieldScore(draft.text(), question.text(), strategy);
+            cause = DuplicateCauseCodes.merge(cause, fieldCause(DuplicateCauseCodes.FIELD_TEXT, draft.text(), question.text(), textScore, threshold));
+            fields += draft.text() == null ? 0 : 1;
+            total += textScore;
+        }
+        return new SimilarMatch(question, fields == 0 ? 0.0d : total / fields, candidate.overlap(), cause);
+    }
+
+    private static double fieldScore(String draftValue, String value, AbstractQuestionSimilarityStrategy strategy) {
+        if (draftValue == null || value == null) {
+            return 0.0d;
+        }
+        if (draftValue.equals(value)) {
+            return 1.0d;
+        }
+        return Math.max(0.0d, strategy.score(draftValue, value, 0.0d));
+    }
+
+    private static int fieldCause(int field, String draftValue, String value, double score, double threshold) {
+        if (draftValue == null || value == null) {
+            return 0;
+        }
+        if (draftValue.equals(value)) {
+            return DuplicateCauseCodes.of(field, DuplicateCauseCodes.KIND_EXACT);
+        }
+        if (draftValue.contains(value) || value.contains(draftValue)) {
+            return DuplicateCauseCodes.of(field, DuplicateCauseCodes.KIND_SUBSTRING);
+        }
+        return score >= threshold ? DuplicateCauseCodes.similar(field, score) : 0;
+    }
+
+    /**
+     * Exact beats substring beats similar; among similar answer pairs the higher score wins.
+     */
+    private static boolean strongerAnswerCause(int cause, int current) {
+        int kind = DuplicateCauseCodes.kindOf(cause, DuplicateCauseCodes.FIELD_ANSWER);
+        int currentKind = DuplicateCauseCodes.kindOf(current, DuplicateCauseCodes.FIELD_ANSWER);
+        if (kind != currentKind) {
+            return kind < currentKind;
+        }
+        return DuplicateCauseCodes.score(cause) > DuplicateCauseCodes.score(current);
+    }
+
+    private static Question toQuestion(QuestionDto draft) {
+        Question question = new Question();
+        question.setType(draft.getType() == null ? QuestionType.MULTICHOICE : draft.getType());
+        question.setTitle(draft.getTitle());
+        question.setText(draft.getText());
+        question.setResponse1(draft.getResponse1());
+        question.setResponse2(draft.getResponse2());
+        question.setResponse3(draft.getResponse3());
+        question.setResponse4(draft.getResponse4());
+        return question;
+    }
+
+    /**
+     * A candidate with its similarity to the draft, its trigram overlap and the {@link DuplicateCauseCodes cause} of
+     * the match, {@code 0} when no field matches.
+     */
+    record SimilarMatch(CorpusQuestion question, double similarity, double overlap, int cause) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cheap necessary conditions a pair has to meet before a strategy runs its full similarity kernel.
+ * <p>
+ * Every filter is an upper bound of the similarity (or a lower bound of the edit distance) derived from the
+ * strategy's threshold, so a rejected pair can never be similar and the cascade does not change any result. The
+ * filters run from cheapest to most expensive:
+ * <ol>
+ *     <li>length: the length difference bounds the edit distance, the length ratio bounds the Jaro matches</li>
+ *     <li>bag distance: characters of one string missing from the other, counted on a character histogram</li>
+ *     <li>q-gram count: strings within edit distance {@code k} share at least {@code max(m, n) - q + 1 - k * q}
+ *     q-grams (edit distance only)</li>
+ * </ol>
+ * Histograms fold characters into {@value #BUCKETS} buckets and q-grams into {@value #QGRAM_BUCKETS} buckets.
+ * Folding can only make two strings look closer, so the bounds stay necessary conditions.
+ * <p>
+ * Counters belong to the cascade instance. The cascade of a strategy bean is shared by every caller, so a recompute
+ * counts on a copy of its own, see {@link #withOwnCounters()}.
+ */
+abstract class SimilarityFilterCascade {
+
+    /** Cascade of strategies without filters: every pair passes and nothing is counted. */
+    static final SimilarityFilterCascade NONE = new SimilarityFilterCascade() {
+        @Override
+        boolean mayBeSimilar(String left, String right) {
+            return true;
+        }
+
+        @Override
+        SimilarityFilterCascade withOwnCounters() {
+            return this;
+        }
+    };
+
+    private static final int BUCKETS = 256;
+    private static final int QGRAM = 2;
+    private static final int QGRAM_BUCKETS = 4096;
+    /** Slack for floating point bounds, so rounding never rejects a pair exactly at the threshold. */
+    private static final double EPSILON = 1e-9d;
+    private static final ThreadLocal<int[]> HISTOGRAMS = ThreadLocal.withInitial(() -> new int[QGRAM_BUCKETS]);
+
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder prunedByLength = new LongAdder();
+    private final LongAdder prunedByBag = new LongAdder();
+    private final LongAdder prunedByQGram = new LongAdder();
+
+    /**
+     * Cascade for a normalized edit distance similarity {@code 1 - d / max(m, n)} with the given threshold.
+     */
+    static SimilarityFilterCascade editDistance(double threshold) {
+        return new EditDistanceCascade(threshold);
+    }
+
+    /**
+     * Cascade for Jaro-Winkler with the given threshold, prefix scaling and maximum prefix length.
+     */
+    static SimilarityFilterCascade jaroWinkler(double threshold, double prefixScaling, int maxPrefixLength) {
+        return new JaroWinklerCascade(threshold, prefixScaling, maxPrefixLength);
+    }
+
+    /**
+     * Returns {@code false} if the two non-blank values certainly do not reach the threshold.
+     */
+    abstract boolean mayBeSimilar(String left, String right);
+
+    /**
+     * Returns the same filters with counters starting at zero.
+     */
+    abstract SimilarityFilterCascade withOwnCounters();
+
+    SimilarityFilterStats stats() {
+        return new SimilarityFilterStats(evaluated.sum(), prunedByLength.sum(), prunedByBag.sum(), prunedByQGram.sum());
+    }
+
+    final void countEvaluated() {
+        evaluated.increment();
+    }
+
+    final boolean prunedByLength() {
+        prunedByLength.increment();
+        return false;
+    }
+
+    final boolean prunedByBag() {
+        prunedByBag.increment();
+        return false;
+    }
+
+    final boolean prunedByQGram() {
+        prunedByQGram.increment();
+        return false;
+    }
+
+    /**
+     * Number of characters two strings have in common, counted as multisets over folded character buckets.
+     */
+    static int commonCharacters(String left, String right) {
+        int[] histogram = HISTOGRAMS.get();
+        for (int i = 0; i < left.length(); i++) {
+            histogram[left.charAt(i) & (BUCKETS - 1)]++;
+        }
+        int common = 0;
+        for (int i = 0; i < right.length(); i++) {
+            int bucket = right.charAt(i) & (BUCKETS - 1);
+            if (histogram[bucket] > 0) {
+                histogram[bucket]--;
+                common++;
+            }
+        }
+        for (int i = 0; i < left.length(); i++) {
+            histogram[left.charAt(i) & (BUCKETS - 1)] = 0;
+        }
+        return common;
+    }
+
+    /**
+     * Number of q-grams two strings have in common, counted as multisets over folded q-gram buckets.
+     */
+    static int commonQGrams(String left, String right) {
+        int[] histogram = HISTOGRAMS.get();
+        for (int i = 0; i + QGRAM <= left.length(); i++) {
+            histogram[qGramBucket(left, i)]++;
+        }
+        int common = 0;
+        for (int i = 0; i + QGRAM <= right.length(); i++) {
+            int bucket = qGramBucket(right, i);
+            if (histogram[bucket] > 0) {
+                histogram[bucket]--;
+                common++;
+            }
+        }
+        for (int i = 0; i + QGRAM <= left.length(); i++) {
+            histogram[qGramBucket(left, i)] = 0;
+        }
+        return common;
+    }
+
+    private static int qGramBucket(String value, int start) {
+        return (value.charAt(start) * 31 + value.charAt(start + 1)) & (QGRAM_BUCKETS - 1);
+    }
+
+    private static final class EditDistanceCascade extends SimilarityFilterCascade {
+        private final double threshold;
+
+        private EditDistanceCascade(double threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        SimilarityFilterCascade withOwnCounters() {
+            return new EditDistanceCascade(threshold);
+        }
+
+        @Override
+        boolean mayBeSimilar(String left, String right) {
+            countEvaluated();
+            int leftLength = left.length();
+            int rightLength = right.length();
+            int maxLength = Math.max(leftLength, rightLength);
+            int maxDistance = AbstractQuestionSimilarityStrategy.maxAllowedDistance(threshold, maxLength);
+            if (maxDistance < 0 || Math.abs(leftLength - rightLength) > maxDistance) {
+                return prunedByLength();
+            }
+            // Every character of the longer string without a partner in the shorter one costs at least one edit.
+            if (maxLength - commonCharacters(left, right) > maxDistance) {
+                return prunedByBag();
+            }
+            int requiredQGrams = maxLength - QGRAM + 1 - maxDistance * QGRAM;
+            if (requiredQGrams > 0 && commonQGrams(left, right) < requiredQGrams) {
+                return prunedByQGram();
+            }
+            return true;
+        }
+    }
+
+    private static final class JaroWinklerCascade extends SimilarityFilterCascade {
+        private final double minJaro;
+
+        private JaroWinklerCascade(double threshold, double prefixScaling, int maxPrefixLength) {
+            // jw = jaro + l * p * (1 - jaro) <= jaro + L * p * (1 - jaro), solved for the smallest jaro reaching the threshold.
+            double maxBoost = maxPrefixLength * prefixScaling;
+            this.minJaro = maxBoost >= 1.0d ? 0.0d : (threshold - maxBoost) / (1.0d - maxBoost);
+        }
+
+        private JaroWinklerCascade(double minJaro) {
+            this.minJaro = minJaro;
+        }
+
+        @Override
+        SimilarityFilterCascade withOwnCounters() {
+            return new JaroWinklerCascade(minJaro);
+        }
+
+        @Override
+        boolean mayBeSimilar(String left, String right) {
+            countEvaluated();
+            int leftLength = left.length();
+            int rightLength = right.length();
+            // jaro = (m / |a| + m / |b| + (m - t) / m) / 3 with at most min(|a|, |b|) matches m.
+            if (maxJaro(Math.min(leftLength, rightLength), leftLength, rightLength) < minJaro - EPSILON) {
+                return prunedByLength();
+            }
+            // Matched characters are equal, so m is also bounded by the characters both strings share.
+            if (maxJaro(commonCharacters(left, right), leftLength, rightLength) < minJaro - EPSILON) {
+                return prunedByBag();
+            }
+            return true;
+        }
+
+        private static double maxJaro(int matches, int leftLength, int rightLength) {
+            if (matches == 0) {
+                return 0.0d;
+            }
+            return ((double) matches / leftLength + (double) matches / rightLength + 1.0d) / 3.0d;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.unitbv.myquiz.app.services;
+
+/**
+ * Counts of the {@link SimilarityFilterCascade} of a strategy: pairs that reached it, pairs rejected by each filter
+ * and pairs that went on to the full similarity kernel.
+ */
+public record SimilarityFilterStats(long evaluated, long prunedByLength, long prunedByBag, long prunedByQGram) {
+
+    public static final SimilarityFilterStats EMPTY = new SimilarityFilterStats(0, 0, 0, 0);
+
+    public long passed() {
+        return evaluated - prunedByLength - prunedByBag - prunedByQGram;
+    }
+
+    /**
+     * Returns the counts accumulated since {@code earlier}, a snapshot of the same counters.
+     */
+    public SimilarityFilterStats since(SimilarityFilterStats earlier) {
+        return new SimilarityFilterStats(
+                evaluated - earlier.evaluated,
+                prunedByLength - earlier.prunedByLength,
+                prunedByBag - earlier.prunedByBag,
+                prunedByQGram - earlier.prunedByQGram
+        );
+    }
+
+    /**
+     * Share of evaluated pairs rejected by the given count, in percent.
+     */
+    public double pruningRate(long pruned) {
+        return evaluated == 0 ? 0.0d : 100.0d * pruned / evaluated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                java.util.Locale.ROOT,
+                "evaluated=%d, length=%.1f%%, bag=%.1f%%, q-gram=%.1f%%, passed=%d",
+                evaluated,
+                pruningRate(prunedByLength),
+                pruningRate(prunedByBag),
+                pruningRate(prunedByQGram),
+                passed()
+        );
+    }
+}
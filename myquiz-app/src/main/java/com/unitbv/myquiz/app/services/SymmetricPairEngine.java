@@ -0,0 +1,224 @@
+package com.unitbv.myquiz.app.services;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Visits every unordered pair of a list of positions {@code 0..size-1} exactly once on a fork/join pool.
+ * <p>
+ * The dense variant cuts the upper triangle of the {@code size x size} pair matrix into square tiles of
+ * {@code tileSize} rows and columns. Diagonal tiles only visit {@code left < right}, off-diagonal tiles visit
+ * every cell, so a pair is never evaluated from both sides. The sparse variant is used when a candidate
+ * index already narrows the partners of each position: rows are split into chunks and each row only visits
+ * partners with a higher position, which requires the candidate relation to be symmetric.
+ * <p>
+ * Tasks split in halves until they reach a single tile, so idle workers steal the remaining halves instead of
+ * waiting for a batch barrier. A run limited to fewer workers than the pool has instead starts that many lanes, each
+ * taking the next unevaluated tile until none is left, so courses recomputed side by side share the pool instead of
+ * each claiming all of it. The visitor is called concurrently and must be thread safe.
+ */
+final class SymmetricPairEngine {
+
+    static final int DEFAULT_TILE_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+    private final int parallelism;
+    private final BooleanSupplier cancellation;
+    private final IntConsumer progress;
+
+    /**
+     * @param pool         the pool running the tiles
+     * @param tileSize     rows (and columns) per tile
+     * @param cancellation polled before each tile; once it returns {@code true} the remaining tiles are skipped
+     * @param progress     receives the approximate number of positions whose pairs are fully evaluated
+     */
+    SymmetricPairEngine(ForkJoinPool pool, int tileSize, BooleanSupplier cancellation, IntConsumer progress) {
+        this(pool, tileSize, 0, cancellation, progress);
+    }
+
+    /**
+     * @param parallelism most pool workers evaluating tiles of one run at the same time; {@code 0} or more than the
+     *                    pool's parallelism uses every worker
+     */
+    SymmetricPairEngine(ForkJoinPool pool, int tileSize, int parallelism, BooleanSupplier cancellation, IntConsumer progress) {
+        this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+        this.tileSize = tileSize > 0 ? tileSize : DEFAULT_TILE_SIZE;
+        this.parallelism = parallelism > 0 && parallelism < this.pool.getParallelism() ? parallelism : 0;
+        this.cancellation = cancellation == null ? () -> false : cancellation;
+        this.progress = progress == null ? processed -> { } : progress;
+    }
+
+    @FunctionalInterface
+    interface PairVisitor {
+        void visit(int left, int right);
+    }
+
+    /**
+     * Visits all pairs {@code (left, right)} with {@code left < right < size}.
+     *
+     * @return {@code false} if the run was cancelled before every tile was evaluated
+     */
+    boolean forEachPair(int size, PairVisitor visitor) {
+        if (size < 2) {
+            return true;
+        }
+        int blocks = (size + tileSize - 1) / tileSize;
+        int tileCount = blocks * (blocks + 1) / 2;
+        int[] tileRows = new int[tileCount];
+        int[] tileColumns = new int[tileCount];
+        for (int row = 0, tile = 0; row < blocks; row++) {
+            for (int column = row; column < blocks; column++, tile++) {
+                tileRows[tile] = row;
+                tileColumns[tile] = column;
+            }
+        }
+        Run run = new Run(size, tileCount);
+        pool.invoke(rootTask(run, tile -> visitTile(size, tileRows[tile], tileColumns[tile], visitor)));
+        return !run.cancelled.get();
+    }
+
+    /**
+     * Visits the pairs {@code (left, right)} with {@code left < right} where {@code right} is one of
+     * {@code partners.apply(left)}. Positions outside {@code 0..size-1} are ignored.
+     *
+     * @return {@code false} if the run was cancelled before every row was evaluated
+     */
+    boolean forEachCandidatePair(int size, IntFunction<int[]> partners, PairVisitor visitor) {
+        if (size < 2) {
+            return true;
+        }
+        int chunks = (size + tileSize - 1) / tileSize;
+        Run run = new Run(size, chunks);
+        pool.invoke(rootTask(run, chunk -> {
+            int end = Math.min(size, (chunk + 1) * tileSize);
+            for (int left = chunk * tileSize; left < end; left++) {
+                int[] rowPartners = partners.apply(left);
+                if (rowPartners == null) {
+                    continue;
+                }
+                for (int right : rowPartners) {
+                    if (right > left && right < size) {
+                        visitor.visit(left, right);
+                    }
+                }
+            }
+        }));
+        return !run.cancelled.get();
+    }
+
+    private RecursiveAction rootTask(Run run, IntConsumer unit) {
+        if (parallelism == 0) {
+            return new TileTask(run, 0, run.units, unit);
+        }
+        return new LaneTask(run, Math.min(parallelism, run.units), new AtomicInteger(), unit);
+    }
+
+    private void visitTile(int size, int rowBlock, int columnBlock, PairVisitor visitor) {
+        int rowStart = rowBlock * tileSize;
+        int rowEnd = Math.min(size, rowStart + tileSize);
+        int columnStart = columnBlock * tileSize;
+        int columnEnd = Math.min(size, columnStart + tileSize);
+        for (int left = rowStart; left < rowEnd; left++) {
+            for (int right = Math.max(columnStart, left + 1); right < columnEnd; right++) {
+                visitor.visit(left, right);
+            }
+        }
+    }
+
+    private final class Run {
+        private final int size;
+        private final int units;
+        private final AtomicLong completedUnits = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private Run(int size, int units) {
+            this.size = size;
+            this.units = units;
+        }
+
+        private boolean shouldStop() {
+            if (cancelled.get()) {
+                return true;
+            }
+            if (cancellation.getAsBoolean()) {
+                cancelled.set(true);
+                return true;
+            }
+            return false;
+        }
+
+        private void unitCompleted() {
+            long completed = completedUnits.incrementAndGet();
+            progress.accept((int) (completed * size / units));
+        }
+    }
+
+    private final class TileTask extends RecursiveAction {
+        private final transient Run run;
+        private final int from;
+        private final int to;
+        private final transient IntConsumer unit;
+
+        private TileTask(Run run, int from, int to, IntConsumer unit) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+            this.unit = unit;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new TileTask(run, from, middle, unit),
+                        new TileTask(run, middle, to, unit)
+                );
+                return;
+            }
+            if (run.shouldStop()) {
+                return;
+            }
+            unit.accept(from);
+            run.unitCompleted();
+        }
+    }
+
+    private final class LaneTask extends RecursiveAction {
+        private final transient Run run;
+        private final int lanes;
+        private final transient AtomicInteger nextUnit;
+        private final transient IntConsumer unit;
+
+        private LaneTask(Run run, int lanes, AtomicInteger nextUnit, IntConsumer unit) {
+            this.run = run;
+            this.lanes = lanes;
+            this.nextUnit = nextUnit;
+            this.unit = unit;
+        }
+
+        @Override
+        protected void compute() {
+            if (lanes > 1) {
+                int half = lanes >>> 1;
+                invokeAll(
+                        new LaneTask(run, half, nextUnit, unit),
+                        new LaneTask(run, lanes - half, nextUnit, unit)
+                );
+                return;
+            }
+            int next;
+            while (!run.shouldStop() && (next = nextUnit.getAndIncrement()) < run.units) {
+                unit.accept(next);
+                run.unitCompleted();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.unitbv.myquiz.app.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Jaccard similarity of the word sets of two texts, so reordered wording still matches.
+ * <p>
+ * Pairwise calls are only used to confirm and describe matches; during duplicate detection the candidate pairs
+ * come from {@link TokenSetSimilarityJoin}, which runs the same measure as a prefix-filtered self-join and adds the
+ * pairs with one value contained in the other, which detection matches whatever their similarity.
+ */
+@Component
+public class TokenJaccardQuestionSimilarityStrategy extends AbstractQuestionSimilarityStrategy {
+
+    public TokenJaccardQuestionSimilarityStrategy() {
+        super("token-jaccard", 0.80d);
+    }
+
+    @Override
+    protected double similarity(String left, String right) {
+        Set<String> leftTokens = tokenize(left);
+        Set<String> rightTokens = tokenize(right);
+        if (leftTokens.isEmpty() && rightTokens.isEmpty()) {
+            return 1.0d;
+        }
+        Set<String> smaller = leftTokens.size() <= rightTokens.size() ? leftTokens : rightTokens;
+        Set<String> larger = smaller == leftTokens ? rightTokens : leftTokens;
+        int overlap = 0;
+        for (String token : smaller) {
+            if (larger.contains(token)) {
+                overlap++;
+            }
+        }
+        return jaccard(overlap, leftTokens.size(), rightTokens.size());
+    }
+
+    static double jaccard(int overlap, int leftSize, int rightSize) {
+        return (double) overlap / (leftSize + rightSize - overlap);
+    }
+
+    /**
+     * Splits an already normalized value into its distinct words (maximal runs of letters or digits).
+     */
+    static Set<String> tokenize(String value) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (value == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean wordChar = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(value.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
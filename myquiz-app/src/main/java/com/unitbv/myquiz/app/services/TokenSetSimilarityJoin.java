@@ -0,0 +1,382 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Token-set Jaccard self-join (PPJoin) over the course questions, used as the candidate index of the
+ * {@code token-jaccard} strategy.
+ * <p>
+ * Questions are only joined with questions of their own type: titles with titles, true/false texts with texts and
+ * multichoice answers with answers of other questions. Tokens are renumbered by ascending document frequency and
+ * records are processed by increasing size; a pair is only looked at when the two records share a token in their
+ * prefixes, their sizes are compatible and the positional upper bound can still reach the required overlap.
+ * Surviving pairs are verified exactly, so only pairs at or above the threshold are emitted and the join stays far
+ * from quadratic on real courses.
+ * <p>
+ * Detection also reports a value contained in another one, whatever their token overlap: a short title inside a long
+ * one is a duplicate even though their Jaccard similarity is low. Such pairs are added by a containment join, which
+ * probes every value with its rarest character q-gram ({@code q = min(3, length)}) and checks only the values sharing
+ * it, as a value can only be contained in values holding all of its q-grams.
+ */
+final class TokenSetSimilarityJoin implements DuplicateCandidateIndex {
+    private static final double EPSILON = 1e-9d;
+    private static final int PRUNED = Integer.MIN_VALUE / 2;
+    private static final int MAX_GRAM_LENGTH = 3;
+
+    private final List<CorpusQuestion> questions;
+    private final double threshold;
+    private final Map<Long, Integer> positionsByQuestionId;
+    private final Map<Integer, Set<Integer>> partnersByPosition = new HashMap<>();
+    private int pairCount;
+
+    TokenSetSimilarityJoin(List<CorpusQuestion> questions, double threshold) {
+        if (threshold <= 0.0d || threshold > 1.0d) {
+            throw new IllegalArgumentException("Join threshold must be in (0, 1]");
+        }
+        this.questions = questions == null ? List.of() : questions;
+        this.threshold = threshold;
+        this.positionsByQuestionId = HashMap.newHashMap(this.questions.size());
+        for (int position = 0; position < this.questions.size(); position++) {
+            CorpusQuestion question = this.questions.get(position);
+            if (question != null && question.id() != null) {
+                positionsByQuestionId.putIfAbsent(question.id(), position);
+            }
+        }
+
+        for (List<FieldValue> values : fieldsByType(this.questions, true)) {
+            join(values);
+            joinContained(values, this::emit);
+        }
+    }
+
+    /**
+     * Pairs of questions, lower id first, where a title, true/false text or answer contains the same field of another
+     * question of the same type. Candidate sources that only find similar values add these pairs, as detection
+     * reports a contained value whatever its similarity.
+     */
+    static List<long[]> containedPairs(List<CorpusQuestion> questions) {
+        Map<Long, long[]> pairs = new HashMap<>();
+        for (List<FieldValue> values : fieldsByType(questions, false)) {
+            joinContained(values, (left, right) -> {
+                long leftId = questions.get(left).id();
+                long rightId = questions.get(right).id();
+                long lower = Math.min(leftId, rightId);
+                long higher = Math.max(leftId, rightId);
+                pairs.putIfAbsent(DuplicatePairSet.pack(lower, higher), new long[]{lower, higher});
+            });
+        }
+        return new ArrayList<>(pairs.values());
+    }
+
+    /**
+     * Returns the join partners of an indexed question. Questions that were not part of the join input are
+     * compared against the whole list, as with the exhaustive index.
+     */
+    @Override
+    public List<CorpusQuestion> candidatesFor(CorpusQuestion question) {
+        if (question == null) {
+            return List.of();
+        }
+        Integer position = question.id() == null ? null : positionsByQuestionId.get(question.id());
+        if (position == null) {
+            return questions;
+        }
+        Set<Integer> partners = partnersByPosition.get(position);
+        if (partners == null) {
+            return List.of();
+        }
+        List<CorpusQuestion> candidates = new ArrayList<>(partners.size());
+        for (Integer partner : partners) {
+            candidates.add(questions.get(partner));
+        }
+        return candidates;
+    }
+
+    int size() {
+        return questions.size();
+    }
+
+    int pairCount() {
+        return pairCount;
+    }
+
+    /**
+     * Groups the compared fields by question type: the titles of each type, then the true/false texts and the
+     * multichoice answers. Tokens are only computed for the similarity join.
+     */
+    private static List<List<FieldValue>> fieldsByType(List<CorpusQuestion> questions, boolean tokenize) {
+        Map<QuestionType, List<FieldValue>> titlesByType = new EnumMap<>(QuestionType.class);
+        Map<QuestionType, List<FieldValue>> contentsByType = new EnumMap<>(QuestionType.class);
+        for (int position = 0; position < questions.size(); position++) {
+            CorpusQuestion question = questions.get(position);
+            if (question == null || question.id() == null || question.type() == null) {
+                continue;
+            }
+            addField(titlesByType.computeIfAbsent(question.type(), type -> new ArrayList<>()), position, question.title(), tokenize);
+            List<FieldValue> contents = contentsByType.computeIfAbsent(question.type(), type -> new ArrayList<>());
+            if (question.type() == QuestionType.TRUEFALSE) {
+                addField(contents, position, question.text(), tokenize);
+            } else {
+                for (String answer : question.answers()) {
+                    addField(contents, position, answer, tokenize);
+                }
+            }
+        }
+        List<List<FieldValue>> fields = new ArrayList<>(titlesByType.values());
+        fields.addAll(contentsByType.values());
+        return fields;
+    }
+
+    private static void addField(List<FieldValue> values, int position, String value, boolean tokenize) {
+        if (value != null && !value.isEmpty()) {
+            values.add(new FieldValue(position, value, tokenize ? TokenJaccardQuestionSimilarityStrategy.tokenize(value) : Set.of()));
+        }
+    }
+
+    private void join(List<FieldValue> values) {
+        List<FieldValue> fieldRecords = values.stream().filter(value -> !value.tokens().isEmpty()).toList();
+        if (fieldRecords.size() < 2) {
+            return;
+        }
+        int[][] records = toOrderedTokenIds(fieldRecords);
+        Integer[] order = new Integer[records.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(recordIndex -> records[recordIndex].length));
+
+        int[] sortedPositions = new int[records.length];
+        int[][] sortedRecords = new int[records.length][];
+        int tokenCount = 0;
+        for (int i = 0; i < order.length; i++) {
+            sortedRecords[i] = records[order[i]];
+            sortedPositions[i] = fieldRecords.get(order[i]).position();
+            for (int token : sortedRecords[i]) {
+                tokenCount = Math.max(tokenCount, token + 1);
+            }
+        }
+
+        int[][] postings = new int[tokenCount][];
+        int[] postingSizes = new int[tokenCount];
+        int[] overlaps = new int[sortedRecords.length];
+        int[] touchedStamp = new int[sortedRecords.length];
+        int[] touched = new int[sortedRecords.length];
+        double overlapFactor = threshold / (1.0d + threshold);
+
+        for (int x = 0; x < sortedRecords.length; x++) {
+            int[] xTokens = sortedRecords[x];
+            int xSize = xTokens.length;
+            int minSize = ceil(threshold * xSize);
+            int probePrefix = xSize - minSize + 1;
+            int touchedCount = 0;
+
+            for (int i = 0; i < probePrefix; i++) {
+                int token = xTokens[i];
+                int[] posting = postings[token];
+                for (int p = 0; p < postingSizes[token]; p += 2) {
+                    int y = posting[p];
+                    int ySize = sortedRecords[y].length;
+                    if (ySize < minSize || overlaps[y] == PRUNED) {
+                        continue;
+                    }
+                    if (touchedStamp[y] != x + 1) {
+                        touchedStamp[y] = x + 1;
+                        touched[touchedCount++] = y;
+                    }
+                    int requiredOverlap = ceil(overlapFactor * (xSize + ySize));
+                    int upperBound = 1 + Math.min(xSize - i - 1, ySize - posting[p + 1] - 1);
+                    overlaps[y] = overlaps[y] + upperBound >= requiredOverlap ? overlaps[y] + 1 : PRUNED;
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int y = touched[t];
+                if (overlaps[y] > 0 && sortedPositions[x] != sortedPositions[y]) {
+                    int overlap = overlap(xTokens, sortedRecords[y]);
+                    if (TokenJaccardQuestionSimilarityStrategy.jaccard(overlap, xSize, sortedRecords[y].length) >= threshold) {
+                        emit(sortedPositions[x], sortedPositions[y]);
+                    }
+                }
+                overlaps[y] = 0;
+            }
+
+            int indexPrefix = xSize - ceil(2.0d * overlapFactor * xSize) + 1;
+            for (int i = 0; i < indexPrefix; i++) {
+                int token = xTokens[i];
+                if (postings[token] == null) {
+                    postings[token] = new int[4];
+                } else if (postingSizes[token] == postings[token].length) {
+                    postings[token] = Arrays.copyOf(postings[token], postings[token].length * 2);
+                }
+                postings[token][postingSizes[token]++] = x;
+                postings[token][postingSizes[token]++] = i;
+            }
+        }
+    }
+
+    /**
+     * Emits the pairs of values where one contains the other, of other questions. Each value is probed with its
+     * rarest q-gram; only longer or equally long values of that posting list are checked.
+     */
+    private static void joinContained(List<FieldValue> values, PairSink emit) {
+        if (values.size() < 2) {
+            return;
+        }
+        boolean[] gramLengths = new boolean[MAX_GRAM_LENGTH + 1];
+        for (FieldValue value : values) {
+            gramLengths[gramLength(value.value())] = true;
+        }
+        Map<Long, Posting> postings = new HashMap<>();
+        for (int v = 0; v < values.size(); v++) {
+            String value = values.get(v).value();
+            for (int q = 1; q <= MAX_GRAM_LENGTH; q++) {
+                if (!gramLengths[q]) {
+                    continue;
+                }
+                for (int start = 0; start + q <= value.length(); start++) {
+                    postings.computeIfAbsent(gram(value, start, q), key -> new Posting()).add(v);
+                }
+            }
+        }
+
+        for (int x = 0; x < values.size(); x++) {
+            FieldValue contained = values.get(x);
+            String value = contained.value();
+            int q = gramLength(value);
+            Posting probe = null;
+            for (int start = 0; start + q <= value.length(); start++) {
+                Posting posting = postings.get(gram(value, start, q));
+                if (probe == null || posting.size < probe.size) {
+                    probe = posting;
+                }
+            }
+            for (int p = 0; p < probe.size; p++) {
+                int y = probe.values[p];
+                FieldValue containing = values.get(y);
+                int lengthDifference = containing.value().length() - value.length();
+                // Equally long values contain each other only when equal, so that pair is checked from one side
+                if (lengthDifference < 0 || (lengthDifference == 0 && y <= x) || containing.position() == contained.position()) {
+                    continue;
+                }
+                if (containing.value().contains(value)) {
+                    emit.accept(contained.position(), containing.position());
+                }
+            }
+        }
+    }
+
+    private static int gramLength(String value) {
+        return Math.min(MAX_GRAM_LENGTH, value.length());
+    }
+
+    /**
+     * Packs the q-gram starting at {@code start} with its length, so grams of different lengths never collide.
+     */
+    private static long gram(String value, int start, int q) {
+        long gram = q;
+        for (int i = start; i < start + q; i++) {
+            gram = (gram << Character.SIZE) | value.charAt(i);
+        }
+        return gram;
+    }
+
+    /**
+     * Renumbers tokens so that rarer tokens get smaller ids, which keeps prefixes selective.
+     */
+    private static int[][] toOrderedTokenIds(List<FieldValue> fieldRecords) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (FieldValue record : fieldRecords) {
+            for (String token : record.tokens()) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+        }
+        List<String> vocabulary = new ArrayList<>(frequencies.keySet());
+        vocabulary.sort(Comparator.<String>comparingInt(frequencies::get).thenComparing(Comparator.naturalOrder()));
+        Map<String, Integer> tokenIds = HashMap.newHashMap(vocabulary.size());
+        for (int id = 0; id < vocabulary.size(); id++) {
+            tokenIds.put(vocabulary.get(id), id);
+        }
+
+        int[][] records = new int[fieldRecords.size()][];
+        for (int r = 0; r < records.length; r++) {
+            Set<String> tokens = fieldRecords.get(r).tokens();
+            int[] ids = new int[tokens.size()];
+            int i = 0;
+            for (String token : tokens) {
+                ids[i++] = tokenIds.get(token);
+            }
+            Arrays.sort(ids);
+            records[r] = ids;
+        }
+        return records;
+    }
+
+    private static int overlap(int[] left, int[] right) {
+        int overlap = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                overlap++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return overlap;
+    }
+
+    /**
+     * Rounds the filter bounds up, leaving a small margin so floating point noise can only make the filters looser.
+     */
+    private static int ceil(double value) {
+        return (int) Math.ceil(value - EPSILON);
+    }
+
+    private void emit(int leftPosition, int rightPosition) {
+        boolean added = partnersByPosition.computeIfAbsent(leftPosition, key -> new TreeSet<>()).add(rightPosition);
+        partnersByPosition.computeIfAbsent(rightPosition, key -> new TreeSet<>()).add(leftPosition);
+        if (added) {
+            pairCount++;
+        }
+    }
+
+    private record FieldValue(int position, String value, Set<String> tokens) {
+    }
+
+    @FunctionalInterface
+    private interface PairSink {
+        void accept(int leftPosition, int rightPosition);
+    }
+
+    /**
+     * Values holding one q-gram, in increasing order and each once.
+     */
+    private static final class Posting {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
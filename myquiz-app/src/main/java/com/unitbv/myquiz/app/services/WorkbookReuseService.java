@@ -0,0 +1,132 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.entities.Author;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.entities.QuestionBank;
+import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
+import com.unitbv.myquiz.app.entities.QuestionError;
+import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
+import com.unitbv.myquiz.app.repositories.QuestionErrorRepository;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import com.unitbv.myquiz.app.specifications.QuestionSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reuse of the parse results of workbooks imported before.
+ * <p>
+ * A question bank author whose workbook was parsed completely keeps the SHA-256 of the workbook, until its questions
+ * or errors are edited. When the same workbook is imported again, its questions and parse errors are copied from the
+ * latest such parse instead of reading and validating the workbook again, provided it was made by the current
+ * {@link #PARSER_VERSION}. Duplicate errors are not copied: they depend on the rest of the course and are computed for
+ * the copies like for freshly parsed questions.
+ */
+@Service
+public class WorkbookReuseService {
+    private static final Logger logger = LoggerFactory.getLogger(WorkbookReuseService.class);
+    /**
+     * Version of the workbook parsing and validation. Raise it whenever either changes what is stored for a workbook,
+     * so workbooks parsed before are read again instead of reusing their outdated questions and errors.
+     */
+    public static final int PARSER_VERSION = 1;
+
+    private final QuestionBankAuthorRepository questionBankAuthorRepository;
+    private final QuestionRepository questionRepository;
+    private final QuestionErrorRepository questionErrorRepository;
+
+    public WorkbookReuseService(QuestionBankAuthorRepository questionBankAuthorRepository, QuestionRepository questionRepository,
+                                QuestionErrorRepository questionErrorRepository) {
+        this.questionBankAuthorRepository = questionBankAuthorRepository;
+        this.questionRepository = questionRepository;
+        this.questionErrorRepository = questionErrorRepository;
+    }
+
+    /**
+     * Returns the id of the latest reusable parse of a workbook, or {@code null} if it was not parsed before by the
+     * current {@link #PARSER_VERSION}.
+     */
+    @Transactional(readOnly = true)
+    public Long findParsed(String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        return questionBankAuthorRepository.findFirstByContentHashAndParserVersionOrderByIdDesc(contentHash, PARSER_VERSION).map(QuestionBankAuthor::getId).orElse(null);
+    }
+
+    /**
+     * Copies a parsed workbook into a question bank: a new question bank author with copies of the questions and of
+     * the parse errors, open again, as a fresh parse would have stored them.
+     *
+     * @param parsedId Id returned by {@link #findParsed(String)}
+     * @param source   File name of the workbook in this import
+     * @return The new question bank author, or {@code null} if the parse was deleted or edited since it was found
+     */
+    @Transactional
+    public QuestionBankAuthor copyParsed(Long parsedId, QuestionBank questionBank, Author author, String source) {
+        QuestionBankAuthor parsed = questionBankAuthorRepository.findById(parsedId).orElse(null);
+        if (parsed == null || parsed.getContentHash() == null || !Integer.valueOf(PARSER_VERSION).equals(parsed.getParserVersion())) {
+            return null;
+        }
+
+        QuestionBankAuthor copy = new QuestionBankAuthor();
+        copy.setAuthor(author);
+        copy.setQuestionBank(questionBank);
+        copy.setSource(source);
+        copy.setTemplateType(parsed.getTemplateType());
+        copy = questionBankAuthorRepository.save(copy);
+
+        List<Question> questions = new ArrayList<>(questionRepository.findAll(QuestionSpecification.byQuestionBankAuthorId(parsedId)));
+        questions.sort(Comparator.comparing(Question::getId));
+        Map<Long, Question> copies = new LinkedHashMap<>();
+        for (Question question : questions) {
+            copies.put(question.getId(), copyQuestion(question, copy));
+        }
+        questionRepository.saveAll(copies.values());
+
+        List<QuestionError> errors = new ArrayList<>();
+        for (QuestionError error : questionErrorRepository.findByQuestionQuestionBankAuthorId(parsedId)) {
+            Question question = copies.get(error.getQuestion().getId());
+            if (question != null && !MyUtil.isDuplicateValidationError(error.getDescription())) {
+                errors.add(new QuestionError(question, error.getDescription(), error.getRowNumber()));
+            }
+        }
+        questionErrorRepository.saveAll(errors);
+
+        copy.setContentHash(parsed.getContentHash());
+        copy.setParserVersion(PARSER_VERSION);
+        copy = questionBankAuthorRepository.save(copy);
+        logger.atInfo().addArgument(source).addArgument(parsedId).addArgument(copies.size()).addArgument(errors.size())
+              .log("Reused parse of '{}' from question bank author {}: {} questions, {} errors copied");
+        return copy;
+    }
+
+    private static Question copyQuestion(Question question, QuestionBankAuthor questionBankAuthor) {
+        Question copy = new Question();
+        copy.setQuestionBankAuthor(questionBankAuthor);
+        copy.setCrtNo(question.getCrtNo());
+        copy.setChapter(question.getChapter());
+        copy.setTitle(question.getTitle());
+        copy.setText(question.getText());
+        copy.setType(question.getType());
+        copy.setWeightResponse1(question.getWeightResponse1());
+        copy.setResponse1(question.getResponse1());
+        copy.setWeightResponse2(question.getWeightResponse2());
+        copy.setResponse2(question.getResponse2());
+        copy.setWeightResponse3(question.getWeightResponse3());
+        copy.setResponse3(question.getResponse3());
+        copy.setWeightResponse4(question.getWeightResponse4());
+        copy.setResponse4(question.getResponse4());
+        copy.setWeightTrue(question.getWeightTrue());
+        copy.setWeightFalse(question.getWeightFalse());
+        copy.setAnswerReferenceText(question.getAnswerReferenceText());
+        return copy;
+    }
+}
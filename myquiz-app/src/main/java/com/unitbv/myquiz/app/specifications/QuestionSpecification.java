@@ -157,6 +157,19 @@ public final class QuestionSpecification implements Specification<Question> {
         };
     }
 
+    /**
+     * Filter questions by the fingerprint of their normalized title+text key (indexed).
+     *
+     * @param titleTextFingerprint the fingerprint computed by {@code QuestionFingerprints.titleTextFingerprint}
+     * @return Specification for filtering by title+text fingerprint
+     */
+    public static Specification<Question> byTitleTextFingerprint(Long titleTextFingerprint) {
+        return (root, query, cb) -> {
+            if (titleTextFingerprint == null) return cb.conjunction();
+            return cb.equal(root.get("titleTextFingerprint"), titleTextFingerprint);
+        };
+    }
+
     /**
      * Filter questions by author name (case-insensitive contains).
      *
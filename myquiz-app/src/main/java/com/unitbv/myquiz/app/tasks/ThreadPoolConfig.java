@@ -3,9 +3,13 @@ package com.unitbv.myquiz.app.tasks;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ThreadPoolExecutor;
 
 /**
@@ -49,4 +53,57 @@ public class ThreadPoolConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Runs the duplicate recompute jobs and schedules their retries while their course is locked by other work. Kept
+     * apart from the duplicate check executor, whose per-question tasks the jobs submit and wait for, so jobs never
+     * take the threads their own tasks need; its size bounds the jobs running at once.
+     */
+    @Bean(name = "duplicateRecomputeTaskScheduler")
+    public TaskScheduler duplicateRecomputeTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(properties.getDuplicateRecompute().getPoolSize());
+        scheduler.setThreadNamePrefix("duplicateRecomputeTaskScheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(properties.getDuplicateRecompute().getAwaitTerminationSeconds());
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * Pool for the Ollama embedding calls of the embedding duplicate strategy. Its size bounds the number of
+     * concurrent requests to Ollama; further batches wait in the queue.
+     */
+    @Bean(name = "embeddingTaskExecutor")
+    public Executor embeddingTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getEmbedding().getCorePoolSize());
+        executor.setMaxPoolSize(properties.getEmbedding().getMaxPoolSize());
+        executor.setQueueCapacity(properties.getEmbedding().getQueueCapacity());
+        executor.setThreadNamePrefix("embeddingTaskExecutor-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(properties.getEmbedding().isWaitForTasksToCompleteOnShutdown());
+        executor.setAwaitTerminationSeconds(properties.getEmbedding().getAwaitTerminationSeconds());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Work-stealing pool for the pairwise duplicate comparison of a recompute. It is CPU bound, so it is sized
+     * by processors rather than by the number of jobs; recompute jobs themselves run on the duplicate recompute scheduler.
+     */
+    @Bean(name = "duplicatePairForkJoinPool", destroyMethod = "shutdown")
+    public ForkJoinPool duplicatePairForkJoinPool() {
+        int parallelism = properties.getDuplicatePairs().getParallelism();
+        return new ForkJoinPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("duplicatePairForkJoinPool-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                false
+        );
+    }
 }
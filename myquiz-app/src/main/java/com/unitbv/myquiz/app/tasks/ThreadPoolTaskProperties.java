@@ -6,6 +6,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class ThreadPoolTaskProperties {
     private PoolProperties readAndParse = new PoolProperties(10, 25, 0);
     private PoolProperties duplicateCheck = new PoolProperties(20, 20, 200);
+    private ForkJoinProperties duplicatePairs = new ForkJoinProperties();
+    private PoolProperties embedding = new PoolProperties(4, 4, 1000);
+    private SchedulerProperties duplicateRecompute = new SchedulerProperties();
 
     public PoolProperties getReadAndParse() {
         return readAndParse;
@@ -23,6 +26,66 @@ public class ThreadPoolTaskProperties {
         this.duplicateCheck = duplicateCheck;
     }
 
+    public ForkJoinProperties getDuplicatePairs() {
+        return duplicatePairs;
+    }
+
+    public void setDuplicatePairs(ForkJoinProperties duplicatePairs) {
+        this.duplicatePairs = duplicatePairs;
+    }
+
+    public PoolProperties getEmbedding() {
+        return embedding;
+    }
+
+    public void setEmbedding(PoolProperties embedding) {
+        this.embedding = embedding;
+    }
+
+    public SchedulerProperties getDuplicateRecompute() {
+        return duplicateRecompute;
+    }
+
+    public void setDuplicateRecompute(SchedulerProperties duplicateRecompute) {
+        this.duplicateRecompute = duplicateRecompute;
+    }
+
+    public static class ForkJoinProperties {
+        /**
+         * Worker threads; {@code 0} uses one per available processor.
+         */
+        private int parallelism;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+
+    public static class SchedulerProperties {
+        private int poolSize = 4;
+        private int awaitTerminationSeconds = 120;
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getAwaitTerminationSeconds() {
+            return awaitTerminationSeconds;
+        }
+
+        public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+            this.awaitTerminationSeconds = awaitTerminationSeconds;
+        }
+    }
+
     public static class PoolProperties {
         private int corePoolSize;
         private int maxPoolSize;
@@ -6,6 +6,7 @@ import com.unitbv.myquiz.api.interfaces.UploadApi;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.api.types.StudyYear;
 import com.unitbv.myquiz.api.types.TemplateType;
+import com.unitbv.myquiz.app.services.CourseLockService;
 import com.unitbv.myquiz.app.upload.application.UploadApplicationService;
 import com.unitbv.myquiz.app.upload.api.support.UploadResponseFactory;
 import com.unitbv.myquiz.app.upload.api.support.TemplateTypeResolver;
@@ -169,7 +170,7 @@ public class UploadController implements UploadApi {
 
     @Override
     @PostMapping(value = ControllerSettings.API_UPLOAD_ARCHIVE_FOLDER, consumes = "multipart/form-data")
-    @Operation(summary = "Upload a folder of archive files", description = "Process all selected ZIP archives one by one with generated unique course and questionBank names. " + "Files matching previously processed file sizes are skipped.")
+    @Operation(summary = "Upload a folder of archive files", description = "Process all selected ZIP archives one by one with generated unique course and questionBank names. " + "Archives with the same content as a previously processed archive are skipped.")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Folder archives processed"), @ApiResponse(responseCode = "400", description = "No valid archives provided"), @ApiResponse(responseCode = "500", description = "Internal server error")})
     public ResponseEntity<ArchiveFolderUploadResultDto> uploadArchiveFolder(
             @Parameter(description = "ZIP archives selected from a folder", required = true) @RequestParam("archives") MultipartFile[] archives,
@@ -247,6 +248,9 @@ public class UploadController implements UploadApi {
                                                        ThrowingSupplier<ResponseEntity<String>> operation) {
         try {
             return operation.get();
+        } catch (CourseLockService.CourseLockedException e) {
+            logger.atWarn().addArgument(e.getMessage()).log("Upload rejected: {}");
+            return uploadResponseFactory.conflict(e);
         } catch (IllegalArgumentException e) {
             logger.atWarn().setCause(e).log(validationLogMessage);
             return uploadResponseFactory.validationError(e);
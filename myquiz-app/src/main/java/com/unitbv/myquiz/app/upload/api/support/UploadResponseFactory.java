@@ -1,6 +1,7 @@
 package com.unitbv.myquiz.app.upload.api.support;
 
 import com.unitbv.myquiz.api.dto.ArchiveFolderUploadResultDto;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
@@ -15,6 +16,10 @@ public class UploadResponseFactory {
         return badRequest("Validation error: " + e.getMessage());
     }
 
+    public ResponseEntity<String> conflict(Exception e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Upload rejected: " + e.getMessage());
+    }
+
     public ResponseEntity<String> internalServerError(Exception e) {
         return ResponseEntity.internalServerError().body(
                 "Upload failed: " + e.getClass().getSimpleName() + ": " + e.getMessage()
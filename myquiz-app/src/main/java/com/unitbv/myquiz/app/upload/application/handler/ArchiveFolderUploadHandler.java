@@ -9,12 +9,14 @@ import com.unitbv.myquiz.api.types.StudyYear;
 import com.unitbv.myquiz.app.services.ArchiveImportService;
 import com.unitbv.myquiz.app.services.CourseService;
 import com.unitbv.myquiz.app.upload.application.support.ArchiveFolderResultSupport;
+import com.unitbv.myquiz.app.upload.application.support.ArchiveProcessingSupport;
 import com.unitbv.myquiz.app.upload.application.support.UploadNamingSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,17 +28,20 @@ public class ArchiveFolderUploadHandler {
     private final ArchiveImportService archiveImportService;
     private final CourseService courseService;
     private final ArchiveFolderResultSupport archiveFolderResultSupport;
+    private final ArchiveProcessingSupport archiveProcessingSupport;
     private final UploadNamingSupport uploadNamingSupport;
 
     public ArchiveFolderUploadHandler(ArchiveUploadHandler archiveUploadHandler,
                                       ArchiveImportService archiveImportService,
                                       CourseService courseService,
                                       ArchiveFolderResultSupport archiveFolderResultSupport,
+                                      ArchiveProcessingSupport archiveProcessingSupport,
                                       UploadNamingSupport uploadNamingSupport) {
         this.archiveUploadHandler = archiveUploadHandler;
         this.archiveImportService = archiveImportService;
         this.courseService = courseService;
         this.archiveFolderResultSupport = archiveFolderResultSupport;
+        this.archiveProcessingSupport = archiveProcessingSupport;
         this.uploadNamingSupport = uploadNamingSupport;
     }
 
@@ -78,9 +83,18 @@ public class ArchiveFolderUploadHandler {
             }
 
             long fileSize = archive.getSize();
-            if (archiveImportService != null && archiveImportService.existsBySize(fileSize)) {
-                archiveFolderResultSupport.markSkipped(result, item, ArchiveFolderResultSupport.MSG_SKIPPED_DUPLICATE_SIZE);
-                logger.atInfo().addArgument(item.getArchiveName()).addArgument(fileSize).log("Skipping folder item '{}' because an archive with size {} was already processed");
+            String contentHash;
+            try {
+                contentHash = archiveProcessingSupport.contentHash(archive);
+            } catch (UncheckedIOException e) {
+                archiveFolderResultSupport.markFailed(result, item, e);
+                logger.atWarn().setCause(e).addArgument(item.getArchiveName()).log("Failed to read archive '{}' in folder upload");
+                result.getItems().add(item);
+                continue;
+            }
+            if (archiveImportService != null && archiveImportService.existsByContentHash(contentHash)) {
+                archiveFolderResultSupport.markSkipped(result, item, ArchiveFolderResultSupport.MSG_SKIPPED_DUPLICATE_CONTENT);
+                logger.atInfo().addArgument(item.getArchiveName()).addArgument(contentHash).log("Skipping folder item '{}' because an archive with SHA-256 {} was already processed");
                 result.getItems().add(item);
                 continue;
             }
@@ -102,7 +116,7 @@ public class ArchiveFolderUploadHandler {
                         "Processed folder item '{}' using courseId={}, questionBank='{}' -> {} files");
 
                 if (archiveImportService != null) {
-                    ArchiveImportDto archiveImport = archiveImportService.saveArchiveImport(item.getArchiveName(), fileSize, uploadResult.questionBankId());
+                    ArchiveImportDto archiveImport = archiveImportService.saveArchiveImport(item.getArchiveName(), fileSize, contentHash, uploadResult.questionBankId());
                     result.getArchiveImports().add(archiveImport);
                 }
             } catch (Exception e) {
@@ -5,8 +5,9 @@ import com.unitbv.myquiz.api.dto.CourseDto;
 import com.unitbv.myquiz.api.types.StudyYear;
 import com.unitbv.myquiz.app.entities.QuestionBank;
 import com.unitbv.myquiz.app.services.ArchiveImportService;
+import com.unitbv.myquiz.app.services.CourseLockService;
 import com.unitbv.myquiz.app.services.CourseService;
-import com.unitbv.myquiz.app.services.FileService;
+import com.unitbv.myquiz.app.services.DuplicateCorpusCache;
 import com.unitbv.myquiz.app.services.QuestionService;
 import com.unitbv.myquiz.app.upload.application.support.ArchiveProcessingSupport;
 import com.unitbv.myquiz.app.upload.application.support.UploadCourseLookupSupport;
@@ -18,34 +19,37 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Path;
+
 
 @Component
 public class ArchiveUploadHandler {
     private static final Logger logger = LoggerFactory.getLogger(ArchiveUploadHandler.class);
 
     private final QuestionService questionService;
-    private final FileService fileService;
     private final CourseService courseService;
     private final ArchiveImportService archiveImportService;
     private final UploadCourseLookupSupport uploadCourseLookupSupport;
     private final ArchiveProcessingSupport archiveProcessingSupport;
     private final UploadNamingSupport uploadNamingSupport;
+    private final DuplicateCorpusCache duplicateCorpusCache;
+    private final CourseLockService courseLockService;
 
     public ArchiveUploadHandler(QuestionService questionService,
-                                FileService fileService,
                                 CourseService courseService,
                                 ArchiveImportService archiveImportService,
                                 UploadCourseLookupSupport uploadCourseLookupSupport,
                                 ArchiveProcessingSupport archiveProcessingSupport,
-                                UploadNamingSupport uploadNamingSupport) {
+                                UploadNamingSupport uploadNamingSupport,
+                                DuplicateCorpusCache duplicateCorpusCache,
+                                CourseLockService courseLockService) {
         this.questionService = questionService;
-        this.fileService = fileService;
         this.courseService = courseService;
         this.archiveImportService = archiveImportService;
         this.uploadCourseLookupSupport = uploadCourseLookupSupport;
         this.archiveProcessingSupport = archiveProcessingSupport;
         this.uploadNamingSupport = uploadNamingSupport;
+        this.duplicateCorpusCache = duplicateCorpusCache;
+        this.courseLockService = courseLockService;
     }
 
     public ArchiveUploadResult processArchiveUpload(MultipartFile archive, Long courseId, String questionBankName, StudyYear studyYear) throws IOException {
@@ -58,34 +62,26 @@ public class ArchiveUploadHandler {
         long startTime = System.currentTimeMillis();
         logger.atInfo().addArgument(archive.getOriginalFilename()).addArgument(questionBankName).log("Processing archive upload: file='{}', questionBank='{}'");
 
-        Path tempDir = null;
-        String archivePath = null;
-
         try {
-            tempDir = archiveProcessingSupport.createWritableTempDirectory("uploaded-archive-");
-            logger.atInfo().addArgument(tempDir).log("Created temp directory: {}");
-
-            archivePath = fileService.uploadFile(archive);
-            Path archiveFilePath = Path.of(archivePath);
-            logger.atInfo().addArgument(archivePath).log("Archive uploaded to: {}");
-
-            archiveProcessingSupport.ensureUploadedArchiveExists(archiveFilePath);
-
-            long extractStart = System.currentTimeMillis();
-            archiveProcessingSupport.extractArchiveContents(archiveFilePath, tempDir);
-            logger.atInfo().addArgument(System.currentTimeMillis() - extractStart).log("Archive extracted in {}ms");
-
             CourseDto courseDto = uploadCourseLookupSupport.findCourseById(courseId);
             if (courseDto == null) {
                 throw new IllegalArgumentException("Course not found for ID: " + courseId);
             }
 
-            ArchiveUploadResult uploadResult = processFilesFromArchiveOptimized(courseDto, questionBankName, studyYear, tempDir);
+            // Rejected while another instance recomputes or imports into the course, see CourseLockService.
+            String purpose = "an archive import of '" + uploadNamingSupport.safeArchiveName(archive.getOriginalFilename()) + "'";
+            ImportedArchive imported = courseLockService.runExclusively(courseDto.getId(), purpose, () -> {
+                ImportedArchive result = processFilesFromArchiveOptimized(courseDto, questionBankName, studyYear, archive);
+                duplicateCorpusCache.markChanged(courseDto.getCourse());
+                return result;
+            });
+            ArchiveUploadResult uploadResult = imported.result();
 
             if (persistArchiveImport && archiveImportService != null) {
                 archiveImportService.saveArchiveImport(
                         uploadNamingSupport.safeArchiveName(archive.getOriginalFilename()),
                         archive.getSize(),
+                        imported.contentHash(),
                         uploadResult.questionBankId()
                 );
             }
@@ -96,15 +92,13 @@ public class ArchiveUploadHandler {
             return uploadResult;
 
         } catch (Exception e) {
-            logger.atError().setCause(e).log("Archive upload failed, cleaning up...");
+            logger.atError().setCause(e).log("Archive upload failed");
             throw e;
-        } finally {
-            archiveProcessingSupport.cleanup(tempDir, archivePath);
         }
     }
 
     @Transactional
-    protected ArchiveUploadResult processFilesFromArchiveOptimized(CourseDto courseDto, String questionBankName, StudyYear studyYear, Path tempDir) {
+    protected ImportedArchive processFilesFromArchiveOptimized(CourseDto courseDto, String questionBankName, StudyYear studyYear, MultipartFile archive) {
 
         long transactionStart = System.currentTimeMillis();
 
@@ -116,14 +110,18 @@ public class ArchiveUploadHandler {
         logger.atInfo().addArgument(questionBank.getId()).log("QuestionBank created with ID: {}");
 
         long parseStart = System.currentTimeMillis();
-        int filesProcessed = questionService.parseExcelFilesFromFolder(questionBank, tempDir.toFile(), 0);
+        // Entries are streamed from the upload and the archive is hashed on the way, nothing is written to disk
+        ArchiveProcessingSupport.ParsedArchive parsed = archiveProcessingSupport.parseArchiveContents(questionBank, archive);
+        int filesProcessed = parsed.filesProcessed();
         logger.atInfo().addArgument(filesProcessed).addArgument(System.currentTimeMillis() - parseStart).log("Parsed {} files in {}ms");
 
         logger.atInfo().addArgument(System.currentTimeMillis() - transactionStart).log("Transaction completed in {}ms");
 
-        return new ArchiveUploadResult(filesProcessed, questionBankName, questionBank.getId());
+        return new ImportedArchive(new ArchiveUploadResult(filesProcessed, questionBankName, questionBank.getId()), parsed.contentHash());
     }
 
+    protected record ImportedArchive(ArchiveUploadResult result, String contentHash) {
+    }
 
 }
 
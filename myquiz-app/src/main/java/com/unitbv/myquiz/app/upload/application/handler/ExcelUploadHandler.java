@@ -8,6 +8,7 @@ import com.unitbv.myquiz.app.entities.QuestionBank;
 import com.unitbv.myquiz.app.repositories.QuestionBankRepository;
 import com.unitbv.myquiz.app.services.AuthorService;
 import com.unitbv.myquiz.app.services.CourseService;
+import com.unitbv.myquiz.app.services.DuplicateCorpusCache;
 import com.unitbv.myquiz.app.services.FileService;
 import com.unitbv.myquiz.app.services.QuestionService;
 import com.unitbv.myquiz.app.specifications.QuestionBankSpecification;
@@ -32,19 +33,22 @@ public class ExcelUploadHandler {
     private final CourseService courseService;
     private final UploadInputValidator uploadInputValidator;
     private final QuestionBankRepository questionBankRepository;
+    private final DuplicateCorpusCache duplicateCorpusCache;
 
     public ExcelUploadHandler(QuestionService questionService,
                               AuthorService authorService,
                               FileService fileService,
                               CourseService courseService,
                               UploadInputValidator uploadInputValidator,
-                              QuestionBankRepository questionBankRepository) {
+                              QuestionBankRepository questionBankRepository,
+                              DuplicateCorpusCache duplicateCorpusCache) {
         this.questionService = questionService;
         this.authorService = authorService;
         this.fileService = fileService;
         this.courseService = courseService;
         this.uploadInputValidator = uploadInputValidator;
         this.questionBankRepository = questionBankRepository;
+        this.duplicateCorpusCache = duplicateCorpusCache;
     }
 
     @Transactional
@@ -87,6 +91,7 @@ public class ExcelUploadHandler {
             }
 
             String parseResult = questionService.parseFileSheets(questionBank, authorEntity, filepath);
+            duplicateCorpusCache.markChanged(courseDto.getCourse());
             logger.atInfo().addArgument(parseResult).log("Parse result: {}");
 
             if (parseResult == null || parseResult.isBlank()) {
@@ -10,6 +10,7 @@ import com.unitbv.myquiz.app.entities.QuestionBank;
 import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
 import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
 import com.unitbv.myquiz.app.services.CourseService;
+import com.unitbv.myquiz.app.services.DuplicateCorpusCache;
 import com.unitbv.myquiz.app.services.QuestionService;
 import com.unitbv.myquiz.app.upload.application.support.UploadCourseLookupSupport;
 import com.unitbv.myquiz.app.upload.application.support.UploadNamingSupport;
@@ -24,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +43,7 @@ public class XmlUploadHandler {
     private final UploadAuthorResolutionPolicy uploadAuthorResolutionPolicy;
     private final UploadCourseLookupSupport uploadCourseLookupSupport;
     private final UploadNamingSupport uploadNamingSupport;
+    private final DuplicateCorpusCache duplicateCorpusCache;
 
     public XmlUploadHandler(QuestionService questionService,
                             CourseService courseService,
@@ -50,7 +53,8 @@ public class XmlUploadHandler {
                             QuestionDeduplicationPolicy questionDeduplicationPolicy,
                             UploadAuthorResolutionPolicy uploadAuthorResolutionPolicy,
                             UploadCourseLookupSupport uploadCourseLookupSupport,
-                            UploadNamingSupport uploadNamingSupport) {
+                            UploadNamingSupport uploadNamingSupport,
+                            DuplicateCorpusCache duplicateCorpusCache) {
         this.questionService = questionService;
         this.courseService = courseService;
         this.questionBankAuthorRepository = questionBankAuthorRepository;
@@ -60,6 +64,7 @@ public class XmlUploadHandler {
         this.uploadAuthorResolutionPolicy = uploadAuthorResolutionPolicy;
         this.uploadCourseLookupSupport = uploadCourseLookupSupport;
         this.uploadNamingSupport = uploadNamingSupport;
+        this.duplicateCorpusCache = duplicateCorpusCache;
     }
 
     @Transactional
@@ -77,7 +82,7 @@ public class XmlUploadHandler {
         questionBank.setStudyYear(studyYear);
         final QuestionBank persistedQuestionBank = questionService.saveQuestionBank(questionBank);
 
-        Set<String> courseQuestionCache = questionDeduplicationPolicy.buildCourseQuestionCache(courseDto.getCourse());
+        Set<QuestionDeduplicationPolicy.QuestionKey> importedQuestionKeys = new HashSet<>();
         Map<String, Author> authorsByInitials = uploadAuthorResolutionPolicy.loadAuthorCacheByInitials();
         Map<Long, QuestionBankAuthor> relationByAuthorId = new HashMap<>();
 
@@ -88,12 +93,12 @@ public class XmlUploadHandler {
         int crtNo = 1;
 
         for (QuestionDto parsed : parsedQuestions) {
-            String key = questionDeduplicationPolicy.buildQuestionKey(parsed.getTitle(), parsed.getText());
+            QuestionDeduplicationPolicy.QuestionKey key = questionDeduplicationPolicy.buildQuestionKey(parsed.getTitle(), parsed.getText());
             if (key == null) {
                 invalidQuestions++;
                 continue;
             }
-            if (courseQuestionCache.contains(key)) {
+            if (importedQuestionKeys.contains(key) || questionDeduplicationPolicy.existsInCourse(courseDto.getCourse(), key)) {
                 skippedDuplicates++;
                 continue;
             }
@@ -128,9 +133,12 @@ public class XmlUploadHandler {
             question.setQuestionBankAuthor(relation);
             questionService.saveQuestion(question);
 
-            courseQuestionCache.add(key);
+            importedQuestionKeys.add(key);
             imported++;
         }
+        if (imported > 0) {
+            duplicateCorpusCache.markChanged(courseDto.getCourse());
+        }
 
         logger.atInfo().addArgument(imported).addArgument(skippedDuplicates).addArgument(invalidQuestions).addArgument(persistedQuestionBank.getId())
                 .log("XML import completed: imported={}, duplicatesSkipped={}, invalid={}, questionBankId={}");
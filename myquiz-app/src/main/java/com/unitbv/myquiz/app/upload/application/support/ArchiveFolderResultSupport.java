@@ -8,7 +8,7 @@ import org.springframework.stereotype.Component;
 @Component
 public class ArchiveFolderResultSupport {
     public static final String MSG_SKIPPED_NON_ARCHIVE = "Skipped non-archive file";
-    public static final String MSG_SKIPPED_DUPLICATE_SIZE = "Skipped archive because another processed archive has the same size";
+    public static final String MSG_SKIPPED_DUPLICATE_CONTENT = "Skipped archive because an archive with the same content was already processed";
 
     public ArchiveFolderItemDto createItem(int index, int total, String archiveName) {
         ArchiveFolderItemDto item = new ArchiveFolderItemDto();
@@ -1,51 +1,60 @@
 package com.unitbv.myquiz.app.upload.application.support;
 
-import com.unitbv.myquiz.app.services.FileService;
-import com.unitbv.myquiz.app.util.FileValidator;
+import com.unitbv.myquiz.app.entities.QuestionBank;
+import com.unitbv.myquiz.app.services.QuestionService;
+import com.unitbv.myquiz.app.util.ContentHash;
 import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
 import java.util.zip.ZipException;
 
 @Component
 public class ArchiveProcessingSupport {
-    private final FileService fileService;
+    private final QuestionService questionService;
 
-    public ArchiveProcessingSupport(FileService fileService) {
-        this.fileService = fileService;
+    public ArchiveProcessingSupport(QuestionService questionService) {
+        this.questionService = questionService;
     }
 
-    public Path createWritableTempDirectory(String prefix) throws IOException {
-        Path tempDir = Files.createTempDirectory(prefix);
-        if (!Files.isWritable(tempDir)) {
-            throw new IOException("Temp directory is not writable: " + tempDir);
+    /**
+     * SHA-256 of an uploaded archive, digested in one streaming pass over the multipart content. Only for checks made
+     * before parsing; {@link #parseArchiveContents} hashes the archive it parses itself.
+     *
+     * @throws UncheckedIOException if the upload cannot be read
+     */
+    public String contentHash(MultipartFile archive) {
+        try (InputStream archiveStream = archive.getInputStream()) {
+            return ContentHash.of(archiveStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive: " + e.getMessage(), e);
         }
-        return tempDir;
     }
 
-    public void ensureUploadedArchiveExists(Path archiveFilePath) throws IOException {
-        if (!FileValidator.exists(archiveFilePath)) {
-            throw new IOException("Archive file was not saved to disk: " + archiveFilePath);
-        }
-    }
-
-    public void extractArchiveContents(Path archiveFilePath, Path tempDir) throws IOException {
-        try {
-            fileService.unzipAndRenameExcelFiles(archiveFilePath, tempDir);
+    /**
+     * Parses the Excel files of an uploaded archive straight from the multipart stream, without saving or extracting
+     * the archive. The archive is hashed in the same pass.
+     *
+     * @return Number of Excel files successfully processed and SHA-256 of the archive
+     * @throws IllegalArgumentException if the archive is not a readable zip archive or breaks the archive limits
+     * @throws UncheckedIOException     if the upload cannot be read
+     */
+    public ParsedArchive parseArchiveContents(QuestionBank questionBank, MultipartFile archive) {
+        try (InputStream archiveStream = archive.getInputStream()) {
+            DigestInputStream digesting = ContentHash.digesting(archiveStream);
+            int filesProcessed = questionService.parseExcelFilesFromArchive(questionBank, digesting);
+            // The zip reader stops before the central directory, which belongs to the hash too
+            return new ParsedArchive(filesProcessed, ContentHash.finish(digesting));
         } catch (ZipException e) {
             throw new IllegalArgumentException("Invalid or unsupported ZIP archive: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive: " + e.getMessage(), e);
         }
     }
 
-    public void cleanup(Path tempDir, String archivePath) {
-        if (tempDir != null) {
-            fileService.removeDir(tempDir.toString());
-        }
-        if (archivePath != null) {
-            fileService.removeFile(archivePath);
-        }
+    public record ParsedArchive(int filesProcessed, String contentHash) {
     }
 }
-
@@ -3,14 +3,15 @@ package com.unitbv.myquiz.app.upload.domain.policy;
 import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.repositories.QuestionRepository;
 import com.unitbv.myquiz.app.specifications.QuestionSpecification;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
 import org.springframework.stereotype.Component;
-import org.springframework.data.jpa.domain.Specification;
-
-import java.util.HashSet;
-import java.util.List;
-import java.util.Locale;
-import java.util.Set;
 
+/**
+ * Decides whether an imported question already exists in a course, by its normalized title and text.
+ * Candidates are found through the title+text fingerprint stored on every question, so the check is an
+ * indexed lookup instead of loading and normalizing the whole course; a fingerprint match only counts once
+ * the normalized title and text are equal too.
+ */
 @Component
 public class QuestionDeduplicationPolicy {
     private final QuestionRepository questionRepository;
@@ -19,38 +20,34 @@ public class QuestionDeduplicationPolicy {
         this.questionRepository = questionRepository;
     }
 
-    public Set<String> buildCourseQuestionCache(String courseName) {
-        if (courseName == null || courseName.isBlank()) {
-            return new HashSet<>();
-        }
-        Specification<Question> specification = QuestionSpecification.byCourse(courseName);
-        List<Question> existingQuestions = questionRepository.findAll(specification);
-
-        Set<String> cache = new HashSet<>();
-        for (Question question : existingQuestions) {
-            String key = buildQuestionKey(question.getTitle(), question.getText());
-            if (key != null) {
-                cache.add(key);
-            }
+    public boolean existsInCourse(String courseName, QuestionKey questionKey) {
+        if (courseName == null || courseName.isBlank() || questionKey == null) {
+            return false;
         }
-        return cache;
+        return questionRepository.findAll(QuestionSpecification.byCourse(courseName)
+                        .and(QuestionSpecification.byTitleTextFingerprint(questionKey.fingerprint())))
+                .stream()
+                .anyMatch(question -> questionKey.equals(buildQuestionKey(question.getTitle(), question.getText())));
     }
 
-    public String buildQuestionKey(String title, String text) {
-        String normalizedTitle = normalizeForComparison(title);
-        String normalizedText = normalizeForComparison(text);
-        if (normalizedTitle == null || normalizedText == null) {
+    /**
+     * Returns the key of a question, or {@code null} when its title or text is blank.
+     */
+    public QuestionKey buildQuestionKey(String title, String text) {
+        // The stored fingerprint hashes the normalized columns, which are cut to their length.
+        Question probe = new Question();
+        probe.setTitle(title);
+        probe.setText(text);
+        if (probe.getTitleTextFingerprint() == null) {
             return null;
         }
-        return normalizedTitle + "||" + normalizedText;
+        return new QuestionKey(probe.getTitleTextFingerprint(), QuestionFingerprints.normalize(title), QuestionFingerprints.normalize(text));
     }
 
-    private String normalizeForComparison(String value) {
-        if (value == null) {
-            return null;
-        }
-        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
-        return normalized.isEmpty() ? null : normalized;
+    /**
+     * Normalized title and text of a question with the fingerprint they are stored under; equal keys are
+     * duplicates.
+     */
+    public record QuestionKey(Long fingerprint, String normalizedTitle, String normalizedText) {
     }
 }
-
@@ -0,0 +1,78 @@
+package com.unitbv.myquiz.app.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digests of uploaded content as lower-case hex, used to recognize archives and workbooks that were imported
+ * before. Streams are digested in chunks, so content of any size is never held in memory for hashing.
+ */
+public final class ContentHash {
+
+    /**
+     * Length of a hash: 32 bytes, two hex digits each.
+     */
+    public static final int LENGTH = 64;
+    private static final String ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHash() {
+        // Prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    public static String of(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Digests a stream to its end; the stream is not closed.
+     */
+    public static String of(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Wraps a stream so that everything read through it is digested, letting a consumer hash content it reads anyway.
+     */
+    public static DigestInputStream digesting(InputStream content) {
+        return new DigestInputStream(content, newDigest());
+    }
+
+    /**
+     * Digests what is left of a stream wrapped by {@link #digesting(InputStream)} and returns the hash of all of its
+     * content; the stream is not closed.
+     */
+    public static String finish(DigestInputStream content) throws IOException {
+        content.transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(content.getMessageDigest().digest());
+    }
+
+    public static String of(Path file) throws IOException {
+        try (InputStream content = Files.newInputStream(file)) {
+            return of(content);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has to provide SHA-256
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.unitbv.myquiz.app.util;
+
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streams the Excel files out of a zip archive in process, without extracting it to disk: entries are read one after
+ * another from a {@link ZipInputStream} and each .xlsx entry is handed to a consumer as a stream.
+ * <p>
+ * Entries are named as archive uploads always named the extracted files: the part of the parent folder name before
+ * its first underscore, an underscore and the file name, so {@code Ana Pop_1234/tema.xlsx} becomes
+ * {@code Ana Pop_tema.xlsx}. Entries at the root of the archive take {@value #ROOT_FOLDER_NAME}, the folder archives
+ * were extracted into, as parent folder. Clashing names get a numeric suffix before the extension.
+ * <p>
+ * Entry paths leaving the archive root are rejected. Against zip bombs, every entry is held to POI's
+ * {@link ZipSecureFile} limits, the ones workbooks are opened with, and the archive to {@value #MAX_ENTRIES} entries
+ * and {@value #MAX_TOTAL_UNCOMPRESSED_BYTES} uncompressed bytes.
+ */
+public final class ExcelArchiveReader {
+
+    static final String ROOT_FOLDER_NAME = "inpArchive";
+    static final int MAX_ENTRIES = 10_000;
+    static final long MAX_TOTAL_UNCOMPRESSED_BYTES = 1L << 30;
+    // Entries smaller than this are not checked for their inflate ratio, like ZipArchiveThresholdInputStream does
+    private static final long GRACE_ENTRY_SIZE = 100 * 1024L;
+    private static final Path ROOT = Path.of(ROOT_FOLDER_NAME);
+
+    private final CountingInputStream raw;
+    private final ZipInputStream zip;
+    private final Set<String> usedNames = new HashSet<>();
+    private long totalUncompressed;
+
+    /**
+     * Receives one Excel entry of an archive.
+     */
+    @FunctionalInterface
+    public interface ExcelEntryConsumer {
+        /**
+         * @param name    Flat name of the entry, unique within the archive
+         * @param content Uncompressed content of the entry; valid only during the call, closing it has no effect
+         */
+        void accept(String name, InputStream content) throws IOException;
+    }
+
+    private ExcelArchiveReader(InputStream archive) {
+        this.raw = new CountingInputStream(archive);
+        this.zip = new ZipInputStream(raw);
+    }
+
+    /**
+     * Hands the Excel entries of an archive to the consumer in archive order; other entries are skipped. The archive
+     * stream is read to its end but not closed.
+     *
+     * @return Number of Excel entries handed to the consumer
+     * @throws ZipException if the archive is not a readable zip archive or breaks the limits above
+     * @throws IOException  if the archive cannot be read or the consumer fails
+     */
+    public static int readExcelEntries(InputStream archive, ExcelEntryConsumer consumer) throws IOException {
+        return new ExcelArchiveReader(archive).read(consumer);
+    }
+
+    private int read(ExcelEntryConsumer consumer) throws IOException {
+        int entries = 0;
+        int excelFiles = 0;
+        ZipEntry entry;
+        while ((entry = nextEntry()) != null) {
+            if (++entries > MAX_ENTRIES) {
+                throw new ZipException("Archive has more than " + MAX_ENTRIES + " entries");
+            }
+            Path entryPath = resolveEntryPath(entry.getName());
+            if (entry.isDirectory() || entryPath.equals(ROOT)) {
+                continue;
+            }
+            EntryInputStream content = new EntryInputStream(entry.getName());
+            if (FileValidator.isExcelFileName(entryPath.getFileName().toString())) {
+                consumer.accept(uniqueName(flatName(entryPath)), content);
+                excelFiles++;
+            }
+            // Skipped entries and unread rest are inflated through the limits too
+            content.transferTo(OutputStream.nullOutputStream());
+        }
+        if (entries == 0) {
+            throw new ZipException("Archive has no entries or is not a zip archive");
+        }
+        return excelFiles;
+    }
+
+    private ZipEntry nextEntry() throws IOException {
+        try {
+            return zip.getNextEntry();
+        } catch (IllegalArgumentException e) {
+            // Entry names are decoded as UTF-8 unless the entry says otherwise
+            throw new ZipException("Archive has an entry name that is not UTF-8: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves an entry name below the archive root, rejecting absolute paths and paths leaving the root.
+     */
+    private static Path resolveEntryPath(String entryName) throws ZipException {
+        String normalizedEntryName = entryName == null ? "" : entryName.replace('\\', '/').trim();
+        if (normalizedEntryName.isEmpty()) {
+            throw new ZipException("ZIP entry name is empty");
+        }
+        if (normalizedEntryName.startsWith("/")
+                || normalizedEntryName.startsWith("../")
+                || normalizedEntryName.contains("/../")
+                || normalizedEntryName.matches("^[A-Za-z]:.*")) {
+            throw new ZipException("Invalid ZIP entry path: " + entryName);
+        }
+
+        Path resolvedPath = ROOT.resolve(normalizedEntryName).normalize();
+        if (!resolvedPath.startsWith(ROOT)) {
+            throw new ZipException("Invalid ZIP entry path: " + entryName);
+        }
+        return resolvedPath;
+    }
+
+    /**
+     * Prefixes the file name with the part of its parent folder name before the first underscore.
+     */
+    static String flatName(Path entryPath) {
+        Path parent = entryPath.getParent();
+        String parentName = parent != null && parent.getFileName() != null ? parent.getFileName().toString() : "";
+        String partialParent = parentName;
+        int underscoreIdx = parentName.indexOf('_');
+        if (underscoreIdx > 0) {
+            partialParent = parentName.substring(0, underscoreIdx);
+        }
+
+        String originalFileName = entryPath.getFileName().toString();
+        return partialParent.isEmpty() ? originalFileName : partialParent + "_" + originalFileName;
+    }
+
+    private String uniqueName(String fileName) {
+        int suffix = 1;
+        while (usedNames.contains(fileName)) {
+            int dotIdx = fileName.lastIndexOf('.');
+            String baseName = dotIdx > 0 ? fileName.substring(0, dotIdx) : fileName;
+            String ext = dotIdx > 0 ? fileName.substring(dotIdx) : "";
+            fileName = baseName + "_" + suffix + ext;
+            suffix++;
+        }
+        usedNames.add(fileName);
+        return fileName;
+    }
+
+    /**
+     * Counts the compressed bytes the zip stream consumes, for the inflate ratio of the current entry.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * The current entry of the zip stream, failing as soon as the entry or the archive exceeds a limit.
+     */
+    private final class EntryInputStream extends FilterInputStream {
+        private final String entryName;
+        private final long compressedStart;
+        private long uncompressed;
+
+        private EntryInputStream(String entryName) {
+            super(zip);
+            this.entryName = entryName;
+            this.compressedStart = raw.count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                inflated(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                inflated(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Reads rather than skips, so skipped bytes are counted as well
+            byte[] buffer = new byte[(int) Math.min(8192, Math.max(0, n))];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // The zip stream stays open for the next entries
+        }
+
+        private void inflated(int n) throws ZipException {
+            uncompressed += n;
+            totalUncompressed += n;
+            if (uncompressed > ZipSecureFile.getMaxEntrySize()) {
+                throw new ZipException("Zip bomb detected: entry " + entryName + " exceeds " + ZipSecureFile.getMaxEntrySize() + " bytes");
+            }
+            if (totalUncompressed > MAX_TOTAL_UNCOMPRESSED_BYTES) {
+                throw new ZipException("Zip bomb detected: archive exceeds " + MAX_TOTAL_UNCOMPRESSED_BYTES + " uncompressed bytes");
+            }
+            if (uncompressed > GRACE_ENTRY_SIZE) {
+                double ratio = (double) (raw.count - compressedStart) / uncompressed;
+                if (ratio < ZipSecureFile.getMinInflateRatio()) {
+                    throw new ZipException("Zip bomb detected: entry " + entryName + " inflates with ratio " + ratio
+                            + ", below the minimum of " + ZipSecureFile.getMinInflateRatio());
+                }
+            }
+        }
+    }
+}
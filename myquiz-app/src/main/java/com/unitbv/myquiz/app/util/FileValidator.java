@@ -83,8 +83,17 @@ public final class FileValidator {
         if (path == null || !isRegularFile(path)) {
             return false;
         }
-        String filename = path.getFileName().toString().toLowerCase();
-        return filename.endsWith(EXCEL_FILE_EXTENSION);
+        return isExcelFileName(path.getFileName().toString());
+    }
+
+    /**
+     * Checks if a file name has the Excel extension (.xlsx), for files that are not on disk.
+     *
+     * @param fileName The file name to check
+     * @return true if the name ends with .xlsx in any case, false otherwise
+     */
+    public static boolean isExcelFileName(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(EXCEL_FILE_EXTENSION);
     }
 
     /**
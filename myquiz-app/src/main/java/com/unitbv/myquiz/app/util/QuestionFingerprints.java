@@ -0,0 +1,97 @@
+package com.unitbv.myquiz.app.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Canonical text form and 64-bit fingerprints used to compare question fields.
+ * <p>
+ * Normalization applies Unicode NFKC, folding compatibility forms such as ligatures, and maps the Romanian
+ * cedilla letters (ş, ţ), still common in texts typed on older keyboards, to their comma-below forms (ș, ț). Other
+ * diacritics are kept, so "fată" and "fata" stay apart. Whitespace runs collapse to a single space and the result is
+ * lower-cased. Fingerprints are 64-bit FNV-1a hashes of the
+ * normalized form; they are stored next to the normalized text on {@code Question} and indexed, so exact
+ * comparisons can be answered by the database.
+ */
+public final class QuestionFingerprints {
+
+    /**
+     * Bumped whenever {@link #normalize(String)} or {@link #fingerprint(String)} changes, so stored values
+     * written by an older version are recomputed.
+     */
+    public static final int CURRENT_VERSION = 2;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char TITLE_TEXT_SEPARATOR = '\u0000';
+
+    private QuestionFingerprints() {
+        // Prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the canonical form of {@code value}, or {@code null} when it is null or blank.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String composed = Normalizer.normalize(value, Normalizer.Form.NFKC);
+        StringBuilder normalized = new StringBuilder(composed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < composed.length(); i++) {
+            char c = commaBelowOf(composed.charAt(i));
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = !normalized.isEmpty();
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(c);
+        }
+        return normalized.isEmpty() ? null : normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static char commaBelowOf(char c) {
+        return switch (c) {
+            case '\u015E' -> '\u0218';
+            case '\u015F' -> '\u0219';
+            case '\u0162' -> '\u021A';
+            case '\u0163' -> '\u021B';
+            default -> c;
+        };
+    }
+
+    /**
+     * Returns the fingerprint of an already normalized value, or {@code null} for {@code null}.
+     */
+    public static Long fingerprint(String normalized) {
+        if (normalized == null) {
+            return null;
+        }
+        return hash(FNV_OFFSET_BASIS, normalized);
+    }
+
+    /**
+     * Returns the fingerprint of the title+text key, or {@code null} when either part is missing.
+     */
+    public static Long titleTextFingerprint(String normalizedTitle, String normalizedText) {
+        if (normalizedTitle == null || normalizedText == null) {
+            return null;
+        }
+        long hash = hash(FNV_OFFSET_BASIS, normalizedTitle);
+        hash = (hash ^ TITLE_TEXT_SEPARATOR) * FNV_PRIME;
+        return hash(hash, normalizedText);
+    }
+
+    private static long hash(long seed, String value) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
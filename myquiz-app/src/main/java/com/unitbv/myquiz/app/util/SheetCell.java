@@ -0,0 +1,50 @@
+package com.unitbv.myquiz.app.util;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * Value of one cell read by {@link XlsxSheetReader}, typed like the POI cell it replaces: {@code FORMULA} for any
+ * cell with a formula, {@code STRING} for shared and inline strings, {@code NUMERIC} for numbers and {@code BLANK}
+ * for a cell without value.
+ */
+public final class SheetCell {
+    private final int rowIndex;
+    private final int columnIndex;
+    private final CellType cellType;
+    private final String stringValue;
+    private final double numericValue;
+
+    public SheetCell(int rowIndex, int columnIndex, CellType cellType, String stringValue, double numericValue) {
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        this.cellType = cellType;
+        this.stringValue = stringValue;
+        this.numericValue = numericValue;
+    }
+
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    public CellType getCellType() {
+        return cellType;
+    }
+
+    /**
+     * Text of a {@code STRING} cell; the raw cell text for other types.
+     */
+    public String getStringCellValue() {
+        return stringValue;
+    }
+
+    /**
+     * Value of a {@code NUMERIC} cell; {@code 0} for other types.
+     */
+    public double getNumericCellValue() {
+        return numericValue;
+    }
+}
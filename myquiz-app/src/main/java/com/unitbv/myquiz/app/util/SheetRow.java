@@ -0,0 +1,42 @@
+package com.unitbv.myquiz.app.util;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One row of an {@link XlsxSheet}: the cells present in the sheet, in column order. Cells absent from the file are
+ * {@code null}, as with POI's default missing cell policy.
+ */
+public final class SheetRow implements Iterable<SheetCell> {
+    private final int rowNum;
+    private final List<SheetCell> cells;
+
+    public SheetRow(int rowNum, List<SheetCell> cells) {
+        this.rowNum = rowNum;
+        this.cells = List.copyOf(cells);
+    }
+
+    /**
+     * Zero-based row index.
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * Returns the cell of a zero-based column, or {@code null} if the row has none there.
+     */
+    public SheetCell getCell(int column) {
+        for (SheetCell cell : cells) {
+            if (cell.getColumnIndex() == column) {
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<SheetCell> iterator() {
+        return cells.iterator();
+    }
+}
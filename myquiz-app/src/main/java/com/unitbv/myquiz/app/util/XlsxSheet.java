@@ -0,0 +1,34 @@
+package com.unitbv.myquiz.app.util;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Rows of one worksheet read by {@link XlsxSheetReader}, in file order. Like a POI sheet, it holds only the rows
+ * present in the file.
+ */
+public final class XlsxSheet implements Iterable<SheetRow> {
+    private final String name;
+    private final List<SheetRow> rows;
+
+    public XlsxSheet(String name, List<SheetRow> rows) {
+        this.name = name;
+        this.rows = List.copyOf(rows);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Zero-based index of the last row present, or {@code -1} for a sheet without rows.
+     */
+    public int getLastRowNum() {
+        return rows.isEmpty() ? -1 : rows.getLast().getRowNum();
+    }
+
+    @Override
+    public Iterator<SheetRow> iterator() {
+        return rows.iterator();
+    }
+}
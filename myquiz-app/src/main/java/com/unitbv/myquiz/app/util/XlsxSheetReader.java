@@ -0,0 +1,206 @@
+package com.unitbv.myquiz.app.util;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.InvalidOperationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the cell values of .xlsx worksheets with POI's event model: {@link XSSFReader} streams each sheet's XML
+ * through a SAX handler and strings come from a read-only shared strings table. Unlike {@code XSSFWorkbook}, no
+ * document tree of the workbook is built; only the values of the sheets read are kept, as {@link SheetRow}s.
+ * <p>
+ * Cell types follow {@code XSSFCell.getCellType()}, so rows read here convert exactly like POI rows did. The
+ * package is opened read-only from the file, or from a stream such as an archive entry, with POI's zip bomb limits.
+ */
+public final class XlsxSheetReader {
+
+    private XlsxSheetReader() {
+        // Prevent instantiation
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Reads the first {@code maxSheets} worksheets of a workbook, in workbook order.
+     *
+     * @param file      The .xlsx file
+     * @param maxSheets Number of sheets to read at most; later sheets are not parsed
+     * @return The sheets read, fewer than {@code maxSheets} if the workbook has fewer
+     * @throws IOException if the file cannot be read or is not an .xlsx workbook
+     */
+    public static List<XlsxSheet> readSheets(Path file, int maxSheets) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException | UnsupportedFileFormatException | InvalidOperationException e) {
+            throw new IOException("Not an .xlsx workbook: " + file.getFileName(), e);
+        }
+        return readSheets(pkg, file.getFileName().toString(), maxSheets);
+    }
+
+    /**
+     * Reads the first {@code maxSheets} worksheets of a workbook from a stream, in workbook order. The package is
+     * unpacked in memory, reading the stream to its end.
+     *
+     * @param workbook  The content of an .xlsx file
+     * @param name      File name of the workbook, for messages
+     * @param maxSheets Number of sheets to read at most; later sheets are not parsed
+     * @return The sheets read, fewer than {@code maxSheets} if the workbook has fewer
+     * @throws IOException if the stream cannot be read or is not an .xlsx workbook
+     */
+    public static List<XlsxSheet> readSheets(InputStream workbook, String name, int maxSheets) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(workbook);
+        } catch (OpenXML4JException | UnsupportedFileFormatException | InvalidOperationException e) {
+            throw new IOException("Not an .xlsx workbook: " + name, e);
+        }
+        return readSheets(pkg, name, maxSheets);
+    }
+
+    private static List<XlsxSheet> readSheets(OPCPackage pkg, String name, int maxSheets) throws IOException {
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader.SheetIterator sheetData = (XSSFReader.SheetIterator) reader.getSheetsData();
+            List<XlsxSheet> sheets = new ArrayList<>();
+            while (sheets.size() < maxSheets && sheetData.hasNext()) {
+                try (InputStream stream = sheetData.next()) {
+                    SheetHandler handler = new SheetHandler(sharedStrings);
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(handler);
+                    parser.parse(new InputSource(stream));
+                    sheets.add(new XlsxSheet(sheetData.getSheetName(), handler.rows));
+                }
+            }
+            return sheets;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Cannot read workbook " + name + ": " + e.getMessage(), e);
+        } finally {
+            // The package is released with revert(); close() would try to save it
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Collects the rows of one {@code sheetN.xml}. Only {@code <row>}, {@code <c>} and the value elements inside
+     * them are looked at.
+     */
+    private static final class SheetHandler extends DefaultHandler {
+        private final SharedStrings sharedStrings;
+        private final List<SheetRow> rows = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private List<SheetCell> rowCells;
+        private int rowIndex = -1;
+        private int columnIndex;
+        private String type;
+        private boolean formula;
+        private boolean hasValue;
+        private boolean inValue;
+        private boolean inPhonetic;
+
+        private SheetHandler(SharedStrings sharedStrings) {
+            this.sharedStrings = sharedStrings;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String reference = attributes.getValue("r");
+                    rowIndex = reference != null ? Integer.parseInt(reference) - 1 : rowIndex + 1;
+                    rowCells = new ArrayList<>();
+                    columnIndex = -1;
+                }
+                case "c" -> {
+                    String reference = attributes.getValue("r");
+                    columnIndex = reference != null ? new CellReference(reference).getCol() : columnIndex + 1;
+                    type = attributes.getValue("t");
+                    formula = false;
+                    hasValue = false;
+                    text.setLength(0);
+                }
+                case "f" -> formula = true;
+                case "v" -> {
+                    inValue = true;
+                    hasValue = true;
+                }
+                // Inline string text, without phonetic runs
+                case "t" -> {
+                    inValue = "inlineStr".equals(type) && !inPhonetic;
+                    hasValue |= inValue;
+                }
+                case "rPh" -> inPhonetic = true;
+                default -> {
+                    // Not a cell value
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> inValue = false;
+                case "rPh" -> inPhonetic = false;
+                case "c" -> {
+                    if (rowCells != null) {
+                        rowCells.add(toCell());
+                    }
+                }
+                case "row" -> {
+                    rows.add(new SheetRow(rowIndex, rowCells));
+                    rowCells = null;
+                }
+                default -> {
+                    // Not a cell value
+                }
+            }
+        }
+
+        private SheetCell toCell() {
+            String value = text.toString();
+            if (formula) {
+                return new SheetCell(rowIndex, columnIndex, CellType.FORMULA, value, 0.0d);
+            }
+            String cellType = type != null ? type : "n";
+            return switch (cellType) {
+                case "s" -> new SheetCell(rowIndex, columnIndex, CellType.STRING,
+                        hasValue ? sharedStrings.getItemAt(Integer.parseInt(value.trim())).getString() : "", 0.0d);
+                case "inlineStr" -> new SheetCell(rowIndex, columnIndex, CellType.STRING, new XSSFRichTextString(value).getString(), 0.0d);
+                case "str", "d" -> new SheetCell(rowIndex, columnIndex, CellType.STRING, value, 0.0d);
+                case "b" -> new SheetCell(rowIndex, columnIndex, CellType.BOOLEAN, value, 0.0d);
+                case "e" -> new SheetCell(rowIndex, columnIndex, CellType.ERROR, value, 0.0d);
+                default -> hasValue
+                        ? new SheetCell(rowIndex, columnIndex, CellType.NUMERIC, value, Double.parseDouble(value.trim()))
+                        : new SheetCell(rowIndex, columnIndex, CellType.BLANK, "", 0.0d);
+            };
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.unitbv.myquiz.api.dto.CourseDto;
 import com.unitbv.myquiz.api.dto.QuestionBankDto;
 import com.unitbv.myquiz.api.dto.QuestionCorrectionDto;
 import com.unitbv.myquiz.api.dto.QuestionDto;
+import com.unitbv.myquiz.api.dto.QuestionDuplicateDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterResponseDto;
 import com.unitbv.myquiz.api.types.QuestionType;
@@ -15,6 +16,7 @@ import com.unitbv.myquiz.app.services.QuestionBankAuthorService;
 import com.unitbv.myquiz.app.services.QuestionBankService;
 import com.unitbv.myquiz.app.services.QuestionCorrectionService;
 import com.unitbv.myquiz.app.services.QuestionService;
+import com.unitbv.myquiz.app.services.SimilarQuestionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -49,6 +51,8 @@ class QuestionControllerTest {
     private QuestionBankAuthorService questionBankAuthorService;
     @Mock
     private QuestionCorrectionService questionCorrectionService;
+    @Mock
+    private SimilarQuestionService similarQuestionService;
 
     private QuestionController controller;
 
@@ -60,10 +64,35 @@ class QuestionControllerTest {
                 courseService,
                 questionBankService,
                 questionBankAuthorService,
-                questionCorrectionService
+                questionCorrectionService,
+                similarQuestionService
         );
     }
 
+    @Test
+    void findSimilarQuestions_returnsBadRequestWhenDraftInvalid() {
+        QuestionDto draft = new QuestionDto();
+        when(similarQuestionService.findSimilarQuestions(draft, 10)).thenThrow(new IllegalArgumentException("The draft question needs a course"));
+
+        var response = controller.findSimilarQuestions(draft, 10);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void findSimilarQuestions_returnsServiceResult() {
+        QuestionDto draft = new QuestionDto();
+        draft.setCourse("Databases");
+        QuestionDuplicateDto similar = new QuestionDuplicateDto();
+        similar.setQuestionId(3L);
+        when(similarQuestionService.findSimilarQuestions(draft, 5)).thenReturn(List.of(similar));
+
+        var response = controller.findSimilarQuestions(draft, 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(similar), response.getBody());
+    }
+
     @Test
     void updateQuestion_returnsBadRequestWhenPayloadMissing() {
         var response = controller.updateQuestion(5L, null);
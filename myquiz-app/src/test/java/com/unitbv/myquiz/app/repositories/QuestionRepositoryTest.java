@@ -2,8 +2,10 @@ package com.unitbv.myquiz.app.repositories;
 
 import com.unitbv.myquiz.api.types.QuestionType;
 import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.specifications.QuestionSpecification;
 import com.unitbv.myquiz.app.testutil.TestEntityFactory;
 import com.unitbv.myquiz.app.testutil.TestFixtureData;
+import com.unitbv.myquiz.app.util.QuestionFingerprints;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class QuestionRepositoryTest {
@@ -36,6 +39,26 @@ class QuestionRepositoryTest {
         assertNull(deletedQuestion);
     }
 
+    @Test
+    void save_persistsNormalizedFingerprintsFoundByIndexedLookup() {
+        TestEntityFactory.QuestionFixture fixture = addTestQuestion();
+        try {
+            Question question = questionRepository.findById(fixture.question().getId()).orElseThrow();
+            Long expectedKey = QuestionFingerprints.titleTextFingerprint(
+                    QuestionFingerprints.normalize(question.getTitle()),
+                    QuestionFingerprints.normalize(question.getText())
+            );
+
+            assertTrue(question.hasCurrentFingerprints());
+            assertEquals(QuestionFingerprints.normalize(question.getTitle()), question.getNormalizedTitle());
+            assertEquals(expectedKey, question.getTitleTextFingerprint());
+            assertTrue(questionRepository.exists(QuestionSpecification.byId(question.getId())
+                    .and(QuestionSpecification.byTitleTextFingerprint(expectedKey))));
+        } finally {
+            testEntityFactory.cleanupQuestionFixture(fixture);
+        }
+    }
+
     private TestEntityFactory.QuestionFixture addTestQuestion() {
         return testEntityFactory.createQuestionFixture(
                 TestFixtureData.questionSpecBuilder()
@@ -0,0 +1,128 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseLockServiceTest {
+
+    @Test
+    void tryLock_courseHeld_returnsNullUntilReleased() {
+        CourseLockService service = new CourseLockService(h2DataSource(), 0, 1);
+
+        CourseLockService.CourseLock held = service.tryLock(7L, "an archive import of 'db.zip'");
+        assertNotNull(held);
+        assertNull(service.tryLock(7L, "a duplicate recompute of course 'DB'"));
+        assertNotNull(service.tryLock(8L, "a duplicate recompute of course 'OOP'"));
+
+        held.close();
+        held.close();
+        assertNotNull(service.tryLock(7L, "a duplicate recompute of course 'DB'"));
+    }
+
+    @Test
+    void close_advisoryUnlockFails_evictsConnectionInsteadOfPooling() throws SQLException {
+        Connection probe = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(probe.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Connection connection = mock(Connection.class);
+        PreparedStatement tryLock = mock(PreparedStatement.class);
+        ResultSet acquired = mock(ResultSet.class);
+        when(connection.prepareStatement(startsWith("SELECT pg_try_advisory_lock"))).thenReturn(tryLock);
+        when(tryLock.executeQuery()).thenReturn(acquired);
+        when(acquired.next()).thenReturn(true);
+        when(acquired.getBoolean(1)).thenReturn(true);
+        when(connection.prepareStatement(startsWith("SELECT pg_advisory_unlock"))).thenThrow(new SQLException("terminating connection", "57P01"));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(probe, connection);
+        CourseLockService service = new CourseLockService(dataSource, 0, 1);
+
+        CourseLockService.CourseLock held = service.tryLock(7L, "an archive import of 'db.zip'");
+        assertNotNull(held);
+        held.close();
+
+        verify(connection).abort(any(Executor.class));
+        verify(connection, never()).close();
+        assertNotNull(service.tryLock(7L, "a duplicate recompute of course 'DB'"));
+    }
+
+    @Test
+    void runExclusively_courseHeld_rejectsWithHolder() {
+        CourseLockService service = new CourseLockService(null, 0, 1);
+
+        try (CourseLockService.CourseLock ignored = service.tryLock(7L, "an archive import of 'db.zip'")) {
+            CourseLockService.CourseLockedException e = assertThrows(CourseLockService.CourseLockedException.class,
+                    () -> service.runExclusively(7L, "a duplicate recompute of course 'DB'", () -> "done"));
+            assertEquals(7L, e.getCourseId());
+            assertTrue(e.getMessage().contains("an archive import of 'db.zip'"));
+        }
+        assertEquals("done", service.runExclusively(7L, "a duplicate recompute of course 'DB'", () -> "done"));
+    }
+
+    @Test
+    void runExclusively_workFails_releasesCourse() {
+        CourseLockService service = new CourseLockService(null, 0, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> service.runExclusively(7L, "an archive import of 'db.zip'", () -> {
+            throw new IllegalArgumentException("broken archive");
+        }));
+        assertNotNull(service.tryLock(7L, "a duplicate recompute of course 'DB'"));
+    }
+
+    @Test
+    void tryLock_heldWithinWaitTimeout_returnsNullToRetry() {
+        CourseLockService service = new CourseLockService(null, 60, 1);
+
+        try (CourseLockService.CourseLock ignored = service.tryLock(7L, "an archive import of 'db.zip'")) {
+            assertNull(service.tryLock(7L, "a duplicate recompute of course 'DB'", Instant.now().minusSeconds(30)));
+        }
+        assertNotNull(service.tryLock(7L, "a duplicate recompute of course 'DB'", Instant.now().minusSeconds(30)));
+    }
+
+    @Test
+    void tryLock_heldPastWaitTimeout_throwsCourseLocked() {
+        CourseLockService service = new CourseLockService(null, 0, 1);
+
+        try (CourseLockService.CourseLock ignored = service.tryLock(7L, "an archive import of 'db.zip'")) {
+            assertThrows(CourseLockService.CourseLockedException.class,
+                    () -> service.tryLock(7L, "a duplicate recompute of course 'DB'", Instant.now()));
+        }
+    }
+
+    @Test
+    void tryLock_nullCourse_neverConflicts() {
+        CourseLockService service = new CourseLockService(null, 0, 1);
+
+        CourseLockService.CourseLock first = service.tryLock(null, "an archive import of 'db.zip'");
+        CourseLockService.CourseLock second = service.tryLock(null, "an archive import of 'os.zip'");
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(first.getCourseId());
+        second.close();
+    }
+
+    private static DriverManagerDataSource h2DataSource() {
+        return new DriverManagerDataSource("jdbc:h2:mem:course-lock;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -0,0 +1,47 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DuplicateCauseCodesTest {
+
+    @Test
+    void describe_answerMatchWithNumbersAndScore_rendersAnswerNumbersAndPercent() {
+        int answer = DuplicateCauseCodes.withAnswers(DuplicateCauseCodes.similar(DuplicateCauseCodes.FIELD_ANSWER, 0.874), 2, 4);
+        int title = DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_TITLE, DuplicateCauseCodes.KIND_EXACT);
+
+        assertEquals("Title: exact match; Answer 2/4: similar (87%)", DuplicateCauseCodes.describe(DuplicateCauseCodes.merge(title, answer)));
+    }
+
+    @Test
+    void describe_noCause_rendersGenericText() {
+        assertEquals("Duplicate detected", DuplicateCauseCodes.describe(0));
+    }
+
+    @Test
+    void orient_sourceIsHigherId_swapsAnswerNumbers() {
+        int cause = DuplicateCauseCodes.withAnswers(DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_ANSWER, DuplicateCauseCodes.KIND_EXACT), 1, 3);
+
+        int oriented = DuplicateCauseCodes.orient(cause, false);
+
+        assertEquals(3, DuplicateCauseCodes.lowerAnswer(oriented));
+        assertEquals(1, DuplicateCauseCodes.higherAnswer(oriented));
+        assertEquals(cause, DuplicateCauseCodes.orient(cause, true));
+        assertEquals(DuplicateCauseCodes.KIND_EXACT, DuplicateCauseCodes.kindOf(oriented, DuplicateCauseCodes.FIELD_ANSWER));
+    }
+
+    @Test
+    void merge_causesFromBothSides_keepsFirstAnswerNumbersAndHighestScore() {
+        int left = DuplicateCauseCodes.withAnswers(DuplicateCauseCodes.similar(DuplicateCauseCodes.FIELD_ANSWER, 0.8), 1, 2);
+        int right = DuplicateCauseCodes.withAnswers(DuplicateCauseCodes.similar(DuplicateCauseCodes.FIELD_TITLE, 0.95), 3, 4);
+
+        int merged = DuplicateCauseCodes.merge(left, right);
+
+        assertEquals(1, DuplicateCauseCodes.lowerAnswer(merged));
+        assertEquals(2, DuplicateCauseCodes.higherAnswer(merged));
+        assertEquals(95, DuplicateCauseCodes.score(merged));
+        assertEquals(DuplicateCauseCodes.KIND_SIMILAR, DuplicateCauseCodes.kindOf(merged, DuplicateCauseCodes.FIELD_TITLE));
+        assertEquals(DuplicateCauseCodes.KIND_SIMILAR, DuplicateCauseCodes.kindOf(merged, DuplicateCauseCodes.FIELD_ANSWER));
+    }
+}
@@ -0,0 +1,66 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateClustersTest {
+
+    @Test
+    void of_noPairs_returnsNoClusters() {
+        assertTrue(DuplicateClusters.of(new long[0]).isEmpty());
+        assertTrue(DuplicateClusters.of(null).isEmpty());
+    }
+
+    @Test
+    void of_transitivePairs_mergesIntoOneClusterWithLowestIdFirst() {
+        long[] pairs = {
+                DuplicatePairSet.pack(30L, 12L),
+                DuplicatePairSet.pack(12L, 45L),
+                DuplicatePairSet.pack(45L, 7L)
+        };
+
+        List<long[]> clusters = DuplicateClusters.of(pairs);
+
+        assertEquals(1, clusters.size());
+        assertArrayEquals(new long[]{7L, 12L, 30L, 45L}, clusters.getFirst());
+    }
+
+    @Test
+    void of_disjointGroups_returnsClustersOrderedByCanonicalId() {
+        long[] pairs = {
+                DuplicatePairSet.pack(20L, 21L),
+                DuplicatePairSet.pack(3L, 9L),
+                DuplicatePairSet.pack(21L, 22L),
+                DuplicatePairSet.pack(9L, 3L),
+                DuplicatePairSet.pack(50L, 4L)
+        };
+
+        List<long[]> clusters = DuplicateClusters.of(pairs);
+
+        assertEquals(3, clusters.size());
+        assertArrayEquals(new long[]{3L, 9L}, clusters.get(0));
+        assertArrayEquals(new long[]{4L, 50L}, clusters.get(1));
+        assertArrayEquals(new long[]{20L, 21L, 22L}, clusters.get(2));
+    }
+
+    @Test
+    void of_chainOfManyPairs_keepsEveryQuestionOnce() {
+        int questions = 10_000;
+        long[] pairs = new long[questions - 1];
+        for (int i = 1; i < questions; i++) {
+            pairs[i - 1] = DuplicatePairSet.pack((long) i, (long) i + 1);
+        }
+
+        List<long[]> clusters = DuplicateClusters.of(pairs);
+
+        assertEquals(1, clusters.size());
+        assertEquals(questions, clusters.getFirst().length);
+        assertEquals(1L, clusters.getFirst()[0]);
+        assertEquals(questions, clusters.getFirst()[questions - 1]);
+    }
+}
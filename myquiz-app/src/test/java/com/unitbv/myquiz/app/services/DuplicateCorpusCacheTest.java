@@ -0,0 +1,139 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.api.types.StudyYear;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.testutil.TestEntityFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DuplicateCorpusCacheTest {
+
+    @Autowired
+    private DuplicateCorpusCache duplicateCorpusCache;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private TestEntityFactory testEntityFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void corpusFor_unchangedCourse_returnsCachedRecords() {
+        TestEntityFactory.QuestionBankAuthorFixture fixture = createFixture();
+        String course = courseOf(fixture);
+        testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Cached title", "Cached text");
+
+        List<CorpusQuestion> first = duplicateCorpusCache.corpusFor(course);
+        List<CorpusQuestion> second = duplicateCorpusCache.corpusFor(course.toLowerCase());
+
+        assertEquals(1, first.size());
+        assertSame(first, second);
+    }
+
+    @Test
+    void corpusFor_questionAddedAfterRead_includesNewQuestion() {
+        TestEntityFactory.QuestionBankAuthorFixture fixture = createFixture();
+        String course = courseOf(fixture);
+        Question existing = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Existing title", "Existing text");
+        duplicateCorpusCache.corpusFor(course);
+
+        Question added = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Added Title", "Added text");
+        List<CorpusQuestion> corpus = duplicateCorpusCache.corpusFor(course);
+
+        assertEquals(List.of(existing.getId(), added.getId()), corpus.stream().map(CorpusQuestion::id).toList());
+        assertEquals(QuestionDuplicationService.normalizedTitleOf(added), corpus.get(1).title());
+    }
+
+    @Test
+    void corpusFor_editStampedBeforeCachedRead_reloadsEditedQuestion() {
+        TestEntityFactory.QuestionBankAuthorFixture fixture = createFixture();
+        String course = courseOf(fixture);
+        Question edited = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Original title", "Original text");
+        testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Other title", "Other text");
+        testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Third title", "Third text");
+        duplicateCorpusCache.corpusFor(course);
+
+        // An edit committed by a long transaction carries an updated_at older than the cached read.
+        edited.setTitle("Edited title");
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE question SET updated_at = ? WHERE id = ?", OffsetDateTime.now().minusHours(1), edited.getId());
+        List<CorpusQuestion> corpus = duplicateCorpusCache.corpusFor(course);
+
+        assertEquals(3, corpus.size());
+        assertEquals(QuestionDuplicationService.normalizedTitleOf(edited), corpus.get(0).title());
+    }
+
+    @Test
+    void corpusFor_questionDeletedThroughService_dropsRecord() {
+        TestEntityFactory.QuestionBankAuthorFixture fixture = createFixture();
+        String course = courseOf(fixture);
+        Question kept = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Kept title", "Kept text");
+        Question deleted = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Deleted title", "Deleted text");
+        assertEquals(2, duplicateCorpusCache.corpusFor(course).size());
+
+        assertTrue(questionService.deleteQuestion(deleted.getId()));
+        List<CorpusQuestion> corpus = duplicateCorpusCache.corpusFor(course);
+
+        assertEquals(List.of(kept.getId()), corpus.stream().map(CorpusQuestion::id).toList());
+        assertFalse(corpus.stream().anyMatch(record -> deleted.getId().equals(record.id())));
+    }
+
+    @Test
+    void cachedCorpusFor_editedBehindCache_returnsCachedRecordsUntilMarkedChanged() {
+        TestEntityFactory.QuestionBankAuthorFixture fixture = createFixture();
+        String course = courseOf(fixture);
+        Question edited = testEntityFactory.createQuestion(fixture.questionBankAuthor(), QuestionType.TRUEFALSE, "Original title", "Original text");
+        List<CorpusQuestion> first = duplicateCorpusCache.corpusFor(course);
+
+        jdbcTemplate.update("UPDATE question SET title = ?, updated_at = ? WHERE id = ?", "Edited title", OffsetDateTime.now().plusMinutes(1), edited.getId());
+        entityManager.clear();
+        List<CorpusQuestion> cached = duplicateCorpusCache.cachedCorpusFor(course);
+        duplicateCorpusCache.markChanged(course);
+        List<CorpusQuestion> reloaded = duplicateCorpusCache.cachedCorpusFor(course);
+
+        assertSame(first, cached);
+        assertEquals(QuestionDuplicationService.normalizedTitleOf(entityManager.find(Question.class, edited.getId())), reloaded.get(0).title());
+    }
+
+    private TestEntityFactory.QuestionBankAuthorFixture createFixture() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return testEntityFactory.createQuestionBankAuthorFixture(
+                TestEntityFactory.QuestionBankAuthorSpec.builder()
+                        .authorName("Author-" + suffix)
+                        .initials("A" + suffix.substring(0, 2))
+                        .questionBankName("QB-" + suffix)
+                        .course("CORPUS-" + suffix)
+                        .studyYear(StudyYear.Y2026_2027)
+                        .source("test-" + suffix + ".xlsx")
+                        .build()
+        );
+    }
+
+    private static String courseOf(TestEntityFactory.QuestionBankAuthorFixture fixture) {
+        return fixture.questionBank().getCourse().getCourse();
+    }
+}
@@ -0,0 +1,93 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateIndexStoreTest {
+
+    private static final long[] STAMPS = {1_773_480_413_589_793L, Long.MIN_VALUE, 1_773_480_414_000_001L};
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void read_afterWrite_returnsSameRecordsAndStamps() {
+        DuplicateIndexStore store = new DuplicateIndexStore(uploadDir.toString(), new DuplicateDetectionProperties());
+        List<CorpusQuestion> records = List.of(
+                new CorpusQuestion(3L, QuestionType.MULTICHOICE, false, false, "ce este jvm", null,
+                                   new String[]{"mașina virtuală", "un compilator"}, new byte[]{1, 3}),
+                new CorpusQuestion(7L, QuestionType.TRUEFALSE, false, true, "java este compilat", "adevărat sau fals", new String[0], new byte[0]),
+                new CorpusQuestion(9L, null, true, false, null, null, new String[0], new byte[0])
+        );
+
+        store.write("programare java", records, STAMPS);
+        DuplicateIndexStore.Snapshot snapshot = store.read("programare java");
+
+        assertArrayEquals(STAMPS, snapshot.stamps());
+        assertEquals(records.size(), snapshot.records().size());
+        for (int i = 0; i < records.size(); i++) {
+            CorpusQuestion expected = records.get(i);
+            CorpusQuestion actual = snapshot.records().get(i);
+            assertEquals(expected.id(), actual.id());
+            assertEquals(expected.type(), actual.type());
+            assertEquals(expected.skipped(), actual.skipped());
+            assertEquals(expected.missingAnswer(), actual.missingAnswer());
+            assertEquals(expected.title(), actual.title());
+            assertEquals(expected.text(), actual.text());
+            assertArrayEquals(expected.answers(), actual.answers());
+            assertArrayEquals(expected.answerNumbers(), actual.answerNumbers());
+        }
+    }
+
+    @Test
+    void read_truncatedFile_returnsNullAndDeletesFile() throws IOException {
+        DuplicateIndexStore store = new DuplicateIndexStore(uploadDir.toString(), new DuplicateDetectionProperties());
+        store.write("course", List.of(new CorpusQuestion(1L, QuestionType.MULTICHOICE, false, false, "title", null,
+                                                          new String[]{"answer"}, new byte[]{1})), new long[]{42L});
+        Path file = store.fileOf("course");
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(content, content.length - 6));
+
+        assertNull(store.read("course"));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void fileOf_courseNamesWithSameReadablePrefix_mapToDistinctFiles() {
+        DuplicateIndexStore store = new DuplicateIndexStore(uploadDir.toString(), new DuplicateDetectionProperties());
+
+        Path first = store.fileOf("baze de date / seria a");
+        Path second = store.fileOf("baze de date / seria b?");
+
+        assertNotEquals(first, second);
+        assertTrue(first.getFileName().toString().startsWith("baze_de_date_seria_a-"));
+        assertEquals(uploadDir.resolve("duplicate-index"), first.getParent());
+    }
+
+    @Test
+    void write_persistentIndexDisabled_writesNothing() {
+        DuplicateDetectionProperties properties = new DuplicateDetectionProperties();
+        properties.setPersistentIndex(false);
+        DuplicateIndexStore store = new DuplicateIndexStore(uploadDir.toString(), properties);
+
+        store.write("course", List.of(), new long[0]);
+
+        assertFalse(store.isEnabled());
+        assertNull(store.read("course"));
+        assertFalse(Files.exists(uploadDir.resolve("duplicate-index")));
+    }
+}
@@ -0,0 +1,104 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicatePairSetTest {
+
+    @Test
+    void pack_eitherOrder_returnsSameKeyWithLowerIdFirst() {
+        long key = DuplicatePairSet.pack(42L, 7L);
+
+        assertEquals(key, DuplicatePairSet.pack(7L, 42L));
+        assertEquals(7L, DuplicatePairSet.lowerId(key));
+        assertEquals(42L, DuplicatePairSet.higherId(key));
+        assertEquals(42L, DuplicatePairSet.partnerOf(key, 7L));
+        assertEquals(-1L, DuplicatePairSet.partnerOf(key, 8L));
+    }
+
+    @Test
+    void pack_invalidId_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> DuplicatePairSet.pack(null, 1L));
+        assertThrows(IllegalArgumentException.class, () -> DuplicatePairSet.pack(0L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> DuplicatePairSet.pack(1L, 0x1_0000_0000L));
+    }
+
+    @Test
+    void pack_idsFrom2Pow31_packedUnsignedAndSortedAfterSmallerIds() {
+        long large = (long) Integer.MAX_VALUE + 1;
+        long largest = 0xFFFFFFFFL;
+        DuplicatePairSet pairs = new DuplicatePairSet();
+        long largePair = DuplicatePairSet.pack(largest, large);
+        long mixedPair = DuplicatePairSet.pack(large, 5L);
+        long smallPair = DuplicatePairSet.pack(3L, 5L);
+
+        pairs.mergeCause(largePair, 1);
+        pairs.mergeCause(mixedPair, 2);
+        pairs.mergeCause(smallPair, 4);
+
+        assertEquals(large, DuplicatePairSet.lowerId(largePair));
+        assertEquals(largest, DuplicatePairSet.higherId(largePair));
+        assertEquals(large, DuplicatePairSet.partnerOf(mixedPair, 5L));
+        assertEquals(1, pairs.causeOf(largePair));
+        assertArrayEquals(new long[]{smallPair, mixedPair, largePair}, pairs.sortedKeys());
+    }
+
+    @Test
+    void mergeCause_samePairTwice_combinesCauseBits() {
+        DuplicatePairSet pairs = new DuplicatePairSet();
+        long key = DuplicatePairSet.pack(1L, 2L);
+        int title = DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_TITLE, DuplicateCauseCodes.KIND_EXACT);
+        int answer = DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_ANSWER, DuplicateCauseCodes.KIND_SIMILAR);
+
+        pairs.mergeCause(key, title);
+        pairs.mergeCause(key, answer);
+
+        assertEquals(1, pairs.size());
+        assertEquals(title | answer, pairs.causeOf(key));
+        assertEquals("Title: exact match; Answer: similar", DuplicateCauseCodes.describe(pairs.causeOf(key)));
+        assertFalse(pairs.add(key));
+    }
+
+    @Test
+    void add_manyPairsAcrossResizes_matchesHashSetAndSortsByIds() {
+        DuplicatePairSet pairs = new DuplicatePairSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(17);
+        for (int i = 0; i < 20_000; i++) {
+            long key = DuplicatePairSet.pack(1L + random.nextInt(500), 1L + random.nextInt(500));
+            assertEquals(expected.add(key), pairs.add(key));
+        }
+
+        assertEquals(expected.size(), pairs.size());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), pairs.sortedKeys());
+        for (long key : expected) {
+            assertTrue(pairs.contains(key));
+        }
+        assertFalse(pairs.contains(DuplicatePairSet.pack(501L, 502L)));
+    }
+
+    @Test
+    void addAll_otherSet_mergesKeysAndCauses() {
+        DuplicatePairSet target = new DuplicatePairSet();
+        DuplicatePairSet other = new DuplicatePairSet();
+        long shared = DuplicatePairSet.pack(3L, 4L);
+        target.mergeCause(shared, 1);
+        other.mergeCause(shared, 2);
+        other.mergeCause(DuplicatePairSet.pack(5L, 6L), 4);
+
+        target.addAll(other);
+
+        assertEquals(2, target.size());
+        assertEquals(3, target.causeOf(shared));
+        assertEquals(4, target.causeOf(DuplicatePairSet.pack(5L, 6L)));
+    }
+}
@@ -0,0 +1,337 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeBatchDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeHistoryDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
+import com.unitbv.myquiz.api.types.DuplicateRecomputeJobStatus;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.controller.CourseController;
+import com.unitbv.myquiz.app.entities.Course;
+import com.unitbv.myquiz.app.repositories.CourseRepository;
+import com.unitbv.myquiz.app.repositories.QuestionBankRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateRecomputeJobServiceTest {
+    private static final String STRATEGY = "levenshtein";
+    private static final Map<String, Integer> QUESTIONS_BY_COURSE = Map.of("Algebra", 5, "Databases", 50, "Networks", 20);
+
+    @Mock
+    private CourseRepository courseRepository;
+    @Mock
+    private QuestionBankRepository questionBankRepository;
+    @Mock
+    private QuestionDuplicationService questionDuplicationService;
+    @Mock
+    private CourseService courseService;
+    @Mock
+    private TaskScheduler duplicateRecomputeTaskScheduler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Deque<Runnable> scheduledTasks = new ArrayDeque<>();
+    private final List<String> recomputedCourses = new ArrayList<>();
+    private final DuplicateDetectionProperties properties = new DuplicateDetectionProperties();
+    private CourseLockService courseLockService;
+
+    @BeforeEach
+    void setUp() {
+        courseLockService = new CourseLockService(null, 60, 1);
+        when(duplicateRecomputeTaskScheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduledTasks.add(invocation.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    void submitAllCoursesRecompute_runsLargestCourseFirst() {
+        properties.getRecomputeAll().setConcurrency(1);
+        givenCourses();
+        givenRecompute(course -> { });
+        DuplicateRecomputeJobService service = newService();
+
+        service.submitAllCoursesRecompute(STRATEGY);
+        runScheduledTasks();
+
+        assertEquals(List.of("Databases", "Networks", "Algebra"), recomputedCourses);
+    }
+
+    @Test
+    void submitAllCoursesRecompute_startsNoMoreRunnersThanConcurrency() {
+        properties.getRecomputeAll().setConcurrency(2);
+        givenCourses();
+        DuplicateRecomputeJobService service = newService();
+
+        DuplicateRecomputeBatchDto batch = service.submitAllCoursesRecompute(STRATEGY);
+
+        verify(duplicateRecomputeTaskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+        assertEquals(2, batch.getConcurrency());
+        assertEquals(3, batch.getTotalCourses());
+    }
+
+    @Test
+    void submitAllCoursesRecompute_givesEachCourseItsShareOfPairWorkers() {
+        properties.getRecomputeAll().setConcurrency(2);
+        when(questionDuplicationService.getPairParallelism()).thenReturn(8);
+        givenCourses();
+        List<Integer> pairParallelism = new ArrayList<>();
+        AtomicReference<DuplicateRecomputeMonitor> monitor = new AtomicReference<>();
+        givenRecompute(course -> pairParallelism.add(monitor.get().pairParallelism()), monitor);
+        DuplicateRecomputeJobService service = newService();
+
+        DuplicateRecomputeBatchDto batch = service.submitAllCoursesRecompute(STRATEGY);
+        runScheduledTasks();
+
+        assertEquals(4, batch.getPairParallelism());
+        assertEquals(List.of(4, 4, 4), pairParallelism);
+    }
+
+    @Test
+    void submitAllCoursesRecompute_configuredPairParallelism_overridesShare() {
+        properties.getRecomputeAll().setConcurrency(2);
+        properties.getRecomputeAll().setPairParallelism(3);
+        givenCourses();
+        DuplicateRecomputeJobService service = newService();
+
+        DuplicateRecomputeBatchDto batch = service.submitAllCoursesRecompute(STRATEGY);
+
+        assertEquals(3, batch.getPairParallelism());
+        verify(questionDuplicationService, never()).getPairParallelism();
+    }
+
+    @Test
+    void getBatch_aggregatesProgressAndStatusOfItsCourses() {
+        properties.getRecomputeAll().setConcurrency(1);
+        givenCourses();
+        AtomicReference<String> batchId = new AtomicReference<>();
+        AtomicReference<DuplicateRecomputeBatchDto> whileFirstRuns = new AtomicReference<>();
+        DuplicateRecomputeJobService service = newService();
+        AtomicReference<DuplicateRecomputeMonitor> monitor = new AtomicReference<>();
+        givenRecompute(course -> {
+            if (course.equals("Algebra")) {
+                throw new IllegalStateException("Algebra failed");
+            }
+            int questions = QUESTIONS_BY_COURSE.get(course);
+            monitor.get().onQuestionsLoaded(questions);
+            monitor.get().onStageStarted("MULTICHOICE", questions, 1);
+            monitor.get().onBatchCommitted(questions, 0, 0);
+            if (course.equals("Databases")) {
+                whileFirstRuns.set(service.getBatch(batchId.get()));
+            }
+        }, monitor);
+
+        DuplicateRecomputeBatchDto submitted = service.submitAllCoursesRecompute(STRATEGY);
+        batchId.set(submitted.getBatchId());
+        runScheduledTasks();
+        DuplicateRecomputeBatchDto finished = service.getBatch(submitted.getBatchId());
+
+        assertEquals(DuplicateRecomputeJobStatus.QUEUED, submitted.getStatus());
+        assertEquals(75, submitted.getTotalQuestions());
+        assertEquals(0, submitted.getProcessedQuestions());
+        assertEquals(DuplicateRecomputeJobStatus.RUNNING, whileFirstRuns.get().getStatus());
+        assertEquals(1, whileFirstRuns.get().getRunningCourses());
+        assertEquals(50, whileFirstRuns.get().getProcessedQuestions());
+        assertNull(whileFirstRuns.get().getEndedAt());
+        assertEquals(DuplicateRecomputeJobStatus.FAILED, finished.getStatus());
+        assertEquals(2, finished.getCompletedCourses());
+        assertEquals(1, finished.getFailedCourses());
+        assertEquals(0, finished.getRunningCourses());
+        assertEquals(70, finished.getProcessedQuestions());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getEndedAt());
+    }
+
+    @Test
+    void cancelBatch_leavesQueuedCoursesUnstarted() {
+        properties.getRecomputeAll().setConcurrency(1);
+        givenCourses();
+        AtomicReference<String> batchId = new AtomicReference<>();
+        DuplicateRecomputeJobService service = newService();
+        givenRecompute(course -> service.cancelBatch(batchId.get()));
+
+        batchId.set(service.submitAllCoursesRecompute(STRATEGY).getBatchId());
+        runScheduledTasks();
+        DuplicateRecomputeBatchDto batch = service.getBatch(batchId.get());
+
+        assertEquals(List.of("Databases"), recomputedCourses);
+        assertTrue(batch.isCancelRequested());
+        assertEquals(1, batch.getCompletedCourses());
+        assertEquals(2, batch.getCancelledCourses());
+        assertEquals(DuplicateRecomputeJobStatus.CANCELLED, batch.getStatus());
+        batch.getJobs().stream()
+                .filter(job -> job.getStatus() == DuplicateRecomputeJobStatus.CANCELLED)
+                .forEach(job -> assertNull(job.getStartedAt()));
+    }
+
+    @Test
+    void submitCourseRecompute_courseWithActiveJob_isRejectedWithConflict() {
+        givenCourse(1L, "Algebra");
+        DuplicateRecomputeJobService service = newService();
+
+        service.submitCourseRecompute(1L, STRATEGY);
+
+        assertThrows(IllegalStateException.class, () -> service.submitCourseRecompute(1L, STRATEGY));
+        CourseController controller = new CourseController(courseService, null, service);
+        assertEquals(HttpStatus.CONFLICT, controller.recomputeCourseDuplicates(1L).getStatusCode());
+    }
+
+    @Test
+    void submitAllCoursesRecompute_busyCourse_runsOtherCoursesBeforeRetryingIt() {
+        properties.getRecomputeAll().setConcurrency(1);
+        givenCourses();
+        givenRecompute(course -> { });
+        DuplicateRecomputeJobService service = newService();
+        CourseLockService.CourseLock otherWork = courseLockService.tryLock(2L, "an archive import of 'db.zip'");
+
+        DuplicateRecomputeBatchDto batch = service.submitAllCoursesRecompute(STRATEGY);
+        scheduledTasks.poll().run();
+
+        assertEquals(List.of("Networks", "Algebra"), recomputedCourses);
+        DuplicateRecomputeJobDto busy = service.getBatch(batch.getBatchId()).getJobs().get(0);
+        assertEquals(DuplicateRecomputeJobStatus.QUEUED, busy.getStatus());
+        assertEquals(DuplicateRecomputeJobService.STAGE_WAITING_FOR_COURSE, busy.getStage());
+        assertEquals(1, scheduledTasks.size());
+
+        otherWork.close();
+        runScheduledTasks();
+
+        assertEquals(List.of("Networks", "Algebra", "Databases"), recomputedCourses);
+        assertEquals(DuplicateRecomputeJobStatus.COMPLETED, service.getBatch(batch.getBatchId()).getStatus());
+    }
+
+    @Test
+    void submitCourseRecompute_courseBusy_retriesWithoutHoldingThreadUntilFree() {
+        givenCourse(1L, "Algebra");
+        givenRecompute(course -> { });
+        DuplicateRecomputeJobService service = newService();
+        CourseLockService.CourseLock otherWork = courseLockService.tryLock(1L, "an archive import of 'algebra.zip'");
+
+        DuplicateRecomputeJobDto job = service.submitCourseRecompute(1L, STRATEGY);
+        scheduledTasks.poll().run();
+
+        assertEquals(DuplicateRecomputeJobService.STAGE_WAITING_FOR_COURSE, service.getJob(job.getJobId()).getStage());
+        assertEquals(1, scheduledTasks.size());
+        assertTrue(recomputedCourses.isEmpty());
+
+        otherWork.close();
+        runScheduledTasks();
+
+        assertEquals(DuplicateRecomputeJobStatus.COMPLETED, service.getJob(job.getJobId()).getStatus());
+        assertEquals(List.of("Algebra"), recomputedCourses);
+    }
+
+    @Test
+    void submitCourseRecompute_courseBusyPastWaitTimeout_fails() {
+        courseLockService = new CourseLockService(null, 0, 1);
+        givenCourse(1L, "Algebra");
+        DuplicateRecomputeJobService service = newService();
+        courseLockService.tryLock(1L, "an archive import of 'algebra.zip'");
+
+        DuplicateRecomputeJobDto job = service.submitCourseRecompute(1L, STRATEGY);
+        runScheduledTasks();
+
+        DuplicateRecomputeJobDto failed = service.getJob(job.getJobId());
+        assertEquals(DuplicateRecomputeJobStatus.FAILED, failed.getStatus());
+        assertTrue(failed.getErrorMessage().contains("an archive import of 'algebra.zip'"));
+    }
+
+    @Test
+    void cancelJob_whileWaitingForCourse_cancelsWithoutStarting() {
+        givenCourse(1L, "Algebra");
+        DuplicateRecomputeJobService service = newService();
+        courseLockService.tryLock(1L, "an archive import of 'algebra.zip'");
+
+        DuplicateRecomputeJobDto job = service.submitCourseRecompute(1L, STRATEGY);
+        scheduledTasks.poll().run();
+        service.cancelJob(job.getJobId());
+        runScheduledTasks();
+
+        DuplicateRecomputeJobDto cancelled = service.getJob(job.getJobId());
+        assertEquals(DuplicateRecomputeJobStatus.CANCELLED, cancelled.getStatus());
+        assertNull(cancelled.getStartedAt());
+    }
+
+    private DuplicateRecomputeJobService newService() {
+        return new DuplicateRecomputeJobService(courseRepository, questionBankRepository, questionDuplicationService, courseService,
+                courseLockService, duplicateRecomputeTaskScheduler, transactionManager, properties);
+    }
+
+    /**
+     * Algebra (id 1, 5 questions), Databases (id 2, 50 questions) and Networks (id 3, 20 questions).
+     */
+    private void givenCourses() {
+        when(courseRepository.countQuestionsByCourse()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 5L}, new Object[]{2L, 50L}, new Object[]{3L, 20L}));
+        when(courseRepository.findAll()).thenReturn(List.of(course(1L, "Algebra"), course(2L, "Databases"), course(3L, "Networks")));
+    }
+
+    private void givenCourse(Long id, String name) {
+        when(courseRepository.findById(id)).thenReturn(Optional.of(course(id, name)));
+    }
+
+    private void givenRecompute(Consumer<String> work) {
+        givenRecompute(work, new AtomicReference<>());
+    }
+
+    /**
+     * Records each recomputed course and runs {@code work} for it, with the job's monitor in {@code monitor}.
+     */
+    private void givenRecompute(Consumer<String> work, AtomicReference<DuplicateRecomputeMonitor> monitor) {
+        when(questionDuplicationService.recomputeDuplicatesInBatches(anyString(), isNull(), isNull(), anyString(), any(DuplicateRecomputeMonitor.class), isNull()))
+                .thenAnswer(invocation -> {
+                    String course = invocation.getArgument(0);
+                    recomputedCourses.add(course);
+                    monitor.set(invocation.getArgument(4));
+                    work.accept(course);
+                    return new QuestionDuplicationService.DuplicateRecomputeSummary(0, 0, 0, 0, 0, 0, null);
+                });
+        when(courseService.saveRecomputeHistory(any(), any(), any(), any(), any(), any(), any())).thenReturn(new DuplicateRecomputeHistoryDto());
+    }
+
+    /**
+     * Runs the scheduled tasks, and the tasks they schedule, until none is left.
+     */
+    private void runScheduledTasks() {
+        Runnable task;
+        while ((task = scheduledTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static Course course(Long id, String name) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCourse(name);
+        return course;
+    }
+}
@@ -0,0 +1,142 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.testutil.OllamaEmbeddingStub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.unitbv.myquiz.app.testutil.TestQuestions.multichoice;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class EmbeddingQuestionSimilarityStrategyTest {
+
+    private OllamaEmbeddingStub stub;
+    private ExecutorService embeddingExecutor;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new OllamaEmbeddingStub()
+                .embed("what is a relational database?", OllamaEmbeddingStub.vector(0, 1, 0.1f))
+                .embed("explain the notion of a relational database", OllamaEmbeddingStub.vector(0, 2, 0.2f))
+                .embed("how does tcp open a connection?", OllamaEmbeddingStub.vector(3, 4, 0.1f))
+                .embed("a table stores rows", OllamaEmbeddingStub.vector(5, 6, 0.1f))
+                .embed("rows are kept in tables", OllamaEmbeddingStub.vector(5, 7, 0.2f))
+                .embed("what is a primary key", OllamaEmbeddingStub.vector(8, 9, 0.1f))
+                .embed("in relational databases, what is a primary key and why is it needed?", OllamaEmbeddingStub.vector(10, 11, 0.1f));
+        embeddingExecutor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.close();
+        embeddingExecutor.shutdownNow();
+    }
+
+    @Test
+    void isSimilar_paraphrasedWording_matchesAndUnrelatedDoesNot() {
+        EmbeddingQuestionSimilarityStrategy strategy = strategy(32);
+
+        assertTrue(strategy.isSimilar("what is a relational database?", "explain the notion of a relational database"));
+        assertFalse(strategy.isSimilar("what is a relational database?", "how does tcp open a connection?"));
+        assertEquals(3, stub.requests());
+    }
+
+    @Test
+    void buildCandidateIndex_paraphrasedTitlesAndAnswers_areCandidates() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "What is a relational database?", "A table stores rows", "b1", "c1", "d1"));
+        CorpusQuestion paraphrase = CorpusQuestion.of(multichoice(2L, "Explain the notion of a relational database", "a2", "b2", "c2", "d2"));
+        CorpusQuestion answerParaphrase = CorpusQuestion.of(multichoice(3L, "Unrelated title three", "w3", "x3", "y3", "Rows are kept in tables"));
+        CorpusQuestion unrelated = CorpusQuestion.of(multichoice(4L, "How does TCP open a connection?", "SYN", "ACK", "FIN", "RST"));
+        CorpusQuestion sameTitle = CorpusQuestion.of(multichoice(5L, "How does TCP open a connection?", "e5", "f5", "g5", "h5"));
+
+        DuplicateCandidateIndex index = strategy(32).buildCandidateIndex(List.of(source, paraphrase, answerParaphrase, unrelated, sameTitle));
+
+        assertEquals(List.of(paraphrase, answerParaphrase), index.candidatesFor(source));
+        assertEquals(List.of(source), index.candidatesFor(paraphrase));
+        assertEquals(List.of(sameTitle), index.candidatesFor(unrelated));
+    }
+
+    @Test
+    void buildCandidateIndex_titleContainedInLongerTitle_isCandidateDespiteDistantEmbeddings() {
+        EmbeddingQuestionSimilarityStrategy strategy = strategy(32);
+        CorpusQuestion shortTitle = CorpusQuestion.of(multichoice(1L, "What is a primary key", "A", "B", "C", "D"));
+        CorpusQuestion longTitle = CorpusQuestion.of(multichoice(2L, "In relational databases, what is a primary key and why is it needed?", "E", "F", "G", "H"));
+
+        DuplicateCandidateIndex index = strategy.buildCandidateIndex(List.of(shortTitle, longTitle));
+
+        assertFalse(strategy.isSimilar(shortTitle.title(), longTitle.title()));
+        assertEquals(List.of(longTitle), index.candidatesFor(shortTitle));
+        assertEquals(List.of(shortTitle), index.candidatesFor(longTitle));
+    }
+
+    @Test
+    void forCorpus_pairChecksAndCandidateIndex_embedCorpusOnlyOnce() {
+        DuplicateDetectionProperties properties = properties(32);
+        QuestionEmbeddingService service = spy(new QuestionEmbeddingService(stub.ollamaService("stub-model"), null, properties, embeddingExecutor));
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "What is a relational database?", "A table stores rows", "b1", "c1", "d1"));
+        CorpusQuestion paraphrase = CorpusQuestion.of(multichoice(2L, "Explain the notion of a relational database", "a2", "b2", "c2", "d2"));
+        List<CorpusQuestion> corpus = List.of(source, paraphrase);
+
+        EmbeddingQuestionSimilarityStrategy bound = new EmbeddingQuestionSimilarityStrategy(service, properties).forCorpus(corpus);
+        DuplicateCandidateIndex index = bound.buildCandidateIndex(corpus);
+
+        assertEquals(List.of(paraphrase), index.candidatesFor(source));
+        assertTrue(bound.isSimilar(source.title(), paraphrase.title()));
+        assertFalse(bound.isSimilar(source.title(), source.answers()[0]));
+        verify(service, times(1)).embeddingsFor(anyCollection());
+    }
+
+    @Test
+    void embeddingsFor_manyTexts_batchesWithBoundedConcurrencyAndCaches() {
+        QuestionEmbeddingService service = new QuestionEmbeddingService(
+                stub.ollamaService("stub-model"), null, properties(3), embeddingExecutor);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            values.add("question text " + i);
+        }
+        values.add("question text 0");
+
+        Map<String, float[]> embeddings = service.embeddingsFor(values);
+        service.embeddingsFor(values.subList(0, 5));
+
+        assertEquals(12, embeddings.size());
+        assertEquals(12, stub.requests());
+        assertTrue(stub.maxInFlight() <= 2, "at most two batches run at once, saw " + stub.maxInFlight());
+        assertEquals(1.0d, HnswIndex.similarity(embeddings.get("question text 3"), embeddings.get("question text 3")), 1e-6d);
+    }
+
+    @Test
+    void embeddingsFor_ollamaError_isReported() {
+        QuestionEmbeddingService service = new QuestionEmbeddingService(
+                stub.ollamaService("stub-model"), null, properties(2), embeddingExecutor);
+
+        assertThrows(IllegalStateException.class, () -> service.embeddingsFor(List.of("first text", OllamaEmbeddingStub.FAILING_PROMPT)));
+    }
+
+    private EmbeddingQuestionSimilarityStrategy strategy(int batchSize) {
+        DuplicateDetectionProperties properties = properties(batchSize);
+        QuestionEmbeddingService service = new QuestionEmbeddingService(stub.ollamaService("stub-model"), null, properties, embeddingExecutor);
+        return new EmbeddingQuestionSimilarityStrategy(service, properties);
+    }
+
+    private static DuplicateDetectionProperties properties(int batchSize) {
+        DuplicateDetectionProperties properties = new DuplicateDetectionProperties();
+        properties.getEmbedding().setBatchSize(batchSize);
+        return properties;
+    }
+}
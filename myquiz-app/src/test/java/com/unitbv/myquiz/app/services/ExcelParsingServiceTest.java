@@ -0,0 +1,194 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.dto.AuthorDto;
+import com.unitbv.myquiz.app.entities.Author;
+import com.unitbv.myquiz.app.entities.QuestionBank;
+import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
+import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
+import com.unitbv.myquiz.app.tasks.ThreadPoolTaskProperties;
+import com.unitbv.myquiz.app.util.ContentHash;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExcelParsingServiceTest {
+
+    @Mock
+    private QuestionWeightValidationService weightValidationService;
+    @Mock
+    private CellConversionService cellConversionService;
+    @Mock
+    private QuestionErrorService questionErrorService;
+    @Mock
+    private QuestionBankAuthorRepository questionBankAuthorRepository;
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private WorkbookReuseService workbookReuseService;
+
+    @TempDir
+    Path folder;
+
+    private ExecutorService readAndParseFileTaskExecutor;
+    private ExcelParsingService service;
+
+    @BeforeEach
+    void setUp() {
+        readAndParseFileTaskExecutor = Executors.newFixedThreadPool(2);
+        ThreadPoolTaskProperties properties = new ThreadPoolTaskProperties();
+        properties.getReadAndParse().setMaxPoolSize(2);
+        service = new ExcelParsingService(weightValidationService, cellConversionService, questionErrorService,
+                questionBankAuthorRepository, authorService, workbookReuseService, readAndParseFileTaskExecutor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readAndParseFileTaskExecutor.shutdownNow();
+    }
+
+    @Test
+    void parseExcelFilesFromFolder_workbooksReadInParallel_storedInFileOrderByCaller() throws IOException {
+        for (String name : List.of("Ana Pop_1.xlsx", "Dan Ene_2.xlsx", "Ion Vlad_3.xlsx", "Maria Ilie_4.xlsx", "Radu Stan_5.xlsx")) {
+            writeWorkbook(folder.resolve(name));
+        }
+        Files.writeString(folder.resolve("Zoe Marin_notes.txt"), "not a workbook");
+
+        AuthorDto savedAuthor = new AuthorDto();
+        savedAuthor.setId(1L);
+        Author author = new Author();
+        author.setName("Student");
+        when(authorService.saveAuthorDto(any())).thenReturn(savedAuthor);
+        when(authorService.findAuthorEntityById(anyLong())).thenReturn(author);
+        List<String> storedSources = new ArrayList<>();
+        Set<Thread> writers = ConcurrentHashMap.newKeySet();
+        when(questionBankAuthorRepository.save(any())).thenAnswer(invocation -> {
+            QuestionBankAuthor questionBankAuthor = invocation.getArgument(0);
+            writers.add(Thread.currentThread());
+            if (!storedSources.contains(questionBankAuthor.getSource())) {
+                storedSources.add(questionBankAuthor.getSource());
+            }
+            return questionBankAuthor;
+        });
+
+        int processed = service.parseExcelFilesFromFolder(new QuestionBank(), folder, 2);
+
+        assertEquals(7, processed);
+        assertEquals(List.of("Ana Pop_1.xlsx", "Dan Ene_2.xlsx", "Ion Vlad_3.xlsx", "Maria Ilie_4.xlsx", "Radu Stan_5.xlsx", "Zoe Marin_notes.txt"), storedSources);
+        assertEquals(Set.of(Thread.currentThread()), writers);
+        verify(questionErrorService).addAuthorError(any(), any(), eq(MyUtil.ERROR_WRONG_FILE_TYPE));
+    }
+
+    @Test
+    void parseExcelFilesFromArchive_entriesNamedByParentFolder_storedInArchiveOrderByCaller() throws IOException {
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(archive)) {
+            for (String name : List.of("Radu Stan_5/tema.xlsx", "Ana Pop_1/tema.xlsx", "Ana Pop_1/notes.txt", "Dan Ene_2/tema.xlsx", "Ion Vlad_3/tema.xlsx")) {
+                zip.putNextEntry(new ZipEntry(name));
+                if (name.endsWith(".xlsx")) {
+                    try (XSSFWorkbook workbook = newWorkbook()) {
+                        ByteArrayOutputStream content = new ByteArrayOutputStream();
+                        workbook.write(content);
+                        zip.write(content.toByteArray());
+                    }
+                } else {
+                    zip.write("not a workbook".getBytes());
+                }
+                zip.closeEntry();
+            }
+        }
+
+        AuthorDto savedAuthor = new AuthorDto();
+        savedAuthor.setId(1L);
+        when(authorService.saveAuthorDto(any())).thenReturn(savedAuthor);
+        when(authorService.findAuthorEntityById(anyLong())).thenReturn(new Author());
+        List<String> storedSources = new ArrayList<>();
+        Set<Thread> writers = ConcurrentHashMap.newKeySet();
+        when(questionBankAuthorRepository.save(any())).thenAnswer(invocation -> {
+            QuestionBankAuthor questionBankAuthor = invocation.getArgument(0);
+            writers.add(Thread.currentThread());
+            if (!storedSources.contains(questionBankAuthor.getSource())) {
+                storedSources.add(questionBankAuthor.getSource());
+            }
+            return questionBankAuthor;
+        });
+
+        int processed = service.parseExcelFilesFromArchive(new QuestionBank(), new ByteArrayInputStream(archive.toByteArray()));
+
+        assertEquals(4, processed);
+        assertEquals(List.of("Radu Stan_tema.xlsx", "Ana Pop_tema.xlsx", "Dan Ene_tema.xlsx", "Ion Vlad_tema.xlsx"), storedSources);
+        assertEquals(Set.of(Thread.currentThread()), writers);
+    }
+
+    @Test
+    void parseExcelFilesFromFolder_workbookParsedBefore_copiedInsteadOfParsed() throws IOException {
+        Path reused = folder.resolve("Ana Pop_1.xlsx");
+        writeWorkbook(reused);
+        try (XSSFWorkbook workbook = newWorkbook(); OutputStream out = Files.newOutputStream(folder.resolve("Dan Ene_2.xlsx"))) {
+            workbook.getSheetAt(0).createRow(1).createCell(0).setCellValue("Changed");
+            workbook.write(out);
+        }
+
+        AuthorDto savedAuthor = new AuthorDto();
+        savedAuthor.setId(1L);
+        Author author = new Author();
+        author.setName("Student");
+        when(authorService.saveAuthorDto(any())).thenReturn(savedAuthor);
+        when(authorService.findAuthorEntityById(anyLong())).thenReturn(author);
+        QuestionBank questionBank = new QuestionBank();
+        when(workbookReuseService.findParsed(ContentHash.of(reused))).thenReturn(7L);
+        when(workbookReuseService.copyParsed(7L, questionBank, author, "Ana Pop_1.xlsx")).thenReturn(new QuestionBankAuthor());
+        List<QuestionBankAuthor> parsed = new ArrayList<>();
+        when(questionBankAuthorRepository.save(any())).thenAnswer(invocation -> {
+            QuestionBankAuthor questionBankAuthor = invocation.getArgument(0);
+            parsed.add(questionBankAuthor);
+            return questionBankAuthor;
+        });
+
+        service.parseExcelFilesFromFolder(questionBank, folder, 2);
+
+        assertEquals(List.of("Dan Ene_2.xlsx"), parsed.stream().map(QuestionBankAuthor::getSource).distinct().toList());
+        assertEquals(ContentHash.of(folder.resolve("Dan Ene_2.xlsx")), parsed.getLast().getContentHash());
+        assertEquals(WorkbookReuseService.PARSER_VERSION, parsed.getLast().getParserVersion());
+        verify(workbookReuseService).copyParsed(7L, questionBank, author, "Ana Pop_1.xlsx");
+    }
+
+    private static void writeWorkbook(Path file) throws IOException {
+        try (XSSFWorkbook workbook = newWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    private static XSSFWorkbook newWorkbook() {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        workbook.createSheet("Multichoice").createRow(0).createCell(0).setCellValue("Title");
+        return workbook;
+    }
+}
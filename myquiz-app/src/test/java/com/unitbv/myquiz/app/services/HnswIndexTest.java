@@ -0,0 +1,90 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    @Test
+    void search_randomVectors_recallsExactNearestNeighbours() {
+        Random random = new Random(7);
+        List<float[]> vectors = new ArrayList<>();
+        HnswIndex index = new HnswIndex(16, 100);
+        for (int i = 0; i < 2000; i++) {
+            float[] vector = randomVector(random, 32);
+            vectors.add(vector);
+            assertEquals(i, index.add(vector));
+        }
+
+        int found = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random, 32);
+            List<Integer> exact = IntStream.range(0, vectors.size()).boxed()
+                                           .sorted(Comparator.comparingDouble((Integer node) -> HnswIndex.similarity(query, vectors.get(node))).reversed())
+                                           .limit(10).toList();
+            List<HnswIndex.Neighbour> approximate = index.search(query, 10, 64);
+            assertEquals(10, approximate.size());
+            for (HnswIndex.Neighbour neighbour : approximate) {
+                found += exact.contains(neighbour.node()) ? 1 : 0;
+            }
+        }
+        assertTrue(found >= queries * 10 * 0.95, "recall@10 was " + found / (queries * 10.0d));
+    }
+
+    @Test
+    void search_indexedVector_findsItselfFirst() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(8, 50);
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            vectors.add(randomVector(random, 16));
+            index.add(vectors.getLast());
+        }
+
+        for (int node = 0; node < vectors.size(); node += 37) {
+            HnswIndex.Neighbour nearest = index.search(vectors.get(node), 1, 32).getFirst();
+            assertEquals(node, nearest.node());
+            assertEquals(1.0d, nearest.similarity(), 1e-6d);
+        }
+    }
+
+    @Test
+    void search_emptyIndex_returnsNothing() {
+        assertTrue(new HnswIndex(16, 100).search(new float[]{1.0f, 0.0f}, 5, 10).isEmpty());
+    }
+
+    @Test
+    void add_otherDimensions_isRejected() {
+        HnswIndex index = new HnswIndex(16, 100);
+        index.add(HnswIndex.normalize(new float[]{1.0f, 2.0f}));
+
+        assertThrows(IllegalArgumentException.class, () -> index.add(new float[]{1.0f, 0.0f, 0.0f}));
+    }
+
+    @Test
+    void normalize_scalesToUnitLength() {
+        float[] vector = HnswIndex.normalize(new float[]{3.0f, 4.0f});
+
+        assertEquals(0.6f, vector[0], 1e-6f);
+        assertEquals(0.8f, vector[1], 1e-6f);
+        assertEquals(1.0d, HnswIndex.similarity(vector, vector), 1e-6d);
+    }
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return HnswIndex.normalize(vector);
+    }
+}
@@ -0,0 +1,98 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LevenshteinQuestionSimilarityStrategyTest {
+
+    private final LevenshteinQuestionSimilarityStrategy strategy = new LevenshteinQuestionSimilarityStrategy();
+
+    @Test
+    void isSimilar_exactlyAtThreshold_isSimilar() {
+        assertTrue(strategy.isSimilar("abcdefghij", "abcdefghiX"));
+        assertFalse(strategy.isSimilar("abcdefghij", "abcdefghXY"));
+    }
+
+    @Test
+    void isSimilar_lengthDifferenceAboveBound_isNotSimilar() {
+        assertFalse(strategy.isSimilar("a".repeat(100), "a".repeat(120)));
+    }
+
+    @Test
+    void boundedLevenshteinDistance_matchesFullDistanceOrCapsAtBound() {
+        Random random = new Random(42);
+        for (int iteration = 0; iteration < 5_000; iteration++) {
+            String left = randomText(random, random.nextInt(30));
+            String right = random.nextBoolean() ? randomText(random, random.nextInt(30)) : mutate(left, random);
+            int maxDistance = random.nextInt(10);
+
+            int expected = Math.min(fullLevenshteinDistance(left, right), maxDistance + 1);
+
+            assertEquals(expected, strategy.boundedLevenshteinDistance(left, right, maxDistance),
+                         () -> left + " / " + right + " k=" + maxDistance);
+        }
+    }
+
+    @Test
+    void isSimilar_agreesWithExactSimilarity() {
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 5_000; iteration++) {
+            String left = randomText(random, 1 + random.nextInt(60));
+            String right = mutate(left, random);
+            if (right.isBlank()) {
+                continue;
+            }
+
+            boolean expected = strategy.similarity(left, right) >= strategy.getThreshold();
+
+            assertEquals(expected, strategy.isSimilar(left, right), () -> left + " / " + right);
+        }
+    }
+
+    private static int fullLevenshteinDistance(String left, String right) {
+        int[][] distance = new int[left.length() + 1][right.length() + 1];
+        for (int i = 0; i <= left.length(); i++) {
+            distance[i][0] = i;
+        }
+        for (int j = 0; j <= right.length(); j++) {
+            distance[0][j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            for (int j = 1; j <= right.length(); j++) {
+                int cost = left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1;
+                distance[i][j] = Math.min(Math.min(distance[i - 1][j] + 1, distance[i][j - 1] + 1),
+                                          distance[i - 1][j - 1] + cost);
+            }
+        }
+        return distance[left.length()][right.length()];
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+
+    private static String mutate(String value, Random random) {
+        StringBuilder builder = new StringBuilder(value);
+        int edits = random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            int operation = random.nextInt(3);
+            if (builder.isEmpty() || operation == 0) {
+                builder.insert(random.nextInt(builder.length() + 1), (char) ('a' + random.nextInt(4)));
+            } else if (operation == 1) {
+                builder.deleteCharAt(random.nextInt(builder.length()));
+            } else {
+                builder.setCharAt(random.nextInt(builder.length()), (char) ('a' + random.nextInt(4)));
+            }
+        }
+        return builder.toString();
+    }
+}
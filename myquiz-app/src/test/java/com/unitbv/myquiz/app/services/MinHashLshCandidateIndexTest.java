@@ -0,0 +1,66 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.unitbv.myquiz.app.testutil.TestQuestions.multichoice;
+import static com.unitbv.myquiz.app.testutil.TestQuestions.trueFalse;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinHashLshCandidateIndexTest {
+
+    @Test
+    void candidatesFor_identicalTitleCaseInsensitive_isCandidate() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "What is a relational database?", "Tables", "Graphs", "Files", "Streams"));
+        CorpusQuestion duplicate = CorpusQuestion.of(multichoice(2L, "WHAT IS A RELATIONAL DATABASE?", "Rows", "Columns", "Keys", "Indexes"));
+        CorpusQuestion unrelated = CorpusQuestion.of(multichoice(3L, "Explain the TCP three-way handshake", "SYN", "ACK", "FIN", "RST"));
+
+        MinHashLshCandidateIndex index = new MinHashLshCandidateIndex(List.of(source, duplicate, unrelated), 20, 4, 3);
+
+        List<CorpusQuestion> candidates = index.candidatesFor(source);
+        assertTrue(candidates.contains(duplicate));
+        assertFalse(candidates.contains(unrelated));
+    }
+
+    @Test
+    void candidatesFor_sharedAnswerAcrossAnswerPositions_isCandidate() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "First title about joins", "A left outer join keeps all rows of the left table", "b1", "c1", "d1"));
+        CorpusQuestion other = CorpusQuestion.of(multichoice(2L, "Second unrelated title", "w2", "x2", "y2", "A left outer join keeps all rows of the left table"));
+
+        MinHashLshCandidateIndex index = new MinHashLshCandidateIndex(List.of(source, other), 20, 4, 3);
+
+        assertTrue(index.candidatesFor(source).contains(other));
+    }
+
+    @Test
+    void candidatesFor_titleContainedInLongerTitle_isCandidateDespiteLowJaccard() {
+        CorpusQuestion shortTitle = CorpusQuestion.of(multichoice(1L, "What is a primary key", "A", "B", "C", "D"));
+        CorpusQuestion longTitle = CorpusQuestion.of(multichoice(2L, "In relational databases, what is a primary key and why is it needed?", "E", "F", "G", "H"));
+        CorpusQuestion outside = CorpusQuestion.of(multichoice(3L, "Primary key", "I", "J", "K", "L"));
+
+        MinHashLshCandidateIndex index = new MinHashLshCandidateIndex(List.of(shortTitle, longTitle), 20, 4, 3);
+
+        assertTrue(index.candidatesFor(shortTitle).contains(longTitle));
+        assertTrue(index.candidatesFor(longTitle).contains(shortTitle));
+        assertTrue(index.candidatesFor(outside).containsAll(List.of(shortTitle, longTitle)));
+    }
+
+    @Test
+    void candidatesFor_trueFalseNearDuplicateText_isCandidate() {
+        CorpusQuestion source = CorpusQuestion.of(trueFalse(1L, "TF one", "The primary key of a table can contain NULL values"));
+        CorpusQuestion nearDuplicate = CorpusQuestion.of(trueFalse(2L, "TF two", "The primary key of a table can contain NULL values."));
+        List<CorpusQuestion> questions = new ArrayList<>(List.of(source, nearDuplicate));
+        for (long id = 3; id < 50; id++) {
+            questions.add(CorpusQuestion.of(trueFalse(id, "Filler " + id, "Completely different statement number " + id * 7919)));
+        }
+
+        MinHashLshCandidateIndex index = new MinHashLshCandidateIndex(questions, 20, 4, 3);
+
+        List<CorpusQuestion> candidates = index.candidatesFor(source);
+        assertTrue(candidates.contains(nearDuplicate));
+        assertTrue(candidates.size() < questions.size());
+    }
+}
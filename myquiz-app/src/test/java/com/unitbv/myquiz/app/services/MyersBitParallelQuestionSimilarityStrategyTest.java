@@ -0,0 +1,68 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MyersBitParallelQuestionSimilarityStrategyTest {
+
+    private static final String ALPHABET = "abcșțăî";
+
+    private final MyersBitParallelQuestionSimilarityStrategy strategy = new MyersBitParallelQuestionSimilarityStrategy();
+    private final LevenshteinQuestionSimilarityStrategy levenshtein = new LevenshteinQuestionSimilarityStrategy();
+
+    @Test
+    void isSimilar_longAnswerWithFewEdits_isSimilar() {
+        String answer = "Indexul B-tree păstrează cheile sortate și permite căutări în timp logaritmic. ".repeat(20);
+        String edited = answer.replace("logaritmic", "logaritmc");
+
+        assertTrue(strategy.isSimilar(answer, edited));
+        assertFalse(strategy.isSimilar(answer, answer.substring(0, answer.length() / 2)));
+    }
+
+    @Test
+    void similarity_matchesLevenshteinAcrossBlockSizes() {
+        Random random = new Random(11);
+        for (int iteration = 0; iteration < 3_000; iteration++) {
+            int length = random.nextInt(4) == 0 ? random.nextInt(300) : random.nextInt(70);
+            String left = randomText(random, length);
+            String right = random.nextInt(3) == 0 ? randomText(random, random.nextInt(300)) : mutate(left, random);
+
+            assertEquals(levenshtein.similarity(left, right), strategy.similarity(left, right),
+                         () -> left + " / " + right);
+            if (!left.isBlank() && !right.isBlank()) {
+                assertEquals(levenshtein.isSimilar(left, right), strategy.isSimilar(left, right),
+                             () -> left + " / " + right);
+            }
+        }
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(ALPHABET.charAt(random.nextInt(random.nextBoolean() ? 3 : ALPHABET.length())));
+        }
+        return builder.toString();
+    }
+
+    private static String mutate(String value, Random random) {
+        StringBuilder builder = new StringBuilder(value);
+        int edits = random.nextInt(8);
+        for (int i = 0; i < edits; i++) {
+            int operation = random.nextInt(3);
+            char replacement = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (builder.isEmpty() || operation == 0) {
+                builder.insert(random.nextInt(builder.length() + 1), replacement);
+            } else if (operation == 1) {
+                builder.deleteCharAt(random.nextInt(builder.length()));
+            } else {
+                builder.setCharAt(random.nextInt(builder.length()), replacement);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairScoreTest {
+
+    @Test
+    void causeAt_thresholdsAboveAndBelowScores_addsOnlyReachedFields() {
+        PairScore score = new PairScore(0, 0.82d, 0.7d, DuplicateCauseCodes.withAnswers(0, 2, 3));
+
+        assertEquals(0, score.causeAt(0.9d, DuplicateCauseCodes.FIELD_ANSWER));
+        assertEquals("Title: similar (82%)", DuplicateCauseCodes.describe(score.causeAt(0.8d, DuplicateCauseCodes.FIELD_ANSWER)));
+        int both = score.causeAt(0.7d, DuplicateCauseCodes.FIELD_ANSWER);
+        assertEquals(DuplicateCauseCodes.KIND_SIMILAR, DuplicateCauseCodes.kindOf(both, DuplicateCauseCodes.FIELD_ANSWER));
+        assertEquals(2, DuplicateCauseCodes.lowerAnswer(both));
+        assertEquals(3, DuplicateCauseCodes.higherAnswer(both));
+    }
+
+    @Test
+    void causeAt_exactMatch_keepsExactKindAtAnyThreshold() {
+        int exactTitle = DuplicateCauseCodes.of(DuplicateCauseCodes.FIELD_TITLE, DuplicateCauseCodes.KIND_EXACT);
+        PairScore score = new PairScore(exactTitle, AbstractQuestionSimilarityStrategy.NO_SCORE, AbstractQuestionSimilarityStrategy.NO_SCORE, 0);
+
+        assertEquals(exactTitle, score.causeAt(1.0d, DuplicateCauseCodes.FIELD_TEXT));
+        assertEquals(exactTitle, score.causeAt(0.6d, DuplicateCauseCodes.FIELD_TEXT));
+        assertFalse(score.isEmpty());
+    }
+
+    @Test
+    void isEmpty_nothingReachedTheFloor_returnsTrue() {
+        PairScore score = new PairScore(0, AbstractQuestionSimilarityStrategy.NO_SCORE, AbstractQuestionSimilarityStrategy.NO_SCORE, 0);
+
+        assertTrue(score.isEmpty());
+        assertEquals(0, score.causeAt(0.6d, DuplicateCauseCodes.FIELD_ANSWER));
+    }
+}
@@ -0,0 +1,154 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.unitbv.myquiz.app.testutil.TestQuestions.multichoice;
+import static com.unitbv.myquiz.app.testutil.TestQuestions.trueFalse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PgTrgmCandidateSourceTest {
+
+    @Test
+    void similarity_matchesPgTrgmReference() {
+        // Example from the pg_trgm documentation: similarity('word', 'two words') = 0.36363637
+        assertEquals(0.36363637f, (float) PgTrgmCandidateSource.similarity("word", "two words"));
+        assertEquals(1.0d, PgTrgmCandidateSource.similarity("Primary Key", "primary key"));
+        assertEquals(0.0d, PgTrgmCandidateSource.similarity("abc", null));
+    }
+
+    @Test
+    void trigrams_wordsPaddedLikePgTrgm() {
+        // show_trgm('ab') = {"  a"," ab","ab "}; punctuation only separates words
+        assertEquals(3, PgTrgmCandidateSource.trigrams("ab").length);
+        assertEquals(PgTrgmCandidateSource.trigrams("ab cd").length, PgTrgmCandidateSource.trigrams("ab, cd!").length);
+    }
+
+    @Test
+    void buildIndex_onH2_fallsBackToInMemoryTrigrams() {
+        PgTrgmCandidateSource source = new PgTrgmCandidateSource(h2JdbcTemplate(), new DuplicateDetectionProperties());
+        CorpusQuestion title = CorpusQuestion.of(multichoice(1L, "What is a relational database?", "a1", "b1", "c1", "d1"));
+        CorpusQuestion nearTitle = CorpusQuestion.of(multichoice(2L, "What is a relational databse", "a2", "b2", "c2", "d2"));
+        CorpusQuestion sharedAnswer = CorpusQuestion.of(multichoice(3L, "Unrelated wording here", "w3", "x3", "y3", "A left outer join keeps all rows"));
+        CorpusQuestion answerSource = CorpusQuestion.of(multichoice(4L, "Something else entirely", "a left outer join keeps all rows", "b4", "c4", "d4"));
+        CorpusQuestion trueFalse = CorpusQuestion.of(trueFalse(5L, "Statement about keys", "The primary key of a table can contain NULL values"));
+        CorpusQuestion nearTrueFalse = CorpusQuestion.of(trueFalse(6L, "Another statement", "The primary key of a table can contain NULL values."));
+        List<CorpusQuestion> corpus = List.of(title, nearTitle, sharedAnswer, answerSource, trueFalse, nearTrueFalse);
+
+        assertFalse(source.isAvailable());
+        DuplicateCandidateIndex index = source.buildIndex(corpus, 0.3d);
+
+        assertTrue(index.candidatesFor(title).contains(nearTitle));
+        assertTrue(index.candidatesFor(nearTitle).contains(title));
+        assertTrue(index.candidatesFor(answerSource).contains(sharedAnswer));
+        assertTrue(index.candidatesFor(trueFalse).contains(nearTrueFalse));
+        assertFalse(index.candidatesFor(title).contains(trueFalse));
+        assertFalse(index.candidatesFor(title).contains(title));
+    }
+
+    @Test
+    void buildIndex_titleContainedInLongerTitle_isCandidateDespiteLowTrigramSimilarity() {
+        PgTrgmCandidateSource source = new PgTrgmCandidateSource(h2JdbcTemplate(), new DuplicateDetectionProperties());
+        CorpusQuestion shortTitle = CorpusQuestion.of(multichoice(1L, "What is a primary key", "A", "B", "C", "D"));
+        CorpusQuestion longTitle = CorpusQuestion.of(multichoice(2L, "In relational databases, what is a primary key and why is it needed?", "E", "F", "G", "H"));
+
+        DuplicateCandidateIndex index = source.buildIndex(List.of(shortTitle, longTitle), 0.5d);
+
+        assertTrue(PgTrgmCandidateSource.similarity(shortTitle.title(), longTitle.title()) < 0.5d);
+        assertEquals(List.of(longTitle), index.candidatesFor(shortTitle));
+        assertEquals(List.of(shortTitle), index.candidatesFor(longTitle));
+    }
+
+    @Test
+    void candidatePairs_queryAndThresholdResetFail_rethrowsQueryFailure() throws SQLException {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        Statement statement = mock(Statement.class);
+        ResultSet extension = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(extension);
+        when(extension.next()).thenReturn(true);
+        when(extension.getInt(1)).thenReturn(1);
+        SQLException resetFailure = new SQLException("current transaction is aborted", "25P02");
+        when(statement.execute("RESET pg_trgm.similarity_threshold")).thenThrow(resetFailure);
+        PreparedStatement select = mock(PreparedStatement.class);
+        when(connection.prepareStatement(startsWith("SELECT set_config"))).thenReturn(mock(PreparedStatement.class));
+        when(connection.prepareStatement(startsWith("WITH scope"))).thenReturn(select);
+        SQLException queryFailure = new SQLException("could not read block", "XX001");
+        when(select.executeQuery()).thenThrow(queryFailure);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        PgTrgmCandidateSource source = new PgTrgmCandidateSource(new JdbcTemplate(dataSource), new DuplicateDetectionProperties());
+        List<CorpusQuestion> corpus = List.of(
+                CorpusQuestion.of(multichoice(1L, "What is a relational database?", "a1", "b1", "c1", "d1")),
+                CorpusQuestion.of(multichoice(2L, "What is a relational databse", "a2", "b2", "c2", "d2"))
+        );
+
+        DataAccessException e = assertThrows(DataAccessException.class, () -> source.candidatePairs(corpus, 0.3d));
+
+        assertSame(queryFailure, e.getCause());
+        assertArrayEquals(new Throwable[]{resetFailure}, queryFailure.getSuppressed());
+    }
+
+    @Test
+    void inMemoryPairs_thresholdDecidesPairs() {
+        CorpusQuestion left = CorpusQuestion.of(trueFalse(1L, "Joins", "An inner join returns matching rows"));
+        CorpusQuestion right = CorpusQuestion.of(trueFalse(2L, "Views", "An inner join returns all rows"));
+        List<CorpusQuestion> corpus = List.of(left, right);
+        double similarity = (float) PgTrgmCandidateSource.similarity(left.text(), right.text());
+
+        assertEquals(1, PgTrgmCandidateSource.inMemoryPairs(corpus, similarity).size());
+        assertTrue(PgTrgmCandidateSource.inMemoryPairs(corpus, similarity + 0.01d).isEmpty());
+    }
+
+    @Test
+    void inMemoryPairs_largerCorpus_matchesPairwiseSimilarity() {
+        List<CorpusQuestion> corpus = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            corpus.add(CorpusQuestion.of(trueFalse(id, "Title " + id % 7, "Statement number " + id % 5 + " about tables " + id % 3)));
+        }
+
+        List<long[]> pairs = PgTrgmCandidateSource.inMemoryPairs(corpus, 0.5d);
+
+        int expected = 0;
+        for (int i = 0; i < corpus.size(); i++) {
+            for (int j = i + 1; j < corpus.size(); j++) {
+                CorpusQuestion a = corpus.get(i);
+                CorpusQuestion b = corpus.get(j);
+                if ((float) PgTrgmCandidateSource.similarity(a.title(), b.title()) >= 0.5d
+                        || (float) PgTrgmCandidateSource.similarity(a.text(), b.text()) >= 0.5d) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, pairs.size());
+    }
+
+    private static JdbcTemplate h2JdbcTemplate() {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:pgtrgm-fallback;DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+}
@@ -0,0 +1,90 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.unitbv.myquiz.app.testutil.TestQuestions.multichoice;
+import static com.unitbv.myquiz.app.testutil.TestQuestions.trueFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QGramCandidateIndexTest {
+
+    @Test
+    void query_nearDuplicateTitle_rankedFirst() {
+        CorpusQuestion duplicate = CorpusQuestion.of(multichoice(1L, "What is a relational database?", "Tables", "Graphs", "Files", "Streams"));
+        CorpusQuestion unrelated = CorpusQuestion.of(multichoice(2L, "Explain the TCP three-way handshake", "SYN", "ACK", "FIN", "RST"));
+        QGramCandidateIndex index = new QGramCandidateIndex();
+        index.synchronize(List.of(duplicate, unrelated));
+
+        List<QGramCandidateIndex.Candidate> candidates = index.query("what is a relational database", null, new String[]{"rows"}, record -> true, 10);
+
+        assertSame(duplicate, candidates.getFirst().question());
+        assertTrue(candidates.getFirst().overlap() > 0.5d);
+    }
+
+    @Test
+    void query_filterAndLimit_applied() {
+        List<CorpusQuestion> corpus = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            corpus.add(CorpusQuestion.of(multichoice(id, "Normal forms question " + id, "1NF", "2NF", "3NF", "BCNF")));
+        }
+        QGramCandidateIndex index = new QGramCandidateIndex();
+        index.synchronize(corpus);
+
+        List<QGramCandidateIndex.Candidate> candidates = index.query("normal forms question", null, null, record -> record.id() % 2 == 0, 5);
+
+        assertEquals(5, candidates.size());
+        assertTrue(candidates.stream().allMatch(candidate -> candidate.question().id() % 2 == 0));
+    }
+
+    @Test
+    void synchronize_changedAndRemovedRecords_followCorpus() {
+        CorpusQuestion kept = CorpusQuestion.of(multichoice(1L, "Primary keys identify rows", "a", "b", "c", "d"));
+        CorpusQuestion edited = CorpusQuestion.of(multichoice(2L, "Foreign keys reference tables", "a", "b", "c", "d"));
+        CorpusQuestion removed = CorpusQuestion.of(multichoice(3L, "Indexes speed up lookups", "a", "b", "c", "d"));
+        QGramCandidateIndex index = new QGramCandidateIndex();
+        index.synchronize(List.of(kept, edited, removed));
+
+        CorpusQuestion afterEdit = CorpusQuestion.of(multichoice(2L, "Triggers run on table events", "a", "b", "c", "d"));
+        index.synchronize(List.of(kept, afterEdit));
+
+        assertEquals(2, index.size());
+        assertEquals(4, index.slotCount());
+        assertTrue(index.query("indexes speed up lookups", null, null, record -> true, 10).stream()
+                        .noneMatch(candidate -> candidate.question().id() == 3L));
+        assertSame(afterEdit, index.query("triggers run on table events", null, null, record -> true, 1).getFirst().question());
+        assertTrue(index.query("foreign keys reference tables", null, null, record -> true, 10).stream()
+                        .noneMatch(candidate -> candidate.question() == edited));
+    }
+
+    @Test
+    void synchronize_manyReplacedRecords_compacts() {
+        List<CorpusQuestion> corpus = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            corpus.add(CorpusQuestion.of(trueFalse(id, "Statement " + id, "Version one of statement " + id)));
+        }
+        QGramCandidateIndex index = new QGramCandidateIndex();
+        index.synchronize(corpus);
+
+        List<CorpusQuestion> edited = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            edited.add(CorpusQuestion.of(trueFalse(id, "Statement " + id, "Version two of statement " + id)));
+        }
+        index.synchronize(edited);
+
+        assertEquals(100, index.size());
+        assertEquals(100, index.slotCount());
+        assertSame(edited.get(41), index.query("statement 42", "version two of statement 42", null, record -> true, 1).getFirst().question());
+    }
+
+    @Test
+    void gramsOf_shortValues_paddedAndDistinct() {
+        assertEquals(2, QGramCandidateIndex.gramsOf("ab", null, null).length);
+        assertEquals(2, QGramCandidateIndex.gramsOf("ab", "ab", new String[]{"ab"}).length);
+        assertEquals(0, QGramCandidateIndex.gramsOf(null, null, null).length);
+    }
+}
@@ -1,8 +1,10 @@
 package com.unitbv.myquiz.app.services;
 
+import com.unitbv.myquiz.api.dto.QuestionDuplicateClusterDto;
 import com.unitbv.myquiz.api.types.DuplicateComparisonStrategy;
 import com.unitbv.myquiz.api.types.QuestionType;
 import com.unitbv.myquiz.api.types.StudyYear;
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
 import com.unitbv.myquiz.app.entities.Question;
 import com.unitbv.myquiz.app.entities.QuestionDuplicate;
 import com.unitbv.myquiz.app.entities.QuestionError;
@@ -14,13 +16,19 @@ import com.unitbv.myquiz.app.testutil.TestEntityFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
@@ -43,6 +51,21 @@ class QuestionDuplicationServiceTest {
     @Autowired
     private TestEntityFactory testEntityFactory;
 
+    @Autowired
+    private DuplicateDetectionProperties duplicateDetectionProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DuplicateClusterService duplicateClusterService;
+
+    @Autowired
+    private QuestionService questionService;
+
+    @Autowired
+    private PgTrgmCandidateSource pgTrgmCandidateSource;
+
     @Test
     void checkDuplicatesInCourse_trueFalseDuplicate_persistsLinkAndErrors() {
         String marker = "it-tf-" + UUID.randomUUID();
@@ -60,6 +83,19 @@ class QuestionDuplicationServiceTest {
         assertTrue(questionDuplicateRepository.existsByQuestionIdAndDuplicateQuestionId(lower, higher));
     }
 
+    @Test
+    void checkDuplicatesInCourse_linkStoredBeforeCheck_keepsSingleLink() {
+        String marker = "it-relink-" + UUID.randomUUID();
+        Question existing = createQuestionForCourse(ServiceTestData.COURSE, QuestionType.TRUEFALSE, marker + "-title", marker + "-text", "TRUE");
+        Question uploaded = createQuestionForCourse(ServiceTestData.COURSE, QuestionType.TRUEFALSE, marker + "-title", marker + "-text", "FALSE");
+        saveDuplicateLink(existing, uploaded);
+
+        service.checkDuplicatesInCourse(List.of(existing), ServiceTestData.COURSE, List.of(uploaded));
+        service.checkDuplicatesInCourse(List.of(existing), ServiceTestData.COURSE, List.of(uploaded));
+
+        assertEquals(1, questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(uploaded.getId(), uploaded.getId()).size());
+    }
+
     @Test
     void checkDuplicatesInCourse_trueFalseMissingAnswer_createsMissingAnswerErrorOnly() {
         String marker = "it-missing-" + UUID.randomUUID();
@@ -127,6 +163,25 @@ class QuestionDuplicationServiceTest {
         assertTrue(summary.duplicateErrorsRemoved() >= 3);
     }
 
+    @Test
+    void getClusters_canonicalQuestionDeletedAfterRecompute_listsRemainingMembers() {
+        String marker = "course-cluster-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-1", "R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-2", "R1");
+        Question q3 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-3", "R1");
+        service.recomputeDuplicatesForCourse(course);
+        assertEquals(List.of(q1.getId(), q2.getId(), q3.getId()), duplicateClusterService.getClusters(course, null).getFirst().getMemberIds());
+
+        assertTrue(questionService.deleteQuestion(q1.getId()));
+        List<QuestionDuplicateClusterDto> clusters = duplicateClusterService.getClusters(course, null);
+
+        assertEquals(1, clusters.size());
+        assertEquals(q2.getId(), clusters.getFirst().getCanonicalQuestionId());
+        assertEquals(List.of(q2.getId(), q3.getId()), clusters.getFirst().getMemberIds());
+        assertEquals(2, clusters.getFirst().getSize());
+    }
+
     @Test
     void recomputeDuplicatesWithStringEqualityStrategy_isolatedCourse_findsOnlyExactMatches() {
         String marker = "course-strategy-" + UUID.randomUUID();
@@ -142,6 +197,215 @@ class QuestionDuplicationServiceTest {
         assertTrue(summary.duplicateErrorsCreated() >= 2);
     }
 
+    @Test
+    void recomputeDuplicatesInBatches_isolatedCourse_reportsProgressAndCommitsBatches() {
+        String marker = "course-batches-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text", "R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-TITLE", marker + "-TEXT", "R1");
+        createQuestionForCourse(course, QuestionType.TRUEFALSE, marker + "-tf", marker + "-tf-text", "TRUE");
+        RecordingMonitor monitor = new RecordingMonitor(false);
+
+        QuestionDuplicationService.DuplicateRecomputeSummary summary = service.recomputeDuplicatesInBatches(
+                course, null, null, DuplicateComparisonStrategy.STRING_EQUALITY.getAlgorithmName(), monitor);
+
+        assertEquals(3, summary.totalQuestions());
+        assertTrue(summary.duplicateErrorsCreated() >= 2);
+        assertEquals(3, monitor.questionsToCheck);
+        assertEquals(2, monitor.stages);
+        assertEquals(2, monitor.committedBatches);
+        assertTrue(questionDuplicateRepository.existsByQuestionIdAndDuplicateQuestionId(Math.min(q1.getId(), q2.getId()), Math.max(q1.getId(), q2.getId())));
+    }
+
+    @Test
+    void recomputeDuplicatesInBatches_cancelled_stopsBeforeFirstBatch() {
+        String marker = "course-cancel-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text", "R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-TITLE", marker + "-TEXT", "R1");
+        RecordingMonitor monitor = new RecordingMonitor(true);
+
+        assertThrows(CancellationException.class, () -> service.recomputeDuplicatesInBatches(
+                course, null, null, DuplicateComparisonStrategy.STRING_EQUALITY.getAlgorithmName(), monitor));
+
+        assertEquals(0, monitor.committedBatches);
+        assertFalse(questionDuplicateRepository.existsByQuestionIdAndDuplicateQuestionId(Math.min(q1.getId(), q2.getId()), Math.max(q1.getId(), q2.getId())));
+    }
+
+    @Test
+    void recomputeDuplicatesForCourse_forkJoinEngine_matchesBatchedEngine() {
+        String marker = "course-engines-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-1", marker + "-R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-TITLE", marker + "-text-2", "other-" + UUID.randomUUID());
+        Question q3 = createQuestionForCourse(course, QuestionType.MULTICHOICE, "other-" + UUID.randomUUID(), marker + "-text-3", marker + "-R1");
+        Question q4 = createQuestionForCourse(course, QuestionType.MULTICHOICE, "unrelated-" + UUID.randomUUID(), marker + "-text-4", "unrelated-" + UUID.randomUUID());
+        Question q5 = createQuestionForCourse(course, QuestionType.TRUEFALSE, marker + "-tf", marker + "-tf-text", "TRUE");
+        Question q6 = createQuestionForCourse(course, QuestionType.TRUEFALSE, marker + "-TF", "other-" + UUID.randomUUID(), "FALSE");
+        List<Long> ids = List.of(q1.getId(), q2.getId(), q3.getId(), q4.getId(), q5.getId(), q6.getId());
+        String previousEngine = duplicateDetectionProperties.getPairEngine();
+
+        try {
+            duplicateDetectionProperties.setPairEngine(DuplicateDetectionProperties.PAIR_ENGINE_BATCHED);
+            QuestionDuplicationService.DuplicateRecomputeSummary batched = service.recomputeDuplicatesForCourse(course);
+            Set<String> batchedLinks = duplicateLinkKeys(ids);
+
+            duplicateDetectionProperties.setPairEngine(DuplicateDetectionProperties.PAIR_ENGINE_FORK_JOIN);
+            QuestionDuplicationService.DuplicateRecomputeSummary forkJoin = service.recomputeDuplicatesForCourse(course);
+
+            assertEquals(batched.duplicateErrorsCreated(), forkJoin.duplicateErrorsCreated());
+            assertEquals(batchedLinks, duplicateLinkKeys(ids));
+            assertEquals(3, batchedLinks.size());
+        }
+        finally {
+            duplicateDetectionProperties.setPairEngine(previousEngine);
+        }
+    }
+
+    @Test
+    void recomputeDuplicatesForCourse_pgTrgmCandidateSource_matchesExactCandidates() {
+        String marker = "it-trgm-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + " relational database title", marker + "-text-1", marker + "-R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + " relational databse title", marker + "-text-2", "other-" + UUID.randomUUID());
+        Question q3 = createQuestionForCourse(course, QuestionType.MULTICHOICE, "other-" + UUID.randomUUID(), marker + "-text-3", marker + "-R1");
+        Question q4 = createQuestionForCourse(course, QuestionType.MULTICHOICE, "unrelated-" + UUID.randomUUID(), marker + "-text-4", "unrelated-" + UUID.randomUUID());
+        Question q5 = createQuestionForCourse(course, QuestionType.TRUEFALSE, "tf-" + UUID.randomUUID(), marker + " keys can be null", "TRUE");
+        Question q6 = createQuestionForCourse(course, QuestionType.TRUEFALSE, "tf-" + UUID.randomUUID(), marker + " keys can be null.", "FALSE");
+        questionRepository.flush();
+        List<Long> ids = List.of(q1.getId(), q2.getId(), q3.getId(), q4.getId(), q5.getId(), q6.getId());
+        String levenshtein = DuplicateComparisonStrategy.LEVENSHTEIN.getAlgorithmName();
+        String previousSource = duplicateDetectionProperties.getCandidateSource();
+        boolean previousScoreCache = duplicateDetectionProperties.isScoreCache();
+
+        try {
+            duplicateDetectionProperties.setScoreCache(false);
+            duplicateDetectionProperties.setCandidateSource(DuplicateDetectionProperties.CANDIDATE_SOURCE_EXACT);
+            service.recomputeDuplicatesForCourse(course, levenshtein);
+            Set<String> exactLinks = duplicateLinkKeys(ids);
+
+            duplicateDetectionProperties.setCandidateSource(DuplicateDetectionProperties.CANDIDATE_SOURCE_PG_TRGM);
+            service.recomputeDuplicatesForCourse(course, levenshtein);
+
+            assertEquals(exactLinks, duplicateLinkKeys(ids));
+            assertEquals(3, exactLinks.size());
+        }
+        finally {
+            duplicateDetectionProperties.setCandidateSource(previousSource);
+            duplicateDetectionProperties.setScoreCache(previousScoreCache);
+        }
+
+        List<CorpusQuestion> corpus = questionRepository.findAllById(ids).stream().map(CorpusQuestion::of).toList();
+        assertEquals(pairKeys(PgTrgmCandidateSource.inMemoryPairs(corpus, 0.3d)), pairKeys(pgTrgmCandidateSource.candidatePairs(corpus, 0.3d)));
+    }
+
+    @Test
+    void recomputeDuplicatesInBatches_thresholdOverride_decidesStoredScoresAgainstThreshold() {
+        String marker = "it-rescore-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-abcdefghijkl", marker + "-text-1", "Paris is the capital of France");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-mnopqrstuvwx", marker + "-text-2", "Water boils at one hundred degrees");
+        questionRepository.flush();
+        List<Long> ids = List.of(q1.getId(), q2.getId());
+        String levenshtein = DuplicateComparisonStrategy.LEVENSHTEIN.getAlgorithmName();
+
+        service.recomputeDuplicatesForCourse(course, levenshtein);
+        assertTrue(duplicateLinkKeys(ids).isEmpty());
+        assertEquals(2, storedScoreStates(ids));
+
+        service.recomputeDuplicatesInBatches(course, null, null, levenshtein, null, 0.75d);
+        assertEquals(Set.of(Math.min(q1.getId(), q2.getId()) + ":" + Math.max(q1.getId(), q2.getId())), duplicateLinkKeys(ids));
+        assertEquals(2, storedScoreStates(ids));
+
+        service.recomputeDuplicatesForCourse(course, levenshtein);
+        assertTrue(duplicateLinkKeys(ids).isEmpty());
+    }
+
+    @Test
+    void recomputeDuplicatesForCourse_scoreFloorChanged_rescoresInsteadOfReusingStates() {
+        String marker = "it-floor-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-abcdefghijkl", marker + "-text-1", "Paris is the capital of France");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-mnopqrstuvwx", marker + "-text-2", "Water boils at one hundred degrees");
+        questionRepository.flush();
+        List<Long> ids = List.of(q1.getId(), q2.getId());
+        String levenshtein = DuplicateComparisonStrategy.LEVENSHTEIN.getAlgorithmName();
+        double previousFloor = duplicateDetectionProperties.getScoreFloor();
+
+        try {
+            service.recomputeDuplicatesForCourse(course, levenshtein);
+            assertEquals(2, storedScoreStates(ids, previousFloor));
+
+            duplicateDetectionProperties.setScoreFloor(0.7d);
+            service.recomputeDuplicatesForCourse(course, levenshtein);
+        } finally {
+            duplicateDetectionProperties.setScoreFloor(previousFloor);
+        }
+
+        assertEquals(2, storedScoreStates(ids));
+        assertEquals(2, storedScoreStates(ids, 0.7d));
+    }
+
+    @Test
+    void recomputeDuplicatesInBatches_thresholdBelowFloorOrPartialScope_isRejected() {
+        String levenshtein = DuplicateComparisonStrategy.LEVENSHTEIN.getAlgorithmName();
+        String tokenJaccard = DuplicateComparisonStrategy.TOKEN_JACCARD.getAlgorithmName();
+        String course = "BD-IT-" + UUID.randomUUID();
+
+        assertTrue(service.supportsThresholdOverride(levenshtein));
+        assertFalse(service.supportsThresholdOverride(tokenJaccard));
+        assertThrows(IllegalArgumentException.class, () -> service.recomputeDuplicatesInBatches(course, null, null, levenshtein, null, service.getScoreFloor() - 0.1d));
+        assertThrows(IllegalArgumentException.class, () -> service.recomputeDuplicatesInBatches(course, null, null, tokenJaccard, null, 0.8d));
+        assertThrows(IllegalArgumentException.class, () -> service.recomputeDuplicatesInBatches(course, 1L, null, levenshtein, null, 0.8d));
+    }
+
+    @Test
+    void refreshDuplicatesForQuestion_editIntoAndOutOfDuplicate_writesOnlyDelta() {
+        String marker = "it-incremental-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-1", marker + "-R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, "other-" + UUID.randomUUID(), marker + "-text-2", "other-" + UUID.randomUUID());
+        long lower = Math.min(q1.getId(), q2.getId());
+        long higher = Math.max(q1.getId(), q2.getId());
+
+        q2.setTitle(marker + "-TITLE");
+        questionRepository.save(q2);
+        QuestionDuplicationService.DuplicateDelta added = service.refreshDuplicatesForQuestion(q2.getId());
+
+        assertEquals(new QuestionDuplicationService.DuplicateDelta(1, 0, 2, 0), added);
+        assertTrue(questionDuplicateRepository.existsByQuestionIdAndDuplicateQuestionId(lower, higher));
+        assertEquals(2, questionErrorRepository.findByQuestionIdInAndDescriptionStartingWith(List.of(q1.getId(), q2.getId()), MyUtil.REFORMULATE_QUESTION_TITLE_ALREADY_EXISTS).size());
+
+        assertEquals(QuestionDuplicationService.DuplicateDelta.NONE, service.refreshDuplicatesForQuestion(q2.getId()));
+
+        q2.setTitle("renamed-" + UUID.randomUUID());
+        questionRepository.save(q2);
+        QuestionDuplicationService.DuplicateDelta removed = service.refreshDuplicatesForQuestion(q2.getId());
+
+        assertEquals(new QuestionDuplicationService.DuplicateDelta(0, 1, 0, 2), removed);
+        assertTrue(questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(q2.getId(), q2.getId()).isEmpty());
+        assertTrue(questionErrorRepository.findByQuestionIdInAndDescriptionStartingWith(List.of(q1.getId(), q2.getId()), MyUtil.REFORMULATE_QUESTION_TITLE_ALREADY_EXISTS).isEmpty());
+    }
+
+    @Test
+    void refreshDuplicatesForQuestion_matchKindChangesFromTitleToAnswers_resyncsKeptPartner() {
+        String marker = "it-incremental-" + UUID.randomUUID();
+        String course = "BD-IT-" + UUID.randomUUID();
+        Question q1 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-title", marker + "-text-1", marker + "-R1");
+        Question q2 = createQuestionForCourse(course, QuestionType.MULTICHOICE, marker + "-TITLE", marker + "-text-2", "other-" + UUID.randomUUID());
+        service.refreshDuplicatesForQuestion(q2.getId());
+
+        q2.setTitle("renamed-" + UUID.randomUUID());
+        q2.setResponse1(marker + "-R1");
+        questionRepository.save(q2);
+        QuestionDuplicationService.DuplicateDelta changed = service.refreshDuplicatesForQuestion(q2.getId());
+
+        assertEquals(new QuestionDuplicationService.DuplicateDelta(0, 0, 2, 2), changed);
+        assertEquals(1, questionDuplicateRepository.findByQuestionIdOrDuplicateQuestionId(q2.getId(), q2.getId()).size());
+        assertTrue(questionErrorRepository.findByQuestionIdInAndDescriptionStartingWith(List.of(q1.getId(), q2.getId()), MyUtil.REFORMULATE_QUESTION_TITLE_ALREADY_EXISTS).isEmpty());
+        assertEquals(2, questionErrorRepository.findByQuestionIdInAndDescriptionStartingWith(List.of(q1.getId(), q2.getId()), MyUtil.REFORMULATE_QUESTION_ANSWER_ALREADY_EXISTS).size());
+    }
+
     private Question createQuestionForCourse(String course, QuestionType type, String title, String text, String response1) {
         String suffix = UUID.randomUUID().toString().substring(0, 8);
         TestEntityFactory.QuestionBankAuthorFixture fixture = testEntityFactory.createQuestionBankAuthorFixture(
@@ -174,6 +438,30 @@ class QuestionDuplicationServiceTest {
         return questionRepository.save(question);
     }
 
+    private long storedScoreStates(List<Long> questionIds) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM question_score_state WHERE question_id IN (?, ?)", Long.class, questionIds.get(0), questionIds.get(1));
+        return count == null ? 0 : count;
+    }
+
+    private long storedScoreStates(List<Long> questionIds, double scoreFloor) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM question_score_state WHERE question_id IN (?, ?) AND score_floor = ?", Long.class,
+                questionIds.get(0), questionIds.get(1), scoreFloor);
+        return count == null ? 0 : count;
+    }
+
+    private static Set<String> pairKeys(List<long[]> pairs) {
+        return pairs.stream().map(pair -> pair[0] + ":" + pair[1]).collect(Collectors.toSet());
+    }
+
+    private Set<String> duplicateLinkKeys(List<Long> questionIds) {
+        return questionDuplicateRepository.findAll().stream()
+                .filter(link -> questionIds.contains(link.getQuestion().getId()))
+                .map(link -> link.getQuestion().getId() + ":" + link.getDuplicateQuestion().getId())
+                .collect(Collectors.toSet());
+    }
+
     private void saveDuplicateLink(Question left, Question right) {
         long lowerId = Math.min(left.getId(), right.getId());
         long higherId = Math.max(left.getId(), right.getId());
@@ -194,4 +482,35 @@ class QuestionDuplicationServiceTest {
         error.setDescription(prefix + " (" + question.getTitle() + ")");
         questionErrorRepository.save(error);
     }
+
+    private static final class RecordingMonitor implements DuplicateRecomputeMonitor {
+        private final boolean cancelled;
+        private int questionsToCheck;
+        private int stages;
+        private int committedBatches;
+
+        private RecordingMonitor(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public void onQuestionsLoaded(int questionsToCheck) {
+            this.questionsToCheck = questionsToCheck;
+        }
+
+        @Override
+        public void onStageStarted(String stage, int questions, int batches) {
+            stages++;
+        }
+
+        @Override
+        public void onBatchCommitted(int processedInStage, int linksPersisted, int errorsCreated) {
+            committedBatches++;
+        }
+
+        @Override
+        public boolean isCancellationRequested() {
+            return cancelled;
+        }
+    }
 }
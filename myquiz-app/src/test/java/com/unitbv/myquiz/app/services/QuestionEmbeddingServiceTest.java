@@ -0,0 +1,51 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.app.config.DuplicateDetectionProperties;
+import com.unitbv.myquiz.app.testutil.OllamaEmbeddingStub;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class QuestionEmbeddingServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DuplicateDetectionProperties duplicateDetectionProperties;
+
+    @Test
+    void embeddingsFor_afterRestart_areReadFromTableWithoutCallingOllama() throws IOException {
+        String model = "stub-" + UUID.randomUUID();
+        List<String> values = List.of("ce este o baza de date relationala", "cum deschide tcp o conexiune");
+        try (OllamaEmbeddingStub stub = new OllamaEmbeddingStub()) {
+            Map<String, float[]> computed = new QuestionEmbeddingService(stub.ollamaService(model), jdbcTemplate, duplicateDetectionProperties, Runnable::run)
+                    .embeddingsFor(values);
+            assertEquals(2, stub.requests());
+
+            Map<String, float[]> stored = new QuestionEmbeddingService(stub.ollamaService(model), jdbcTemplate, duplicateDetectionProperties, Runnable::run)
+                    .embeddingsFor(values);
+
+            assertEquals(2, stub.requests());
+            for (String value : values) {
+                assertArrayEquals(computed.get(value), stored.get(value), 1e-6f);
+            }
+            Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM question_embedding WHERE model = ?", Integer.class, model);
+            assertEquals(2, rows);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityFilterCascadeTest {
+
+    private static final String ALPHABET = "abcde fghăîșț";
+
+    @Test
+    void isSimilar_randomPairs_filtersNeverRejectPairsTheKernelAccepts() {
+        List<AbstractQuestionSimilarityStrategy> strategies = List.of(
+                new LevenshteinQuestionSimilarityStrategy(),
+                new MyersBitParallelQuestionSimilarityStrategy(),
+                new JaroWinklerQuestionSimilarityStrategy()
+        );
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 20_000; iteration++) {
+            String left = randomText(random, 1 + random.nextInt(iteration % 3 == 0 ? 80 : 20));
+            String right = mutate(left, random);
+            if (left.isBlank() || right.isBlank()) {
+                continue;
+            }
+            for (AbstractQuestionSimilarityStrategy strategy : strategies) {
+                assertEquals(strategy.meetsThreshold(left, right), strategy.isSimilar(left, right),
+                             () -> strategy.getAlgorithmName() + ": " + left + " / " + right);
+            }
+        }
+    }
+
+    @Test
+    void mayBeSimilar_editDistance_prunesByLengthThenBagThenQGrams() {
+        SimilarityFilterCascade cascade = SimilarityFilterCascade.editDistance(0.90d);
+
+        assertFalse(cascade.mayBeSimilar("a".repeat(100), "a".repeat(120)));
+        assertFalse(cascade.mayBeSimilar("abcdefghij", "klmnopqrst"));
+        assertFalse(cascade.mayBeSimilar("abcdefghijklmnopqrst", "tsrqponmlkjihgfedcba"));
+        assertTrue(cascade.mayBeSimilar("abcdefghij", "abcdefghiX"));
+
+        assertEquals(new SimilarityFilterStats(4, 1, 1, 1), cascade.stats());
+        assertEquals(1, cascade.stats().passed());
+    }
+
+    @Test
+    void mayBeSimilar_jaroWinkler_prunesShortAgainstLongAndDisjointTexts() {
+        SimilarityFilterCascade cascade = SimilarityFilterCascade.jaroWinkler(0.93d, 0.1d, 4);
+
+        assertFalse(cascade.mayBeSimilar("abcd", "abcdefghijklmnop"));
+        assertFalse(cascade.mayBeSimilar("abcdefgh", "stuvwxyz"));
+        assertTrue(cascade.mayBeSimilar("abcdefgh", "abcdefhg"));
+
+        assertEquals(new SimilarityFilterStats(3, 1, 1, 0), cascade.stats());
+    }
+
+    @Test
+    void filterStats_since_reportsOnlyTheChecksOfTheRun() {
+        LevenshteinQuestionSimilarityStrategy strategy = new LevenshteinQuestionSimilarityStrategy();
+        strategy.isSimilar("abcdefghij", "klmnopqrst");
+        SimilarityFilterStats before = strategy.filterStats();
+
+        strategy.isSimilar("a".repeat(10), "a".repeat(30));
+        strategy.isSimilar("abcdefghij", "abcdefghij");
+
+        SimilarityFilterStats run = strategy.filterStats().since(before);
+        assertEquals(2, run.evaluated());
+        assertEquals(1, run.prunedByLength());
+        assertEquals(0, run.prunedByBag());
+        assertEquals(1, run.passed());
+    }
+
+    @Test
+    void withOwnFilterStats_sharedStrategyUsedMeanwhile_countsOnlyItsOwnChecks() {
+        MyersBitParallelQuestionSimilarityStrategy shared = new MyersBitParallelQuestionSimilarityStrategy();
+        AbstractQuestionSimilarityStrategy run = shared.withOwnFilterStats();
+
+        assertTrue(run.isSimilar("abcdefghij", "abcdefghij"));
+        assertFalse(run.isSimilar("a".repeat(10), "a".repeat(30)));
+        shared.isSimilar("abcdefghij", "klmnopqrst");
+        assertEquals(shared.score("abcdefghij", "abcdefghik", 0.5d), run.score("abcdefghij", "abcdefghik", 0.5d));
+
+        assertEquals(new SimilarityFilterStats(2, 1, 0, 0), run.filterStats());
+        assertEquals(new SimilarityFilterStats(1, 0, 1, 0), shared.filterStats());
+        assertEquals("myers", run.getAlgorithmName());
+        TokenJaccardQuestionSimilarityStrategy withoutFilters = new TokenJaccardQuestionSimilarityStrategy();
+        assertSame(withoutFilters, withoutFilters.withOwnFilterStats());
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+
+    private static String mutate(String value, Random random) {
+        StringBuilder text = new StringBuilder(value);
+        int edits = random.nextInt(Math.max(1, value.length() / 4) + 1);
+        for (int edit = 0; edit < edits; edit++) {
+            int position = text.isEmpty() ? 0 : random.nextInt(text.length());
+            char replacement = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    if (!text.isEmpty()) {
+                        text.deleteCharAt(position);
+                    }
+                }
+                case 1 -> text.insert(position, replacement);
+                default -> {
+                    if (!text.isEmpty()) {
+                        text.setCharAt(position, replacement);
+                    }
+                }
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymmetricPairEngineTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void forEachPair_sizesAroundTileBoundaries_visitEachUnorderedPairOnce() {
+        for (int size : new int[]{0, 1, 2, 7, 8, 9, 65, 130}) {
+            AtomicIntegerArray visits = new AtomicIntegerArray(Math.max(1, size * size));
+
+            boolean completed = new SymmetricPairEngine(pool, 8, null, null).forEachPair(size, (left, right) -> visits.incrementAndGet(left * size + right));
+
+            assertTrue(completed);
+            for (int left = 0; left < size; left++) {
+                for (int right = 0; right < size; right++) {
+                    assertEquals(left < right ? 1 : 0, visits.get(left * size + right), "size=" + size + " pair=" + left + "," + right);
+                }
+            }
+        }
+    }
+
+    @Test
+    void forEachCandidatePair_symmetricPartners_visitOnlyHigherPartnersOnce() {
+        int size = 40;
+        AtomicIntegerArray visits = new AtomicIntegerArray(size * size);
+
+        boolean completed = new SymmetricPairEngine(pool, 8, null, null).forEachCandidatePair(
+                size,
+                left -> IntStream.range(0, size).filter(right -> (left + right) % 3 == 0).toArray(),
+                (left, right) -> visits.incrementAndGet(left * size + right)
+        );
+
+        assertTrue(completed);
+        for (int left = 0; left < size; left++) {
+            for (int right = 0; right < size; right++) {
+                int expected = left < right && (left + right) % 3 == 0 ? 1 : 0;
+                assertEquals(expected, visits.get(left * size + right), "pair=" + left + "," + right);
+            }
+        }
+    }
+
+    @Test
+    void forEachPair_limitedParallelism_visitsEachPairOnceOnAtMostThatManyWorkers() {
+        int size = 200;
+        AtomicIntegerArray visits = new AtomicIntegerArray(size * size);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        boolean completed = new SymmetricPairEngine(pool, 8, 2, null, null).forEachPair(size, (left, right) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            visits.incrementAndGet(left * size + right);
+            active.decrementAndGet();
+        });
+
+        assertTrue(completed);
+        assertTrue(maxActive.get() <= 2, "max concurrent visitors " + maxActive.get());
+        for (int left = 0; left < size; left++) {
+            for (int right = 0; right < size; right++) {
+                assertEquals(left < right ? 1 : 0, visits.get(left * size + right), "pair=" + left + "," + right);
+            }
+        }
+    }
+
+    @Test
+    void forEachCandidatePair_limitedParallelismCancelled_stopsAllLanes() {
+        AtomicInteger visited = new AtomicInteger();
+
+        boolean completed = new SymmetricPairEngine(pool, 8, 2, () -> visited.get() > 100, null).forEachCandidatePair(
+                500,
+                left -> IntStream.range(0, 500).toArray(),
+                (left, right) -> visited.incrementAndGet()
+        );
+
+        assertFalse(completed);
+        assertTrue(visited.get() < 500 * 499 / 2);
+    }
+
+    @Test
+    void forEachPair_cancelled_skipsRemainingTiles() {
+        AtomicInteger visited = new AtomicInteger();
+
+        boolean completed = new SymmetricPairEngine(pool, 8, () -> visited.get() > 100, null).forEachPair(500, (left, right) -> visited.incrementAndGet());
+
+        assertFalse(completed);
+        assertTrue(visited.get() < 500 * 499 / 2);
+    }
+
+    @Test
+    void forEachPair_completed_reportsFullProgress() {
+        AtomicInteger maxProgress = new AtomicInteger();
+
+        new SymmetricPairEngine(pool, 16, null, processed -> maxProgress.accumulateAndGet(processed, Math::max)).forEachPair(100, (left, right) -> {
+        });
+
+        assertEquals(100, maxProgress.get());
+    }
+}
@@ -0,0 +1,84 @@
+package com.unitbv.myquiz.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.unitbv.myquiz.app.testutil.TestQuestions.multichoice;
+import static com.unitbv.myquiz.app.testutil.TestQuestions.trueFalse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenSetSimilarityJoinTest {
+
+    private final TokenJaccardQuestionSimilarityStrategy strategy = new TokenJaccardQuestionSimilarityStrategy();
+
+    @Test
+    void candidatesFor_reorderedTitleWords_arePaired() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "Which SQL clause filters grouped rows", "HAVING", "WHERE", "ORDER BY", "LIMIT"));
+        CorpusQuestion reordered = CorpusQuestion.of(multichoice(2L, "Which SQL clause filters rows grouped?", "Q1", "Q2", "Q3", "Q4"));
+        CorpusQuestion unrelated = CorpusQuestion.of(multichoice(3L, "What does ACID stand for", "Atomicity", "Consistency", "Isolation", "Durability"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(source, reordered, unrelated), strategy.getThreshold());
+
+        assertEquals(List.of(reordered), join.candidatesFor(source));
+        assertEquals(List.of(source), join.candidatesFor(reordered));
+        assertTrue(join.candidatesFor(unrelated).isEmpty());
+        assertEquals(1, join.pairCount());
+        assertTrue(strategy.isSimilar("which sql clause filters grouped rows", "which sql clause filters rows grouped?"));
+    }
+
+    @Test
+    void candidatesFor_answerSharedAcrossPositions_isPairedButNotWithinSameQuestion() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "Title one", "primary key constraint", "foreign key constraint", "x", "y"));
+        CorpusQuestion other = CorpusQuestion.of(multichoice(2L, "Another title", "z", "w", "v", "constraint key primary"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(source, other), strategy.getThreshold());
+
+        assertEquals(List.of(other), join.candidatesFor(source));
+    }
+
+    @Test
+    void candidatesFor_titleContainedInLongerTitle_isPairedDespiteLowJaccard() {
+        CorpusQuestion shortTitle = CorpusQuestion.of(multichoice(1L, "What is a primary key", "A", "B", "C", "D"));
+        CorpusQuestion longTitle = CorpusQuestion.of(multichoice(2L, "In relational databases, what is a primary key and why is it needed?", "E", "F", "G", "H"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(shortTitle, longTitle), strategy.getThreshold());
+
+        assertEquals(List.of(longTitle), join.candidatesFor(shortTitle));
+        assertEquals(List.of(shortTitle), join.candidatesFor(longTitle));
+        assertFalse(strategy.isSimilar(shortTitle.title(), longTitle.title()));
+    }
+
+    @Test
+    void candidatesFor_shortAnswerContainedInAnswer_isPaired() {
+        CorpusQuestion source = CorpusQuestion.of(multichoice(1L, "Title one", "nu", "x", "y", "z"));
+        CorpusQuestion other = CorpusQuestion.of(multichoice(2L, "Another title", "nume", "v", "w", "q"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(source, other), strategy.getThreshold());
+
+        assertEquals(List.of(other), join.candidatesFor(source));
+    }
+
+    @Test
+    void candidatesFor_sameTitleOtherType_isNotPaired() {
+        CorpusQuestion multichoice = CorpusQuestion.of(multichoice(1L, "Indexes speed up reads", "A", "B", "C", "D"));
+        CorpusQuestion trueFalse = CorpusQuestion.of(trueFalse(2L, "Indexes speed up reads", "Every table needs an index"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(multichoice, trueFalse), strategy.getThreshold());
+
+        assertTrue(join.candidatesFor(multichoice).isEmpty());
+        assertEquals(0, join.pairCount());
+    }
+
+    @Test
+    void candidatesFor_questionOutsideJoin_fallsBackToAllQuestions() {
+        CorpusQuestion indexed = CorpusQuestion.of(trueFalse(1L, "TF", "Indexes speed up reads"));
+        CorpusQuestion draft = CorpusQuestion.of(trueFalse(null, "Draft", "Indexes speed up reads"));
+
+        TokenSetSimilarityJoin join = new TokenSetSimilarityJoin(List.of(indexed), strategy.getThreshold());
+
+        assertEquals(List.of(indexed), join.candidatesFor(draft));
+    }
+}
@@ -0,0 +1,142 @@
+package com.unitbv.myquiz.app.services;
+
+import com.unitbv.myquiz.api.settings.ControllerSettings;
+import com.unitbv.myquiz.api.types.TemplateType;
+import com.unitbv.myquiz.app.entities.Author;
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.entities.QuestionBank;
+import com.unitbv.myquiz.app.entities.QuestionBankAuthor;
+import com.unitbv.myquiz.app.entities.QuestionError;
+import com.unitbv.myquiz.app.repositories.QuestionBankAuthorRepository;
+import com.unitbv.myquiz.app.repositories.QuestionErrorRepository;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkbookReuseServiceTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private QuestionBankAuthorRepository questionBankAuthorRepository;
+    @Mock
+    private QuestionRepository questionRepository;
+    @Mock
+    private QuestionErrorRepository questionErrorRepository;
+
+    private WorkbookReuseService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WorkbookReuseService(questionBankAuthorRepository, questionRepository, questionErrorRepository);
+    }
+
+    @Test
+    void findParsed_withoutHash_returnsNull() {
+        assertNull(service.findParsed(null));
+        verify(questionBankAuthorRepository, never()).findFirstByContentHashAndParserVersionOrderByIdDesc(any(), any());
+    }
+
+    @Test
+    void findParsed_parsedByCurrentParser_returnsLatestParse() {
+        QuestionBankAuthor parsed = new QuestionBankAuthor();
+        parsed.setId(7L);
+        when(questionBankAuthorRepository.findFirstByContentHashAndParserVersionOrderByIdDesc(HASH, WorkbookReuseService.PARSER_VERSION))
+                .thenReturn(Optional.of(parsed));
+
+        assertEquals(7L, service.findParsed(HASH));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void copyParsed_parsedWorkbook_copiesQuestionsAndParseErrorsWithHash() {
+        QuestionBankAuthor parsed = new QuestionBankAuthor();
+        parsed.setId(7L);
+        parsed.setTemplateType(TemplateType.Template2024);
+        parsed.setContentHash(HASH);
+        parsed.setParserVersion(WorkbookReuseService.PARSER_VERSION);
+        Question second = question(12L, "Second");
+        Question first = question(11L, "First");
+        QuestionError parseError = new QuestionError(first, "Missing response", 3);
+        parseError.setStatus(ControllerSettings.ERROR_STATUS_RESOLVED);
+        QuestionError duplicateError = new QuestionError(second, MyUtil.REFORMULATE_QUESTION_TITLE_ALREADY_EXISTS + " in Ana Pop", 4);
+        when(questionBankAuthorRepository.findById(7L)).thenReturn(Optional.of(parsed));
+        when(questionBankAuthorRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(questionRepository.findAll(any(Specification.class))).thenReturn(List.of(second, first));
+        when(questionErrorRepository.findByQuestionQuestionBankAuthorId(7L)).thenReturn(List.of(parseError, duplicateError));
+        QuestionBank questionBank = new QuestionBank();
+        Author author = new Author();
+
+        QuestionBankAuthor copy = service.copyParsed(7L, questionBank, author, "Dan Ene_tema.xlsx");
+
+        assertSame(questionBank, copy.getQuestionBank());
+        assertSame(author, copy.getAuthor());
+        assertEquals("Dan Ene_tema.xlsx", copy.getSource());
+        assertEquals(TemplateType.Template2024, copy.getTemplateType());
+        assertEquals(HASH, copy.getContentHash());
+        assertEquals(WorkbookReuseService.PARSER_VERSION, copy.getParserVersion());
+        ArgumentCaptor<Iterable<Question>> questions = ArgumentCaptor.forClass(Iterable.class);
+        verify(questionRepository).saveAll(questions.capture());
+        List<Question> copiedQuestions = new ArrayList<>();
+        questions.getValue().forEach(copiedQuestions::add);
+        assertEquals(List.of("First", "Second"), copiedQuestions.stream().map(Question::getTitle).toList());
+        copiedQuestions.forEach(question -> assertSame(copy, question.getQuestionBankAuthor()));
+        ArgumentCaptor<Iterable<QuestionError>> errors = ArgumentCaptor.forClass(Iterable.class);
+        verify(questionErrorRepository).saveAll(errors.capture());
+        List<QuestionError> copiedErrors = new ArrayList<>();
+        errors.getValue().forEach(copiedErrors::add);
+        assertEquals(1, copiedErrors.size());
+        assertSame(copiedQuestions.getFirst(), copiedErrors.getFirst().getQuestion());
+        assertEquals("Missing response", copiedErrors.getFirst().getDescription());
+        assertEquals(3, copiedErrors.getFirst().getRowNumber());
+        assertEquals(ControllerSettings.ERROR_STATUS_OPEN, copiedErrors.getFirst().getStatus());
+    }
+
+    @Test
+    void copyParsed_parseEditedMeanwhile_returnsNull() {
+        QuestionBankAuthor parsed = new QuestionBankAuthor();
+        parsed.setId(7L);
+        when(questionBankAuthorRepository.findById(7L)).thenReturn(Optional.of(parsed));
+
+        assertNull(service.copyParsed(7L, new QuestionBank(), new Author(), "Dan Ene_tema.xlsx"));
+        verify(questionBankAuthorRepository, never()).save(any());
+    }
+
+    @Test
+    void copyParsed_parsedByOlderParser_returnsNull() {
+        QuestionBankAuthor parsed = new QuestionBankAuthor();
+        parsed.setId(7L);
+        parsed.setContentHash(HASH);
+        parsed.setParserVersion(WorkbookReuseService.PARSER_VERSION - 1);
+        when(questionBankAuthorRepository.findById(7L)).thenReturn(Optional.of(parsed));
+
+        assertNull(service.copyParsed(7L, new QuestionBank(), new Author(), "Dan Ene_tema.xlsx"));
+        verify(questionBankAuthorRepository, never()).save(any());
+    }
+
+    private static Question question(Long id, String title) {
+        Question question = new Question();
+        question.setId(id);
+        question.setTitle(title);
+        question.setText(title + " text");
+        return question;
+    }
+}
@@ -0,0 +1,129 @@
+package com.unitbv.myquiz.app.testutil;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.unitbv.myquiz.app.services.OllamaService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Ollama {@code /api/embeddings} endpoint. Texts registered with {@link #embed(String, float[])}
+ * get that vector, any other text a pseudo-random one derived from its hash; the prompt {@link #FAILING_PROMPT}
+ * answers with an error. The stub counts the requests and the most it served at once.
+ */
+public final class OllamaEmbeddingStub implements AutoCloseable {
+    public static final String FAILING_PROMPT = "ollama fails on this prompt";
+    public static final int DIMENSIONS = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, float[]> vectors = new HashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final HttpServer server;
+
+    public OllamaEmbeddingStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/embeddings", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns {@code vector} for {@code prompt}.
+     */
+    public OllamaEmbeddingStub embed(String prompt, float[] vector) {
+        synchronized (vectors) {
+            vectors.put(prompt, vector);
+        }
+        return this;
+    }
+
+    /**
+     * Vector along {@code axis} tilted by {@code drift} towards {@code driftAxis}; vectors along different axes are
+     * orthogonal.
+     */
+    public static float[] vector(int axis, int driftAxis, float drift) {
+        float[] vector = new float[DIMENSIONS];
+        vector[axis] = 1.0f;
+        vector[driftAxis] += drift;
+        return vector;
+    }
+
+    /**
+     * An {@link OllamaService} sending its requests to this stub.
+     */
+    public OllamaService ollamaService(String model) {
+        OllamaService ollamaService = new OllamaService();
+        ReflectionTestUtils.setField(ollamaService, "ollamaApiUrl", "http://localhost:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(ollamaService, "embeddingModel", model);
+        ReflectionTestUtils.setField(ollamaService, "timeoutSeconds", 10);
+        return ollamaService;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String prompt = objectMapper.readTree(exchange.getRequestBody()).path("prompt").asText();
+            Thread.sleep(20);
+            if (FAILING_PROMPT.equals(prompt)) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("embedding", vectorOf(prompt)));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private float[] vectorOf(String prompt) {
+        synchronized (vectors) {
+            float[] vector = vectors.get(prompt);
+            if (vector != null) {
+                return vector;
+            }
+        }
+        Random random = new Random(prompt.getBytes(StandardCharsets.UTF_8).length * 31L + prompt.hashCode());
+        float[] vector = new float[DIMENSIONS];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,36 @@
+package com.unitbv.myquiz.app.testutil;
+
+import com.unitbv.myquiz.api.types.QuestionType;
+import com.unitbv.myquiz.app.entities.Question;
+
+/**
+ * Unsaved questions for tests of the duplicate candidate indexes and similarity strategies, which wrap them with
+ * {@code CorpusQuestion.of}. True/false questions are answered {@code TRUE}.
+ */
+public final class TestQuestions {
+
+    private TestQuestions() {
+    }
+
+    public static Question multichoice(Long id, String title, String r1, String r2, String r3, String r4) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType(QuestionType.MULTICHOICE);
+        question.setTitle(title);
+        question.setResponse1(r1);
+        question.setResponse2(r2);
+        question.setResponse3(r3);
+        question.setResponse4(r4);
+        return question;
+    }
+
+    public static Question trueFalse(Long id, String title, String text) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType(QuestionType.TRUEFALSE);
+        question.setTitle(title);
+        question.setText(text);
+        question.setResponse1("TRUE");
+        return question;
+    }
+}
@@ -0,0 +1,66 @@
+package com.unitbv.myquiz.app.upload.domain.policy;
+
+import com.unitbv.myquiz.app.entities.Question;
+import com.unitbv.myquiz.app.repositories.QuestionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionDeduplicationPolicyTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private QuestionDeduplicationPolicy questionDeduplicationPolicy;
+
+    @BeforeEach
+    void setUp() {
+        questionDeduplicationPolicy = new QuestionDeduplicationPolicy(questionRepository);
+    }
+
+    @Test
+    void buildQuestionKey_spacingAndCedillaVariants_giveEqualKeys() {
+        QuestionDeduplicationPolicy.QuestionKey commaBelow = questionDeduplicationPolicy.buildQuestionKey("Funcții", "Ce este o funcție?");
+        QuestionDeduplicationPolicy.QuestionKey cedilla = questionDeduplicationPolicy.buildQuestionKey(" funcţii ", "Ce  este o funcţie?");
+
+        assertEquals(commaBelow, cedilla);
+        assertNull(questionDeduplicationPolicy.buildQuestionKey("Title", " "));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void existsInCourse_sameNormalizedTitleAndText_returnsTrue() {
+        when(questionRepository.findAll(any(Specification.class))).thenReturn(List.of(question("Funcţii", "Ce este o funcţie?")));
+
+        assertTrue(questionDeduplicationPolicy.existsInCourse("Course", questionDeduplicationPolicy.buildQuestionKey("Funcții", "Ce este o funcție?")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void existsInCourse_fingerprintMatchWithOtherText_returnsFalse() {
+        // Stands in for a fingerprint collision: the repository answers for the fingerprint, the text differs.
+        when(questionRepository.findAll(any(Specification.class))).thenReturn(List.of(question("Funcții", "Ce este o fată?")));
+
+        assertFalse(questionDeduplicationPolicy.existsInCourse("Course", questionDeduplicationPolicy.buildQuestionKey("Funcții", "Ce este o fata?")));
+    }
+
+    private static Question question(String title, String text) {
+        Question question = new Question();
+        question.setTitle(title);
+        question.setText(text);
+        return question;
+    }
+}
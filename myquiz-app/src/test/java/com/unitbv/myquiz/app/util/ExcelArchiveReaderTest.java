@@ -0,0 +1,101 @@
+package com.unitbv.myquiz.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExcelArchiveReaderTest {
+
+    @Test
+    void readExcelEntries_nestedAndRootEntries_namedLikeExtractedFiles() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("Ana Pop_1234/", null);
+        entries.put("Ana Pop_1234/tema.xlsx", bytes("first"));
+        entries.put("root.XLSX", bytes("root"));
+        entries.put("Ana Pop_5678/tema.xlsx", bytes("second"));
+        entries.put("Ion Ionescu_1/notes.txt", bytes("skipped"));
+        entries.put("Ion Ionescu_1\\quiz.xlsx", bytes("backslash"));
+
+        Map<String, String> read = new LinkedHashMap<>();
+        int count = ExcelArchiveReader.readExcelEntries(new ByteArrayInputStream(zip(entries)),
+                (name, content) -> read.put(name, new String(content.readAllBytes(), StandardCharsets.UTF_8)));
+
+        assertEquals(4, count);
+        assertEquals(List.of("Ana Pop_tema.xlsx", "inpArchive_root.XLSX", "Ana Pop_tema_1.xlsx", "Ion Ionescu_quiz.xlsx"), new ArrayList<>(read.keySet()));
+        assertEquals(List.of("first", "root", "second", "backslash"), new ArrayList<>(read.values()));
+    }
+
+    @Test
+    void readExcelEntries_entryOnlyPartlyRead_nextEntryStillRead() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("A_1/a.xlsx", bytes("abcdef"));
+        entries.put("B_1/b.xlsx", bytes("ghijkl"));
+
+        List<Integer> firstBytes = new ArrayList<>();
+        int count = ExcelArchiveReader.readExcelEntries(new ByteArrayInputStream(zip(entries)), (name, content) -> firstBytes.add(content.read()));
+
+        assertEquals(2, count);
+        assertEquals(List.of((int) 'a', (int) 'g'), firstBytes);
+    }
+
+    @Test
+    void readExcelEntries_entryLeavingArchiveRoot_rejected() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("../evil.xlsx", bytes("evil"));
+
+        ZipException e = assertThrows(ZipException.class,
+                () -> ExcelArchiveReader.readExcelEntries(new ByteArrayInputStream(zip(entries)), (name, content) -> {
+                }));
+        assertTrue(e.getMessage().contains("Invalid ZIP entry path"));
+    }
+
+    @Test
+    void readExcelEntries_highlyCompressedEntry_rejectedAsZipBomb() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("notes.txt", new byte[8 * 1024 * 1024]);
+
+        ZipException e = assertThrows(ZipException.class,
+                () -> ExcelArchiveReader.readExcelEntries(new ByteArrayInputStream(zip(entries)), (name, content) -> {
+                }));
+        assertTrue(e.getMessage().startsWith("Zip bomb detected"));
+    }
+
+    @Test
+    void readExcelEntries_notAZipArchive_rejected() {
+        assertThrows(ZipException.class,
+                () -> ExcelArchiveReader.readExcelEntries(new ByteArrayInputStream(bytes("not a zip archive")), (name, content) -> {
+                }));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                if (entry.getValue() != null) {
+                    zip.write(entry.getValue());
+                }
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
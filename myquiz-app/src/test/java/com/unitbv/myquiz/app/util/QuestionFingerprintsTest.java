@@ -0,0 +1,51 @@
+package com.unitbv.myquiz.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QuestionFingerprintsTest {
+
+    @Test
+    void normalize_romanianCommaAndCedillaVariants_foldToSameForm() {
+        String commaBelow = QuestionFingerprints.normalize("Ce este o funcție în Științe?");
+        String cedilla = QuestionFingerprints.normalize("Ce este o funcţie în Ştiinţe?");
+
+        assertEquals("ce este o funcție în științe?", commaBelow);
+        assertEquals(commaBelow, cedilla);
+        assertEquals(QuestionFingerprints.fingerprint(commaBelow), QuestionFingerprints.fingerprint(cedilla));
+    }
+
+    @Test
+    void normalize_otherRomanianDiacritics_areKept() {
+        assertEquals("fată", QuestionFingerprints.normalize("Fată"));
+        assertNotEquals(QuestionFingerprints.normalize("fata"), QuestionFingerprints.normalize("fată"));
+        assertNotEquals(QuestionFingerprints.normalize("pâine"), QuestionFingerprints.normalize("paine"));
+        assertNotEquals(QuestionFingerprints.normalize("pește"), QuestionFingerprints.normalize("peste"));
+    }
+
+    @Test
+    void normalize_decomposedLetters_matchComposedForms() {
+        assertEquals(QuestionFingerprints.normalize("științe"), QuestionFingerprints.normalize("s\u0326tiint\u0327e"));
+        assertEquals(QuestionFingerprints.normalize("fată"), QuestionFingerprints.normalize("fata\u0306"));
+    }
+
+    @Test
+    void normalize_whitespaceCaseAndCompatibilityForms_collapse() {
+        assertEquals("select * from tabel", QuestionFingerprints.normalize("  SELECT\t*  FROM\n tabel "));
+        assertEquals("fisier", QuestionFingerprints.normalize("ﬁsier"));
+        assertNull(QuestionFingerprints.normalize(" \t "));
+        assertNull(QuestionFingerprints.fingerprint(null));
+    }
+
+    @Test
+    void titleTextFingerprint_keepsFieldBoundary() {
+        assertNotEquals(
+                QuestionFingerprints.titleTextFingerprint("ab", "c"),
+                QuestionFingerprints.titleTextFingerprint("a", "bc")
+        );
+        assertNull(QuestionFingerprints.titleTextFingerprint("title", null));
+    }
+}
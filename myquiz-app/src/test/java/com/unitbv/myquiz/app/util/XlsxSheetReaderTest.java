@@ -0,0 +1,136 @@
+package com.unitbv.myquiz.app.util;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XlsxSheetReaderTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void readSheets_sharedStrings_matchXssfWorkbookCells() throws IOException {
+        Path file = folder.resolve("shared.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            fillSheets(workbook);
+            write(workbook, file);
+        }
+
+        List<XlsxSheet> sheets = XlsxSheetReader.readSheets(file, 2);
+
+        try (InputStream in = Files.newInputStream(file); XSSFWorkbook expected = new XSSFWorkbook(in)) {
+            assertEquals(2, sheets.size());
+            assertSameCells(expected.getSheetAt(0), sheets.get(0));
+            assertSameCells(expected.getSheetAt(1), sheets.get(1));
+        }
+    }
+
+    @Test
+    void readSheets_inlineStrings_readAsStrings() throws IOException {
+        Path file = folder.resolve("inline.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+            fillSheets(workbook);
+            write(workbook, file);
+            workbook.dispose();
+        }
+
+        XlsxSheet sheet = XlsxSheetReader.readSheets(file, 1).getFirst();
+
+        SheetRow header = sheet.iterator().next();
+        assertEquals(CellType.STRING, header.getCell(0).getCellType());
+        assertEquals("Nr. crt", header.getCell(0).getStringCellValue());
+        assertEquals("Ce este o funcție?", header.getCell(2).getStringCellValue());
+    }
+
+    @Test
+    void readSheets_missingCellsAndRows_likePoi() throws IOException {
+        Path file = folder.resolve("sparse.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            fillSheets(workbook);
+            write(workbook, file);
+        }
+
+        List<XlsxSheet> sheets = XlsxSheetReader.readSheets(file, 1);
+
+        assertEquals(1, sheets.size());
+        XlsxSheet sheet = sheets.getFirst();
+        assertEquals("Multichoice", sheet.getName());
+        assertEquals(5, sheet.getLastRowNum());
+        SheetRow header = sheet.iterator().next();
+        assertNull(header.getCell(7));
+        assertEquals(CellType.BLANK, header.getCell(6).getCellType());
+    }
+
+    @Test
+    void readSheets_notAWorkbook_throwsIOException() throws IOException {
+        Path file = Files.writeString(folder.resolve("notes.xlsx"), "not a workbook");
+
+        assertThrows(IOException.class, () -> XlsxSheetReader.readSheets(file, 2));
+    }
+
+    private static void fillSheets(Workbook workbook) {
+        Sheet multichoice = workbook.createSheet("Multichoice");
+        Row header = multichoice.createRow(0);
+        header.createCell(0).setCellValue("Nr. crt");
+        header.createCell(1).setCellValue(2.5d);
+        header.createCell(2).setCellValue("Ce este o funcție?");
+        header.createCell(3).setCellFormula("10*3");
+        header.createCell(4).setCellValue(true);
+        header.createCell(5).setCellValue("");
+        header.createCell(6);
+        Row last = multichoice.createRow(5);
+        last.createCell(3).setCellValue(-25d);
+        Sheet trueFalse = workbook.createSheet("TrueFalse");
+        trueFalse.createRow(1).createCell(1).setCellValue("Adevărat");
+        workbook.createSheet("Notes").createRow(0).createCell(0).setCellValue("not read");
+    }
+
+    private static void write(Workbook workbook, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+
+    private static void assertSameCells(Sheet expected, XlsxSheet actual) {
+        assertEquals(expected.getLastRowNum(), actual.getLastRowNum());
+        Iterator<SheetRow> actualRows = actual.iterator();
+        for (Row expectedRow : expected) {
+            SheetRow actualRow = actualRows.next();
+            assertEquals(expectedRow.getRowNum(), actualRow.getRowNum());
+            Iterator<SheetCell> actualCells = actualRow.iterator();
+            for (Cell expectedCell : expectedRow) {
+                SheetCell actualCell = actualCells.next();
+                assertEquals(expectedCell.getColumnIndex(), actualCell.getColumnIndex());
+                assertEquals(expectedCell.getRowIndex(), actualCell.getRowIndex());
+                assertEquals(expectedCell.getCellType(), actualCell.getCellType());
+                if (expectedCell.getCellType() == CellType.STRING) {
+                    assertEquals(expectedCell.getStringCellValue(), actualCell.getStringCellValue());
+                } else if (expectedCell.getCellType() == CellType.NUMERIC) {
+                    assertEquals(expectedCell.getNumericCellValue(), actualCell.getNumericCellValue());
+                }
+            }
+            assertFalse(actualCells.hasNext());
+        }
+        assertFalse(actualRows.hasNext());
+    }
+}
@@ -1,7 +1,7 @@
 package com.unitbv.myquiz.thy.controller;
 
 import com.unitbv.myquiz.api.dto.CourseDto;
-import com.unitbv.myquiz.api.dto.CourseDuplicateRecomputeResultDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.api.util.PaginationParams;
 import com.unitbv.myquiz.api.util.PaginationSupport;
@@ -313,15 +313,17 @@ public class ThyCourseController {
                 .path(ControllerSettings.API_COURSES_RECOMPUTE_DUPLICATES_SUFFIX)
                 .toUriString();
         try {
-            ResponseEntity<CourseDuplicateRecomputeResultDto> response = restTemplate.exchange(endpoint, HttpMethod.POST, entity, CourseDuplicateRecomputeResultDto.class);
-            CourseDuplicateRecomputeResultDto result = response.getBody();
-            if (result != null) {
-                redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_MESSAGE, formatRecomputeResultMessage(result));
+            ResponseEntity<DuplicateRecomputeJobDto> response = restTemplate.exchange(endpoint, HttpMethod.POST, entity, DuplicateRecomputeJobDto.class);
+            DuplicateRecomputeJobDto job = response.getBody();
+            if (job != null) {
+                redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_MESSAGE, formatRecomputeJobMessage(job));
             } else {
-                redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_COMPLETED);
+                redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MSG, ControllerSettings.MSG_COULD_NOT_RECOMPUTE_DUPLICATES);
             }
         } catch (HttpClientErrorException.NotFound e) {
             redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MSG, ControllerSettings.MSG_COURSE_NOT_FOUND_RECOMPUTE);
+        } catch (HttpClientErrorException.Conflict e) {
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MSG, ControllerSettings.MSG_RECOMPUTE_JOB_ALREADY_RUNNING);
         } catch (HttpClientErrorException.Forbidden | HttpClientErrorException.Unauthorized e) {
             sessionService.invalidateCurrentSession();
             redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MSG, ControllerSettings.MSG_SESSION_EXPIRED_LOGIN_AGAIN);
@@ -335,26 +337,17 @@ public class ThyCourseController {
     }
 
     /**
-     * Formats recompute duplicates result into a readable flash message.
+     * Formats a submitted recompute job into a flash message; progress is followed on the duplicate management page.
      */
-    private String formatRecomputeResultMessage(CourseDuplicateRecomputeResultDto result) {
-        return ControllerSettings.MSG_RECOMPUTE_STARTED_PREFIX
-                + result.getStartedAt()
-                + " | finished: "
-                + result.getEndedAt()
-                + " | duration: "
-                + result.getDurationMs()
-                + " ms"
-                + " | MC: "
-                + result.getMultichoiceQuestions()
-                + " | TF: "
-                + result.getTruefalseQuestions()
-                + " | links removed: "
-                + result.getDuplicateLinksRemoved()
-                + " | duplicate errors removed: "
-                + result.getDuplicateErrorsRemoved()
-                + " | duplicate errors created: "
-                + result.getDuplicateErrorsCreated();
+    private String formatRecomputeJobMessage(DuplicateRecomputeJobDto job) {
+        return ControllerSettings.MSG_RECOMPUTE_JOB_SUBMITTED_PREFIX
+                + job.getJobId()
+                + " | course: "
+                + job.getCourseName()
+                + " | strategy: "
+                + job.getStrategy()
+                + " | status: "
+                + job.getStatus();
     }
 
     /**
@@ -5,13 +5,16 @@ import com.unitbv.myquiz.api.dto.AuthorFilterRequestDto;
 import com.unitbv.myquiz.api.dto.AuthorFilterResponseDto;
 import com.unitbv.myquiz.api.dto.CourseDto;
 import com.unitbv.myquiz.api.dto.CourseDuplicateRecomputeResultDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeBatchDto;
 import com.unitbv.myquiz.api.dto.DuplicateRecomputeHistoryDto;
+import com.unitbv.myquiz.api.dto.DuplicateRecomputeJobDto;
 import com.unitbv.myquiz.api.dto.DuplicateStatisticsDto;
 import com.unitbv.myquiz.api.dto.QuestionBankFilterRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionBankFilterResponseDto;
 import com.unitbv.myquiz.api.dto.QuestionBankInfo;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
 import com.unitbv.myquiz.api.types.DuplicateComparisonStrategy;
+import com.unitbv.myquiz.api.types.DuplicateRecomputeJobStatus;
 import com.unitbv.myquiz.thy.service.SessionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,6 +102,8 @@ public class ThyDuplicateManagementController {
                 // Just reload page with cascading filter data – already done by populateFilterModel
             } else if ("recompute".equals(action)) {
                 handleRecomputeAction(courseId, strategy, questionBankId, authorId, model);
+            } else if ("recomputeAll".equals(action)) {
+                handleRecomputeAllAction(strategy, model);
             } else if ("statistics".equals(action)) {
                 handleStatisticsAction(courseId, questionBankId, authorId, model);
             } else if ("clear".equals(action)) {
@@ -119,6 +124,131 @@ public class ThyDuplicateManagementController {
         }
     }
 
+    /**
+     * Shows the state of a recompute job; once the job is completed its result is displayed like a finished recompute.
+     */
+    @GetMapping("/recompute-jobs/{jobId}")
+    public String showRecomputeJob(@PathVariable String jobId, Model model) {
+        String redirect = sessionService.validateSessionOrRedirect();
+        if (redirect != null) return redirect;
+
+        try {
+            HttpEntity<Void> entity = sessionService.getAuthorizationHeader();
+            String endpoint = getCoursesApiBaseUrl() + ControllerSettings.API_COURSES_RECOMPUTE_JOBS_SUFFIX + "/" + jobId;
+            DuplicateRecomputeJobDto job = restTemplate.exchange(endpoint, HttpMethod.GET, entity, DuplicateRecomputeJobDto.class).getBody();
+            if (job == null) {
+                model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_NOT_FOUND);
+                populateFilterModel(model, null, null, null);
+            } else {
+                populateFilterModel(model, job.getCourseId(), job.getQuestionBankId(), job.getAuthorId());
+                addRecomputeJob(model, job);
+            }
+            loadHistory(model);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessionService.invalidateCurrentSession();
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_SESSION_EXPIRED_LOGIN_AGAIN);
+            return ControllerSettings.VIEW_REDIRECT_AUTH_LOGIN;
+        } catch (HttpClientErrorException.NotFound e) {
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_NOT_FOUND);
+            populateFilterModelDefaults(model, null, null, null);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        } catch (Exception e) {
+            log.atError().setCause(e).addArgument(jobId).log("Error loading recompute job '{}'");
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_LOADING_PAGE_RETRY);
+            populateFilterModelDefaults(model, null, null, null);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        }
+    }
+
+    /**
+     * Requests cancellation of a recompute job; the job stops before its next batch.
+     */
+    @PostMapping("/recompute-jobs/{jobId}/cancel")
+    public String cancelRecomputeJob(@PathVariable String jobId, RedirectAttributes redirectAttributes) {
+        String redirect = sessionService.validateSessionOrRedirect();
+        if (redirect != null) return redirect;
+
+        try {
+            HttpEntity<Void> entity = sessionService.getAuthorizationHeader();
+            String endpoint = getCoursesApiBaseUrl() + ControllerSettings.API_COURSES_RECOMPUTE_JOBS_SUFFIX + "/" + jobId
+                    + ControllerSettings.API_COURSES_RECOMPUTE_JOB_CANCEL_SUFFIX;
+            restTemplate.exchange(endpoint, HttpMethod.POST, entity, DuplicateRecomputeJobDto.class);
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_CANCEL_REQUESTED);
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessionService.invalidateCurrentSession();
+            return ControllerSettings.VIEW_REDIRECT_AUTH_LOGIN;
+        } catch (HttpClientErrorException.NotFound e) {
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_NOT_FOUND);
+        } catch (Exception e) {
+            log.atError().setCause(e).addArgument(jobId).log("Error cancelling recompute job '{}'");
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_PROCESSING_ACTION_RETRY);
+        }
+        return "redirect:" + ControllerSettings.PATH_DUPLICATE_MANAGEMENT + ControllerSettings.API_COURSES_RECOMPUTE_JOBS_SUFFIX + "/" + jobId;
+    }
+
+    /**
+     * Shows the aggregated progress of a recompute of all courses and the job of each course.
+     */
+    @GetMapping("/recompute-batches/{batchId}")
+    public String showRecomputeBatch(@PathVariable String batchId, Model model) {
+        String redirect = sessionService.validateSessionOrRedirect();
+        if (redirect != null) return redirect;
+
+        try {
+            HttpEntity<Void> entity = sessionService.getAuthorizationHeader();
+            String endpoint = getCoursesApiBaseUrl() + ControllerSettings.API_COURSES_RECOMPUTE_BATCHES_SUFFIX + "/" + batchId;
+            DuplicateRecomputeBatchDto batch = restTemplate.exchange(endpoint, HttpMethod.GET, entity, DuplicateRecomputeBatchDto.class).getBody();
+            populateFilterModel(model, null, null, null);
+            if (batch == null) {
+                model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_NOT_FOUND);
+            } else {
+                model.addAttribute(ControllerSettings.ATTR_RECOMPUTE_BATCH, batch);
+            }
+            loadHistory(model);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessionService.invalidateCurrentSession();
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_SESSION_EXPIRED_LOGIN_AGAIN);
+            return ControllerSettings.VIEW_REDIRECT_AUTH_LOGIN;
+        } catch (HttpClientErrorException.NotFound e) {
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_NOT_FOUND);
+            populateFilterModelDefaults(model, null, null, null);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        } catch (Exception e) {
+            log.atError().setCause(e).addArgument(batchId).log("Error loading recompute batch '{}'");
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_LOADING_PAGE_RETRY);
+            populateFilterModelDefaults(model, null, null, null);
+            return ControllerSettings.VIEW_DUPLICATE_RECOMPUTE;
+        }
+    }
+
+    /**
+     * Requests cancellation of every unfinished course of a recompute of all courses.
+     */
+    @PostMapping("/recompute-batches/{batchId}/cancel")
+    public String cancelRecomputeBatch(@PathVariable String batchId, RedirectAttributes redirectAttributes) {
+        String redirect = sessionService.validateSessionOrRedirect();
+        if (redirect != null) return redirect;
+
+        try {
+            HttpEntity<Void> entity = sessionService.getAuthorizationHeader();
+            String endpoint = getCoursesApiBaseUrl() + ControllerSettings.API_COURSES_RECOMPUTE_BATCHES_SUFFIX + "/" + batchId
+                    + ControllerSettings.API_COURSES_RECOMPUTE_JOB_CANCEL_SUFFIX;
+            restTemplate.exchange(endpoint, HttpMethod.POST, entity, DuplicateRecomputeBatchDto.class);
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_CANCEL_REQUESTED);
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessionService.invalidateCurrentSession();
+            return ControllerSettings.VIEW_REDIRECT_AUTH_LOGIN;
+        } catch (HttpClientErrorException.NotFound e) {
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_NOT_FOUND);
+        } catch (Exception e) {
+            log.atError().setCause(e).addArgument(batchId).log("Error cancelling recompute batch '{}'");
+            redirectAttributes.addFlashAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_PROCESSING_ACTION_RETRY);
+        }
+        return "redirect:" + ControllerSettings.PATH_DUPLICATE_MANAGEMENT + ControllerSettings.API_COURSES_RECOMPUTE_BATCHES_SUFFIX + "/" + batchId;
+    }
+
     /**
      * Saves the current recompute result to history.
      * The result fields are passed as hidden form fields from the results panel.
@@ -277,28 +407,54 @@ public class ThyDuplicateManagementController {
             appendScopeParams(builder, courseId, questionBankId, authorId);
             String endpoint = builder.toUriString();
 
-            ResponseEntity<CourseDuplicateRecomputeResultDto> response = restTemplate.exchange(endpoint, HttpMethod.POST, entity, CourseDuplicateRecomputeResultDto.class);
-            CourseDuplicateRecomputeResultDto result = response.getBody();
+            ResponseEntity<DuplicateRecomputeJobDto> response = restTemplate.exchange(endpoint, HttpMethod.POST, entity, DuplicateRecomputeJobDto.class);
+            DuplicateRecomputeJobDto job = response.getBody();
 
-            if (result != null) {
-                model.addAttribute(ControllerSettings.ATTR_RECOMPUTE_RESULT, result);
-                model.addAttribute(ControllerSettings.ATTR_PENDING_STRATEGY, strategy);
-                model.addAttribute(ControllerSettings.ATTR_PENDING_COURSE_ID, courseId);
-                model.addAttribute(ControllerSettings.ATTR_PENDING_QUESTION_BANK_ID, questionBankId);
-                model.addAttribute(ControllerSettings.ATTR_PENDING_AUTHOR_ID, authorId);
-                model.addAttribute(ControllerSettings.ATTR_MESSAGE, buildRecomputeMessage(result));
+            if (job != null) {
+                addRecomputeJob(model, job);
+                model.addAttribute(ControllerSettings.ATTR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_SUBMITTED_PREFIX + job.getJobId());
             } else {
                 model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_FAILED_RECOMPUTE_DUPLICATES);
             }
         } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
             sessionService.invalidateCurrentSession();
             model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_SESSION_EXPIRED_LOGIN_AGAIN);
+        } catch (HttpClientErrorException.Conflict e) {
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_JOB_ALREADY_RUNNING);
         } catch (Exception e) {
             log.atError().setCause(e).addArgument(courseId).log("Error recomputing duplicates for courseId '{}'");
             model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_PROCESSING_ACTION_RETRY);
         }
     }
 
+    private void handleRecomputeAllAction(String strategy, Model model) {
+        log.atInfo().addArgument(strategy).log("Starting duplicate recompute of all courses with strategy '{}'");
+        try {
+            HttpEntity<Void> entity = sessionService.getAuthorizationHeader();
+            String endpoint = UriComponentsBuilder.fromUriString(getCoursesApiBaseUrl())
+                    .path(ControllerSettings.API_COURSES_RECOMPUTE_ALL_SUFFIX)
+                    .queryParam("strategy", strategy)
+                    .toUriString();
+
+            DuplicateRecomputeBatchDto batch = restTemplate.exchange(endpoint, HttpMethod.POST, entity, DuplicateRecomputeBatchDto.class).getBody();
+
+            if (batch != null) {
+                model.addAttribute(ControllerSettings.ATTR_RECOMPUTE_BATCH, batch);
+                model.addAttribute(ControllerSettings.ATTR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_SUBMITTED_PREFIX + batch.getBatchId());
+            } else {
+                model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_FAILED_RECOMPUTE_DUPLICATES);
+            }
+        } catch (HttpClientErrorException.Unauthorized | HttpClientErrorException.Forbidden e) {
+            sessionService.invalidateCurrentSession();
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_SESSION_EXPIRED_LOGIN_AGAIN);
+        } catch (HttpClientErrorException.Conflict e) {
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_RECOMPUTE_BATCH_ALREADY_RUNNING);
+        } catch (Exception e) {
+            log.atError().setCause(e).log("Error recomputing duplicates for all courses");
+            model.addAttribute(ControllerSettings.ATTR_ERROR_MESSAGE, ControllerSettings.MSG_ERROR_PROCESSING_ACTION_RETRY);
+        }
+    }
+
     private void handleStatisticsAction(Long courseId, Long questionBankId, Long authorId, Model model) {
         log.atInfo().addArgument(courseId).addArgument(questionBankId).addArgument(authorId)
                 .log("Fetching duplicate statistics for courseId='{}', qbId={}, authorId={}");
@@ -379,6 +535,17 @@ public class ThyDuplicateManagementController {
         }
     }
 
+    /**
+     * Adds the job to the model; a completed job also exposes its result, which is already recorded in the history.
+     */
+    private void addRecomputeJob(Model model, DuplicateRecomputeJobDto job) {
+        model.addAttribute(ControllerSettings.ATTR_RECOMPUTE_JOB, job);
+        if (job.getStatus() == DuplicateRecomputeJobStatus.COMPLETED && job.getResult() != null) {
+            model.addAttribute(ControllerSettings.ATTR_RECOMPUTE_RESULT, job.getResult());
+            model.addAttribute(ControllerSettings.ATTR_MESSAGE, buildRecomputeMessage(job.getResult()));
+        }
+    }
+
     private String buildRecomputeMessage(CourseDuplicateRecomputeResultDto result) {
         return "Recompute started: " + result.getStartedAt() + " | finished: " + result.getEndedAt() +
                 " | duration: " + result.getDurationMs() + " ms | MC: " + result.getMultichoiceQuestions() +
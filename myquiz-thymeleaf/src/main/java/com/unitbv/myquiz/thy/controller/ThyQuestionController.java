@@ -6,6 +6,7 @@ import com.unitbv.myquiz.api.dto.DuplicateUnlinkRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionBankDto;
 import com.unitbv.myquiz.api.dto.QuestionCorrectionDto;
 import com.unitbv.myquiz.api.dto.QuestionDto;
+import com.unitbv.myquiz.api.dto.QuestionDuplicateDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterRequestDto;
 import com.unitbv.myquiz.api.dto.QuestionFilterResponseDto;
 import com.unitbv.myquiz.api.settings.ControllerSettings;
@@ -466,6 +467,38 @@ public class ThyQuestionController {
         }
     }
 
+    /**
+     * Looks up the existing questions most similar to the draft in the editor, so likely duplicates show up before
+     * the question is saved.
+     */
+    @PostMapping(ControllerSettings.API_QUESTION_SIMILAR)
+    @ResponseBody
+    public ResponseEntity<List<QuestionDuplicateDto>> findSimilarQuestions(@RequestBody QuestionDto draft,
+                                                                           @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        String redirect = sessionService.validateSessionOrRedirect();
+        if (redirect != null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            HttpEntity<QuestionDto> entity = sessionService.createAuthorizedRequest(draft);
+            String similarUrl = UriComponentsBuilder
+                    .fromUriString(apiBaseUrl + ControllerSettings.API_QUESTIONS + ControllerSettings.API_QUESTION_SIMILAR)
+                    .queryParam("limit", limit)
+                    .toUriString();
+
+            ResponseEntity<QuestionDuplicateDto[]> response = restTemplate.exchange(similarUrl, HttpMethod.POST, entity, QuestionDuplicateDto[].class);
+            QuestionDuplicateDto[] similar = response.getBody();
+            return ResponseEntity.status(response.getStatusCode()).body(similar == null ? List.of() : List.of(similar));
+        } catch (HttpClientErrorException ex) {
+            log.warn("Failed to look up similar questions: {}", ex.getStatusCode());
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        } catch (Exception ex) {
+            log.error("Unexpected error while looking up similar questions", ex);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/{id}/edit")
     public String editQuestion(@PathVariable Long id, @RequestParam(value = ControllerSettings.ATTR_PAGE_NUMBER, required = false) Integer page,
                                @RequestParam(value = ControllerSettings.ATTR_PAGE_SIZE, required = false) Integer pageSize,
@@ -0,0 +1,101 @@
+var SIMILAR_QUESTIONS_LIMIT = 5;
+var SIMILAR_QUESTIONS_DELAY_MS = 400;
+
+/**
+ * Looks up the saved questions most similar to the draft while it is typed and lists them in the panel.
+ * fieldIds maps the draft properties (title, text, course, response1..response4) to the ids of their inputs.
+ */
+function initSimilarQuestions(panelId, questionType, fieldIds) {
+    var panel = document.getElementById(panelId);
+    if (!panel) {
+        return;
+    }
+    var timer = null;
+    var sequence = 0;
+
+    function value(property) {
+        var field = fieldIds[property] ? document.getElementById(fieldIds[property]) : null;
+        return field ? field.value : null;
+    }
+
+    function draft() {
+        var idField = document.querySelector('input[name="id"]');
+        return {
+            id: idField && idField.value ? Number(idField.value) : null,
+            type: questionType,
+            title: value('title'),
+            text: value('text'),
+            course: value('course'),
+            response1: value('response1'),
+            response2: value('response2'),
+            response3: value('response3'),
+            response4: value('response4')
+        };
+    }
+
+    async function lookUp() {
+        var question = draft();
+        if (!question.course || (!question.title && !question.text)) {
+            renderSimilarQuestions(panel, []);
+            return;
+        }
+        var current = ++sequence;
+        try {
+            var response = await fetch('/questions/similar?limit=' + SIMILAR_QUESTIONS_LIMIT, {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                    'Accept': 'application/json'
+                },
+                body: JSON.stringify(question)
+            });
+            if (!response.ok) {
+                throw new Error('HTTP ' + response.status);
+            }
+            var similar = await response.json();
+            if (current === sequence) {
+                renderSimilarQuestions(panel, similar);
+            }
+        } catch (e) {
+            console.error('Failed to look up similar questions', e);
+        }
+    }
+
+    Object.keys(fieldIds).forEach(function (property) {
+        var field = document.getElementById(fieldIds[property]);
+        if (field) {
+            field.addEventListener('input', function () {
+                clearTimeout(timer);
+                timer = setTimeout(lookUp, SIMILAR_QUESTIONS_DELAY_MS);
+            });
+        }
+    });
+}
+
+function renderSimilarQuestions(panel, similar) {
+    var body = panel.querySelector('tbody');
+    body.innerHTML = '';
+    (similar || []).forEach(function (dup) {
+        var row = document.createElement('tr');
+        row.className = 'data-row';
+        [dup.similarity, dup.title, dup.text, dup.cause].forEach(function (text, index) {
+            var cell = document.createElement('td');
+            if (index >= 2) {
+                cell.className = 'text-cell';
+            }
+            cell.textContent = text || '';
+            row.appendChild(cell);
+        });
+        var action = document.createElement('td');
+        action.className = 'action-cell';
+        var view = document.createElement('a');
+        view.href = '/questions/' + dup.questionId;
+        view.className = 'btn btn-info btn-small';
+        view.textContent = '👁️ View';
+        action.appendChild(view);
+        row.appendChild(action);
+        body.appendChild(row);
+    });
+    panel.querySelector('.similar-count').textContent = body.children.length;
+    panel.style.display = body.children.length > 0 ? 'block' : 'none';
+}